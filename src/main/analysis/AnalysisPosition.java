@@ -0,0 +1,89 @@
+package analysis;
+
+// Represents one position of a batch analysis: its place in the input, an optional identifier and the position in
+// Forsyth–Edwards Notation (FEN)
+public class AnalysisPosition {
+    private final long number;
+    private final String id;
+    private final String fen;
+
+    public AnalysisPosition(long number, String id, String fen) {
+        this.number = number;
+        this.id = id;
+        this.fen = fen;
+    }
+
+    /**
+     * Parse a line of an Extended Position Description (EPD) file, e.g. the four position fields of a FEN string
+     * followed by semicolon terminated operations such as: bm Nf3; id "position 1";
+     * A full six field FEN string is also accepted.
+     *
+     * @param number position of this line among the positions of the input, starting at 0
+     * @throws IllegalArgumentException if the line does not start with four position fields
+     */
+    public static AnalysisPosition fromEpd(long number, String line) {
+        String[] fields = line.trim().split("\\s+", 5);
+
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("EPD line needs four position fields: " + line);
+        }
+
+        String fen = fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3];
+        String operations = fields.length == 5 ? fields[4] : "";
+        String[] clocks = operations.split("\\s+", 3);
+
+        // a six field FEN string carries the halfmove clock and fullmove number instead of operations
+        if (clocks.length >= 2 && isNumber(clocks[0]) && isNumber(clocks[1])) {
+            fen += " " + clocks[0] + " " + clocks[1];
+            operations = clocks.length == 3 ? clocks[2] : "";
+        } else {
+            fen += " 0 1";
+        }
+
+        return new AnalysisPosition(number, findOperation(operations, "id"), fen);
+    }
+
+    /**
+     * Return the operand of the EPD operation with the given opcode with any quotes removed, or null if there is none
+     */
+    private static String findOperation(String operations, String opcode) {
+        for (String operation: operations.split(";")) {
+            String[] parts = operation.trim().split("\\s+", 2);
+
+            if (parts.length == 2 && parts[0].equals(opcode)) {
+                return parts[1].replace("\"", "").trim();
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isNumber(String s) {
+        if (s.isEmpty()) {
+            return false;
+        }
+
+        for (char c: s.toCharArray()) {
+            if (!Character.isDigit(c)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+}
@@ -0,0 +1,389 @@
+package analysis;
+
+import model.Game;
+import model.Move;
+import model.Zobrist;
+import model.evaluation.Evaluator;
+import model.evaluation.TermEvaluator;
+import model.search.EvaluationParameters;
+import model.search.Search;
+import model.search.SearchInfo;
+import model.search.SearchLimits;
+import model.search.SearchOptions;
+import model.search.TranspositionTable;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Represents a batch analyser that searches every position of a position source on a pool of worker threads and writes
+// one JSON line per position (best move, score, principal variation, nodes and time) in input order. Only a bounded
+// window of positions is in flight at any time, so memory use does not depend on the size of the input, and because
+// results are written in input order an interrupted run can be resumed by skipping the positions already written. With
+// MultiPV above 1, each line also lists the best lines found with their scores
+public class BatchAnalyser {
+    private static final int POSITIONS_IN_FLIGHT_PER_THREAD = 4;
+
+    private final SearchLimits limits;
+    private final SearchOptions options;
+    private final int threads;
+    private final int hashSize;
+    private volatile Evaluator evaluator;
+    private volatile int multiPv;
+
+    // per worker thread search state, reused between positions
+    private final ThreadLocal<TranspositionTable> transpositionTables;
+    private final ThreadLocal<Zobrist> zobristKeys;
+
+    // results that have finished out of order, waiting for earlier positions
+    private final Map<Long, String> finishedLines;
+    private long nextLineToWrite;
+    private IOException writeError;
+
+    /**
+     * Construct a new batch analyser that searches each position under the given limits, on the given number of
+     * worker threads, each with a transposition table of the given number of megabytes
+     */
+    public BatchAnalyser(SearchLimits limits, SearchOptions options, int threads, int hashSize) {
+        this.limits = limits;
+        this.options = options;
+        this.threads = Math.max(1, threads);
+        this.hashSize = Math.max(1, hashSize);
+        this.transpositionTables = ThreadLocal.withInitial(() -> new TranspositionTable(this.hashSize));
+        this.zobristKeys = ThreadLocal.withInitial(Zobrist::new);
+        this.finishedLines = new HashMap<>();
+        this.evaluator = TermEvaluator.getStartupEvaluator();
+        this.multiPv = 1;
+    }
+
+    /**
+     * Evaluate positions with the given evaluator in positions analysed from now on
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Search the given number of best lines in positions analysed from now on
+     *
+     * @throws IllegalArgumentException if the number is not between 1 and Search.MAX_MULTI_PV
+     */
+    public void setMultiPv(int multiPv) {
+        if (multiPv < 1 || multiPv > Search.MAX_MULTI_PV) {
+            throw new IllegalArgumentException("MultiPV must be between 1 and " + Search.MAX_MULTI_PV + ": " + multiPv);
+        }
+
+        this.multiPv = multiPv;
+    }
+
+    /**
+     * Analyse every position of the given source except the first skip positions, writing one JSON line per position
+     * to the given output in input order
+     *
+     * @return the number of positions analysed
+     */
+    public long analyse(PositionSource source, Writer output, long skip) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Semaphore window = new Semaphore(threads * POSITIONS_IN_FLIGHT_PER_THREAD);
+
+        synchronized (finishedLines) {
+            finishedLines.clear();
+            nextLineToWrite = skip;
+            writeError = null;
+        }
+
+        long analysed = 0;
+
+        try {
+            AnalysisPosition position;
+
+            while ((position = source.next()) != null) {
+                if (position.getNumber() < skip) {
+                    continue;
+                }
+
+                window.acquire();
+                AnalysisPosition submitted = position;
+                pool.execute(() -> write(submitted.getNumber(), analysePosition(submitted), output, window));
+                analysed++;
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+
+        synchronized (finishedLines) {
+            if (writeError != null) {
+                throw writeError;
+            }
+        }
+
+        output.flush();
+        return analysed;
+    }
+
+    /**
+     * Search the given position and return its result as a JSON object on a single line. A position that cannot be
+     * loaded produces a line with an error field instead
+     */
+    public String analysePosition(AnalysisPosition position) {
+        StringBuilder json = new StringBuilder("{\"n\":").append(position.getNumber());
+
+        if (position.getId() != null) {
+            json.append(",\"id\":").append(quote(position.getId()));
+        }
+
+        json.append(",\"fen\":").append(quote(position.getFen()));
+
+        try {
+            Game game = new Game();
+            game.setBoardFEN(position.getFen());
+
+            Search search = new Search(options, transpositionTables.get(), zobristKeys.get());
+            search.setEvaluator(evaluator);
+            search.setMultiPv(multiPv);
+            long startTime = System.currentTimeMillis();
+            Move bestMove = search.search(game, limits, null);
+            long time = System.currentTimeMillis() - startTime;
+            SearchInfo info = search.getLastInfo();
+
+            json.append(",\"bestmove\":").append(bestMove == null ? "null" : quote(bestMove.formatUciMove()));
+
+            if (info != null) {
+                json.append(",\"depth\":").append(info.getDepth());
+                appendLine(json, info);
+            }
+
+            if (multiPv > 1) {
+                json.append(",\"lines\":[");
+
+                for (SearchInfo line: search.getLastLines()) {
+                    json.append(line.getMultiPv() == 1 ? "{" : ",{")
+                            .append("\"move\":").append(quote(line.getPrincipalVariation().get(0).formatUciMove()));
+                    appendLine(json, line);
+                    json.append('}');
+                }
+
+                json.append(']');
+            }
+
+            json.append(",\"nodes\":").append(search.getNodes())
+                    .append(",\"time_ms\":").append(time);
+        } catch (RuntimeException e) {
+            json.append(",\"error\":").append(quote("could not analyse position: " + e));
+        }
+
+        return json.append('}').toString();
+    }
+
+    /**
+     * Append the score and principal variation of the given progress report as JSON fields
+     */
+    private static void appendLine(StringBuilder json, SearchInfo info) {
+        if (info.isMateScore()) {
+            json.append(",\"mate\":").append(info.getMateIn());
+        } else {
+            json.append(",\"cp\":").append(info.getCentipawns());
+        }
+
+        StringBuilder pv = new StringBuilder();
+        for (Move move: info.getPrincipalVariation()) {
+            pv.append(pv.length() == 0 ? "" : " ").append(move.formatUciMove());
+        }
+        json.append(",\"pv\":").append(quote(pv.toString()));
+    }
+
+    /**
+     * Record the result line of the position with the given number, and write every result that is now next in input
+     * order, releasing one window slot per written line
+     */
+    private void write(long number, String line, Writer output, Semaphore window) {
+        synchronized (finishedLines) {
+            if (writeError != null) {
+                window.release();
+                return;
+            }
+
+            finishedLines.put(number, line);
+
+            try {
+                while (finishedLines.containsKey(nextLineToWrite)) {
+                    output.write(finishedLines.remove(nextLineToWrite));
+                    output.write('\n');
+                    nextLineToWrite++;
+                    window.release();
+                }
+
+                output.flush();
+            } catch (IOException e) {
+                writeError = e;
+                window.release(finishedLines.size());
+                finishedLines.clear();
+            }
+        }
+    }
+
+    /**
+     * Return the number of complete result lines in the given output file, removing a partially written last line
+     * left behind by an interrupted run. Returns 0 if the file does not exist
+     */
+    public static long resumePoint(Path output) throws IOException {
+        if (!Files.exists(output)) {
+            return 0;
+        }
+
+        long lines = 0;
+        long lastNewline = -1;
+        long position = 0;
+
+        try (RandomAccessFile file = new RandomAccessFile(output.toFile(), "rw")) {
+            byte[] buffer = new byte[1 << 16];
+            int read;
+
+            while ((read = file.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                        lastNewline = position + i;
+                    }
+                }
+                position += read;
+            }
+
+            file.setLength(lastNewline + 1);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Return the given string as a JSON string literal
+     */
+    private static String quote(String s) {
+        StringBuilder quoted = new StringBuilder("\"");
+
+        for (char c: s.toCharArray()) {
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Usage: BatchAnalyser <input.epd | input.pgn> <output.jsonl> [--depth n | --movetime ms | --nodes n]
+     * [--threads n] [--hash mb] [--resume] [--multipv n] [--eval-terms name,...] [--profile-eval]
+     * A PGN input is analysed position by position, before every move of every game. The evaluation terms listed by
+     * --eval-terms are enabled and every other term disabled, and --profile-eval reports each term's calls and share of
+     * the evaluation time at the end
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("usage: BatchAnalyser <input.epd | input.pgn> <output.jsonl> [--depth n | " +
+                    "--movetime ms | --nodes n] [--threads n] [--hash mb] [--resume] [--multipv n] " +
+                    "[--eval-terms name,...] [--profile-eval]");
+            System.exit(2);
+        }
+
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        SearchLimits limits = SearchLimits.depth(6);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashSize = 16;
+        boolean resume = false;
+        int multiPv = 1;
+        TermEvaluator evaluator = TermEvaluator.standard(EvaluationParameters.getStartupParameters());
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--depth":
+                    limits.setDepth(Integer.parseInt(args[++i]));
+                    break;
+                case "--movetime":
+                    limits.setDepth(SearchLimits.MAX_DEPTH);
+                    limits.setMoveTime(Long.parseLong(args[++i]));
+                    break;
+                case "--nodes":
+                    limits.setDepth(SearchLimits.MAX_DEPTH);
+                    limits.setNodes(Long.parseLong(args[++i]));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--hash":
+                    hashSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--resume":
+                    resume = true;
+                    break;
+                case "--multipv":
+                    multiPv = Integer.parseInt(args[++i]);
+                    break;
+                case "--eval-terms":
+                    evaluator.enableOnly(args[++i].split(","));
+                    break;
+                case "--profile-eval":
+                    evaluator.setProfiling(true);
+                    break;
+                default:
+                    System.err.println("unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        long skip = resume ? resumePoint(output) : 0;
+        StandardOpenOption mode = resume ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+
+        BatchAnalyser analyser = new BatchAnalyser(limits, new SearchOptions(), threads, hashSize);
+        analyser.setEvaluator(evaluator);
+        analyser.setMultiPv(multiPv);
+
+        Reader inputReader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+        PositionSource positionSource = input.toString().toLowerCase().endsWith(".pgn") ?
+                new PgnPositionSource(inputReader) : new EpdPositionSource(inputReader);
+
+        try (PositionSource source = positionSource;
+             Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, mode)) {
+            long analysed = analyser.analyse(source, writer, skip);
+            System.err.println("analysed " + analysed + " positions" + (skip > 0 ? ", resumed after " + skip : ""));
+        }
+
+        if (evaluator.isProfiling()) {
+            System.err.print(evaluator.report());
+        }
+    }
+}
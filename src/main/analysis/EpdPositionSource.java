@@ -0,0 +1,43 @@
+package analysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+// Represents a position source that reads one EPD (or FEN) position per line. Blank lines and lines starting with #
+// are skipped, and a malformed line is passed on as it is so that the analyser can report it
+public class EpdPositionSource implements PositionSource {
+    private final BufferedReader reader;
+    private long number;
+
+    public EpdPositionSource(Reader reader) {
+        this.reader = new BufferedReader(reader);
+        this.number = 0;
+    }
+
+    @Override
+    public AnalysisPosition next() throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            try {
+                return AnalysisPosition.fromEpd(number++, line);
+            } catch (IllegalArgumentException e) {
+                return new AnalysisPosition(number - 1, null, line);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,67 @@
+package analysis;
+
+import pgn.PgnGame;
+
+// Represents the outcome of one game of a match: its number, opening, which engine had white, the PGN result, why the
+// game ended and how many plies were played
+public class GameResult {
+    private final long number;
+    private final String openingFen;
+    private final boolean firstEngineWhite;
+    private final String result;
+    private final String reason;
+    private final int plies;
+
+    public GameResult(long number, String openingFen, boolean firstEngineWhite, String result, String reason,
+                      int plies) {
+        this.number = number;
+        this.openingFen = openingFen;
+        this.firstEngineWhite = firstEngineWhite;
+        this.result = result;
+        this.reason = reason;
+        this.plies = plies;
+    }
+
+    /**
+     * Return the points the first engine scored: 1 for a win, 0.5 for a draw and 0 for a loss
+     */
+    public double getFirstEngineScore() {
+        if (result.equals(PgnGame.DRAW)) {
+            return 0.5;
+        }
+
+        return result.equals(PgnGame.WHITE_WIN) == firstEngineWhite ? 1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "game " + number + ": " + result + " (" + reason + ") after " + plies + " plies";
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    public String getOpeningFen() {
+        return openingFen;
+    }
+
+    public boolean isFirstEngineWhite() {
+        return firstEngineWhite;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public int getPlies() {
+        return plies;
+    }
+}
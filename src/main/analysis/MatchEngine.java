@@ -0,0 +1,38 @@
+package analysis;
+
+import model.Game;
+import model.Move;
+import model.search.SearchInfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Represents one player of a match (see MatchRunner): either a search in this process or an engine in another process
+// spoken to over UCI. An engine plays one game at a time and may keep state, e.g. its transposition table, between
+// the moves of a game
+public interface MatchEngine extends Closeable {
+
+    /**
+     * Return the name of this engine, e.g. for the players of a game record
+     */
+    String getName();
+
+    /**
+     * Prepare for a new game starting from the given FEN string
+     */
+    void newGame(String startFen) throws IOException;
+
+    /**
+     * Return the legal move to play for the player whose turn it is in the given game, which must have been played
+     * from the start position of the current game. The game is left as it was
+     *
+     * @throws IOException if the engine fails or does not answer with a legal move, which forfeits the game
+     */
+    Move search(Game game) throws IOException;
+
+    /**
+     * Return the last completed iteration of the last search, with its score from the side to move's perspective, or
+     * null if the engine reported none
+     */
+    SearchInfo getLastInfo();
+}
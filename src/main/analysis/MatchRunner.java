@@ -0,0 +1,655 @@
+package analysis;
+
+import enumerations.GameStatus;
+import enumerations.SprtVerdict;
+import model.FenUtility;
+import model.Game;
+import model.Move;
+import model.Piece;
+import model.search.SearchInfo;
+import model.search.SearchLimits;
+import model.search.SearchOptions;
+import model.tablebase.EndgameTablebase;
+import model.tablebase.SyzygyTablebase;
+import model.tablebase.Tablebase;
+import pgn.PgnGame;
+import pgn.PgnReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Represents a headless runner of matches between two engines, e.g. two sets of search options or two builds of the
+// engine, to tell whether a change gains strength. Every opening of the suite is played twice with the colors
+// reversed, and the games are spread over a pool of worker threads, each of which plays one game at a time with its
+// own pair of engines. Games end by the rules (mate, stalemate, threefold repetition, the fifty move rule or
+// insufficient material), at the ply limit, when the tablebase knows the result, when both engines agree that one side
+// is winning for a number of moves, or when both report a drawn score late in the game. With an SPRT set the match
+// stops as soon as its verdict is known
+public class MatchRunner {
+    public static final int DEFAULT_MAX_PLIES = 400;
+
+    // Creates the engines of one worker thread
+    public interface EngineFactory {
+        MatchEngine create() throws IOException;
+    }
+
+    private final EngineFactory firstEngine;
+    private final EngineFactory secondEngine;
+    private final List<String> openings;
+    private final int threads;
+    private final MatchStatistics statistics;
+
+    private Tablebase tablebase;
+    private int maxPlies = DEFAULT_MAX_PLIES;
+    private int resignScore = 1000; // in centipawns, 0 disables resign adjudication
+    private int resignMoves = 4; // by each side
+    private int drawScore = 10; // in centipawns, below 0 disables draw adjudication
+    private int drawMoves = 8; // by each side
+    private int drawMoveNumber = 40; // the first full move draw adjudication may happen at
+
+    private boolean sprt;
+    private double elo0;
+    private double elo1;
+    private double alpha;
+    private double beta;
+
+    private Consumer<GameResult> listener;
+
+    /**
+     * Construct a new runner of the given engines, whose games start from the given openings as FEN strings, played on
+     * the given number of worker threads
+     */
+    public MatchRunner(EngineFactory firstEngine, EngineFactory secondEngine, List<String> openings, int threads) {
+        if (openings.isEmpty()) {
+            throw new IllegalArgumentException("the opening suite is empty");
+        }
+
+        this.firstEngine = firstEngine;
+        this.secondEngine = secondEngine;
+        this.openings = new ArrayList<>(openings);
+        this.threads = Math.max(1, threads);
+        this.statistics = new MatchStatistics();
+    }
+
+    /**
+     * Stop the match once an SPRT of the hypotheses that the first engine is elo0 or elo1 Elo stronger, with the
+     * given false positive (alpha) and false negative (beta) rates, accepts either
+     */
+    public void setSprt(double elo0, double elo1, double alpha, double beta) {
+        if (elo0 >= elo1 || alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("invalid SPRT parameters");
+        }
+
+        this.sprt = true;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    /**
+     * Play up to the given number of games, fewer if an SPRT reaches its verdict first, and return the statistics of
+     * every game played by this runner
+     *
+     * @throws IOException if an engine cannot be started
+     */
+    public MatchStatistics run(long games) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicLong nextGame = new AtomicLong(statistics.getGames());
+        AtomicBoolean finished = new AtomicBoolean(false);
+        List<Future<Void>> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            workers.add(pool.submit(() -> {
+                try (MatchEngine first = firstEngine.create(); MatchEngine second = secondEngine.create()) {
+                    long number;
+                    while (!finished.get() && (number = nextGame.getAndIncrement()) < games) {
+                        GameResult result = playGame(number, first, second);
+                        statistics.add(result.getFirstEngineScore());
+
+                        if (listener != null) {
+                            listener.accept(result);
+                        }
+
+                        if (getSprtVerdict() != SprtVerdict.CONTINUE) {
+                            finished.set(true);
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    finished.set(true);
+                    throw e;
+                }
+                return null;
+            }));
+        }
+
+        pool.shutdown();
+
+        try {
+            for (Future<Void> worker: workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            pool.shutdownNow();
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("match worker failed", e.getCause());
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Play the game of the given number between the given engines. Even games give the first engine white and odd
+     * games give it black, both from the same opening
+     */
+    public GameResult playGame(long number, MatchEngine first, MatchEngine second) {
+        String openingFen = openings.get((int) ((number / 2) % openings.size()));
+        boolean firstEngineWhite = number % 2 == 0;
+        MatchEngine white = firstEngineWhite ? first : second;
+        MatchEngine black = firstEngineWhite ? second : first;
+
+        Game game = new Game();
+        game.setBoardFEN(openingFen);
+        int winningPlies = 0; // consecutive plies reporting a winning score for the same side
+        int drawnPlies = 0; // consecutive plies reporting a drawn score
+        int plies = 0;
+
+        try {
+            white.newGame(openingFen);
+            black.newGame(openingFen);
+        } catch (IOException e) {
+            return new GameResult(number, openingFen, firstEngineWhite, PgnGame.DRAW, "engine failed: " +
+                    e.getMessage(), 0);
+        }
+
+        while (true) {
+            game.updateStatus();
+            boolean whiteToMove = game.getCurrentTurn().isWhite();
+            String result = null;
+            String reason = null;
+
+            if (game.getGameStatus() != GameStatus.ACTIVE) {
+                result = PgnGame.getResult(game);
+                reason = describeStatus(game.getGameStatus());
+            } else if (isInsufficientMaterial(game.getBoard().getBoard())) {
+                result = PgnGame.DRAW;
+                reason = "insufficient material";
+            } else if (tablebase != null && tablebase.covers(game) && (result = probeResult(game)) != null) {
+                reason = "tablebase";
+            } else if (plies >= maxPlies) {
+                result = PgnGame.DRAW;
+                reason = "ply limit";
+            }
+
+            if (result != null) {
+                return new GameResult(number, openingFen, firstEngineWhite, result, reason, plies);
+            }
+
+            MatchEngine engine = whiteToMove ? white : black;
+            Move move;
+
+            try {
+                move = engine.search(game);
+                if (move == null) {
+                    throw new IOException(engine.getName() + " found no move");
+                }
+            } catch (IOException | RuntimeException e) {
+                return new GameResult(number, openingFen, firstEngineWhite, winFor(!whiteToMove),
+                        "forfeit: " + e.getMessage(), plies);
+            }
+
+            // scores are adjudicated from white's perspective
+            SearchInfo info = engine.getLastInfo();
+            int score = info == null ? 0 : whiteToMove ? centipawns(info) : -centipawns(info);
+
+            if (info != null && resignScore > 0 && Math.abs(score) >= resignScore) {
+                winningPlies = winningPlies != 0 && Integer.signum(winningPlies) == Integer.signum(score) ?
+                        winningPlies + Integer.signum(score) : Integer.signum(score);
+            } else {
+                winningPlies = 0;
+            }
+
+            if (info != null && drawScore >= 0 && Math.abs(score) <= drawScore &&
+                    game.getFullmoveNumber() >= drawMoveNumber) {
+                drawnPlies++;
+            } else {
+                drawnPlies = 0;
+            }
+
+            game.makeMove(move);
+            plies++;
+
+            if (winningPlies != 0 && Math.abs(winningPlies) >= 2 * resignMoves) {
+                return new GameResult(number, openingFen, firstEngineWhite, winFor(winningPlies > 0),
+                        "adjudicated win", plies);
+            } else if (drawnPlies != 0 && drawnPlies >= 2 * drawMoves) {
+                return new GameResult(number, openingFen, firstEngineWhite, PgnGame.DRAW, "adjudicated draw", plies);
+            }
+        }
+    }
+
+    /**
+     * Return the result the tablebase proves for the given game's position, or null if it cannot tell. WDL values
+     * assume that the last move reset the halfmove clock, so after any other move the result is taken from the
+     * distance to the next zeroing move and the clock, with the same margin for rounded distances as the root move
+     * ranking of SyzygyTablebase
+     */
+    private String probeResult(Game game) {
+        boolean whiteToMove = game.getCurrentTurn().isWhite();
+        int halfmoveClock = game.getHalfmoveClock();
+
+        if (halfmoveClock == 0) {
+            int wdl = tablebase.probeWdl(game);
+
+            if (wdl == Tablebase.UNKNOWN) {
+                return null;
+            }
+
+            return wdl == Tablebase.WIN ? winFor(whiteToMove) : wdl == Tablebase.LOSS ? winFor(!whiteToMove) :
+                    PgnGame.DRAW;
+        }
+
+        int dtz = tablebase.probeDtz(game);
+
+        if (dtz == Tablebase.UNKNOWN) {
+            return null;
+        } else if (dtz == 0 || Math.abs(dtz) > 100) {
+            return PgnGame.DRAW;
+        } else if (dtz > 0 && dtz + halfmoveClock <= 99) {
+            return winFor(whiteToMove);
+        } else if (dtz < 0 && -dtz * 2 + halfmoveClock < 100) {
+            return winFor(!whiteToMove);
+        }
+
+        // the 50 move rule may yet turn the result into a draw, which playing on will tell
+        return null;
+    }
+
+    private static String winFor(boolean white) {
+        return white ? PgnGame.WHITE_WIN : PgnGame.BLACK_WIN;
+    }
+
+    /**
+     * Return the reason a game with the given status that is not active is over
+     */
+    private static String describeStatus(GameStatus status) {
+        switch (status) {
+            case STALEMATE:
+                return "stalemate";
+            case THREEFOLD_REPETITION:
+                return "threefold repetition";
+            case FIFTY_MOVE_RULE:
+                return "fifty move rule";
+            default:
+                return "checkmate";
+        }
+    }
+
+    /**
+     * Return the score of the given info in centipawns, with mates beyond any other score
+     */
+    private static int centipawns(SearchInfo info) {
+        if (info.isMateScore()) {
+            return info.getMateIn() > 0 ? 100000 : -100000;
+        }
+
+        return info.getCentipawns();
+    }
+
+    /**
+     * Return true if neither side can mate whatever is played, i.e. only the kings and at most one knight or bishop
+     * are left
+     */
+    static boolean isInsufficientMaterial(int[] board) {
+        int minorPieces = 0;
+
+        for (int piece: board) {
+            int type = Math.abs(piece);
+
+            if (type == Piece.wKnight || type == Piece.wBishop) {
+                minorPieces++;
+            } else if (type != Piece.empty && type != Piece.wKing) {
+                return false;
+            }
+        }
+
+        return minorPieces <= 1;
+    }
+
+    /**
+     * Return the verdict of the SPRT on the games played so far, or CONTINUE if no SPRT is set
+     */
+    public SprtVerdict getSprtVerdict() {
+        return sprt ? statistics.getSprtVerdict(elo0, elo1, alpha, beta) : SprtVerdict.CONTINUE;
+    }
+
+    /**
+     * Return the log-likelihood ratio of the SPRT on the games played so far, or 0 if no SPRT is set
+     */
+    public double getLogLikelihoodRatio() {
+        return sprt ? statistics.getLogLikelihoodRatio(elo0, elo1) : 0;
+    }
+
+    /**
+     * Return the start positions of the given opening suite: the positions of an EPD file, or the final position of
+     * every game of a PGN file whose moves can all be resolved. Lines and games that cannot be read are skipped
+     */
+    public static List<String> readOpenings(Path path) throws IOException {
+        List<String> openings = new ArrayList<>();
+
+        if (path.toString().toLowerCase().endsWith(".pgn")) {
+            try (PgnReader reader = new PgnReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+                PgnGame pgnGame;
+                while ((pgnGame = reader.next()) != null) {
+                    if (pgnGame.getError() == null && pgnGame.getGame() != null) {
+                        openings.add(FenUtility.getFENFromGame(pgnGame.getGame()));
+                    }
+                }
+            }
+        } else {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+
+                    try {
+                        openings.add(AnalysisPosition.fromEpd(openings.size(), line).getFen());
+                    } catch (IllegalArgumentException e) {
+                        // lines that are not positions are skipped, as the batch analyser does
+                    }
+                }
+            }
+        }
+
+        return openings;
+    }
+
+    /**
+     * Return the search options of the given comma separated settings, e.g. baseline,futilityPruning=true, starting
+     * from the default options
+     *
+     * @throws IllegalArgumentException if a setting is unknown or its value malformed
+     */
+    public static SearchOptions parseSearchOptions(String settings) {
+        SearchOptions options = new SearchOptions();
+
+        for (String setting: settings.split(",")) {
+            setting = setting.trim();
+            if (setting.isEmpty() || setting.equals("default")) {
+                continue;
+            }
+            if (setting.equals("baseline")) {
+                options = SearchOptions.baseline();
+                continue;
+            }
+
+            String[] parts = setting.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("search option without a value: " + setting);
+            }
+
+            String value = parts[1].trim();
+            switch (parts[0].trim()) {
+                case "nullMovePruning":
+                    options.setNullMovePruning(Boolean.parseBoolean(value));
+                    break;
+                case "nullMoveReduction":
+                    options.setNullMoveReduction(Integer.parseInt(value));
+                    break;
+                case "lateMoveReductions":
+                    options.setLateMoveReductions(Boolean.parseBoolean(value));
+                    break;
+                case "lateMoveMinDepth":
+                    options.setLateMoveMinDepth(Integer.parseInt(value));
+                    break;
+                case "lateMoveFullDepthMoves":
+                    options.setLateMoveFullDepthMoves(Integer.parseInt(value));
+                    break;
+                case "futilityPruning":
+                    options.setFutilityPruning(Boolean.parseBoolean(value));
+                    break;
+                case "futilityDepth":
+                    options.setFutilityDepth(Integer.parseInt(value));
+                    break;
+                case "futilityMargin":
+                    options.setFutilityMargin(Double.parseDouble(value));
+                    break;
+                case "razoring":
+                    options.setRazoring(Boolean.parseBoolean(value));
+                    break;
+                case "razoringDepth":
+                    options.setRazoringDepth(Integer.parseInt(value));
+                    break;
+                case "razoringMargin":
+                    options.setRazoringMargin(Double.parseDouble(value));
+                    break;
+                case "seePruning":
+                    options.setSeePruning(Boolean.parseBoolean(value));
+                    break;
+                case "checkExtensions":
+                    options.setCheckExtensions(Boolean.parseBoolean(value));
+                    break;
+                case "aspirationWindows":
+                    options.setAspirationWindows(Boolean.parseBoolean(value));
+                    break;
+                case "aspirationMinDepth":
+                    options.setAspirationMinDepth(Integer.parseInt(value));
+                    break;
+                case "aspirationWindow":
+                    options.setAspirationWindow(Double.parseDouble(value));
+                    break;
+                case "aspirationWidening":
+                    options.setAspirationWidening(Double.parseDouble(value));
+                    break;
+                case "aspirationMaxWindow":
+                    options.setAspirationMaxWindow(Double.parseDouble(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown search option: " + parts[0]);
+            }
+        }
+
+        return options;
+    }
+
+    /**
+     * Return a factory of engines of the given specification: "uci:" and a command line for an engine in its own
+     * process, or search option settings (see parseSearchOptions) for an engine in this process
+     */
+    private static EngineFactory engineFactory(String name, String specification, SearchLimits limits, int hashSize,
+                                               Tablebase tablebase) {
+        if (specification.startsWith("uci:")) {
+            List<String> command = Arrays.asList(specification.substring(4).trim().split("\\s+"));
+            Map<String, String> options = Map.of("Hash", String.valueOf(hashSize));
+            return () -> new UciMatchEngine(name, command, options, limits);
+        }
+
+        SearchOptions options = parseSearchOptions(specification);
+        return () -> {
+            SearchMatchEngine engine = new SearchMatchEngine(name, options, limits, hashSize);
+            engine.setTablebase(tablebase);
+            return engine;
+        };
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public MatchStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public void setMaxPlies(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    public void setResignAdjudication(int resignScore, int resignMoves) {
+        this.resignScore = resignScore;
+        this.resignMoves = resignMoves;
+    }
+
+    public void setDrawAdjudication(int drawScore, int drawMoves, int drawMoveNumber) {
+        this.drawScore = drawScore;
+        this.drawMoves = drawMoves;
+        this.drawMoveNumber = drawMoveNumber;
+    }
+
+    public void setListener(Consumer<GameResult> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Usage: MatchRunner [--engine1 spec] [--engine2 spec] [--openings file.epd | file.pgn] [--games n] [--threads n]
+     * [--depth n | --nodes n | --movetime ms] [--hash mb] [--sprt elo0 elo1] [--alpha a] [--beta b]
+     * [--resign cp moves] [--draw cp moves movenumber] [--max-plies n] [--syzygy path | --endgames directory]
+     * An engine spec is either comma separated search options, e.g. baseline,nullMovePruning=true, played in this
+     * process, or "uci:" and a command line, e.g. "uci:java -cp old.jar uci.UciEngine", played in its own process.
+     * The tablebase only adjudicates; engines in this process also probe it while searching
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String engine1 = "default";
+        String engine2 = "default";
+        Path openingFile = null;
+        long games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        SearchLimits limits = SearchLimits.depth(4);
+        int hashSize = 16;
+        double[] sprtElo = null;
+        double alpha = 0.05;
+        double beta = 0.05;
+        int[] resign = null;
+        int[] draw = null;
+        int maxPlies = DEFAULT_MAX_PLIES;
+        Tablebase tablebase = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--engine1":
+                        engine1 = args[++i];
+                        break;
+                    case "--engine2":
+                        engine2 = args[++i];
+                        break;
+                    case "--openings":
+                        openingFile = Paths.get(args[++i]);
+                        break;
+                    case "--games":
+                        games = Long.parseLong(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--depth":
+                        limits.setDepth(Integer.parseInt(args[++i]));
+                        break;
+                    case "--nodes":
+                        limits.setDepth(SearchLimits.MAX_DEPTH);
+                        limits.setNodes(Long.parseLong(args[++i]));
+                        break;
+                    case "--movetime":
+                        limits.setDepth(SearchLimits.MAX_DEPTH);
+                        limits.setMoveTime(Long.parseLong(args[++i]));
+                        break;
+                    case "--hash":
+                        hashSize = Integer.parseInt(args[++i]);
+                        break;
+                    case "--sprt":
+                        sprtElo = new double[]{Double.parseDouble(args[++i]), Double.parseDouble(args[++i])};
+                        break;
+                    case "--alpha":
+                        alpha = Double.parseDouble(args[++i]);
+                        break;
+                    case "--beta":
+                        beta = Double.parseDouble(args[++i]);
+                        break;
+                    case "--resign":
+                        resign = new int[]{Integer.parseInt(args[++i]), Integer.parseInt(args[++i])};
+                        break;
+                    case "--draw":
+                        draw = new int[]{Integer.parseInt(args[++i]), Integer.parseInt(args[++i]),
+                                Integer.parseInt(args[++i])};
+                        break;
+                    case "--max-plies":
+                        maxPlies = Integer.parseInt(args[++i]);
+                        break;
+                    case "--syzygy":
+                        tablebase = new SyzygyTablebase(args[++i]);
+                        break;
+                    case "--endgames":
+                        tablebase = new EndgameTablebase(Paths.get(args[++i]));
+                        break;
+                    default:
+                        System.err.println("unknown option " + args[i]);
+                        System.exit(2);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("usage: MatchRunner [--engine1 spec] [--engine2 spec] [--openings file] [--games n] " +
+                    "[--threads n] [--depth n | --nodes n | --movetime ms] [--hash mb] [--sprt elo0 elo1] " +
+                    "[--alpha a] [--beta b] [--resign cp moves] [--draw cp moves movenumber] [--max-plies n] " +
+                    "[--syzygy path | --endgames directory]");
+            System.exit(2);
+        }
+
+        List<String> openings = openingFile == null ? List.of(FenUtility.START_GAME_FEN) : readOpenings(openingFile);
+        MatchRunner runner = new MatchRunner(engineFactory("engine1", engine1, limits, hashSize, tablebase),
+                engineFactory("engine2", engine2, limits, hashSize, tablebase), openings, threads);
+
+        runner.setTablebase(tablebase);
+        runner.setMaxPlies(maxPlies);
+        if (resign != null) {
+            runner.setResignAdjudication(resign[0], resign[1]);
+        }
+        if (draw != null) {
+            runner.setDrawAdjudication(draw[0], draw[1], draw[2]);
+        }
+        if (sprtElo != null) {
+            runner.setSprt(sprtElo[0], sprtElo[1], alpha, beta);
+        }
+
+        boolean sprt = sprtElo != null;
+        runner.setListener(result -> {
+            String line = runner.getStatistics().toString();
+
+            if (sprt) {
+                line += String.format(", llr %.2f (%.2f, %.2f)", runner.getLogLikelihoodRatio(),
+                        MatchStatistics.lowerBound(runner.alpha, runner.beta),
+                        MatchStatistics.upperBound(runner.alpha, runner.beta));
+            }
+
+            System.err.println(result + "; " + line);
+        });
+
+        MatchStatistics statistics = runner.run(games);
+        System.out.println(statistics);
+
+        if (sprt) {
+            System.out.println("sprt: " + runner.getSprtVerdict());
+        }
+    }
+}
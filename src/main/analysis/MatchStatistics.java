@@ -0,0 +1,158 @@
+package analysis;
+
+import enumerations.SprtVerdict;
+
+// Represents the results of a match so far from the first engine's perspective, and the Elo difference, error bars
+// and sequential probability ratio test (SPRT) log-likelihood ratio they give. The Elo estimate is the logistic Elo
+// of the mean score, and its 95% error bars come from the normal approximation of the per game score variance. The
+// log-likelihood ratio is the generalised SPRT approximation LLR = n (s1 - s0) (2 mean - s0 - s1) / (2 variance),
+// where s0 and s1 are the expected scores of the two hypotheses' Elo differences. Results may be added concurrently
+public class MatchStatistics {
+    private static final double Z_95 = 1.959964;
+
+    private long wins;
+    private long losses;
+    private long draws;
+
+    /**
+     * Record a game that the first engine won (score 1), drew (0.5) or lost (0)
+     */
+    public synchronized void add(double score) {
+        if (score == 1) {
+            wins++;
+        } else if (score == 0) {
+            losses++;
+        } else if (score == 0.5) {
+            draws++;
+        } else {
+            throw new IllegalArgumentException("invalid game score: " + score);
+        }
+    }
+
+    /**
+     * Return the mean score per game, or 0.5 before any game has been played
+     */
+    public synchronized double getScore() {
+        long games = getGames();
+        return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+    }
+
+    /**
+     * Return the variance of a single game's score
+     */
+    private synchronized double getVariance() {
+        long games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+
+        double mean = getScore();
+        return (wins * (1 - mean) * (1 - mean) + draws * (0.5 - mean) * (0.5 - mean) + losses * mean * mean) / games;
+    }
+
+    /**
+     * Return the Elo difference of the mean score, infinite if either engine has scored every point
+     */
+    public double getElo() {
+        return elo(getScore());
+    }
+
+    /**
+     * Return the half width of the 95% confidence interval of the Elo difference, infinite while either engine has
+     * scored every point
+     */
+    public synchronized double getEloError() {
+        long games = getGames();
+        double score = getScore();
+        if (games == 0 || score == 0 || score == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double margin = Z_95 * Math.sqrt(getVariance() / games);
+        return (elo(Math.min(1, score + margin)) - elo(Math.max(0, score - margin))) / 2;
+    }
+
+    /**
+     * Return the log-likelihood ratio of the hypothesis that the first engine is elo1 stronger against the hypothesis
+     * that it is elo0 stronger
+     */
+    public synchronized double getLogLikelihoodRatio(double elo0, double elo1) {
+        double variance = getVariance();
+        if (variance == 0) {
+            return 0;
+        }
+
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return getGames() * (s1 - s0) * (2 * getScore() - s0 - s1) / (2 * variance);
+    }
+
+    /**
+     * Return the verdict of an SPRT of the hypotheses elo0 against elo1 with the given false positive (alpha) and
+     * false negative (beta) rates
+     */
+    public SprtVerdict getSprtVerdict(double elo0, double elo1, double alpha, double beta) {
+        double llr = getLogLikelihoodRatio(elo0, elo1);
+
+        if (llr >= upperBound(alpha, beta)) {
+            return SprtVerdict.ACCEPT_H1;
+        } else if (llr <= lowerBound(alpha, beta)) {
+            return SprtVerdict.ACCEPT_H0;
+        }
+
+        return SprtVerdict.CONTINUE;
+    }
+
+    /**
+     * Return the log-likelihood ratio below which an SPRT accepts the null hypothesis
+     */
+    public static double lowerBound(double alpha, double beta) {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    /**
+     * Return the log-likelihood ratio above which an SPRT accepts the alternative hypothesis
+     */
+    public static double upperBound(double alpha, double beta) {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Return the Elo difference of the given mean score
+     */
+    public static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Return the mean score of the given Elo difference
+     */
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("games %d, +%d -%d =%d, score %.1f%%, elo %.1f +/- %.1f", getGames(), wins, losses, draws,
+                100 * getScore(), getElo(), getEloError());
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public synchronized long getGames() {
+        return wins + losses + draws;
+    }
+
+    public synchronized long getWins() {
+        return wins;
+    }
+
+    public synchronized long getLosses() {
+        return losses;
+    }
+
+    public synchronized long getDraws() {
+        return draws;
+    }
+}
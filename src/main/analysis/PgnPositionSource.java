@@ -0,0 +1,71 @@
+package analysis;
+
+import model.FenUtility;
+import model.Game;
+import model.Move;
+import pgn.PgnGame;
+import pgn.PgnReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+// Represents a position source that reads the games of a PGN file and returns the position before every move of each
+// game, identified by game and ply. Only the positions of the current game are held in memory. A game with a move
+// that cannot be resolved contributes its positions up to that move
+public class PgnPositionSource implements PositionSource {
+    private final PgnReader reader;
+    private final Queue<AnalysisPosition> positions;
+    private final StringBuilder fen;
+    private long number;
+
+    public PgnPositionSource(Reader reader) {
+        this.reader = new PgnReader(reader);
+        this.positions = new ArrayDeque<>();
+        this.fen = new StringBuilder(90);
+        this.number = 0;
+    }
+
+    @Override
+    public AnalysisPosition next() throws IOException {
+        while (positions.isEmpty()) {
+            PgnGame pgnGame = reader.next();
+
+            if (pgnGame == null) {
+                return null;
+            }
+
+            addPositions(pgnGame);
+        }
+
+        return positions.remove();
+    }
+
+    /**
+     * Replay the given game from its starting position, queueing the position before each of its moves
+     */
+    private void addPositions(PgnGame pgnGame) {
+        if (pgnGame.getMoves().isEmpty()) {
+            return;
+        }
+
+        Game game = new Game();
+        game.setBoardFEN(pgnGame.getStartFen());
+        int ply = 0;
+
+        for (Move move: pgnGame.getMoves()) {
+            fen.setLength(0);
+            FenUtility.appendFEN(game, fen);
+            positions.add(new AnalysisPosition(number++, "game " + pgnGame.getNumber() + " ply " + ply, fen.toString()));
+
+            game.makeMove(move);
+            ply++;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,13 @@
+package analysis;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Represents a stream of positions to analyse, read one at a time so that inputs of any size use constant memory
+public interface PositionSource extends Closeable {
+
+    /**
+     * Return the next position, or null once the input is exhausted. Positions are numbered consecutively from 0
+     */
+    AnalysisPosition next() throws IOException;
+}
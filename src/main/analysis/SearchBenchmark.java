@@ -0,0 +1,153 @@
+package analysis;
+
+import model.Game;
+import model.Zobrist;
+import model.search.Search;
+import model.search.SearchLimits;
+import model.search.SearchOptions;
+import model.search.TranspositionTable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a benchmark that searches a fixed list of positions one after the other on a single thread under
+// deterministic limits, so that every run searches the same nodes and only the wall time depends on the hardware and
+// the JVM. The total node count is a signature of the workload: runs with different counts did different work
+public class SearchBenchmark {
+    public static final List<String> DEFAULT_POSITIONS = List.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+            "r1bnkb1r/1p3p1p/p3pp2/8/P1P2P2/1Bp2N2/1PP3PP/R1B1K2R w KQkq - 0 13",
+            "r3k2r/p4p1p/2Rp1p2/q7/4P3/8/P1Q2PPP/1R4K1 b kq - 1 20",
+            "rn2k2r/pbpp1ppp/1p2p3/4P1N1/3PB3/8/P1PB1P1R/R2nK3 w Qkq - 0 15",
+            "2r3k1/pp3ppp/8/3R4/8/8/PPP2PPP/6K1 w - - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+
+    private final SearchLimits limits;
+    private final Search search;
+
+    private long nodes;
+    private long wallTimeNanos;
+
+    /**
+     * Construct a new benchmark that searches under the given limits with a transposition table of the given number
+     * of megabytes
+     *
+     * @throws IllegalArgumentException if the limits are not deterministic
+     */
+    public SearchBenchmark(SearchLimits limits, SearchOptions options, int hashSize) {
+        if (!limits.isDeterministic()) {
+            throw new IllegalArgumentException("a benchmark needs deterministic search limits");
+        }
+
+        this.limits = limits;
+        this.search = new Search(options, new TranspositionTable(Math.max(1, hashSize)),
+                new Zobrist(Search.DETERMINISTIC_SEED));
+    }
+
+    /**
+     * Search each of the given positions, writing its best move, nodes and wall time to the given output, followed by
+     * the totals
+     *
+     * @return the total number of nodes searched
+     */
+    public long run(List<String> fens, PrintStream output) {
+        nodes = 0;
+        wallTimeNanos = 0;
+
+        for (String fen: fens) {
+            Game game = new Game();
+            game.setBoardFEN(fen);
+
+            String bestMove = String.valueOf(search.search(game, limits, null));
+            nodes += search.getNodes();
+            wallTimeNanos += search.getWallTimeNanos();
+
+            output.println(fen + " bestmove " + bestMove + " nodes " + search.getNodes() + " time " +
+                    search.getWallTimeNanos() / 1000000 + " ms");
+        }
+
+        output.println("total nodes " + nodes + " time " + wallTimeNanos / 1000000 + " ms nps " + getNodesPerSecond());
+        return nodes;
+    }
+
+    /**
+     * Return the searched nodes per second of the last run
+     */
+    public long getNodesPerSecond() {
+        return wallTimeNanos > 0 ? (long) (nodes * 1e9 / wallTimeNanos) : 0;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    /**
+     * Usage: SearchBenchmark [--depth n | --nodes n] [--hash mb] [--positions file.epd] [--options settings]
+     * Positions are read one FEN per line, blank lines and lines starting with # skipped, and the search options are
+     * given as for MatchRunner, e.g. baseline,nullMovePruning=true
+     */
+    public static void main(String[] args) throws IOException {
+        SearchLimits limits = SearchLimits.fixedDepth(6);
+        int hashSize = 16;
+        List<String> fens = DEFAULT_POSITIONS;
+        SearchOptions options = new SearchOptions();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--depth":
+                        limits = SearchLimits.fixedDepth(Integer.parseInt(args[++i]));
+                        break;
+                    case "--nodes":
+                        limits = SearchLimits.fixedNodes(Long.parseLong(args[++i]));
+                        break;
+                    case "--hash":
+                        hashSize = Integer.parseInt(args[++i]);
+                        break;
+                    case "--positions":
+                        fens = readPositions(args[++i]);
+                        break;
+                    case "--options":
+                        options = MatchRunner.parseSearchOptions(args[++i]);
+                        break;
+                    default:
+                        System.err.println("unknown option " + args[i]);
+                        System.exit(2);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("usage: SearchBenchmark [--depth n | --nodes n] [--hash mb] [--positions file.epd] " +
+                    "[--options settings]");
+            System.exit(2);
+        }
+
+        new SearchBenchmark(limits, options, hashSize).run(fens, System.out);
+    }
+
+    private static List<String> readPositions(String file) throws IOException {
+        List<String> fens = new ArrayList<>();
+
+        for (String line: Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                fens.add(line);
+            }
+        }
+
+        return fens;
+    }
+}
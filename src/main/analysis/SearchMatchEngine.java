@@ -0,0 +1,77 @@
+package analysis;
+
+import model.Game;
+import model.Move;
+import model.Zobrist;
+import model.search.Search;
+import model.search.SearchInfo;
+import model.search.SearchLimits;
+import model.search.SearchOptions;
+import model.search.TranspositionTable;
+import model.tablebase.Tablebase;
+
+// Represents a match engine that searches in this process with the given search options and limits. Its transposition
+// table is kept between the moves of a game and cleared between games, so games do not depend on the ones before them.
+// Searches run on a copy of the game, so a search never touches the game being adjudicated
+public class SearchMatchEngine implements MatchEngine {
+    private final String name;
+    private final SearchOptions options;
+    private final SearchLimits limits;
+    private final TranspositionTable transpositionTable;
+    private final Zobrist zobrist;
+    private Tablebase tablebase;
+    private SearchInfo lastInfo;
+
+    /**
+     * Construct a new engine with a transposition table of the given number of megabytes
+     */
+    public SearchMatchEngine(String name, SearchOptions options, SearchLimits limits, int hashSize) {
+        this.name = name;
+        this.options = options;
+        this.limits = limits;
+        this.transpositionTable = new TranspositionTable(Math.max(1, hashSize));
+        this.zobrist = new Zobrist();
+    }
+
+    @Override
+    public void newGame(String startFen) {
+        transpositionTable.clear();
+        lastInfo = null;
+    }
+
+    @Override
+    public Move search(Game game) {
+        Search search = new Search(options, transpositionTable, zobrist);
+        search.setTablebase(tablebase);
+
+        Move move = search.search(game.copy(), limits, null);
+        lastInfo = search.getLastInfo();
+
+        return move;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Getters & Setters
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public SearchInfo getLastInfo() {
+        return lastInfo;
+    }
+
+    public SearchOptions getOptions() {
+        return options;
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+}
@@ -0,0 +1,221 @@
+package analysis;
+
+import model.Game;
+import model.Move;
+import model.search.Search;
+import model.search.SearchInfo;
+import model.search.SearchLimits;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Represents a match engine running in its own process, e.g. another build of this engine on a different classpath,
+// spoken to over the Universal Chess Interface (UCI) protocol. Every search sends the whole game since its start
+// position, so the engine sees the same move history as the runner. The score of the last info line before bestmove
+// is kept as the search's last info
+public class UciMatchEngine implements MatchEngine {
+    private final String name;
+    private final SearchLimits limits;
+    private final Process process;
+    private final BufferedReader input;
+    private final PrintStream output;
+    private String startFen;
+    private int startMoves; // moves of the start position's history, e.g. the double step of its en passant square
+    private SearchInfo lastInfo;
+
+    /**
+     * Start the engine with the given command line, e.g. java -cp old.jar uci.UciEngine, and set the given UCI options
+     *
+     * @throws IOException if the engine cannot be started or does not complete the UCI handshake
+     */
+    public UciMatchEngine(String name, List<String> command, Map<String, String> options, SearchLimits limits)
+            throws IOException {
+        this.name = name;
+        this.limits = limits;
+        this.process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        this.input = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        this.output = new PrintStream(process.getOutputStream(), true, StandardCharsets.UTF_8);
+
+        try {
+            send("uci");
+            awaitLine("uciok");
+
+            for (Map.Entry<String, String> option: options.entrySet()) {
+                send("setoption name " + option.getKey() + " value " + option.getValue());
+            }
+
+            send("isready");
+            awaitLine("readyok");
+        } catch (IOException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    @Override
+    public void newGame(String startFen) throws IOException {
+        Game start = new Game();
+        start.setBoardFEN(startFen);
+
+        this.startFen = startFen;
+        this.startMoves = start.getBoard().getMoveList().size();
+        this.lastInfo = null;
+
+        send("ucinewgame");
+        send("isready");
+        awaitLine("readyok");
+    }
+
+    @Override
+    public Move search(Game game) throws IOException {
+        StringBuilder position = new StringBuilder("position fen ").append(startFen);
+        List<Move> moves = game.getBoard().getMoveList();
+
+        if (moves.size() > startMoves) {
+            position.append(" moves");
+            for (Move move: moves.subList(startMoves, moves.size())) {
+                position.append(' ').append(move.formatUciMove());
+            }
+        }
+
+        send(position.toString());
+        send(goCommand());
+        lastInfo = null;
+
+        long startTime = System.currentTimeMillis();
+        String line;
+
+        while ((line = input.readLine()) != null) {
+            String[] tokens = line.trim().split("\\s+");
+
+            if (tokens[0].equals("info")) {
+                SearchInfo info = parseInfo(tokens, System.currentTimeMillis() - startTime);
+                if (info != null) {
+                    lastInfo = info;
+                }
+            } else if (tokens[0].equals("bestmove") && tokens.length > 1) {
+                for (Move move: game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn())) {
+                    if (move.formatUciMove().equals(tokens[1])) {
+                        return move;
+                    }
+                }
+
+                throw new IOException(name + " played an illegal move: " + tokens[1]);
+            }
+        }
+
+        throw new IOException(name + " stopped while searching");
+    }
+
+    /**
+     * Return the go command of this engine's limits
+     */
+    private String goCommand() {
+        StringBuilder go = new StringBuilder("go");
+
+        if (limits.getDepth() < SearchLimits.MAX_DEPTH) {
+            go.append(" depth ").append(limits.getDepth());
+        }
+        if (limits.getNodes() >= 0) {
+            go.append(" nodes ").append(limits.getNodes());
+        }
+        if (limits.getMoveTime() >= 0) {
+            go.append(" movetime ").append(limits.getMoveTime());
+        }
+
+        return go.toString();
+    }
+
+    /**
+     * Return the search info of the given info line, or null if it has no score
+     */
+    private static SearchInfo parseInfo(String[] tokens, long timeMillis) {
+        int depth = 0;
+        long nodes = 0;
+        Double score = null;
+
+        try {
+            for (int i = 1; i < tokens.length - 1; i++) {
+                switch (tokens[i]) {
+                    case "depth":
+                        depth = Integer.parseInt(tokens[++i]);
+                        break;
+                    case "nodes":
+                        nodes = Long.parseLong(tokens[++i]);
+                        break;
+                    case "score":
+                        if (tokens[i + 1].equals("cp") && i + 2 < tokens.length) {
+                            score = Integer.parseInt(tokens[i + 2]) / 100.0;
+                        } else if (tokens[i + 1].equals("mate") && i + 2 < tokens.length) {
+                            int mateIn = Integer.parseInt(tokens[i + 2]);
+                            int plies = mateIn > 0 ? 2 * mateIn - 1 : -2 * mateIn;
+                            score = mateIn > 0 ? Search.MATE_SCORE - plies : -Search.MATE_SCORE + plies;
+                        }
+                        i += 2;
+                        break;
+                    case "string":
+                        return null;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        return score == null ? null : new SearchInfo(depth, score, new ArrayList<>(), nodes, timeMillis);
+    }
+
+    private void send(String command) throws IOException {
+        output.println(command);
+
+        if (output.checkError()) {
+            throw new IOException(name + " is not accepting commands");
+        }
+    }
+
+    private void awaitLine(String expected) throws IOException {
+        String line;
+
+        while ((line = input.readLine()) != null) {
+            if (line.trim().equals(expected)) {
+                return;
+            }
+        }
+
+        throw new IOException(name + " stopped before sending " + expected);
+    }
+
+    @Override
+    public void close() {
+        output.println("quit");
+        output.close();
+
+        try {
+            if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Getters & Setters
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public SearchInfo getLastInfo() {
+        return lastInfo;
+    }
+}
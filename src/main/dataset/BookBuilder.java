@@ -0,0 +1,643 @@
+package dataset;
+
+import model.Game;
+import model.Move;
+import model.PolyglotZobrist;
+import model.SanUtility;
+import model.book.PolyglotBook;
+import pgn.PgnGame;
+import pgn.PgnReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Represents a builder of Polyglot opening books from PGN games. Games are read on the calling thread and replayed on
+// a pool of worker threads, each of which counts the games and points of every (position key, move) pair up to the
+// maximum ply in its own open addressing table. A full table is sorted and spilled to a temporary run file, so memory
+// use is bounded by the table size however large the input is, and once every game has been replayed the runs are
+// merged, a bounded number at a time, into the book. A move's weight is the points scored with it by the player who
+// played it, two for a win and one for a draw (or an unknown result), scaled down if a position's weights do not fit
+// in 16 bits. Moves played in fewer than the minimum number of games, or that only lost, are left out
+public class BookBuilder {
+    public static final int DEFAULT_MAX_PLY = 24;
+    public static final int DEFAULT_TABLE_SIZE = 1 << 19;
+
+    private static final int GAMES_IN_FLIGHT_PER_THREAD = 64;
+    private static final int MAX_RUNS_PER_MERGE = 64;
+    private static final int MAX_WEIGHT = 0xFFFF;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final PgnGame END_OF_INPUT = new PgnGame(-1);
+
+    private final int maxPly;
+    private final int minGames;
+    private final int threads;
+    private int tableSize = DEFAULT_TABLE_SIZE;
+    private Path tempDirectory;
+
+    private final List<Path> runs;
+    private final AtomicLong gamesReplayed;
+    private final AtomicLong gamesSkipped;
+    private final AtomicLong movesCounted;
+    private long entriesWritten;
+    private IOException workerError;
+
+    /**
+     * Construct a new book builder that counts the moves of the first maxPly plies of each game, keeps moves played in
+     * at least minGames games and replays games on the given number of worker threads
+     */
+    public BookBuilder(int maxPly, int minGames, int threads) {
+        this.maxPly = Math.max(1, maxPly);
+        this.minGames = Math.max(1, minGames);
+        this.threads = Math.max(1, threads);
+        this.runs = Collections.synchronizedList(new ArrayList<>());
+        this.gamesReplayed = new AtomicLong();
+        this.gamesSkipped = new AtomicLong();
+        this.movesCounted = new AtomicLong();
+    }
+
+    /**
+     * Build a book from every game of the given reader and write it to the given path, replacing any existing file
+     *
+     * @return the number of entries written
+     * @throws IOException if a run file or the book cannot be written
+     */
+    public long build(PgnReader reader, Path output) throws IOException, InterruptedException {
+        BlockingQueue<PgnGame> games = new ArrayBlockingQueue<>(threads * GAMES_IN_FLIGHT_PER_THREAD);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        runs.clear();
+        gamesReplayed.set(0);
+        gamesSkipped.set(0);
+        movesCounted.set(0);
+        entriesWritten = 0;
+        workerError = null;
+        reader.setResolveMoves(false);
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                pool.execute(() -> replayGames(games));
+            }
+
+            try {
+                PgnGame pgnGame;
+
+                while ((pgnGame = reader.next()) != null && getWorkerError() == null) {
+                    games.put(pgnGame);
+                }
+            } finally {
+                for (int i = 0; i < threads; i++) {
+                    games.put(END_OF_INPUT);
+                }
+
+                pool.shutdown();
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+
+            if (getWorkerError() != null) {
+                throw getWorkerError();
+            }
+
+            while (runs.size() > MAX_RUNS_PER_MERGE) {
+                List<Path> merged = new ArrayList<>(runs.subList(0, MAX_RUNS_PER_MERGE));
+                runs.subList(0, MAX_RUNS_PER_MERGE).clear();
+                runs.add(mergeRuns(merged));
+            }
+
+            try (DataOutputStream book = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output),
+                    IO_BUFFER_SIZE))) {
+                BookEntryWriter writer = new BookEntryWriter(book);
+                merge(runs, writer);
+                writer.finish();
+            }
+        } finally {
+            for (Path run: runs) {
+                Files.deleteIfExists(run);
+            }
+            runs.clear();
+        }
+
+        return entriesWritten;
+    }
+
+    /**
+     * Replay games from the given queue until the end of input is taken from it. A game that fails to replay for any
+     * other reason than an unresolvable move is skipped, keeping the moves it counted before failing. After an error
+     * the remaining games are only taken from the queue, so that the reading thread is never left waiting for space
+     */
+    private void replayGames(BlockingQueue<PgnGame> games) {
+        MoveTable table = new MoveTable(tableSize);
+        Game game = new Game();
+
+        try {
+            PgnGame pgnGame;
+
+            while ((pgnGame = games.take()) != END_OF_INPUT) {
+                if (getWorkerError() == null) {
+                    try {
+                        replayGame(pgnGame, game, table);
+                    } catch (RuntimeException e) {
+                        gamesSkipped.incrementAndGet();
+                    }
+                }
+            }
+
+            if (getWorkerError() == null) {
+                table.spill();
+            }
+        } catch (IOException e) {
+            setWorkerError(e);
+            drain(games);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain(BlockingQueue<PgnGame> games) {
+        try {
+            while (games.take() != END_OF_INPUT) {
+                // discard the game
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Count the moves of the first maxPly plies of the given game, using the given game to replay them. A game stops
+     * counting at a move that cannot be resolved, and a game whose starting position cannot be set up counts nothing
+     */
+    private void replayGame(PgnGame pgnGame, Game game, MoveTable table) throws IOException {
+        int whitePoints = points(pgnGame.getResult(), PgnGame.WHITE_WIN);
+        int blackPoints = points(pgnGame.getResult(), PgnGame.BLACK_WIN);
+        int plies = Math.min(maxPly, pgnGame.getSanMoves().size());
+        long moves = 0;
+
+        try {
+            game.setBoardFEN(pgnGame.getStartFen());
+
+            for (int ply = 0; ply < plies; ply++) {
+                Move move = SanUtility.parseMove(game, pgnGame.getSanMoves().get(ply));
+                int points = game.getCurrentTurn().isWhite() ? whitePoints : blackPoints;
+
+                table.add(PolyglotZobrist.calculateKey(game), PolyglotBook.encodeMove(move), points);
+                game.makeMove(move);
+                moves++;
+            }
+        } catch (IllegalArgumentException e) {
+            // count the moves up to the one that could not be resolved
+        }
+
+        gamesReplayed.incrementAndGet();
+        movesCounted.addAndGet(moves);
+    }
+
+    /**
+     * Return the points the player who wins with the given result scores from a game with the given result
+     */
+    private static int points(String result, String win) {
+        if (result.equals(win)) {
+            return 2;
+        } else if (result.equals(PgnGame.WHITE_WIN) || result.equals(PgnGame.BLACK_WIN)) {
+            return 0;
+        }
+
+        return 1;
+    }
+
+    /**
+     * Merge the given runs into a new run and delete them
+     *
+     * @return the path of the merged run
+     */
+    private Path mergeRuns(List<Path> inputs) throws IOException {
+        Path merged = createRunFile();
+
+        try (DataOutputStream output = openRun(merged)) {
+            merge(inputs, (key, move, games, points) -> writeRecord(output, key, move, games, points));
+        }
+
+        for (Path input: inputs) {
+            Files.delete(input);
+        }
+
+        return merged;
+    }
+
+    /**
+     * Merge the records of the given runs, passing each (key, move) pair to the given consumer once, in increasing
+     * order of unsigned key and then move, with its games and points summed over the runs
+     */
+    private static void merge(List<Path> inputs, RecordConsumer consumer) throws IOException {
+        PriorityQueue<Run> queue = new PriorityQueue<>(Math.max(1, inputs.size()),
+                (a, b) -> compare(a.key, a.move, b.key, b.move));
+        List<Run> open = new ArrayList<>();
+
+        try {
+            for (Path input: inputs) {
+                Run run = new Run(input);
+                open.add(run);
+
+                if (run.next()) {
+                    queue.add(run);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                Run first = queue.poll();
+                long key = first.key;
+                int move = first.move;
+                long games = first.games;
+                long points = first.points;
+
+                if (first.next()) {
+                    queue.add(first);
+                }
+
+                while (!queue.isEmpty() && queue.peek().key == key && queue.peek().move == move) {
+                    Run run = queue.poll();
+                    games += run.games;
+                    points += run.points;
+
+                    if (run.next()) {
+                        queue.add(run);
+                    }
+                }
+
+                consumer.accept(key, move, games, points);
+            }
+        } finally {
+            for (Run run: open) {
+                run.close();
+            }
+        }
+    }
+
+    private static int compare(long key1, int move1, long key2, int move2) {
+        int order = Long.compareUnsigned(key1, key2);
+        return order != 0 ? order : Integer.compare(move1, move2);
+    }
+
+    private Path createRunFile() throws IOException {
+        return tempDirectory == null ? Files.createTempFile("book", ".run") :
+                Files.createTempFile(tempDirectory, "book", ".run");
+    }
+
+    private static DataOutputStream openRun(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), IO_BUFFER_SIZE));
+    }
+
+    private static void writeRecord(DataOutputStream output, long key, int move, long games, long points)
+            throws IOException {
+        output.writeLong(key);
+        output.writeShort(move);
+        output.writeLong(games);
+        output.writeLong(points);
+    }
+
+    private synchronized IOException getWorkerError() {
+        return workerError;
+    }
+
+    private synchronized void setWorkerError(IOException error) {
+        if (workerError == null) {
+            workerError = error;
+        }
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public long getGamesReplayed() {
+        return gamesReplayed.get();
+    }
+
+    public long getGamesSkipped() {
+        return gamesSkipped.get();
+    }
+
+    public long getMovesCounted() {
+        return movesCounted.get();
+    }
+
+    public long getEntriesWritten() {
+        return entriesWritten;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Set the number of (position key, move) pairs each worker counts in memory before spilling them to a run file
+     */
+    public void setTableSize(int tableSize) {
+        this.tableSize = Math.max(1, tableSize);
+    }
+
+    /**
+     * Set the directory run files are written to, or null for the default temporary directory
+     */
+    public void setTempDirectory(Path tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+
+    // Represents a receiver of the merged records of a set of runs
+    private interface RecordConsumer {
+        void accept(long key, int move, long games, long points) throws IOException;
+    }
+
+    // Represents a run file being merged, positioned at its current record
+    private static class Run implements Closeable {
+        private final DataInputStream input;
+        private long key;
+        private int move;
+        private long games;
+        private long points;
+
+        Run(Path path) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER_SIZE));
+        }
+
+        /**
+         * Read the next record of the run
+         *
+         * @return false if the run has no more records
+         */
+        boolean next() throws IOException {
+            try {
+                key = input.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+
+            move = input.readUnsignedShort();
+            games = input.readLong();
+            points = input.readLong();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    // Represents the last merge, which gathers the moves of each position and writes them as book entries in order of
+    // decreasing weight
+    private class BookEntryWriter implements RecordConsumer {
+        private final DataOutputStream book;
+        private final List<long[]> moves;
+        private long key;
+
+        BookEntryWriter(DataOutputStream book) {
+            this.book = book;
+            this.moves = new ArrayList<>();
+        }
+
+        @Override
+        public void accept(long key, int move, long games, long points) throws IOException {
+            if (!moves.isEmpty() && key != this.key) {
+                writePosition();
+            }
+
+            this.key = key;
+
+            if (games >= minGames && points > 0) {
+                moves.add(new long[] {move, points});
+            }
+        }
+
+        private void writePosition() throws IOException {
+            long maxPoints = 0;
+
+            for (long[] move: moves) {
+                maxPoints = Math.max(maxPoints, move[1]);
+            }
+
+            // stable, so moves of equal weight stay in move order
+            moves.sort((a, b) -> Long.compare(b[1], a[1]));
+
+            for (long[] move: moves) {
+                long weight = maxPoints <= MAX_WEIGHT ? move[1] : Math.max(1, move[1] * MAX_WEIGHT / maxPoints);
+
+                book.writeLong(key);
+                book.writeShort((int) move[0]);
+                book.writeShort((int) weight);
+                book.writeInt(0);
+                entriesWritten++;
+            }
+
+            moves.clear();
+        }
+
+        /**
+         * Write the moves of the last position, once every record has been accepted
+         */
+        void finish() throws IOException {
+            if (!moves.isEmpty()) {
+                writePosition();
+            }
+        }
+    }
+
+    // Represents a worker's open addressing table of the games and points of (position key, move) pairs. Slots with a
+    // move of 0 are empty, so moves are stored with bit 16 set
+    private class MoveTable {
+        private static final int OCCUPIED = 1 << 16;
+
+        private final long[] keys;
+        private final int[] moves;
+        private final int[] games;
+        private final int[] points;
+        private final int mask;
+        private final int capacity;
+        private int count;
+
+        MoveTable(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(2, capacity - 1)) << 2;
+
+            this.keys = new long[slots];
+            this.moves = new int[slots];
+            this.games = new int[slots];
+            this.points = new int[slots];
+            this.mask = slots - 1;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Count a game in which the given move was played in the position with the given key, scoring the given points
+         */
+        void add(long key, int move, int points) throws IOException {
+            int stored = move | OCCUPIED;
+            long hash = (key ^ move) * 0x9E3779B97F4A7C15L;
+            int slot = (int) (hash >>> 32) & mask;
+
+            while (moves[slot] != 0) {
+                if (keys[slot] == key && moves[slot] == stored) {
+                    games[slot]++;
+                    this.points[slot] += points;
+                    return;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            moves[slot] = stored;
+            games[slot] = 1;
+            this.points[slot] = points;
+            count++;
+
+            if (count >= capacity) {
+                spill();
+            }
+        }
+
+        /**
+         * Write the pairs of the table to a new run file in merge order and empty the table
+         */
+        void spill() throws IOException {
+            if (count == 0) {
+                return;
+            }
+
+            int[] order = new int[count];
+            int n = 0;
+
+            for (int slot = 0; slot < moves.length; slot++) {
+                if (moves[slot] != 0) {
+                    order[n++] = slot;
+                }
+            }
+
+            sort(order, 0, n);
+
+            Path run = createRunFile();
+            runs.add(run);
+
+            try (DataOutputStream output = openRun(run)) {
+                for (int slot: order) {
+                    writeRecord(output, keys[slot], moves[slot] & 0xFFFF, games[slot], points[slot]);
+                }
+            }
+
+            Arrays.fill(moves, 0);
+            count = 0;
+        }
+
+        /**
+         * Sort the slots of order[from, to) in merge order, by quicksort down to short ranges and insertion sort below
+         */
+        private void sort(int[] order, int from, int to) {
+            while (to - from > 16) {
+                int pivot = order[(from + to) >>> 1];
+                long pivotKey = keys[pivot];
+                int pivotMove = moves[pivot];
+                int i = from;
+                int j = to - 1;
+
+                while (i <= j) {
+                    while (compare(keys[order[i]], moves[order[i]], pivotKey, pivotMove) < 0) {
+                        i++;
+                    }
+                    while (compare(keys[order[j]], moves[order[j]], pivotKey, pivotMove) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int swap = order[i];
+                        order[i++] = order[j];
+                        order[j--] = swap;
+                    }
+                }
+
+                // recurse into the smaller part, loop on the larger one
+                if (j + 1 - from < to - i) {
+                    sort(order, from, j + 1);
+                    from = i;
+                } else {
+                    sort(order, i, to);
+                    to = j + 1;
+                }
+            }
+
+            for (int i = from + 1; i < to; i++) {
+                int slot = order[i];
+                int j = i - 1;
+
+                while (j >= from && compare(keys[order[j]], moves[order[j]], keys[slot], moves[slot]) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = slot;
+            }
+        }
+    }
+
+    /**
+     * Usage: BookBuilder <input.pgn> <output.bin> [--max-ply n] [--min-games n] [--threads n] [--table-size n]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("usage: BookBuilder <input.pgn> <output.bin> [--max-ply n] [--min-games n] " +
+                    "[--threads n] [--table-size n]");
+            System.exit(2);
+        }
+
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        int maxPly = DEFAULT_MAX_PLY;
+        int minGames = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int tableSize = DEFAULT_TABLE_SIZE;
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--max-ply":
+                    maxPly = Integer.parseInt(args[++i]);
+                    break;
+                case "--min-games":
+                    minGames = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--table-size":
+                    tableSize = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        BookBuilder builder = new BookBuilder(maxPly, minGames, threads);
+        builder.setTableSize(tableSize);
+        long startTime = System.currentTimeMillis();
+
+        try (PgnReader reader = new PgnReader(Files.newBufferedReader(input, StandardCharsets.ISO_8859_1))) {
+            long entries = builder.build(reader, output);
+            System.err.println("replayed " + builder.getGamesReplayed() + " games, skipped " +
+                    builder.getGamesSkipped() + ", " + builder.getMovesCounted() + " moves, wrote " + entries + " entries in " + (System.currentTimeMillis() - startTime) + " ms");
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package dataset;
+
+import model.Board;
+import model.Game;
+import model.Move;
+import model.Piece;
+import model.Player;
+import model.generation.PseudoLegalMoveGenerator;
+import model.tablebase.EndgameIndex;
+import model.tablebase.EndgameTable;
+import model.tablebase.EndgameTablebase;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents a generator of endgame tables (see EndgameTable) by retrograde analysis. The tables of every ending a
+// signature can turn into by a capture or a promotion are generated first, and then every position of the signature
+// is scored in two steps on a pool of worker threads. The first pass generates each position's legal moves with the
+// engine's own move generator, scoring mates and stalemates and probing the successor tables for captures and
+// promotions, and counts the distinct moves that stay in the table. Each later pass takes the positions mated in n - 1
+// plies and un-moves them: a predecessor to move there mates in n plies, and a predecessor whose every move has now
+// been found to lose is mated in n plies, once its counter of unresolved moves reaches zero. Positions still unscored
+// when no pass finds any more are draws. Positions are claimed with atomic updates, so the passes need no locks
+public class EndgameGenerator {
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final short ILLEGAL = -1; // an unused index, or a position whose side not to move is in check
+    private static final short DRAW = -2; // a stalemate, or a position with no moves left to resolve
+    private static final int NO_WIN = Integer.MAX_VALUE;
+    private static final int INITIAL_CHUNK = 1 << 16; // positions per task of the first pass
+    private static final int FRONTIER_CHUNK = 1 << 10; // positions per task of the later passes
+    private static final String BARE_KINGS = "KvK";
+
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(short[].class);
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final Path directory;
+    private final int threads;
+    private final EndgameTablebase tablebase;
+
+    // the table being generated: plies to mate plus one (0 while unknown), moves left to resolve and the longest loss
+    // through a capture or promotion, all indexed by position
+    private EndgameIndex index;
+    private short[] values;
+    private byte[] counters;
+    private short[] exitLosses;
+
+    /**
+     * Construct a new generator writing tables to the given directory, which is created if it does not exist. Tables
+     * already in the directory are used as they are rather than generated again
+     *
+     * @throws IOException if the directory cannot be created or one of its tables cannot be read
+     */
+    public EndgameGenerator(Path directory, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.threads = threads;
+        this.tablebase = new EndgameTablebase(directory);
+    }
+
+    /**
+     * Generate the table of the given signature, e.g. KRvK, after the tables it depends on, unless it already exists
+     *
+     * @return the table, mapped from its file, or null for KvK, which needs none
+     * @throws IllegalArgumentException if the signature is malformed or has more than EndgameIndex.MAX_PIECES pieces
+     */
+    public EndgameTable generate(String signature) throws IOException, InterruptedException {
+        new EndgameIndex(signature);
+        String[] sides = signature.split("v");
+        signature = EndgameIndex.canonicalSignature(sides[0], sides[1]);
+
+        if (signature.equals(BARE_KINGS)) {
+            return null;
+        }
+
+        if (!tablebase.hasTable(signature)) {
+            for (String successor: successors(sides[0], sides[1])) {
+                generate(successor);
+            }
+
+            build(signature);
+        }
+
+        return tablebase.getTable(signature);
+    }
+
+    /**
+     * Return the signatures the given sides can turn into by one capture, promotion or both
+     */
+    private static Set<String> successors(String white, String black) {
+        Set<String> successors = new TreeSet<>();
+
+        for (int side = 0; side < 2; side++) {
+            String mover = side == 0 ? white : black;
+            String other = side == 0 ? black : white;
+            List<String> otherAfterCaptures = new ArrayList<>();
+            otherAfterCaptures.add(other);
+
+            for (int i = 1; i < other.length(); i++) {
+                String captured = other.substring(0, i) + other.substring(i + 1);
+                otherAfterCaptures.add(captured);
+                successors.add(EndgameIndex.canonicalSignature(mover, captured));
+            }
+
+            int pawn = mover.indexOf('P');
+            if (pawn < 0) {
+                continue;
+            }
+
+            for (char promotion: "QRBN".toCharArray()) {
+                String promoted = sortPieces(mover.substring(0, pawn) + mover.substring(pawn + 1) + promotion);
+                for (String remaining: otherAfterCaptures) {
+                    successors.add(EndgameIndex.canonicalSignature(promoted, remaining));
+                }
+            }
+        }
+
+        successors.remove(BARE_KINGS);
+        return successors;
+    }
+
+    private static String sortPieces(String side) {
+        char[] letters = side.toCharArray();
+        Character[] boxed = new Character[letters.length];
+        for (int i = 0; i < letters.length; i++) {
+            boxed[i] = letters[i];
+        }
+
+        Arrays.sort(boxed, (first, second) -> "KQRBNP".indexOf(first) - "KQRBNP".indexOf(second));
+
+        StringBuilder sorted = new StringBuilder();
+        for (char letter: boxed) {
+            sorted.append(letter);
+        }
+
+        return sorted.toString();
+    }
+
+    /**
+     * Score every position of the given signature, whose successor tables must all be available, and write its table
+     */
+    private void build(String signature) throws IOException, InterruptedException {
+        index = new EndgameIndex(signature);
+        values = new short[index.size()];
+        counters = new byte[index.size()];
+        exitLosses = new short[index.size()];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Seeds>> tasks = new ArrayList<>();
+            for (int start = 0; start < index.size(); start += INITIAL_CHUNK) {
+                int from = start;
+                int to = Math.min(index.size(), start + INITIAL_CHUNK);
+                tasks.add(() -> new Worker().initialise(from, to));
+            }
+
+            Seeds seeds = merge(executor.invokeAll(tasks));
+            IntList frontier = seeds.resolved;
+
+            for (int level = 1; !frontier.isEmpty() || !seeds.levels.isEmpty(); level++) {
+                IntList current = frontier;
+                int currentLevel = level;
+
+                tasks.clear();
+                for (int start = 0; start < current.size(); start += FRONTIER_CHUNK) {
+                    int from = start;
+                    int to = Math.min(current.size(), start + FRONTIER_CHUNK);
+                    tasks.add(() -> new Worker().retrograde(current, from, to, currentLevel));
+                }
+
+                Seeds found = merge(executor.invokeAll(tasks));
+                seeds.addLevels(found);
+                frontier = found.resolved;
+
+                // positions whose score was already known to come through a capture or promotion
+                IntList seeded = seeds.levels.remove(level);
+                if (seeded != null) {
+                    for (int i = 0; i < seeded.size(); i++) {
+                        int position = seeded.get(i);
+                        if (VALUES.compareAndSet(values, position, (short) 0, (short) (level + 1))) {
+                            frontier.add(position);
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Path file = directory.resolve(signature + EndgameTable.EXTENSION);
+        EndgameTable.write(file, index, values);
+        tablebase.addTable(new EndgameTable(file));
+
+        index = null;
+        values = null;
+        counters = null;
+        exitLosses = null;
+    }
+
+    /**
+     * Atomically decrement the counter of the given position, by a compare-and-set loop rather than getAndAdd, whose
+     * byte array form gave wrong counts once compiled by the JDK 17 server compiler
+     *
+     * @return the counter before the decrement
+     */
+    private int decrement(int position) {
+        byte counter;
+        do {
+            counter = (byte) COUNTERS.getVolatile(counters, position);
+        } while (!COUNTERS.compareAndSet(counters, position, counter, (byte) (counter - 1)));
+        return counter;
+    }
+
+    private static Seeds merge(List<Future<Seeds>> futures) throws IOException, InterruptedException {
+        Seeds merged = new Seeds();
+
+        for (Future<Seeds> future: futures) {
+            try {
+                Seeds seeds = future.get();
+                merged.resolved.addAll(seeds.resolved);
+                merged.addLevels(seeds);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+
+        return merged;
+    }
+
+    // Represents the positions a task resolved at the level being processed, and those it found to be resolved at a
+    // later level because their score comes through a capture or promotion
+    private static class Seeds {
+        private final IntList resolved = new IntList();
+        private final Map<Integer, IntList> levels = new TreeMap<>();
+
+        private void add(int level, int position) {
+            levels.computeIfAbsent(level, key -> new IntList()).add(position);
+        }
+
+        private void addLevels(Seeds seeds) {
+            for (Map.Entry<Integer, IntList> entry: seeds.levels.entrySet()) {
+                levels.computeIfAbsent(entry.getKey(), key -> new IntList()).addAll(entry.getValue());
+            }
+        }
+    }
+
+    // Represents one task's game, set up on a board array that positions are decoded into
+    private class Worker {
+        private final Game game = new Game();
+        private final Player[] players = game.getPlayers();
+        private final PseudoLegalMoveGenerator pseudoLegalMoveGenerator = new PseudoLegalMoveGenerator();
+        private final int[] board = new int[64];
+        private final int[] children = new int[256];
+
+        private Worker() {
+            game.setBoardFEN("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+            game.getBoard().setBoard(board);
+        }
+
+        private void setTurn(boolean white) {
+            game.setCurrentTurn(players[white ? Game.WHITE_PLAYER_INDEX : Game.BLACK_PLAYER_INDEX]);
+        }
+
+        /**
+         * Score the mates, stalemates and exits of the given range of positions and count their moves in the table
+         */
+        private Seeds initialise(int from, int to) {
+            Seeds seeds = new Seeds();
+
+            for (int position = from; position < to; position++) {
+                boolean white = index.isWhiteToMove(position);
+
+                if (!index.decode(position, board) || index.encode(board, white) != position ||
+                        game.getBoard().isInCheck(!white)) {
+                    values[position] = ILLEGAL;
+                    continue;
+                }
+
+                setTurn(white);
+                List<Move> moves = game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn());
+
+                if (moves.isEmpty()) {
+                    if (game.isInCheck()) {
+                        values[position] = 1;
+                        seeds.resolved.add(position);
+                    } else {
+                        values[position] = DRAW;
+                    }
+                    continue;
+                }
+
+                int childCount = 0;
+                int winExit = NO_WIN;
+                int lossExit = 0;
+                boolean drawExit = false;
+
+                for (Move move: moves) {
+                    game.makeMove(move);
+
+                    if (move.getCapturedPiece() != 0 || move.isPromotionMove()) {
+                        int code = tablebase.probeCode(board, !white);
+
+                        if (code == EndgameTablebase.UNKNOWN_CODE) {
+                            throw new IllegalStateException("no table for " + EndgameIndex.material(board, true) +
+                                    "v" + EndgameIndex.material(board, false));
+                        }
+
+                        // a successor mated in c - 1 plies is a mate in c plies, and the other way round
+                        if (code == 0) {
+                            drawExit = true;
+                        } else if (code % 2 == 1) {
+                            winExit = Math.min(winExit, code);
+                        } else {
+                            lossExit = Math.max(lossExit, code);
+                        }
+                    } else {
+                        int child = index.encode(board, !white);
+                        int i = 0;
+                        while (i < childCount && children[i] != child) {
+                            i++;
+                        }
+                        if (i == childCount) {
+                            children[childCount++] = child;
+                        }
+                    }
+
+                    game.undoMove(move);
+                }
+
+                // a drawing or winning exit means the position is never lost, so its counter never reaches zero
+                counters[position] = (byte) (childCount + (drawExit || winExit != NO_WIN ? 1 : 0));
+                exitLosses[position] = (short) lossExit;
+
+                if (winExit != NO_WIN) {
+                    seeds.add(winExit, position);
+                } else if (childCount == 0 && !drawExit) {
+                    seeds.add(lossExit, position);
+                } else if (childCount == 0) {
+                    values[position] = DRAW;
+                }
+            }
+
+            return seeds;
+        }
+
+        /**
+         * Resolve the predecessors of the given range of the frontier, the positions scored at the previous level
+         */
+        private Seeds retrograde(IntList frontier, int from, int to, int level) {
+            Seeds seeds = new Seeds();
+            boolean wins = level % 2 == 1;
+
+            for (int i = from; i < to; i++) {
+                int position = frontier.get(i);
+                index.decode(position, board);
+                int count = predecessors(index.isWhiteToMove(position));
+
+                for (int k = 0; k < count; k++) {
+                    int predecessor = children[k];
+
+                    if (wins) {
+                        if (VALUES.compareAndSet(values, predecessor, (short) 0, (short) (level + 1))) {
+                            seeds.resolved.add(predecessor);
+                        }
+                    } else if (decrement(predecessor) == 1) {
+                        int lossLevel = Math.max(level, exitLosses[predecessor]);
+
+                        if (lossLevel > level) {
+                            seeds.add(lossLevel, predecessor);
+                        } else if (VALUES.compareAndSet(values, predecessor, (short) 0, (short) (level + 1))) {
+                            seeds.resolved.add(predecessor);
+                        }
+                    }
+                }
+            }
+
+            return seeds;
+        }
+
+        /**
+         * Collect into children the distinct legal positions that reach the decoded one by a move that is neither a
+         * capture, a promotion nor castling, i.e. that stays in the table
+         *
+         * @return the number of predecessors
+         */
+        private int predecessors(boolean whiteToMove) {
+            boolean moverWhite = !whiteToMove;
+            int count = 0;
+
+            setTurn(moverWhite);
+            for (Move move: pseudoLegalMoveGenerator.generatePseudoLegalMoves(game, game.getCurrentTurn())) {
+                if (move.getCapturedPiece() != 0 || Math.abs(move.getMovedPiece()) == Piece.wPawn ||
+                        move.isKingSideCastleMove() || move.isQueenSideCastleMove()) {
+                    continue;
+                }
+
+                int start = Board.getSquareIndex(move.getStartX(), move.getStartY());
+                int end = Board.getSquareIndex(move.getEndX(), move.getEndY());
+                count = addPredecessor(start, end, moverWhite, count);
+            }
+
+            // pawns step back, or double step back from the fourth rank
+            int pawn = moverWhite ? Piece.wPawn : Piece.bPawn;
+            int back = moverWhite ? -8 : 8;
+            for (int square = 0; square < 64; square++) {
+                int previous = square + back;
+
+                if (board[square] != pawn || previous < 8 || previous >= 56 || board[previous] != Piece.empty) {
+                    continue;
+                }
+
+                count = addPredecessor(square, previous, moverWhite, count);
+
+                int rank = square >> 3;
+                if (rank == (moverWhite ? 3 : 4) && board[previous + back] == Piece.empty) {
+                    count = addPredecessor(square, previous + back, moverWhite, count);
+                }
+            }
+
+            return count;
+        }
+
+        private int addPredecessor(int square, int previous, boolean moverWhite, int count) {
+            board[previous] = board[square];
+            board[square] = Piece.empty;
+
+            if (!game.getBoard().isInCheck(!moverWhite)) {
+                int predecessor = index.encode(board, moverWhite);
+                int i = 0;
+                while (i < count && children[i] != predecessor) {
+                    i++;
+                }
+                if (i == count) {
+                    children[count++] = predecessor;
+                }
+            }
+
+            board[square] = board[previous];
+            board[previous] = Piece.empty;
+            return count;
+        }
+    }
+
+    // Represents a growable list of ints
+    private static class IntList {
+        private int[] elements = new int[16];
+        private int size;
+
+        private void add(int element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = element;
+        }
+
+        private void addAll(IntList list) {
+            if (size + list.size > elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(size + list.size, size * 2));
+            }
+            System.arraycopy(list.elements, 0, elements, size, list.size);
+            size += list.size;
+        }
+
+        private int get(int i) {
+            return elements[i];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public EndgameTablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Generate the tables of the given signatures and those they depend on into the output directory
+     *
+     * Usage: EndgameGenerator [--output directory] [--threads n] signature...
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path output = Paths.get("endgames");
+        int threads = DEFAULT_THREADS;
+        List<String> signatures = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--output":
+                    output = Paths.get(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("unknown option " + args[i]);
+                        System.exit(1);
+                    }
+                    signatures.add(args[i]);
+            }
+        }
+
+        if (signatures.isEmpty()) {
+            System.err.println("usage: EndgameGenerator [--output directory] [--threads n] signature...");
+            System.exit(1);
+        }
+
+        EndgameGenerator generator = new EndgameGenerator(output, threads);
+        for (String signature: signatures) {
+            long start = System.nanoTime();
+            EndgameTable table = generator.generate(signature);
+            if (table == null) {
+                continue;
+            }
+            System.err.println(table.getSignature() + ": " + table.getIndex().size() + " positions, " +
+                    table.getBitsPerPosition() + " bits each, " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        generator.getTablebase().close();
+    }
+}
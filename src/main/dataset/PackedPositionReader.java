@@ -0,0 +1,101 @@
+package dataset;
+
+import model.Game;
+import model.PackedPosition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Represents a reader of a file of packed positions, which maps the whole file into memory and decodes records in
+// place. A mapping is limited to 2GB, so larger files are mapped as several chunks of whole records
+public class PackedPositionReader implements Closeable {
+    static final long DEFAULT_CHUNK_SIZE = (Integer.MAX_VALUE / PackedPosition.SIZE) * (long) PackedPosition.SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long recordsPerChunk;
+    private final long size;
+
+    /**
+     * Construct a new reader of the packed position file at the given path
+     *
+     * @throws IOException if the file cannot be mapped or its length is not a whole number of records
+     */
+    public PackedPositionReader(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    PackedPositionReader(Path path, long chunkSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long length = channel.size();
+
+        if (length % PackedPosition.SIZE != 0) {
+            channel.close();
+            throw new IOException(path + " is not a packed position file: length " + length + " is not a multiple of " +
+                    PackedPosition.SIZE);
+        }
+
+        this.recordsPerChunk = chunkSize / PackedPosition.SIZE;
+        this.size = length / PackedPosition.SIZE;
+        this.chunks = new MappedByteBuffer[(int) ((size + recordsPerChunk - 1) / recordsPerChunk)];
+
+        for (int i = 0; i < chunks.length; i++) {
+            long start = i * recordsPerChunk * PackedPosition.SIZE;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, length - start));
+        }
+    }
+
+    /**
+     * Set the given game to the position of the record with the given index
+     */
+    public void read(long index, Game game) {
+        PackedPosition.decode(getChunk(index), getOffset(index), game);
+    }
+
+    /**
+     * Copy the record with the given index into the given array of PackedPosition.SIZE bytes
+     */
+    public void read(long index, byte[] record) {
+        ByteBuffer chunk = getChunk(index);
+        int offset = getOffset(index);
+
+        for (int i = 0; i < PackedPosition.SIZE; i++) {
+            record[i] = chunk.get(offset + i);
+        }
+    }
+
+    /**
+     * Return the mapped buffer holding the record with the given index, for callers that read fields directly; the
+     * record starts at getOffset(index)
+     *
+     * @throws IndexOutOfBoundsException if there is no record with the given index
+     */
+    public ByteBuffer getChunk(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("record " + index + " of " + size);
+        }
+
+        return chunks[(int) (index / recordsPerChunk)];
+    }
+
+    public int getOffset(long index) {
+        return (int) (index % recordsPerChunk) * PackedPosition.SIZE;
+    }
+
+    /**
+     * Return the number of records in the file
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,123 @@
+package dataset;
+
+import model.Game;
+import model.PackedPosition;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Represents a writer of a file of packed positions. Records are encoded into a chunk buffer, which is written through
+// the channel at its place in the file whenever it fills or the writer is flushed, so that the file never holds more
+// than the records written and nothing of it stays mapped once the writer is closed
+public class PackedPositionWriter implements Closeable, Flushable {
+    static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final ByteBuffer chunk;
+    private long chunkStart;
+    private long count;
+
+    /**
+     * Construct a new writer of the packed position file at the given path, appending to its records if append is
+     * true and the file exists, otherwise replacing it
+     *
+     * @throws IOException if the file cannot be opened, or append is true and its length is not a whole number of
+     *                     records
+     */
+    public PackedPositionWriter(Path path, boolean append) throws IOException {
+        this(path, append, DEFAULT_CHUNK_SIZE);
+    }
+
+    PackedPositionWriter(Path path, boolean append, int chunkSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.chunkSize = chunkSize / PackedPosition.SIZE * PackedPosition.SIZE;
+
+        if (!append) {
+            channel.truncate(0);
+        } else if (channel.size() % PackedPosition.SIZE != 0) {
+            channel.close();
+            throw new IOException(path + " is not a packed position file");
+        }
+
+        this.count = channel.size() / PackedPosition.SIZE;
+        this.chunkStart = count * PackedPosition.SIZE;
+        this.chunk = ByteBuffer.allocate(this.chunkSize);
+    }
+
+    /**
+     * Append the position of the given game
+     */
+    public void write(Game game) throws IOException {
+        PackedPosition.encode(game, nextRecord(), (int) (count * PackedPosition.SIZE - chunkStart));
+        count++;
+    }
+
+    /**
+     * Append the given encoded record of PackedPosition.SIZE bytes
+     */
+    public void write(byte[] record) throws IOException {
+        ByteBuffer buffer = nextRecord();
+        int offset = (int) (count * PackedPosition.SIZE - chunkStart);
+
+        for (int i = 0; i < PackedPosition.SIZE; i++) {
+            buffer.put(offset + i, record[i]);
+        }
+        count++;
+    }
+
+    /**
+     * Return the chunk the next record goes into, writing the current chunk out and starting the next if it is full
+     */
+    private ByteBuffer nextRecord() throws IOException {
+        if ((count + 1) * PackedPosition.SIZE > chunkStart + chunkSize) {
+            writeChunk();
+            chunkStart += chunkSize;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Write the records of the current chunk to their place in the file
+     */
+    private void writeChunk() throws IOException {
+        ByteBuffer records = chunk.duplicate();
+        records.position(0).limit((int) (count * PackedPosition.SIZE - chunkStart));
+
+        long position = chunkStart;
+        while (records.hasRemaining()) {
+            position += channel.write(records, position);
+        }
+    }
+
+    /**
+     * Return the number of records in the file, including any it held before
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeChunk();
+    }
+
+    /**
+     * Write out the buffered records and close the file
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
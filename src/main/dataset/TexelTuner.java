@@ -0,0 +1,489 @@
+package dataset;
+
+import analysis.AnalysisPosition;
+import model.Game;
+import model.search.Evaluation;
+import model.search.EvaluationParameters;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents a Texel tuner of the evaluation parameters: given quiet positions labelled with the results of the games
+// they were taken from, it looks for the weights whose evaluations best predict those results. An evaluation e, in
+// pawns from white's perspective, predicts the score 1 / (1 + 10^(-K e / 4)), and the error to minimise is the mean
+// squared difference between predictions and results. The evaluation is linear in its weights, so each position is
+// reduced once to its evaluation terms (see Evaluation.countTerms), stored parameter-major in primitive arrays of 17
+// bytes per position, and every evaluation afterwards is a dot product. Passes over the positions are split between a
+// pool of worker threads, each of which works through its share in cache sized blocks with loops simple enough for the
+// JIT compiler to vectorise, and the weights are optimised with Adam, a gradient descent with per weight step sizes.
+// The pawn weight is fixed by default, since the scaling constant K is fitted instead
+public class TexelTuner implements Closeable {
+    public static final int DEFAULT_ITERATIONS = 500;
+    public static final double DEFAULT_LEARNING_RATE = 0.01; // in pawns
+
+    private static final int LINES_PER_TASK = 4096;
+    private static final int BLOCK_SIZE = 1024;
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    // Is told about the error after each iteration of a tuning run
+    public interface IterationListener {
+        void iterationDone(int iteration, double error);
+    }
+
+    private final int threads;
+    private final ExecutorService pool;
+    private final boolean[] fixed;
+
+    private short[][] terms; // terms[parameter][position]
+    private byte[] results; // results in half points for white: 0, 1 or 2
+    private int size;
+    private long skipped;
+    private double scale = 1;
+
+    /**
+     * Construct a new tuner that loads and scores positions on the given number of worker threads
+     */
+    public TexelTuner(int threads) {
+        this.threads = Math.max(1, threads);
+        this.pool = Executors.newFixedThreadPool(this.threads);
+        this.fixed = new boolean[EvaluationParameters.SIZE];
+        this.fixed[EvaluationParameters.PAWN] = true;
+        this.terms = new short[EvaluationParameters.SIZE][1024];
+        this.results = new byte[1024];
+    }
+
+    /**
+     * Load every labelled position of the given reader, one per line: an EPD or FEN position with the game's result
+     * as an operation or in brackets, e.g.
+     * rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - c9 "1-0";
+     * rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1 [0.5]
+     * Lines without a position or a result are skipped
+     *
+     * @return the number of positions loaded
+     */
+    public long load(BufferedReader reader) throws IOException {
+        int before = size;
+        List<String> lines = new ArrayList<>();
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+
+            if (lines.size() == threads * LINES_PER_TASK) {
+                addAll(lines);
+                lines.clear();
+            }
+        }
+
+        addAll(lines);
+        return size - before;
+    }
+
+    /**
+     * Reduce the given lines to their terms and results on the worker threads and append them in order
+     */
+    private void addAll(List<String> lines) {
+        List<Callable<LoadedPositions>> tasks = new ArrayList<>();
+
+        for (int from = 0; from < lines.size(); from += LINES_PER_TASK) {
+            List<String> share = lines.subList(from, Math.min(lines.size(), from + LINES_PER_TASK));
+            tasks.add(() -> LoadedPositions.of(share));
+        }
+
+        for (LoadedPositions loaded: invokeAll(tasks)) {
+            for (int i = 0; i < loaded.size; i++) {
+                add(loaded.terms[i], loaded.results[i]);
+            }
+            skipped += loaded.skipped;
+        }
+    }
+
+    /**
+     * Add the given game's position with the given result from white's perspective: 1, 0.5 or 0
+     *
+     * @throws IllegalArgumentException if the result is not a game result
+     */
+    public void add(Game game, double result) {
+        if (result != 0 && result != 0.5 && result != 1) {
+            throw new IllegalArgumentException("invalid game result: " + result);
+        }
+
+        add(new Evaluation().countTerms(game), (byte) (2 * result));
+    }
+
+    private void add(int[] positionTerms, byte result) {
+        if (size == results.length) {
+            int capacity = 2 * size;
+            for (int p = 0; p < EvaluationParameters.SIZE; p++) {
+                terms[p] = Arrays.copyOf(terms[p], capacity);
+            }
+            results = Arrays.copyOf(results, capacity);
+        }
+
+        for (int p = 0; p < EvaluationParameters.SIZE; p++) {
+            terms[p][size] = (short) positionTerms[p];
+        }
+        results[size++] = result;
+    }
+
+    /**
+     * Return the result of the given line in half points for white, or -1 if it has none
+     */
+    static int parseResult(String line) {
+        if (line.contains("1/2-1/2") || line.contains("[0.5]")) {
+            return 1;
+        } else if (line.contains("1-0") || line.contains("[1.0]") || line.contains("[1]")) {
+            return 2;
+        } else if (line.contains("0-1") || line.contains("[0.0]") || line.contains("[0]")) {
+            return 0;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Return the mean squared prediction error of the given parameters over the loaded positions
+     */
+    public double error(EvaluationParameters parameters) {
+        return pass(parameters.getValues(), false)[EvaluationParameters.SIZE];
+    }
+
+    /**
+     * Set the scaling constant K to the value that minimises the error of the given parameters, found by golden
+     * section search
+     *
+     * @return the new scaling constant
+     */
+    public double fitScale(EvaluationParameters parameters) {
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = 0.05;
+        double high = 10;
+
+        while (high - low > 1e-4) {
+            double left = high - ratio * (high - low);
+            double right = low + ratio * (high - low);
+
+            scale = left;
+            double leftError = error(parameters);
+            scale = right;
+            double rightError = error(parameters);
+
+            if (leftError < rightError) {
+                high = right;
+            } else {
+                low = left;
+            }
+        }
+
+        scale = (low + high) / 2;
+        return scale;
+    }
+
+    /**
+     * Return the parameters found by the given number of Adam iterations from the given parameters, each of which
+     * computes the error and its gradient over every loaded position. Fixed parameters keep their values
+     *
+     * @param listener told about the error after each iteration, may be null
+     */
+    public EvaluationParameters tune(EvaluationParameters initial, int iterations, double learningRate,
+                                     IterationListener listener) {
+        double[] weights = initial.getValues();
+        double[] firstMoment = new double[EvaluationParameters.SIZE];
+        double[] secondMoment = new double[EvaluationParameters.SIZE];
+
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            double[] gradient = pass(weights, true);
+
+            for (int p = 0; p < EvaluationParameters.SIZE; p++) {
+                if (fixed[p]) {
+                    continue;
+                }
+
+                firstMoment[p] = BETA1 * firstMoment[p] + (1 - BETA1) * gradient[p];
+                secondMoment[p] = BETA2 * secondMoment[p] + (1 - BETA2) * gradient[p] * gradient[p];
+                double corrected1 = firstMoment[p] / (1 - Math.pow(BETA1, iteration));
+                double corrected2 = secondMoment[p] / (1 - Math.pow(BETA2, iteration));
+                weights[p] -= learningRate * corrected1 / (Math.sqrt(corrected2) + EPSILON);
+            }
+
+            if (listener != null) {
+                listener.iterationDone(iteration, gradient[EvaluationParameters.SIZE]);
+            }
+        }
+
+        return new EvaluationParameters(weights);
+    }
+
+    /**
+     * Return the gradient of the mean squared error with respect to each weight, if requested, followed by the error
+     * itself, summed over every loaded position by the worker threads
+     */
+    private double[] pass(double[] weights, boolean gradient) {
+        List<Callable<double[]>> tasks = new ArrayList<>();
+        int share = (size + threads - 1) / threads;
+
+        for (int from = 0; from < size; from += share) {
+            int start = from;
+            int end = Math.min(size, from + share);
+            tasks.add(() -> partialPass(weights, gradient, start, end));
+        }
+
+        double[] sums = new double[EvaluationParameters.SIZE + 1];
+        for (double[] partial: invokeAll(tasks)) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += partial[i];
+            }
+        }
+
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] /= Math.max(1, size);
+        }
+
+        return sums;
+    }
+
+    /**
+     * Return the sums over the positions from start to end of the gradient terms and the squared errors
+     */
+    private double[] partialPass(double[] weights, boolean gradient, int start, int end) {
+        double exponent = scale * Math.log(10) / 4;
+        double[] sums = new double[EvaluationParameters.SIZE + 1];
+        double[] evaluations = new double[BLOCK_SIZE];
+        double[] slopes = new double[BLOCK_SIZE];
+
+        for (int from = start; from < end; from += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, end - from);
+            Arrays.fill(evaluations, 0, length, 0);
+
+            for (int p = 0; p < EvaluationParameters.SIZE; p++) {
+                double weight = weights[p];
+                short[] parameterTerms = terms[p];
+
+                for (int i = 0; i < length; i++) {
+                    evaluations[i] += weight * parameterTerms[from + i];
+                }
+            }
+
+            double error = 0;
+            for (int i = 0; i < length; i++) {
+                double prediction = 1 / (1 + Math.exp(-exponent * evaluations[i]));
+                double difference = results[from + i] * 0.5 - prediction;
+                error += difference * difference;
+                slopes[i] = -2 * exponent * difference * prediction * (1 - prediction);
+            }
+            sums[EvaluationParameters.SIZE] += error;
+
+            if (gradient) {
+                for (int p = 0; p < EvaluationParameters.SIZE; p++) {
+                    short[] parameterTerms = terms[p];
+                    double sum = 0;
+
+                    for (int i = 0; i < length; i++) {
+                        sum += slopes[i] * parameterTerms[from + i];
+                    }
+                    sums[p] += sum;
+                }
+            }
+        }
+
+        return sums;
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<T> values = new ArrayList<>();
+
+        try {
+            for (Future<T> future: pool.invokeAll(tasks)) {
+                values.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while tuning", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("tuning task failed", e.getCause());
+        }
+
+        return values;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // Represents the terms and results of a share of the input lines, reduced on a worker thread
+    private static class LoadedPositions {
+        private final int[][] terms;
+        private final byte[] results;
+        private int size;
+        private int skipped;
+
+        private LoadedPositions(int capacity) {
+            this.terms = new int[capacity][];
+            this.results = new byte[capacity];
+        }
+
+        private static LoadedPositions of(List<String> lines) {
+            LoadedPositions loaded = new LoadedPositions(lines.size());
+            Evaluation evaluation = new Evaluation();
+            Game game = new Game();
+
+            for (String line: lines) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                int result = parseResult(line);
+
+                try {
+                    if (result < 0) {
+                        throw new IllegalArgumentException("no result: " + line);
+                    }
+
+                    game.setBoardFEN(AnalysisPosition.fromEpd(0, line).getFen());
+                    loaded.terms[loaded.size] = evaluation.countTerms(game);
+                    loaded.results[loaded.size++] = (byte) result;
+                } catch (IllegalArgumentException e) {
+                    loaded.skipped++;
+                }
+            }
+
+            return loaded;
+        }
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public void setScale(double scale) {
+        this.scale = scale;
+    }
+
+    public void setFixed(int parameter, boolean fixed) {
+        this.fixed[parameter] = fixed;
+    }
+
+    /**
+     * Usage: TexelTuner <positions.epd> [--output file] [--initial file] [--iterations n] [--learning-rate r]
+     * [--scale k] [--threads n] [--fix name,name...]
+     * The scaling constant K is fitted to the initial parameters unless --scale is given, and --fix replaces the
+     * default fixed parameter, the pawn. The tuned parameters are written to the output file, or printed if there is
+     * none, and the engine reads them at startup with -Devaluation.parameters=file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: TexelTuner <positions.epd> [--output file] [--initial file] [--iterations n] " +
+                    "[--learning-rate r] [--scale k] [--threads n] [--fix name,name...]");
+            System.exit(2);
+        }
+
+        Path input = Paths.get(args[0]);
+        Path output = null;
+        EvaluationParameters initial = new EvaluationParameters();
+        int iterations = DEFAULT_ITERATIONS;
+        double learningRate = DEFAULT_LEARNING_RATE;
+        double scale = -1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String fix = null;
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--output":
+                    output = Paths.get(args[++i]);
+                    break;
+                case "--initial":
+                    initial = EvaluationParameters.load(Paths.get(args[++i]));
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--learning-rate":
+                    learningRate = Double.parseDouble(args[++i]);
+                    break;
+                case "--scale":
+                    scale = Double.parseDouble(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--fix":
+                    fix = args[++i];
+                    break;
+                default:
+                    System.err.println("unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        try (TexelTuner tuner = new TexelTuner(threads)) {
+            if (fix != null) {
+                tuner.setFixed(EvaluationParameters.PAWN, false);
+                for (String name: fix.split(",")) {
+                    tuner.setFixed(EvaluationParameters.indexOf(name.trim()), true);
+                }
+            }
+
+            long startTime = System.currentTimeMillis();
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                tuner.load(reader);
+            }
+            System.err.println("loaded " + tuner.getSize() + " positions, skipped " + tuner.getSkipped() + " lines in " +
+                    (System.currentTimeMillis() - startTime) + " ms");
+
+            if (scale > 0) {
+                tuner.setScale(scale);
+            } else {
+                System.err.printf("fitted K = %.4f%n", tuner.fitScale(initial));
+            }
+
+            System.err.printf("initial error %.6f%n", tuner.error(initial));
+            startTime = System.currentTimeMillis();
+            int reportInterval = Math.max(1, iterations / 20);
+
+            EvaluationParameters tuned = tuner.tune(initial, iterations, learningRate, (iteration, error) -> {
+                if (iteration % reportInterval == 0) {
+                    System.err.printf("iteration %d: error %.6f%n", iteration, error);
+                }
+            });
+
+            System.err.printf("final error %.6f after %d ms%n", tuner.error(tuned),
+                    System.currentTimeMillis() - startTime);
+
+            if (output != null) {
+                tuned.save(output);
+            } else {
+                for (int p = 0; p < EvaluationParameters.SIZE; p++) {
+                    System.out.println(EvaluationParameters.getName(p) + " " + tuned.get(p));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package enumerations;
+
+public enum BookSelection {
+    WEIGHTED_RANDOM,
+    BEST_WEIGHT
+}
@@ -9,6 +9,8 @@ public enum GameStatus {
     WHITE_FORFEIT,
     BLACK_FORFEIT,
     STALEMATE,
+    THREEFOLD_REPETITION,
+    FIFTY_MOVE_RULE,
     BLACK_RESIGNATION,
     WHITE_RESIGNATION
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package enumerations;
+
+public enum ScoreBound {
+    EXACT,
+    LOWER_BOUND,
+    UPPER_BOUND
+}
@@ -0,0 +1,7 @@
+package enumerations;
+
+public enum SprtVerdict {
+    CONTINUE,
+    ACCEPT_H0,
+    ACCEPT_H1
+}
@@ -337,16 +337,8 @@ public class BoardFrame extends JPanel {
             new BlackWinWindow(game);
         }
 
-        SwingWorker swingWorker = new SwingWorker() {
-            @Override
-            protected Move doInBackground() {
-                sleep(500);
-                return playComputerMove();
-            }
-        };
-
         if (!game.getCurrentTurn().isHuman()) {
-            swingWorker.execute();
+            startComputerMove();
         }
 
         this.revalidate();
@@ -355,14 +347,19 @@ public class BoardFrame extends JPanel {
     }
 
     /**
-     * Sleep the current thread for the given amount of milliseconds
+     * Play the opening book's move for the position if the game has a book with one, otherwise search for a computer
+     * move in the background, and play it on the board on the event dispatch thread once the search has finished
      */
-    private void sleep(int millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException ex) {
-            ex.printStackTrace();
+    private void startComputerMove() {
+        Move bookMove = game.getOpeningBook() == null ? null : game.getOpeningBook().getMove(game);
+
+        if (bookMove != null) {
+            SwingUtilities.invokeLater(() -> playComputerMove(bookMove));
+            return;
         }
+
+        game.getSearchService().submit(game, Game.computerMoveLimits(), null)
+                .thenAccept(result -> SwingUtilities.invokeLater(() -> playComputerMove(result.getBestMove())));
     }
 
     private boolean requestPromotionMove(Move move, JPanel originPanel, JPanel endPanel) {
@@ -470,16 +467,8 @@ public class BoardFrame extends JPanel {
             new BlackWinWindow(game);
         }
 
-        SwingWorker swingWorker = new SwingWorker() {
-            @Override
-            protected Move doInBackground() {
-                sleep(500);
-                return playComputerMove();
-            }
-        };
-
         if (!game.getCurrentTurn().isHuman()) {
-            swingWorker.execute();
+            startComputerMove();
         }
 
         this.revalidate();
@@ -644,10 +633,14 @@ public class BoardFrame extends JPanel {
     }
 
     /**
-     * Generate a computer move and play it on the board
+     * Play the given computer move on the board, if there is one
      */
-    public Move playComputerMove() {
-        Move move = game.playComputerMove();
+    public Move playComputerMove(Move move) {
+        if (move == null) {
+            return null;
+        }
+
+        game.playMove(move);
         JPanel originPanel = getPanel(move.getStartPoint());
         JPanel endPanel = getPanel(move.getEndPoint());
 
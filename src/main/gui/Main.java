@@ -2,15 +2,31 @@ package gui;
 
 import com.formdev.flatlaf.intellijthemes.FlatSolarizedLightIJTheme;
 import model.Game;
+import model.book.PolyglotBook;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class Main {
 
+    /**
+     * Usage: Main [book.bin]
+     * The computer plays the moves of the given Polyglot opening book while the position is in it
+     */
     public static void main(String[] args) {
         FlatSolarizedLightIJTheme.setup();
 
         Game game = new Game();
         // game.setBoardFEN("k7/8/7R/8/pppppR2/8/8/2K5 w - - 0 1");
 
+        if (args.length > 0) {
+            try {
+                game.setOpeningBook(new PolyglotBook(Path.of(args[0])));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("cannot open book " + args[0] + ": " + e.getMessage());
+            }
+        }
+
         new GameWindow(game);
     }
 
@@ -94,6 +94,7 @@ public class WhiteWinWindow extends JFrame implements ActionListener {
         } else if (e.getSource() == newGameButton) {
             //System.exit(0);
             Game newGame = new Game();
+            newGame.setOpeningBook(game.getOpeningBook());
             new GameWindow(newGame);
         }
     }
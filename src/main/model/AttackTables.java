@@ -0,0 +1,75 @@
+package model;
+
+// Precomputed attack tables for every square of the board. Leaper attacks (pawns, knights, kings) are stored as square
+// sets, and sliding piece rays are stored as square indexes ordered outwards from the origin square
+public final class AttackTables {
+    // ray directions, straight directions first followed by diagonal directions
+    public static final int[][] DIRECTIONS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}, {-1, 1}, {1, 1}, {-1, -1}, {1, -1}};
+    public static final int FIRST_DIAGONAL_DIRECTION = 4;
+
+    private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {2, 1}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}};
+
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    public static final long[] KING_ATTACKS = new long[64];
+    public static final long[] WHITE_PAWN_ATTACKS = new long[64];
+    public static final long[] BLACK_PAWN_ATTACKS = new long[64];
+    public static final int[][][] RAYS = new int[DIRECTIONS.length][64][];
+
+    static {
+        for (int index = 0; index < 64; index++) {
+            int x = index % 8 + 1;
+            int y = index / 8 + 1;
+
+            for (int[] offset: KNIGHT_OFFSETS) {
+                KNIGHT_ATTACKS[index] = addSquare(KNIGHT_ATTACKS[index], x + offset[0], y + offset[1]);
+            }
+
+            for (int[] direction: DIRECTIONS) {
+                KING_ATTACKS[index] = addSquare(KING_ATTACKS[index], x + direction[0], y + direction[1]);
+            }
+
+            WHITE_PAWN_ATTACKS[index] = addSquare(addSquare(Bitboard.EMPTY, x - 1, y + 1), x + 1, y + 1);
+            BLACK_PAWN_ATTACKS[index] = addSquare(addSquare(Bitboard.EMPTY, x - 1, y - 1), x + 1, y - 1);
+
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                RAYS[direction][index] = raySquares(x, y, DIRECTIONS[direction]);
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    /**
+     * Return the given set with the square (x, y) added to it, or the set unchanged if the square is off the board
+     */
+    private static long addSquare(long squares, int x, int y) {
+        if (x < 1 || x > 8 || y < 1 || y > 8) {
+            return squares;
+        }
+
+        return Bitboard.add(squares, Board.getSquareIndex(x, y));
+    }
+
+    /**
+     * Return the indexes of the squares from (startX, startY) to the edge of the board in the given direction, not
+     * including the start square
+     */
+    private static int[] raySquares(int startX, int startY, int[] direction) {
+        int length = 0;
+        int[] squares = new int[7];
+
+        int x = startX + direction[0];
+        int y = startY + direction[1];
+
+        while (x >= 1 && x <= 8 && y >= 1 && y <= 8) {
+            squares[length++] = Board.getSquareIndex(x, y);
+            x += direction[0];
+            y += direction[1];
+        }
+
+        int[] ray = new int[length];
+        System.arraycopy(squares, 0, ray, 0, length);
+        return ray;
+    }
+}
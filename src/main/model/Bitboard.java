@@ -0,0 +1,53 @@
+package model;
+
+// Represents a set of chess board squares packed into a single 64-bit long, where bit n is set if the square with
+// board index n is in the set
+public final class Bitboard {
+    public static final long EMPTY = 0L;
+    public static final long ALL_SQUARES = ~0L;
+
+    private Bitboard() {
+    }
+
+    /**
+     * Return a set containing only the square with the given index
+     */
+    public static long squareMask(int index) {
+        return 1L << index;
+    }
+
+    /**
+     * Return true if the square with the given index is in the given set
+     */
+    public static boolean contains(long squares, int index) {
+        return (squares & (1L << index)) != 0;
+    }
+
+    /**
+     * Return the given set with the square with the given index added to it
+     */
+    public static long add(long squares, int index) {
+        return squares | (1L << index);
+    }
+
+    /**
+     * Return the given set with the square with the given index removed from it
+     */
+    public static long remove(long squares, int index) {
+        return squares & ~(1L << index);
+    }
+
+    /**
+     * Return the number of squares in the given set
+     */
+    public static int count(long squares) {
+        return Long.bitCount(squares);
+    }
+
+    /**
+     * Return the lowest square index in the given set, or 64 if the set is empty
+     */
+    public static int firstSquare(long squares) {
+        return Long.numberOfTrailingZeros(squares);
+    }
+}
@@ -1,6 +1,7 @@
 package model;
 
 import enumerations.MoveType;
+import model.nnue.NnueAccumulator;
 
 import java.awt.*;
 import java.util.ArrayList;
@@ -9,6 +10,7 @@ import java.util.List;
 public class Board {
     private int[] board;
     private List<Move> moveList;
+    private NnueAccumulator accumulator;
 
     /**
      * Construct a new chess board in the starting position
@@ -27,20 +29,30 @@ public class Board {
         int startIndex = getSquareIndex(move.getStartX(), move.getStartY());
         int endIndex = getSquareIndex(move.getEndX(), move.getEndY());
 
+        int movedPiece = board[startIndex];
+        int captureIndex = move.isEnPassantMove() ? getSquareIndex(move.getEndX(), move.getStartY()) : endIndex;
+        int capturedPiece = board[captureIndex];
+
         moveList.add(move);
 
          if (move.isEnPassantMove()) {
             board[startIndex] = 0;
             board[endIndex] = move.getMovedPiece();
-            board[getSquareIndex(move.getEndX(), move.getStartY())] = 0;
+            board[captureIndex] = 0;
         } else if (move.isPromotionMove()) {
             makePromotionMove(move, startIndex, endIndex);
         } else if (move.isKingSideCastleMove() || move.isQueenSideCastleMove()) {
             makeCastleMove(move, startIndex, endIndex);
+            return;
         } else {
             board[startIndex] = Piece.empty;
             board[endIndex] = move.getMovedPiece();
         }
+
+        // the network's accumulator is updated for the changed squares only
+        if (accumulator != null) {
+            accumulator.push(board, startIndex, endIndex, movedPiece, board[endIndex], capturedPiece, captureIndex);
+        }
     }
 
     public void makePromotionMove(Move move, int startIndex, int endIndex) {
@@ -92,16 +104,15 @@ public class Board {
         board[startIndex] = 0;
         board[endIndex] = move.getMovedPiece();
 
-        if (move.getMoveType() == MoveType.KING_SIDE_CASTLE) {
-            int y = move.getEndY();
-            int piece = getPiece(8, y);
-            board[getSquareIndex(8, y)] = 0;
-            board[getSquareIndex(6, y)] = piece;
-        } else if (move.getMoveType() == MoveType.QUEEN_SIDE_CASTLE) {
-            int y = move.getEndY();
-            int piece = getPiece(1, y);
-            board[getSquareIndex(1, y)] = 0;
-            board[getSquareIndex(4, y)] = piece;
+        int y = move.getEndY();
+        int rookStart = getSquareIndex(move.getMoveType() == MoveType.KING_SIDE_CASTLE ? 8 : 1, y);
+        int rookEnd = getSquareIndex(move.getMoveType() == MoveType.KING_SIDE_CASTLE ? 6 : 4, y);
+        int rook = board[rookStart];
+        board[rookStart] = 0;
+        board[rookEnd] = rook;
+
+        if (accumulator != null) {
+            accumulator.pushCastle(board, startIndex, endIndex, rookStart, rookEnd, move.getMovedPiece(), rook);
         }
     }
 
@@ -113,7 +124,10 @@ public class Board {
         int startIndex = getSquareIndex(move.getStartX(), move.getStartY());
         int endIndex = getSquareIndex(move.getEndX(), move.getEndY());
 
-        moveList.remove(move);
+        // the move list is a stack of the moves made, so the given move is popped off its end
+        if (!moveList.isEmpty()) {
+            moveList.remove(moveList.size() - 1);
+        }
 
         if (move.isEnPassantMove()) {
             board[startIndex] = move.getMovedPiece();
@@ -148,6 +162,82 @@ public class Board {
             board[startIndex] = move.getMovedPiece();
             board[endIndex] = move.getCapturedPiece();
         }
+
+        if (accumulator != null) {
+            accumulator.pop();
+        }
+    }
+
+    /**
+     * Return true if the square with the given index is attacked by at least one piece of the given colour. No moves
+     * are generated; leaper attacks are looked up in the precomputed attack tables and sliding attacks are found by
+     * walking outwards from the square until the first occupied square in each direction
+     */
+    public boolean isSquareAttacked(int index, boolean byWhite) {
+        int sign = byWhite ? 1 : -1;
+
+        // a white pawn attacks this square from the squares a black pawn here would attack, and vice versa
+        long pawnSquares = byWhite ? AttackTables.BLACK_PAWN_ATTACKS[index] : AttackTables.WHITE_PAWN_ATTACKS[index];
+        if (containsPiece(pawnSquares, sign * Piece.wPawn) ||
+                containsPiece(AttackTables.KNIGHT_ATTACKS[index], sign * Piece.wKnight) ||
+                containsPiece(AttackTables.KING_ATTACKS[index], sign * Piece.wKing)) {
+            return true;
+        }
+
+        for (int direction = 0; direction < AttackTables.DIRECTIONS.length; direction++) {
+            int slidingPiece = direction < AttackTables.FIRST_DIAGONAL_DIRECTION ? Piece.wRook : Piece.wBishop;
+
+            for (int square: AttackTables.RAYS[direction][index]) {
+                int piece = board[square];
+
+                if (piece != 0) {
+                    if (piece == sign * slidingPiece || piece == sign * Piece.wQueen) {
+                        return true;
+                    }
+                    break;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return true if the king of the given colour is attacked, or false if it is not on the board
+     */
+    public boolean isInCheck(boolean white) {
+        int kingIndex = getKingIndex(white);
+
+        return kingIndex >= 0 && isSquareAttacked(kingIndex, !white);
+    }
+
+    /**
+     * Return the index of the king of the given colour, or -1 if it is not on the board
+     */
+    public int getKingIndex(boolean white) {
+        int king = white ? Piece.wKing : Piece.bKing;
+
+        for (int index = 0; index < 64; index++) {
+            if (board[index] == king) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Return true if the given piece stands on any of the given squares
+     */
+    private boolean containsPiece(long squares, int piece) {
+        while (squares != Bitboard.EMPTY) {
+            if (board[Bitboard.firstSquare(squares)] == piece) {
+                return true;
+            }
+            squares &= squares - 1;
+        }
+
+        return false;
     }
 
     /**
@@ -284,9 +374,11 @@ public class Board {
      *  Set this board to the position in the given Forsyth–Edwards Notation (FEN) string
      */
     public void setBoardFEN(String fen) {
-        FenUtility fenUtility = new FenUtility();
+        FenUtility.loadPositionFromFEN(this, fen);
 
-        fenUtility.loadPositionFromFEN(this, fen);
+        if (accumulator != null) {
+            accumulator.refresh(board);
+        }
     }
 
     public void formatBoard() {
@@ -309,6 +401,33 @@ public class Board {
 
     public void setBoard(int[] board) {
         this.board = board;
+
+        if (accumulator != null) {
+            accumulator.refresh(board);
+        }
+    }
+
+    public NnueAccumulator getAccumulator() {
+        return accumulator;
+    }
+
+    /**
+     * Keep the given network accumulator up to date with the moves made and undone on this board from now on, starting
+     * from the current position, or stop updating one if null
+     */
+    public void setAccumulator(NnueAccumulator accumulator) {
+        this.accumulator = accumulator;
+
+        if (accumulator != null) {
+            accumulator.refresh(board);
+        }
+    }
+
+    /**
+     * Return the last move made on this board, or null if there is none
+     */
+    public Move getLastMove() {
+        return moveList.isEmpty() ? null : moveList.get(moveList.size() - 1);
     }
 
     public List<Move> getMoveList() {
@@ -1,175 +1,282 @@
 package model;
 
 import enumerations.CheckStatus;
-import model.generation.MoveGenerator;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import enumerations.GameStatus;
 
+// Represents a static, table-driven codec between games and Forsyth–Edwards Notation (FEN). Strings are parsed one
+// character at a time straight into the board array, and written into a caller supplied StringBuilder, so that no
+// lookup maps, split strings or boxed values are created per position
 public class FenUtility {
     public static final String START_POS_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR";
     public static final String START_GAME_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
 
-    private final Map<Character, Integer> pieceType;
-    private final Map<Integer, Character> pieceChar;
+    // piece of each FEN piece letter, 0 for characters that are not piece letters
+    private static final int[] PIECE_TYPES = new int[128];
+    // FEN piece letter of each piece, indexed by piece + 6
+    private static final char[] PIECE_CHARS = {'k', 'q', 'r', 'b', 'n', 'p', ' ', 'P', 'N', 'B', 'R', 'Q', 'K'};
 
-    /**
-     * Instantiate a new FenUtility object and set up piece hash map
-     */
-    public FenUtility() {
-        pieceType = new HashMap<>();
-        pieceChar = new HashMap<>();
-
-        pieceType.put('P', Piece.wPawn);
-        pieceType.put('N', Piece.wKnight);
-        pieceType.put('B', Piece.wBishop);
-        pieceType.put('R', Piece.wRook);
-        pieceType.put('Q', Piece.wQueen);
-        pieceType.put('K', Piece.wKing);
-
-        pieceType.put('p', Piece.bPawn);
-        pieceType.put('n', Piece.bKnight);
-        pieceType.put('b', Piece.bBishop);
-        pieceType.put('r', Piece.bRook);
-        pieceType.put('q', Piece.bQueen);
-        pieceType.put('k', Piece.bKing);
-
-        pieceChar.put(Piece.wPawn, 'P');
-        pieceChar.put(Piece.wKnight, 'N');
-        pieceChar.put(Piece.wBishop, 'B');
-        pieceChar.put(Piece.wRook, 'R');
-        pieceChar.put(Piece.wQueen, 'Q');
-        pieceChar.put(Piece.wKing, 'K');
-
-        pieceChar.put(Piece.bPawn, 'p');
-        pieceChar.put(Piece.bKnight, 'n');
-        pieceChar.put(Piece.bBishop, 'b');
-        pieceChar.put(Piece.bRook, 'r');
-        pieceChar.put(Piece.bQueen, 'q');
-        pieceChar.put(Piece.bKing, 'k');
+    static {
+        for (int piece = Piece.bKing; piece <= Piece.wKing; piece++) {
+            if (piece != Piece.empty) {
+                PIECE_TYPES[PIECE_CHARS[piece + 6]] = piece;
+            }
+        }
+    }
+
+    private FenUtility() {
     }
 
     /**
-     * Set the given game to the given fen string game
-     * Requires a valid FEN string
+     * Set the given game to the given FEN position, with its side to move, castling rights, en passant square and
+     * halfmove and fullmove clocks. The two clock fields may be left out, as in EPD, and default to 0 and 1
      *
      * @param game current chess game
      * @param fen desired position in fen notation
+     * @throws IllegalArgumentException if the string is not a valid FEN string
      */
-    public void loadGameFromFEN(Game game, String fen) {
-        String[] splitFEN = fen.split(" ");
-
+    public static void loadGameFromFEN(Game game, CharSequence fen) {
         int[] newBoard = new int[64];
+        int index = parsePlacement(fen, newBoard);
 
-        int x = 1;
-        int y = 8;
-
-        for (char c: splitFEN[0].toCharArray()) {
-            if (c == '/') {
-                x = 1;
-                y--;
-            } else if (Character.isDigit(c)) {
-                x += Character.getNumericValue(c);
-            } else {
-                newBoard[Board.getSquareIndex(x,y)] = pieceType.get(c);
-                x++;
-            }
+        index = skipSpace(fen, index);
+        boolean white;
+        if (index < fen.length() && fen.charAt(index) == 'w') {
+            white = true;
+        } else if (index < fen.length() && fen.charAt(index) == 'b') {
+            white = false;
+        } else {
+            throw invalid(fen);
         }
 
-        game.getBoard().setBoard(newBoard);
-
-        String currentTurn = splitFEN[1];
-        if (Objects.equals(currentTurn, "w")) {
-            game.setCurrentTurn(game.getPlayers()[Game.WHITE_PLAYER_INDEX]);
-        } else if (Objects.equals(currentTurn, "b")) {
-            game.setCurrentTurn(game.getPlayers()[Game.BLACK_PLAYER_INDEX]);
-
-        }
+        index = skipSpace(fen, index + 1);
+        boolean whiteKingSide = false;
+        boolean whiteQueenSide = false;
+        boolean blackKingSide = false;
+        boolean blackQueenSide = false;
 
-        String castlingAvailability = splitFEN[2];
-        game.setWhiteKingSideCastling(false);
-        game.setWhiteQueenSideCastling(false);
-        game.setBlackKingSideCastling(false);
-        game.setBlackQueenSideCastling(false);
-        for (char c: castlingAvailability.toCharArray()) {
-            switch (c) {
+        for (; index < fen.length() && fen.charAt(index) != ' '; index++) {
+            switch (fen.charAt(index)) {
                 case 'K':
-                    game.setWhiteKingSideCastling(true);
+                    whiteKingSide = true;
                     break;
                 case 'Q':
-                    game.setWhiteQueenSideCastling(true);
+                    whiteQueenSide = true;
                     break;
                 case 'k':
-                    game.setBlackKingSideCastling(true);
+                    blackKingSide = true;
                     break;
                 case 'q':
-                    game.setBlackQueenSideCastling(true);
+                    blackQueenSide = true;
                     break;
+                case '-':
+                    break;
+                default:
+                    throw invalid(fen);
             }
         }
 
-        String enPassantMove = splitFEN[3];
-        if (!Objects.equals(enPassantMove, "-")) {
-            int possibleEnPassantEndSquare = Board.getSquareIndexFromString(enPassantMove);
-            int xEnPassant = Board.getSquareCoordinates(possibleEnPassantEndSquare).x;
-            int yEnPassant = Board.getSquareCoordinates(possibleEnPassantEndSquare).y;
-
-            if (yEnPassant == 3) {
-                Move blackPawnMove = new Move(game, xEnPassant, yEnPassant - 1, xEnPassant, yEnPassant + 1);
-                blackPawnMove.setMovedPiece(Piece.wPawn);
-                blackPawnMove.setCapturedPiece(0);
-                game.getBoard().getMoveList().add(blackPawnMove);
-            } else if (yEnPassant == 6) {
-                Move whitePawnMove = new Move(game,  xEnPassant, yEnPassant + 1, xEnPassant, yEnPassant - 1);
-                whitePawnMove.setMovedPiece(Piece.bPawn);
-                whitePawnMove.setCapturedPiece(0);
-                game.getBoard().getMoveList().add(whitePawnMove);
+        index = skipSpace(fen, index);
+        int enPassantX = 0;
+        int enPassantY;
+
+        if (index < fen.length() && fen.charAt(index) == '-') {
+            index++;
+        } else if (index + 1 < fen.length()) {
+            enPassantX = fen.charAt(index) - 'a' + 1;
+            enPassantY = fen.charAt(index + 1) - '0';
+            index += 2;
+
+            if (enPassantX < 1 || enPassantX > 8 || enPassantY != (white ? 6 : 3)) {
+                throw invalid(fen);
             }
+        } else {
+            throw invalid(fen);
         }
 
-        MoveGenerator moveGenerator = new MoveGenerator();
-        moveGenerator.generateLegalMoves(game, game.getCurrentTurn());
-        if (moveGenerator.inCheck()) {
-            if (game.getCurrentTurn().isWhite()) {
-                game.setCheckStatus(CheckStatus.WHITE_IN_CHECK);
-            } else {
-                game.setCheckStatus(CheckStatus.BLACK_IN_CHECK);
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+
+        index = skipSpace(fen, index);
+        if (index < fen.length() && Character.isDigit(fen.charAt(index))) {
+            for (; index < fen.length() && Character.isDigit(fen.charAt(index)); index++) {
+                halfmoveClock = halfmoveClock * 10 + fen.charAt(index) - '0';
             }
+
+            index = skipSpace(fen, index);
+            fullmoveNumber = 0;
+            for (; index < fen.length() && Character.isDigit(fen.charAt(index)); index++) {
+                fullmoveNumber = fullmoveNumber * 10 + fen.charAt(index) - '0';
+            }
+            fullmoveNumber = Math.max(1, fullmoveNumber);
+        }
+
+        Board board = game.getBoard();
+        board.setBoard(newBoard);
+        board.getMoveList().clear();
+
+        game.setCurrentTurn(game.getPlayers()[white ? Game.WHITE_PLAYER_INDEX : Game.BLACK_PLAYER_INDEX]);
+        game.setWhiteKingSideCastling(whiteKingSide);
+        game.setWhiteQueenSideCastling(whiteQueenSide);
+        game.setBlackKingSideCastling(blackKingSide);
+        game.setBlackQueenSideCastling(blackQueenSide);
+        game.setHalfmoveClock(halfmoveClock);
+        game.setFullmoveNumber(fullmoveNumber);
+
+        if (enPassantX != 0) {
+            game.setEnPassantFile(enPassantX);
         }
 
-        // TODO: implement for rest of the fen string
+        game.resetHashHistory();
+        game.setGameStatus(GameStatus.ACTIVE);
+        if (board.isInCheck(white)) {
+            game.setCheckStatus(white ? CheckStatus.WHITE_IN_CHECK : CheckStatus.BLACK_IN_CHECK);
+        } else {
+            game.setCheckStatus(CheckStatus.NONE);
+        }
+    }
+
+    /**
+     * Return the full six field FEN string of the given game's position
+     */
+    public static String getFENFromGame(Game game) {
+        StringBuilder fen = new StringBuilder(90);
+        appendFEN(game, fen);
+        return fen.toString();
     }
 
     /**
-     * Return the FEN string of the position from the given board
+     * Append the full six field FEN string of the given game's position to the given builder. The en passant square
+     * is given whenever the last move was a double pawn push, as the FEN standard requires
      */
-    public String getFENFromGame(Game game) {
-        return ""; // stub
+    public static void appendFEN(Game game, StringBuilder fen) {
+        appendPlacement(game.getBoard().getBoard(), fen);
+
+        fen.append(game.getCurrentTurn().isWhite() ? " w " : " b ");
+
+        int length = fen.length();
+        if (game.canWhiteKingSideCastle()) {
+            fen.append('K');
+        }
+        if (game.canWhiteQueenSideCastle()) {
+            fen.append('Q');
+        }
+        if (game.canBlackKingSideCastle()) {
+            fen.append('k');
+        }
+        if (game.canBlackQueenSideCastle()) {
+            fen.append('q');
+        }
+        if (fen.length() == length) {
+            fen.append('-');
+        }
+
+        fen.append(' ');
+
+        int enPassantFile = game.getEnPassantFile();
+
+        if (enPassantFile != 0) {
+            fen.append((char) ('a' + enPassantFile - 1)).append(game.getCurrentTurn().isWhite() ? '6' : '3');
+        } else {
+            fen.append('-');
+        }
+
+        fen.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
     }
 
     /**
      * Set the given board to have the same position as the given FEN string position
      * Requires a valid position FEN string (only the position part of a normal FEN string)
+     *
+     * @throws IllegalArgumentException if the string is not a valid piece placement
      */
-    public void loadPositionFromFEN(Board board, String fen) {
+    public static void loadPositionFromFEN(Board board, CharSequence fen) {
         int[] newBoard = new int[64];
+        parsePlacement(fen, newBoard);
+        board.setBoard(newBoard);
+    }
 
+    /**
+     * Parse the piece placement field at the start of the given FEN string into the given board array
+     *
+     * @return the index of the first character after the piece placement
+     * @throws IllegalArgumentException if the field does not describe exactly eight ranks of eight squares
+     */
+    private static int parsePlacement(CharSequence fen, int[] board) {
         int x = 1;
         int y = 8;
+        int index = 0;
+
+        for (; index < fen.length(); index++) {
+            char c = fen.charAt(index);
 
-        for (char c: fen.toCharArray()) {
             if (c == '/') {
+                if (x != 9 || y == 1) {
+                    throw invalid(fen);
+                }
                 x = 1;
                 y--;
-            } else if (Character.isDigit(c)) {
-                x += Character.getNumericValue(c);
-            } else {
-                newBoard[Board.getSquareIndex(x,y)] = pieceType.get(c);
+            } else if (c >= '1' && c <= '8') {
+                x += c - '0';
+            } else if (c < PIECE_TYPES.length && PIECE_TYPES[c] != 0 && x <= 8) {
+                board[Board.getSquareIndex(x, y)] = PIECE_TYPES[c];
                 x++;
+            } else if (c == ' ') {
+                break;
+            } else {
+                throw invalid(fen);
+            }
+
+            if (x > 9) {
+                throw invalid(fen);
             }
         }
 
-        board.setBoard(newBoard);
+        if (x != 9 || y != 1) {
+            throw invalid(fen);
+        }
+
+        return index;
+    }
+
+    /**
+     * Append the piece placement field of the given board array to the given builder
+     */
+    private static void appendPlacement(int[] board, StringBuilder fen) {
+        for (int y = 8; y >= 1; y--) {
+            int emptySquares = 0;
+
+            for (int index = (y - 1) * 8; index < y * 8; index++) {
+                int piece = board[index];
+
+                if (piece == Piece.empty) {
+                    emptySquares++;
+                } else {
+                    if (emptySquares > 0) {
+                        fen.append((char) ('0' + emptySquares));
+                        emptySquares = 0;
+                    }
+                    fen.append(PIECE_CHARS[piece + 6]);
+                }
+            }
+
+            if (emptySquares > 0) {
+                fen.append((char) ('0' + emptySquares));
+            }
+            if (y > 1) {
+                fen.append('/');
+            }
+        }
+    }
+
+    private static int skipSpace(CharSequence fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen) {
+        return new IllegalArgumentException("invalid FEN: " + fen);
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,10 @@ package model;
 
 import enumerations.CheckStatus;
 import enumerations.GameStatus;
+import model.book.PolyglotBook;
 import model.generation.MoveGenerator;
-import model.search.Search;
+import model.search.SearchLimits;
+import model.search.SearchService;
 
 import java.util.List;
 import java.util.Random;
@@ -15,6 +17,10 @@ public class Game {
     public static final int WHITE_PLAYER_INDEX = 0;
     public static final int BLACK_PLAYER_INDEX = 1;
     public static final int SEARCH_DEPTH = 2;
+    public static final int FIFTY_MOVE_PLIES = 100;
+
+    // keys of the position hashes repetitions are detected with, the same for every game
+    private static final Zobrist POSITION_KEYS = new Zobrist();
 
     private Board board;
     private GameStatus gameStatus;
@@ -22,6 +28,8 @@ public class Game {
     private Player[] players;
     private Player currentTurn;
     private MoveGenerator moveGenerator;
+    private SearchService searchService;
+    private PolyglotBook openingBook;
 
     private boolean flippedBoard;
 
@@ -31,6 +39,12 @@ public class Game {
     private boolean blackQueenSideCastling = true;
     private boolean blackKingSideCastling = true;
 
+    private int halfmoveClock; // plies since the last capture or pawn move
+    private int fullmoveNumber = 1;
+
+    private long hash; // of the current position, updated by every move
+    private final HashHistory hashHistory; // of the positions before each move
+
     /**
      * Constructs a new game with a new board, a gameStatus of ACTIVE, a checkStatus of NONE, a players list of one
      * black player and one white player, a current turn of white + human player
@@ -47,6 +61,37 @@ public class Game {
         this.currentTurn = players[0];
         this.moveGenerator = new MoveGenerator();
         this.flippedBoard = false;
+        this.hashHistory = new HashHistory();
+        resetHashHistory();
+    }
+
+    /**
+     * Return a copy of this game with the same position, move history, castling rights and current turn, which can
+     * be searched or modified without affecting this game
+     */
+    public Game copy() {
+        Game copy = new Game();
+
+        copy.board.setBoard(board.getBoard().clone());
+        copy.board.getMoveList().addAll(board.getMoveList());
+        copy.gameStatus = gameStatus;
+        copy.checkStatus = checkStatus;
+        copy.flippedBoard = flippedBoard;
+        copy.whiteQueenSideCastling = whiteQueenSideCastling;
+        copy.whiteKingSideCastling = whiteKingSideCastling;
+        copy.blackQueenSideCastling = blackQueenSideCastling;
+        copy.blackKingSideCastling = blackKingSideCastling;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        copy.hash = hash;
+        copy.hashHistory.copyFrom(hashHistory);
+
+        for (int i = 0; i < players.length; i++) {
+            copy.players[i].setHuman(players[i].isHuman());
+        }
+        copy.currentTurn = currentTurn.isWhite() ? copy.players[WHITE_PLAYER_INDEX] : copy.players[BLACK_PLAYER_INDEX];
+
+        return copy;
     }
 
     /**
@@ -66,6 +111,36 @@ public class Game {
             return false;
         }
 
+        makeMove(move);
+        updateStatus();
+
+        return true;
+    }
+
+    /**
+     * Update the board, castling rights, clocks and currentTurn for the given move without checking that it is legal or
+     * updating the gameStatus + checkStatus. Used to replay moves that are already known to be legal, e.g. moves
+     * resolved against the legal moves of the position
+     */
+    public void makeMove(Move move) {
+        int startIndex = Board.getSquareIndex(move.getStartX(), move.getStartY());
+        int endIndex = Board.getSquareIndex(move.getEndX(), move.getEndY());
+        int extraStart = -1; // the captured pawn of an en passant capture or the rook of a castling move
+        int extraEnd = -1;
+
+        if (move.isEnPassantMove()) {
+            extraStart = Board.getSquareIndex(move.getEndX(), move.getStartY());
+        } else if (move.isKingSideCastleMove()) {
+            extraStart = Board.getSquareIndex(8, move.getStartY());
+            extraEnd = Board.getSquareIndex(6, move.getStartY());
+        } else if (move.isQueenSideCastleMove()) {
+            extraStart = Board.getSquareIndex(1, move.getStartY());
+            extraEnd = Board.getSquareIndex(4, move.getStartY());
+        }
+
+        hashHistory.push(hash);
+        hash ^= castlingKey() ^ enPassantKey() ^ squareKeys(startIndex, endIndex, extraStart, extraEnd);
+
         this.board.makeMove(move);
 
         if (move.isWhiteKingMove()) {
@@ -86,17 +161,29 @@ public class Game {
             blackCastlingRights(move);
         }
 
-        nextTurn();
-
-        List<Move> legalOpponentMoves = moveGenerator.generateLegalMoves(this, currentTurn);
-        boolean inCheck = moveGenerator.inCheck();
+        if (Math.abs(move.getMovedPiece()) == Piece.wPawn || move.getCapturedPiece() != 0) {
+            halfmoveClock = 0;
+        } else {
+            halfmoveClock++;
+        }
 
-        updateStatus(inCheck, legalOpponentMoves);
+        if (!move.isWhiteMove()) {
+            fullmoveNumber++;
+        }
 
-        return true;
+        hash ^= castlingKey() ^ enPassantKey() ^ squareKeys(startIndex, endIndex, extraStart, extraEnd);
+        nextTurn();
     }
 
-    private void updateStatus(boolean inCheck, List<Move> legalMoves) {
+    /**
+     * Update the gameStatus + checkStatus for the player whose turn it is. A game that is not over by checkmate or
+     * stalemate is drawn by the fifty move rule after FIFTY_MOVE_PLIES plies without a capture or pawn move, and by
+     * threefold repetition once the current position has occurred twice before
+     */
+    public void updateStatus() {
+        List<Move> legalMoves = moveGenerator.generateLegalMoves(this, currentTurn);
+        boolean inCheck = moveGenerator.inCheck();
+
         if (legalMoves.isEmpty() && inCheck) {
             if (currentTurn.isWhite()) {
                 this.gameStatus = BLACK_CHECKMATE;
@@ -105,6 +192,10 @@ public class Game {
             }
         } else if (legalMoves.isEmpty()) {
             this.gameStatus = STALEMATE;
+        } else if (halfmoveClock >= FIFTY_MOVE_PLIES) {
+            this.gameStatus = FIFTY_MOVE_RULE;
+        } else if (countRepetitions() >= 2) {
+            this.gameStatus = THREEFOLD_REPETITION;
         } else {
             gameStatus = ACTIVE;
         }
@@ -152,15 +243,30 @@ public class Game {
     }
 
     /**
-     * Play a computer generated move on the chess board
+     * Play a computer generated move on the chess board: a move of the opening book if one is set and has a move for
+     * the position, otherwise the best move of a search, blocking until the search has finished
      */
     public Move playComputerMove() {
-        Search search = new Search();
-        Move move = search.search(this, SEARCH_DEPTH);
-        playMove(move);
+        Move move = openingBook == null ? null : openingBook.getMove(this);
+
+        if (move == null) {
+            move = getSearchService().submit(this, computerMoveLimits(), null).join().getBestMove();
+        }
+
+        if (move != null) {
+            playMove(move);
+        }
+
         return move;
     }
 
+    /**
+     * Return the limits computer moves are searched under, e.g. SEARCH_DEPTH plies below each of the computer's moves
+     */
+    public static SearchLimits computerMoveLimits() {
+        return SearchLimits.depth(SEARCH_DEPTH + 1);
+    }
+
     /**
      * Undo the given move
      */
@@ -190,11 +296,16 @@ public class Game {
             }
         }
 
+        halfmoveClock = move.getHalfmoveClock();
+
         if (move.isWhiteMove()) {
             currentTurn = players[WHITE_PLAYER_INDEX];
         } else {
             currentTurn = players[BLACK_PLAYER_INDEX];
+            fullmoveNumber--;
         }
+
+        hash = hashHistory.isEmpty() ? calculateHash() : hashHistory.pop();
     }
 
     /**
@@ -206,14 +317,130 @@ public class Game {
         } else {
             currentTurn = players[0];
         }
+
+        hash ^= POSITION_KEYS.getWhiteToPlay();
+    }
+
+    /**
+     * Return the number of times the current position occurred before, counting back to the last capture or pawn move
+     */
+    public int countRepetitions() {
+        return hashHistory.countRepetitions(hash, halfmoveClock);
+    }
+
+    /**
+     * Forget the positions before the current one and hash the current position from scratch. Called after the
+     * position is set up other than by moves, e.g. from a FEN string
+     */
+    public void resetHashHistory() {
+        hashHistory.clear();
+        hash = calculateHash();
+    }
+
+    /**
+     * Return the hash of the current position: its pieces, castling rights, en passant file and player to move
+     */
+    private long calculateHash() {
+        long positionHash = castlingKey() ^ enPassantKey();
+        int[] pieces = board.getBoard();
+
+        for (int index = 0; index < 64; index++) {
+            positionHash ^= pieceKey(index, pieces[index]);
+        }
+
+        if (currentTurn.isWhite()) {
+            positionHash ^= POSITION_KEYS.getWhiteToPlay();
+        }
+
+        return positionHash;
+    }
+
+    /**
+     * Return the combined keys of the pieces on the given squares, skipping negative square indexes
+     */
+    private long squareKeys(int first, int second, int third, int fourth) {
+        int[] pieces = board.getBoard();
+        long keys = pieceKey(first, pieces[first]) ^ pieceKey(second, pieces[second]);
+
+        if (third >= 0) {
+            keys ^= pieceKey(third, pieces[third]);
+        }
+        if (fourth >= 0) {
+            keys ^= pieceKey(fourth, pieces[fourth]);
+        }
+
+        return keys;
+    }
+
+    private static long pieceKey(int index, int piece) {
+        if (piece == Piece.empty) {
+            return 0;
+        }
+
+        return POSITION_KEYS.getPieceTable()[index][piece > 0 ? piece - 1 : 5 - piece];
+    }
+
+    private long castlingKey() {
+        long[] keys = POSITION_KEYS.getCastlingRights();
+
+        return (whiteKingSideCastling ? keys[Zobrist.WHITE_KING_SIDE] : 0) ^
+                (whiteQueenSideCastling ? keys[Zobrist.WHITE_QUEEN_SIDE] : 0) ^
+                (blackKingSideCastling ? keys[Zobrist.BLACK_KING_SIDE] : 0) ^
+                (blackQueenSideCastling ? keys[Zobrist.BLACK_QUEEN_SIDE] : 0);
+    }
+
+    private long enPassantKey() {
+        int file = getEnPassantFile();
+
+        return file == 0 ? 0 : POSITION_KEYS.getEnPassantFiles()[file - 1];
+    }
+
+    /**
+     * Return true if the player whose turn it is to move is in check, without generating any moves
+     */
+    public boolean isInCheck() {
+        return board.isInCheck(currentTurn.isWhite());
+    }
+
+    /**
+     * Return the file (1-8) of the pawn that just made a double step, i.e. the file an en passant capture could be
+     * made on, or 0 if the last move was not a double pawn step
+     */
+    public int getEnPassantFile() {
+        Move lastMove = board.getLastMove();
+
+        if (lastMove == null) {
+            return 0;
+        }
+
+        if (Math.abs(lastMove.getMovedPiece()) == Piece.wPawn &&
+                Math.abs(lastMove.getEndY() - lastMove.getStartY()) == 2) {
+            return lastMove.getEndX();
+        }
+
+        return 0;
+    }
+
+    /**
+     * Record that the opponent of the player whose turn it is just made a double pawn step on the given file, so that
+     * en passant captures on that file are generated. Used when setting up a position without its move history
+     */
+    public void setEnPassantFile(int file) {
+        boolean whitePawn = !currentTurn.isWhite();
+        int startY = whitePawn ? 2 : 7;
+        int endY = whitePawn ? 4 : 5;
+
+        Move pawnMove = new Move(this, file, startY, file, endY);
+        pawnMove.setMovedPiece(whitePawn ? Piece.wPawn : Piece.bPawn);
+        pawnMove.setCapturedPiece(0);
+        board.getMoveList().add(pawnMove);
     }
 
     /**
      * Set this board to the position in the given Forsyth–Edwards Notation (FEN) string
      */
     public void setBoardFEN(String fen) {
-        FenUtility fenUtility = new FenUtility();
-        fenUtility.loadGameFromFEN(this, fen);
+        FenUtility.loadGameFromFEN(this, fen);
     }
 
     /**
@@ -283,6 +510,26 @@ public class Game {
         this.currentTurn = currentTurn;
     }
 
+    public long getHash() {
+        return hash;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
     public void setFlippedBoard(boolean flippedBoard) {
         this.flippedBoard = flippedBoard;
     }
@@ -291,6 +538,25 @@ public class Game {
         return flippedBoard;
     }
 
+    /**
+     * Return the search service that plays computer moves in this game, creating it on first use
+     */
+    public synchronized SearchService getSearchService() {
+        if (searchService == null) {
+            searchService = new SearchService();
+        }
+
+        return searchService;
+    }
+
+    public PolyglotBook getOpeningBook() {
+        return openingBook;
+    }
+
+    public void setOpeningBook(PolyglotBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
     public MoveGenerator getMoveGenerator() {
         return moveGenerator;
     }
@@ -0,0 +1,94 @@
+package model;
+
+// Represents the hashes of the positions before each move of a game, as a stack over a ring buffer that keeps the last
+// CAPACITY of them. Pushing and popping take constant time whatever the length of the game, and older hashes are
+// only ever looked up back to the last irreversible move, which the fifty move rule keeps well within the buffer
+public class HashHistory {
+    public static final int CAPACITY = 1024; // a power of two
+    private static final int MASK = CAPACITY - 1;
+
+    private final long[] hashes;
+    private int length; // hashes pushed and not popped, including those overwritten
+    private int available; // the latest hashes that are still in the buffer
+
+    public HashHistory() {
+        this.hashes = new long[CAPACITY];
+    }
+
+    public void push(long hash) {
+        hashes[length & MASK] = hash;
+        length++;
+        available = Math.min(available + 1, CAPACITY);
+    }
+
+    /**
+     * Remove and return the latest hash
+     *
+     * @throws IllegalStateException if there is none
+     */
+    public long pop() {
+        if (available == 0) {
+            throw new IllegalStateException("no position hash to pop");
+        }
+
+        length--;
+        available--;
+        return hashes[length & MASK];
+    }
+
+    /**
+     * Return the hash pushed the given number of pushes ago, 1 being the latest
+     *
+     * @throws IndexOutOfBoundsException if it is no longer or was never in the history
+     */
+    public long get(int pliesAgo) {
+        if (pliesAgo < 1 || pliesAgo > available) {
+            throw new IndexOutOfBoundsException("no position hash " + pliesAgo + " plies ago");
+        }
+
+        return hashes[(length - pliesAgo) & MASK];
+    }
+
+    /**
+     * Return the number of times the given hash of the current position occurs among the hashes of the last
+     * reversiblePlies positions, those since the last irreversible move
+     */
+    public int countRepetitions(long hash, int reversiblePlies) {
+        int limit = Math.min(reversiblePlies, available);
+        int repetitions = 0;
+
+        // the same player is to move every other ply, and a position cannot repeat after fewer than four
+        for (int pliesAgo = 4; pliesAgo <= limit; pliesAgo += 2) {
+            if (hashes[(length - pliesAgo) & MASK] == hash) {
+                repetitions++;
+            }
+        }
+
+        return repetitions;
+    }
+
+    public void clear() {
+        length = 0;
+        available = 0;
+    }
+
+    /**
+     * Replace this history with a copy of the given one
+     */
+    public void copyFrom(HashHistory history) {
+        System.arraycopy(history.hashes, 0, hashes, 0, CAPACITY);
+        length = history.length;
+        available = history.available;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public boolean isEmpty() {
+        return available == 0;
+    }
+
+    public int size() {
+        return available;
+    }
+}
@@ -8,6 +8,16 @@ import java.util.Objects;
 import static java.lang.Math.abs;
 
 public class Move {
+    // castling rights strings indexed by K = 8, Q = 4, k = 2, q = 1, so that no string is built per move
+    private static final String[] CASTLING_RIGHTS = new String[16];
+
+    static {
+        for (int rights = 0; rights < CASTLING_RIGHTS.length; rights++) {
+            CASTLING_RIGHTS[rights] = ((rights & 8) != 0 ? "K" : "") + ((rights & 4) != 0 ? "Q" : "") +
+                    ((rights & 2) != 0 ? "k" : "") + ((rights & 1) != 0 ? "q" : "");
+        }
+    }
+
     private Board board;
     private Game game;
 
@@ -27,6 +37,7 @@ public class Move {
     private boolean isPromotionMove = false;
     private MoveType moveType;
     private String castlingRights; // castling rights on the board prior to the playing of this move
+    private int halfmoveClock; // halfmove clock of the game prior to the playing of this move
 
     /**
      * Constructs a new chess move with the specified starting square, ending square, move piece, and captured piece
@@ -47,6 +58,7 @@ public class Move {
         this.moveType = MoveType.NORMAL;
         determineMoveType();
         determineCastlingRights();
+        this.halfmoveClock = game.getHalfmoveClock();
 
         if (moveType == MoveType.EN_PASSANT) {
             this.capturedPiece = board.getPiece(endX, startY);
@@ -57,25 +69,22 @@ public class Move {
     }
 
     private void determineCastlingRights() {
-        String wk = "";
-        String wq = "";
-        String bk = "";
-        String bq = "";
+        int rights = 0;
 
         if (game.canWhiteKingSideCastle()) {
-            wk = "K";
+            rights |= 8;
         }
         if (game.canWhiteQueenSideCastle()) {
-            wq = "Q";
+            rights |= 4;
         }
         if (game.canBlackKingSideCastle()) {
-            bk = "k";
+            rights |= 2;
         }
         if (game.canBlackQueenSideCastle()) {
-            bq = "q";
+            rights |= 1;
         }
 
-        this.castlingRights = wk + wq + bk + bq;
+        this.castlingRights = CASTLING_RIGHTS[rights];
     }
 
     private void determineMoveType() {
@@ -158,6 +167,24 @@ public class Move {
                 Board.getChessNotation(Board.getSquareIndex(endX, endY));
     }
 
+    /**
+     * Return the given move formatted in UCI long algebraic notation (e.g. e2e4, e1g1, e7e8q)
+     */
+    public String formatUciMove() {
+        switch (moveType) {
+            case QUEEN_PROMOTION:
+                return formatPerftMove() + "q";
+            case KNIGHT_PROMOTION:
+                return formatPerftMove() + "n";
+            case ROOK_PROMOTION:
+                return formatPerftMove() + "r";
+            case BISHOP_PROMOTION:
+                return formatPerftMove() + "b";
+            default:
+                return formatPerftMove();
+        }
+    }
+
     @Override
     public boolean equals(Object v) {
         boolean retVal = false;
@@ -356,4 +383,8 @@ public class Move {
     public String getCastlingRights() {
         return castlingRights;
     }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 }
@@ -0,0 +1,166 @@
+package model;
+
+import enumerations.CheckStatus;
+import enumerations.GameStatus;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Represents a fixed size 32 byte binary encoding of a position, for datasets and caches where FEN strings are too
+// bulky and slow to parse. Records are written and read at absolute offsets of a ByteBuffer, big-endian:
+//   bytes  0-7   occupancy, bit i set if square index i holds a piece
+//   bytes  8-23  one 4 bit code per piece in increasing square order, high nibble first: 1-6 for the white pawn to
+//                king, 9-14 for the black pawn to king
+//   byte   24    bit 0 set if black is to move, bits 1-4 the castling rights K, Q, k, q
+//   byte   25    file (1-8) of a pawn that just made a double step, 0 if none
+//   bytes 26-27  halfmove clock, unsigned
+//   bytes 28-29  fullmove number, unsigned
+//   bytes 30-31  reserved, 0
+public class PackedPosition {
+    public static final int SIZE = 32;
+
+    private static final int OCCUPANCY_OFFSET = 0;
+    private static final int PIECES_OFFSET = 8;
+    private static final int STATE_OFFSET = 24;
+    private static final int EN_PASSANT_OFFSET = 25;
+    private static final int HALFMOVE_OFFSET = 26;
+    private static final int FULLMOVE_OFFSET = 28;
+    private static final int RESERVED_OFFSET = 30;
+    private static final int MAX_PIECES = 32;
+    private static final int BLACK_CODE = 8;
+
+    private PackedPosition() {
+    }
+
+    /**
+     * Return the encoding of the given game's position in a new array
+     */
+    public static byte[] encode(Game game) {
+        byte[] record = new byte[SIZE];
+        encode(game, ByteBuffer.wrap(record), 0);
+        return record;
+    }
+
+    /**
+     * Write the encoding of the given game's position into the given buffer at the given offset, without moving the
+     * buffer's position
+     *
+     * @throws IllegalArgumentException if the position has more than 32 pieces
+     */
+    public static void encode(Game game, ByteBuffer buffer, int offset) {
+        int[] board = game.getBoard().getBoard();
+        long occupancy = Bitboard.EMPTY;
+        int pieces = 0;
+        int packed = 0;
+
+        for (int index = 0; index < 64; index++) {
+            int piece = board[index];
+
+            if (piece == Piece.empty) {
+                continue;
+            }
+
+            if (pieces == MAX_PIECES) {
+                throw new IllegalArgumentException("position has more than " + MAX_PIECES + " pieces");
+            }
+
+            occupancy = Bitboard.add(occupancy, index);
+            packed = (packed << 4) | (piece > 0 ? piece : BLACK_CODE - piece);
+            pieces++;
+
+            if (pieces % 2 == 0) {
+                buffer.put(offset + PIECES_OFFSET + pieces / 2 - 1, (byte) packed);
+                packed = 0;
+            }
+        }
+
+        if (pieces % 2 == 1) {
+            buffer.put(offset + PIECES_OFFSET + pieces / 2, (byte) (packed << 4));
+            pieces++;
+        }
+
+        for (int i = pieces / 2; i < MAX_PIECES / 2; i++) {
+            buffer.put(offset + PIECES_OFFSET + i, (byte) 0);
+        }
+
+        int state = game.getCurrentTurn().isWhite() ? 0 : 1;
+        state |= game.canWhiteKingSideCastle() ? 2 : 0;
+        state |= game.canWhiteQueenSideCastle() ? 4 : 0;
+        state |= game.canBlackKingSideCastle() ? 8 : 0;
+        state |= game.canBlackQueenSideCastle() ? 16 : 0;
+
+        buffer.putLong(offset + OCCUPANCY_OFFSET, occupancy);
+        buffer.put(offset + STATE_OFFSET, (byte) state);
+        buffer.put(offset + EN_PASSANT_OFFSET, (byte) game.getEnPassantFile());
+        buffer.putShort(offset + HALFMOVE_OFFSET, (short) Math.min(game.getHalfmoveClock(), 0xFFFF));
+        buffer.putShort(offset + FULLMOVE_OFFSET, (short) Math.min(game.getFullmoveNumber(), 0xFFFF));
+        buffer.putShort(offset + RESERVED_OFFSET, (short) 0);
+    }
+
+    /**
+     * Set the given game to the position encoded in the given array
+     */
+    public static void decode(byte[] record, Game game) {
+        decode(ByteBuffer.wrap(record), 0, game);
+    }
+
+    /**
+     * Set the given game to the position encoded in the given buffer at the given offset, without moving the
+     * buffer's position. The game's board array is overwritten in place, so decoding allocates nothing unless an en
+     * passant capture is possible
+     *
+     * @throws IllegalArgumentException if the record occupies more than 32 squares or holds an invalid piece code
+     */
+    public static void decode(ByteBuffer buffer, int offset, Game game) {
+        Board position = game.getBoard();
+        int[] board = position.getBoard();
+        long occupancy = buffer.getLong(offset + OCCUPANCY_OFFSET);
+        int pieces = 0;
+
+        if (Long.bitCount(occupancy) > MAX_PIECES) {
+            throw new IllegalArgumentException("packed position occupies more than " + MAX_PIECES + " squares");
+        }
+
+        Arrays.fill(board, Piece.empty);
+
+        while (occupancy != Bitboard.EMPTY) {
+            int index = Bitboard.firstSquare(occupancy);
+            occupancy &= occupancy - 1;
+
+            int packed = buffer.get(offset + PIECES_OFFSET + pieces / 2);
+            int code = (pieces % 2 == 0 ? packed >> 4 : packed) & 0xF;
+
+            if (code == 0 || code == 7 || code == 8 || code == 15) {
+                throw new IllegalArgumentException("invalid piece code " + code + " in packed position");
+            }
+
+            board[index] = code < BLACK_CODE ? code : BLACK_CODE - code;
+            pieces++;
+        }
+
+        int state = buffer.get(offset + STATE_OFFSET);
+        boolean white = (state & 1) == 0;
+
+        position.getMoveList().clear();
+        game.setCurrentTurn(game.getPlayers()[white ? Game.WHITE_PLAYER_INDEX : Game.BLACK_PLAYER_INDEX]);
+        game.setWhiteKingSideCastling((state & 2) != 0);
+        game.setWhiteQueenSideCastling((state & 4) != 0);
+        game.setBlackKingSideCastling((state & 8) != 0);
+        game.setBlackQueenSideCastling((state & 16) != 0);
+        game.setHalfmoveClock(buffer.getShort(offset + HALFMOVE_OFFSET) & 0xFFFF);
+        game.setFullmoveNumber(buffer.getShort(offset + FULLMOVE_OFFSET) & 0xFFFF);
+
+        int enPassantFile = buffer.get(offset + EN_PASSANT_OFFSET);
+        if (enPassantFile >= 1 && enPassantFile <= 8) {
+            game.setEnPassantFile(enPassantFile);
+        }
+
+        game.resetHashHistory();
+        game.setGameStatus(GameStatus.ACTIVE);
+        if (position.isInCheck(white)) {
+            game.setCheckStatus(white ? CheckStatus.WHITE_IN_CHECK : CheckStatus.BLACK_IN_CHECK);
+        } else {
+            game.setCheckStatus(CheckStatus.NONE);
+        }
+    }
+}
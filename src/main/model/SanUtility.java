@@ -0,0 +1,401 @@
+package model;
+
+import enumerations.MoveType;
+
+import java.util.List;
+
+import static java.lang.Math.abs;
+
+// Represents conversions between moves and Standard Algebraic Notation (SAN), the notation of formatMove extended with
+// the disambiguation and capture rules of the PGN standard. A string is only accepted if exactly one legal move of the
+// position matches it
+public class SanUtility {
+
+    private SanUtility() {
+    }
+
+    /**
+     * Return the legal move described by the given SAN string, e.g. e4, exd5, Nbd7, R1e2, O-O, e8=Q+ or the
+     * notation of formatMove. Check, checkmate and annotation suffixes are ignored
+     *
+     * @param legalMoves all legal moves of the position the move is played in
+     * @throws IllegalArgumentException if no legal move, or more than one legal move, matches the string
+     */
+    public static Move parseMove(String san, List<Move> legalMoves) {
+        ParsedMove parsed = new ParsedMove(san);
+        Move match = null;
+
+        for (Move legalMove: legalMoves) {
+            if (parsed.matches(legalMove)) {
+                if (match != null) {
+                    throw new IllegalArgumentException("ambiguous move: " + san);
+                }
+                match = legalMove;
+            }
+        }
+
+        if (match == null) {
+            throw new IllegalArgumentException("illegal move: " + san);
+        }
+
+        return match;
+    }
+
+    /**
+     * Return the legal move described by the given SAN string in the current position of the given game, as
+     * parseMove(san, legalMoves) does but without generating every legal move: only the pieces that can reach the
+     * destination square are found, by walking outwards from it, and each is checked for leaving its king in check.
+     * Castling and en passant captures fall back to generating the legal moves
+     *
+     * @throws IllegalArgumentException if no legal move, or more than one legal move, matches the string
+     */
+    public static Move parseMove(Game game, String san) {
+        ParsedMove parsed = new ParsedMove(san);
+        boolean white = game.getCurrentTurn().isWhite();
+        int sign = white ? 1 : -1;
+        Board position = game.getBoard();
+        int[] board = position.getBoard();
+        int endIndex = Board.getSquareIndex(parsed.endX, parsed.endY);
+
+        if (parsed.castle != null || (parsed.piece == Piece.wPawn && parsed.startX != 0 &&
+                parsed.startX != parsed.endX && board[endIndex] == 0)) {
+            return parseMove(san, game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn()));
+        }
+
+        if (board[endIndex] * sign > 0) {
+            throw new IllegalArgumentException("illegal move: " + san);
+        }
+
+        int startIndex = parsed.piece == Piece.wPawn ?
+                findPawn(position, parsed, sign, endIndex) : findPiece(position, parsed, sign, endIndex);
+
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("illegal move: " + san);
+        }
+
+        boolean lastRank = parsed.endY == (white ? 8 : 1);
+        if (parsed.piece == Piece.wPawn ? lastRank != (parsed.promotion != null) : parsed.promotion != null) {
+            throw new IllegalArgumentException("illegal move: " + san);
+        }
+
+        Move move = new Move(game, startIndex % 8 + 1, startIndex / 8 + 1, parsed.endX, parsed.endY);
+        if (parsed.promotion != null) {
+            move.setMoveType(parsed.promotion);
+        }
+
+        return move;
+    }
+
+    /**
+     * Return the index of the pawn making the given move, or -1 if there is none or the move leaves its king in check
+     */
+    private static int findPawn(Board position, ParsedMove parsed, int sign, int endIndex) {
+        int[] board = position.getBoard();
+        int pawn = sign * Piece.wPawn;
+        int startIndex;
+
+        if (parsed.endY == (sign > 0 ? 1 : 8)) {
+            return -1;
+        }
+
+        if (parsed.startX != 0 && parsed.startX != parsed.endX) {
+            // a pawn only captures onto an adjacent file
+            if (abs(parsed.startX - parsed.endX) != 1) {
+                return -1;
+            }
+
+            startIndex = Board.getSquareIndex(parsed.startX, parsed.endY - sign);
+        } else if (board[endIndex] != 0) {
+            return -1;
+        } else {
+            startIndex = endIndex - 8 * sign;
+
+            // double step from the starting rank over an empty square
+            if (board[startIndex] == 0 && parsed.endY == (sign > 0 ? 4 : 5)) {
+                startIndex -= 8 * sign;
+            }
+        }
+
+        if ((parsed.startY != 0 && startIndex / 8 + 1 != parsed.startY) || board[startIndex] != pawn ||
+                leavesKingInCheck(position, startIndex, endIndex, sign > 0)) {
+            return -1;
+        }
+
+        return startIndex;
+    }
+
+    /**
+     * Return the index of the only piece that can make the given move, or -1 if there is none
+     *
+     * @throws IllegalArgumentException if more than one piece can make the move
+     */
+    private static int findPiece(Board position, ParsedMove parsed, int sign, int endIndex) {
+        int[] board = position.getBoard();
+        int piece = sign * parsed.piece;
+        long candidates = Bitboard.EMPTY;
+
+        if (parsed.piece == Piece.wKnight) {
+            candidates = AttackTables.KNIGHT_ATTACKS[endIndex];
+        } else if (parsed.piece == Piece.wKing) {
+            candidates = AttackTables.KING_ATTACKS[endIndex];
+        } else {
+            int firstDirection = parsed.piece == Piece.wBishop ? AttackTables.FIRST_DIAGONAL_DIRECTION : 0;
+            int lastDirection = parsed.piece == Piece.wRook ?
+                    AttackTables.FIRST_DIAGONAL_DIRECTION : AttackTables.DIRECTIONS.length;
+
+            // the first piece seen from the destination square in each direction is the only one that can reach it
+            for (int direction = firstDirection; direction < lastDirection; direction++) {
+                for (int square: AttackTables.RAYS[direction][endIndex]) {
+                    if (board[square] != 0) {
+                        candidates = Bitboard.add(candidates, square);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int startIndex = -1;
+
+        while (candidates != Bitboard.EMPTY) {
+            int square = Bitboard.firstSquare(candidates);
+            candidates &= candidates - 1;
+
+            if (board[square] != piece || (parsed.startX != 0 && square % 8 + 1 != parsed.startX) ||
+                    (parsed.startY != 0 && square / 8 + 1 != parsed.startY) ||
+                    leavesKingInCheck(position, square, endIndex, sign > 0)) {
+                continue;
+            }
+
+            if (startIndex >= 0) {
+                throw new IllegalArgumentException("ambiguous move: " + parsed.san);
+            }
+            startIndex = square;
+        }
+
+        return startIndex;
+    }
+
+    /**
+     * Return true if moving the piece on the start square to the end square leaves the king of the given colour in
+     * check. The move is made on the board array and taken back again
+     */
+    private static boolean leavesKingInCheck(Board position, int startIndex, int endIndex, boolean white) {
+        int[] board = position.getBoard();
+        int movedPiece = board[startIndex];
+        int capturedPiece = board[endIndex];
+
+        board[endIndex] = movedPiece;
+        board[startIndex] = Piece.empty;
+
+        boolean inCheck = position.isInCheck(white);
+
+        board[startIndex] = movedPiece;
+        board[endIndex] = capturedPiece;
+
+        return inCheck;
+    }
+
+    /**
+     * Return the given legal move in SAN, without a check or checkmate suffix since that depends on the position
+     * after the move
+     *
+     * @param legalMoves all legal moves of the position the move is played in, used to disambiguate the move
+     */
+    public static String formatMove(Move move, List<Move> legalMoves) {
+        switch (move.getMoveType()) {
+            case KING_SIDE_CASTLE:
+                return "O-O";
+            case QUEEN_SIDE_CASTLE:
+                return "O-O-O";
+        }
+
+        StringBuilder san = new StringBuilder(7);
+        boolean capture = move.getCapturedPiece() != 0;
+
+        if (abs(move.getMovedPiece()) == Piece.wPawn) {
+            if (capture) {
+                san.append(Board.getCharCoord(move.getStartX())).append('x');
+            }
+        } else {
+            san.append(Piece.getPieceChar(move.getMovedPiece()));
+            appendDisambiguation(san, move, legalMoves);
+
+            if (capture) {
+                san.append('x');
+            }
+        }
+
+        san.append(Board.getCharCoord(move.getEndX())).append(move.getEndY());
+
+        switch (move.getMoveType()) {
+            case QUEEN_PROMOTION:
+                return san.append("=Q").toString();
+            case KNIGHT_PROMOTION:
+                return san.append("=N").toString();
+            case ROOK_PROMOTION:
+                return san.append("=R").toString();
+            case BISHOP_PROMOTION:
+                return san.append("=B").toString();
+            default:
+                return san.toString();
+        }
+    }
+
+    /**
+     * Append the file, rank or square of the given move's starting square if another piece of the same type can
+     * also move to its destination: the file if it tells the pieces apart, otherwise the rank, otherwise both
+     */
+    private static void appendDisambiguation(StringBuilder san, Move move, List<Move> legalMoves) {
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+
+        for (Move other: legalMoves) {
+            if (other.getMovedPiece() != move.getMovedPiece() || other.getEndX() != move.getEndX() ||
+                    other.getEndY() != move.getEndY() ||
+                    (other.getStartX() == move.getStartX() && other.getStartY() == move.getStartY())) {
+                continue;
+            }
+
+            ambiguous = true;
+            sameFile |= other.getStartX() == move.getStartX();
+            sameRank |= other.getStartY() == move.getStartY();
+        }
+
+        if (!ambiguous) {
+            return;
+        }
+
+        if (!sameFile) {
+            san.append(Board.getCharCoord(move.getStartX()));
+        } else if (!sameRank) {
+            san.append(move.getStartY());
+        } else {
+            san.append(Board.getCharCoord(move.getStartX())).append(move.getStartY());
+        }
+    }
+
+    /**
+     * Return the (white) piece of the given SAN piece letter, or 0 if it is not a piece letter
+     */
+    private static int getPieceType(char c) {
+        switch (c) {
+            case 'N':
+                return Piece.wKnight;
+            case 'B':
+                return Piece.wBishop;
+            case 'R':
+                return Piece.wRook;
+            case 'Q':
+                return Piece.wQueen;
+            case 'K':
+                return Piece.wKing;
+            default:
+                return 0;
+        }
+    }
+
+    private static MoveType getPromotionType(char c) {
+        switch (c) {
+            case 'N':
+                return MoveType.KNIGHT_PROMOTION;
+            case 'B':
+                return MoveType.BISHOP_PROMOTION;
+            case 'R':
+                return MoveType.ROOK_PROMOTION;
+            case 'Q':
+                return MoveType.QUEEN_PROMOTION;
+            default:
+                return MoveType.NORMAL;
+        }
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    // Represents the parts of a SAN string: the castle, or the moved piece, the file and rank it moves from if they
+    // are given (0 otherwise), the square it moves to and the promotion type if any
+    private static class ParsedMove {
+        private final String san;
+        private MoveType castle;
+        private int piece;
+        private MoveType promotion;
+        private int startX;
+        private int startY;
+        private int endX;
+        private int endY;
+
+        /**
+         * @throws IllegalArgumentException if the string is not a move
+         */
+        private ParsedMove(String san) {
+            this.san = san;
+
+            int end = san.length();
+            while (end > 0 && isSuffix(san.charAt(end - 1))) {
+                end--;
+            }
+
+            String move = san.substring(0, end);
+
+            if (move.equals("O-O") || move.equals("0-0")) {
+                castle = MoveType.KING_SIDE_CASTLE;
+                return;
+            }
+            if (move.equals("O-O-O") || move.equals("0-0-0")) {
+                castle = MoveType.QUEEN_SIDE_CASTLE;
+                return;
+            }
+
+            int start = 0;
+            piece = Piece.wPawn;
+
+            if (end > 0 && getPieceType(move.charAt(0)) != 0) {
+                piece = getPieceType(move.charAt(0));
+                start = 1;
+            } else if (end > 2 && getPieceType(move.charAt(end - 1)) != 0) {
+                // promotion, written e8=Q or e8Q
+                promotion = getPromotionType(move.charAt(end - 1));
+                end -= move.charAt(end - 2) == '=' ? 2 : 1;
+            }
+
+            if (end - start < 2 || promotion == MoveType.NORMAL) {
+                throw new IllegalArgumentException("not a move: " + san);
+            }
+
+            endX = move.charAt(end - 2) - 'a' + 1;
+            endY = move.charAt(end - 1) - '0';
+
+            if (endX < 1 || endX > 8 || endY < 1 || endY > 8) {
+                throw new IllegalArgumentException("not a move: " + san);
+            }
+
+            // whatever is left between the piece and the destination square is disambiguation, capture or a hyphen
+            for (int i = start; i < end - 2; i++) {
+                char c = move.charAt(i);
+
+                if (c >= 'a' && c <= 'h') {
+                    startX = c - 'a' + 1;
+                } else if (c >= '1' && c <= '8') {
+                    startY = c - '0';
+                } else if (c != 'x' && c != ':' && c != '-') {
+                    throw new IllegalArgumentException("not a move: " + san);
+                }
+            }
+        }
+
+        /**
+         * Return true if the given legal move is described by this SAN string
+         */
+        private boolean matches(Move move) {
+            if (castle != null) {
+                return move.getMoveType() == castle;
+            }
+
+            return abs(move.getMovedPiece()) == piece && move.getEndX() == endX && move.getEndY() == endY &&
+                    (startX == 0 || move.getStartX() == startX) && (startY == 0 || move.getStartY() == startY) &&
+                    (move.isPromotionMove() ? move.getMoveType() == promotion : promotion == null);
+        }
+    }
+}
@@ -15,11 +15,25 @@ public class Zobrist {
     private final long[] enPassantFiles;
     private final long[] castlingRights;
     private long whiteToPlay;
+    private final Random random;
 
     /**
      * Initializes the Zobrist class
      */
     public Zobrist() {
+        this(new Random());
+    }
+
+    /**
+     * Initializes the Zobrist class with keys drawn from the given seed, so that the same seed always gives the same
+     * keys
+     */
+    public Zobrist(long seed) {
+        this(new Random(seed));
+    }
+
+    private Zobrist(Random random) {
+        this.random = random;
         this.pieceTable = new long[64][12];
         this.enPassantFiles = new long[8];
         this.castlingRights = new long[4];
@@ -52,7 +66,6 @@ public class Zobrist {
      * Generates a random number from 0 to 2^64-1
      */
     public long randomLongGenerator() {
-        Random random = new Random();
         return abs(random.nextLong());
     }
 
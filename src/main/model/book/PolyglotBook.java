@@ -0,0 +1,257 @@
+package model.book;
+
+import enumerations.BookSelection;
+import model.Game;
+import model.Move;
+import model.Piece;
+import model.PolyglotZobrist;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Represents an opening book in the Polyglot format: a file of 16 byte big-endian entries of a position key (see
+// PolyglotZobrist), a move, a weight and a learn field, sorted by key. The file is mapped into memory and the entries
+// of a position are found by a binary search over the mapping, so a probe reads a few pages and parses nothing else.
+// A move is encoded in 16 bits as the destination file and row (bits 0-5), the origin file and row (bits 6-11) and
+// the promotion piece (bits 12-14, 1-4 for a knight to a queen), with castling encoded as the king capturing its rook
+public class PolyglotBook implements Closeable {
+    public static final int ENTRY_SIZE = 16;
+
+    private static final String PROMOTION_PIECES = "nbrq";
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private BookSelection selection = BookSelection.WEIGHTED_RANDOM;
+    private Random random = new Random();
+
+    /**
+     * Construct a new book from the Polyglot file at the given path
+     *
+     * @throws IOException if the file cannot be mapped, is larger than 2GB or its length is not a whole number of
+     *                     entries
+     */
+    public PolyglotBook(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long length = channel.size();
+
+        if (length % ENTRY_SIZE != 0 || length > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException(path + " is not a Polyglot book of at most 2GB: length " + length);
+        }
+
+        this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        this.size = (int) (length / ENTRY_SIZE);
+    }
+
+    /**
+     * Return the entries of the position with the given key, in the order they are stored
+     */
+    public List<PolyglotEntry> getEntries(long key) {
+        List<PolyglotEntry> found = new ArrayList<>();
+
+        for (int i = firstEntry(key); i < size && getKey(i) == key; i++) {
+            int offset = i * ENTRY_SIZE;
+            found.add(new PolyglotEntry(key, entries.getShort(offset + 8) & 0xFFFF,
+                    entries.getShort(offset + 10) & 0xFFFF, entries.getInt(offset + 12)));
+        }
+
+        return found;
+    }
+
+    /**
+     * Return the entries of the given game's position
+     */
+    public List<PolyglotEntry> getEntries(Game game) {
+        return getEntries(PolyglotZobrist.calculateKey(game));
+    }
+
+    /**
+     * Return a book move for the given game's position chosen by the book's selection, or null if the book has no
+     * playable move for it
+     */
+    public Move getMove(Game game) {
+        if (selection == BookSelection.BEST_WEIGHT) {
+            return getBestMove(game);
+        }
+
+        return getWeightedMove(game, random);
+    }
+
+    /**
+     * Return the book move with the highest weight for the given game's position, the first stored one on ties, or
+     * null if there is none with a weight above 0
+     */
+    public Move getBestMove(Game game) {
+        PolyglotEntry best = null;
+
+        for (PolyglotEntry entry: getEntries(game)) {
+            if (entry.getWeight() > 0 && (best == null || entry.getWeight() > best.getWeight())) {
+                best = entry;
+            }
+        }
+
+        return best == null ? null : toMove(game, best.getMove());
+    }
+
+    /**
+     * Return a book move for the given game's position chosen at random with a probability proportional to its
+     * weight, or null if there is none with a weight above 0
+     */
+    public Move getWeightedMove(Game game, Random random) {
+        List<PolyglotEntry> found = getEntries(game);
+        long totalWeight = 0;
+
+        for (PolyglotEntry entry: found) {
+            totalWeight += entry.getWeight();
+        }
+
+        if (totalWeight == 0) {
+            return null;
+        }
+
+        long pick = (long) (random.nextDouble() * totalWeight);
+
+        for (PolyglotEntry entry: found) {
+            pick -= entry.getWeight();
+
+            if (pick < 0) {
+                return toMove(game, entry.getMove());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the index of the first entry whose key is not below the given key, comparing keys as unsigned numbers
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (Long.compareUnsigned(getKey(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private long getKey(int index) {
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    /**
+     * Return the legal move of the given game that the given encoded book move stands for, or null if it is not legal,
+     * e.g. because of a key collision
+     */
+    public static Move toMove(Game game, int bookMove) {
+        int endX = (bookMove & 7) + 1;
+        int endY = ((bookMove >> 3) & 7) + 1;
+        int startX = ((bookMove >> 6) & 7) + 1;
+        int startY = ((bookMove >> 9) & 7) + 1;
+        int promotion = (bookMove >> 12) & 7;
+
+        boolean castle = Math.abs(game.getBoard().getPiece(startX, startY)) == Piece.wKing && startX == 5 &&
+                startY == endY && (endX == 1 || endX == 8);
+
+        for (Move move: game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn())) {
+            if (castle) {
+                if (endX == 8 ? move.isKingSideCastleMove() : move.isQueenSideCastleMove()) {
+                    return move;
+                }
+            } else if (move.getStartX() == startX && move.getStartY() == startY && move.getEndX() == endX &&
+                    move.getEndY() == endY && promotionCode(move) == promotion) {
+                return move;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the 16 bit book encoding of the given move
+     */
+    public static int encodeMove(Move move) {
+        int endX = move.getEndX();
+
+        if (move.isKingSideCastleMove()) {
+            endX = 8;
+        } else if (move.isQueenSideCastleMove()) {
+            endX = 1;
+        }
+
+        return (endX - 1) | (move.getEndY() - 1) << 3 | (move.getStartX() - 1) << 6 | (move.getStartY() - 1) << 9 |
+                promotionCode(move) << 12;
+    }
+
+    /**
+     * Return the given encoded book move in UCI notation, with castling written as the king capturing its own rook
+     */
+    public static String formatMove(int bookMove) {
+        StringBuilder move = new StringBuilder(5)
+                .append((char) ('a' + ((bookMove >> 6) & 7)))
+                .append((char) ('1' + ((bookMove >> 9) & 7)))
+                .append((char) ('a' + (bookMove & 7)))
+                .append((char) ('1' + ((bookMove >> 3) & 7)));
+        int promotion = (bookMove >> 12) & 7;
+
+        if (promotion >= 1 && promotion <= PROMOTION_PIECES.length()) {
+            move.append(PROMOTION_PIECES.charAt(promotion - 1));
+        }
+
+        return move.toString();
+    }
+
+    private static int promotionCode(Move move) {
+        if (move.isKnightPromotionMove()) {
+            return 1;
+        } else if (move.isBishopPromotionMove()) {
+            return 2;
+        } else if (move.isRookPromotionMove()) {
+            return 3;
+        } else if (move.isQueenPromotionMove()) {
+            return 4;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public int size() {
+        return size;
+    }
+
+    public BookSelection getSelection() {
+        return selection;
+    }
+
+    public void setSelection(BookSelection selection) {
+        this.selection = selection;
+    }
+
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+}
@@ -0,0 +1,48 @@
+package model.book;
+
+// Represents an entry of a Polyglot opening book: a move that can be played in the position with the given key, with
+// its weight and the learn field, which this engine does not use. The move is kept in the format's 16 bit encoding
+public class PolyglotEntry {
+    private final long key;
+    private final int move;
+    private final int weight;
+    private final int learn;
+
+    public PolyglotEntry(long key, int move, int weight, int learn) {
+        this.key = key;
+        this.move = move;
+        this.weight = weight;
+        this.learn = learn;
+    }
+
+    /**
+     * Return the move in UCI notation, with castling written as the king capturing its own rook, as it is stored
+     */
+    public String formatMove() {
+        return PolyglotBook.formatMove(move);
+    }
+
+    @Override
+    public String toString() {
+        return formatMove() + " " + weight;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public long getKey() {
+        return key;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getLearn() {
+        return learn;
+    }
+}
@@ -0,0 +1,16 @@
+package model.evaluation;
+
+import model.Game;
+
+// Represents one term of a term evaluator, e.g. material or mobility, which scores a single aspect of a position
+public interface EvaluationTerm {
+    /**
+     * Return the name the term is registered under
+     */
+    String getName();
+
+    /**
+     * Return the term's score of the given game's position in pawns from white's perspective
+     */
+    double evaluate(Game game);
+}
@@ -0,0 +1,13 @@
+package model.evaluation;
+
+import model.Game;
+
+// Represents a static evaluator of positions. Evaluators keep no state between positions, so one evaluator can be
+// shared by searches running on several threads
+public interface Evaluator {
+    /**
+     * Return the evaluation of the given game's position in pawns from the perspective of the player whose turn it
+     * is: large positive scores are very favourable for that player, large negative scores very unfavourable
+     */
+    double evaluate(Game game);
+}
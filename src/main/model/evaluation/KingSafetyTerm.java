@@ -0,0 +1,74 @@
+package model.evaluation;
+
+import model.Board;
+import model.Game;
+import model.Piece;
+
+// Represents the king safety term, which only counts while the opponent has a queen: a bonus for each of the king's
+// own pawns shielding it from the three files around it one or two ranks ahead, and a penalty for each square next to
+// the king that the opponent attacks. Scores are from white's king less black's
+public class KingSafetyTerm implements EvaluationTerm {
+    public static final String NAME = "kingSafety";
+    public static final double SHIELD_BONUS = 0.1;
+    public static final double ATTACK_PENALTY = 0.05;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double evaluate(Game game) {
+        return kingSafety(game.getBoard(), true) - kingSafety(game.getBoard(), false);
+    }
+
+    /**
+     * Return the safety of the king of the given colour in pawns
+     */
+    private static double kingSafety(Board board, boolean white) {
+        int[] pieces = board.getBoard();
+        int kingSquare = board.getKingIndex(white);
+
+        if (kingSquare < 0 || !hasPiece(pieces, white ? Piece.bQueen : Piece.wQueen)) {
+            return 0;
+        }
+
+        int kingFile = kingSquare % 8;
+        int kingRank = kingSquare / 8;
+        int forward = white ? 1 : -1;
+        int pawn = white ? Piece.wPawn : Piece.bPawn;
+        int shield = 0;
+        int attacked = 0;
+
+        for (int file = Math.max(0, kingFile - 1); file <= Math.min(7, kingFile + 1); file++) {
+            for (int step = 1; step <= 2; step++) {
+                int rank = kingRank + step * forward;
+
+                if (rank >= 0 && rank < 8 && pieces[rank * 8 + file] == pawn) {
+                    shield++;
+                    break;
+                }
+            }
+
+            for (int rank = Math.max(0, kingRank - 1); rank <= Math.min(7, kingRank + 1); rank++) {
+                int square = rank * 8 + file;
+
+                if (square != kingSquare && board.isSquareAttacked(square, !white)) {
+                    attacked++;
+                }
+            }
+        }
+
+        return SHIELD_BONUS * shield - ATTACK_PENALTY * attacked;
+    }
+
+    private static boolean hasPiece(int[] pieces, int piece) {
+        for (int p: pieces) {
+            if (p == piece) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package model.evaluation;
+
+import model.Game;
+import model.Piece;
+import model.search.EvaluationParameters;
+
+// Represents the material term: the weight of each piece, and of a pair of bishops, that white has more than black
+public class MaterialTerm implements EvaluationTerm {
+    public static final String NAME = "material";
+    public static final int BLACK = 7; // offset of the black pieces' counts
+
+    private final double[] weights;
+
+    public MaterialTerm(EvaluationParameters parameters) {
+        this.weights = parameters.getValues();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double evaluate(Game game) {
+        int[] counts = countPieces(game.getBoard().getBoard());
+        double wBishopPair = 0;
+        double bBishopPair = 0;
+
+        if (counts[Piece.wBishop] == 2) {
+            wBishopPair = weights[EvaluationParameters.BISHOP_PAIR];
+        }
+
+        if (counts[BLACK + Piece.wBishop] == 2) {
+            bBishopPair = weights[EvaluationParameters.BISHOP_PAIR];
+        }
+
+        return (weights[EvaluationParameters.QUEEN] * (counts[Piece.wQueen] - counts[BLACK + Piece.wQueen])) +
+                (weights[EvaluationParameters.ROOK] * (counts[Piece.wRook] - counts[BLACK + Piece.wRook])) +
+                (weights[EvaluationParameters.BISHOP] * (counts[Piece.wBishop] - counts[BLACK + Piece.wBishop])) +
+                (weights[EvaluationParameters.KNIGHT] * (counts[Piece.wKnight] - counts[BLACK + Piece.wKnight])) +
+                (weights[EvaluationParameters.PAWN] * (counts[Piece.wPawn] - counts[BLACK + Piece.wPawn])) +
+                (wBishopPair - bBishopPair);
+    }
+
+    /**
+     * Return the number of pieces of each type on the given board, indexed by the white piece for white pieces and by
+     * BLACK plus the white piece for black pieces
+     */
+    public static int[] countPieces(int[] board) {
+        int[] counts = new int[2 * BLACK];
+
+        for (int piece: board) {
+            if (piece > 0) {
+                counts[piece]++;
+            } else if (piece < 0) {
+                counts[BLACK - piece]++;
+            }
+        }
+
+        return counts;
+    }
+}
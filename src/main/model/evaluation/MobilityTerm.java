@@ -0,0 +1,34 @@
+package model.evaluation;
+
+import model.Game;
+import model.Player;
+import model.search.EvaluationParameters;
+
+// Represents the mobility term: the mobility weight for every legal move white has more than black
+public class MobilityTerm implements EvaluationTerm {
+    public static final String NAME = "mobility";
+
+    private final double weight;
+
+    public MobilityTerm(EvaluationParameters parameters) {
+        this.weight = parameters.get(EvaluationParameters.MOBILITY);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double evaluate(Game game) {
+        return weight * countMobility(game);
+    }
+
+    /**
+     * Return the number of legal moves of white minus those of black in the given game's position
+     */
+    public static int countMobility(Game game) {
+        return game.getMoveGenerator().generateLegalMoves(game, new Player(true)).size() -
+                game.getMoveGenerator().generateLegalMoves(game, new Player(false)).size();
+    }
+}
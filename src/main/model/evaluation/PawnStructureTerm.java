@@ -0,0 +1,81 @@
+package model.evaluation;
+
+import model.Game;
+import model.Piece;
+import model.search.EvaluationParameters;
+
+// Represents the pawn structure term: the pawn error weight, a penalty, for every file with doubled pawns or an
+// isolated pawn of white's, less the same for black's
+public class PawnStructureTerm implements EvaluationTerm {
+    public static final String NAME = "pawns";
+
+    private final double weight;
+
+    public PawnStructureTerm(EvaluationParameters parameters) {
+        this.weight = parameters.get(EvaluationParameters.PAWN_ERROR);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double evaluate(Game game) {
+        int[] whitePawns = countPawnFiles(game.getBoard().getBoard(), Piece.wPawn);
+        int[] blackPawns = countPawnFiles(game.getBoard().getBoard(), Piece.bPawn);
+
+        double whitePawnErrors = weight * (countDoubledPawns(whitePawns) + countIsolatedPawns(whitePawns));
+        double blackPawnErrors = weight * (countDoubledPawns(blackPawns) + countIsolatedPawns(blackPawns));
+
+        return whitePawnErrors - blackPawnErrors;
+    }
+
+    /**
+     * Return the number of the given pawns on each file of the given board
+     */
+    public static int[] countPawnFiles(int[] board, int pawn) {
+        int[] pawns = new int[8];
+
+        for (int index = 0; index < 64; index++) {
+            if (board[index] == pawn) {
+                pawns[index % 8]++;
+            }
+        }
+
+        return pawns;
+    }
+
+    /**
+     * Return the number of files with more than one of the given pawns
+     */
+    public static int countDoubledPawns(int[] pawns) {
+        int doubledPawns = 0;
+
+        for (int p: pawns) {
+            if (p > 1) {
+                doubledPawns++;
+            }
+        }
+
+        return doubledPawns;
+    }
+
+    /**
+     * Return the number of files with pawns but no pawns on either neighbouring file
+     */
+    public static int countIsolatedPawns(int[] pawns) {
+        int isolatedPawns = 0;
+
+        for (int file = 0; file < 8; file++) {
+            boolean leftEmpty = file == 0 || pawns[file - 1] == 0;
+            boolean rightEmpty = file == 7 || pawns[file + 1] == 0;
+
+            if (pawns[file] > 0 && leftEmpty && rightEmpty) {
+                isolatedPawns++;
+            }
+        }
+
+        return isolatedPawns;
+    }
+}
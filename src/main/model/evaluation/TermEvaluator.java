@@ -0,0 +1,243 @@
+package model.evaluation;
+
+import model.Game;
+import model.search.EvaluationParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+// Represents an evaluator that sums a registry of evaluation terms, each of which can be enabled or disabled. The
+// standard registry holds the material, mobility, pawn structure, piece-square and king safety terms, of which the
+// first three are enabled; the system property evaluation.terms, a comma separated list of term names, replaces that
+// choice for the evaluator read at startup. While profiling is on, every term counts its calls, the calls it scored
+// anything in (its hits) and the time it took, so the share of evaluation time each term costs can be measured.
+// Counters are updated concurrently, so one evaluator can be shared by every search thread
+public class TermEvaluator implements Evaluator {
+    public static final String TERMS_PROPERTY = "evaluation.terms";
+
+    private static TermEvaluator startupEvaluator;
+
+    private final List<RegisteredTerm> terms;
+    private volatile boolean profiling;
+
+    /**
+     * Construct a new evaluator without terms
+     */
+    public TermEvaluator() {
+        this.terms = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Return a new evaluator of the standard terms with the given weights, with material, mobility and pawn structure
+     * enabled
+     */
+    public static TermEvaluator standard(EvaluationParameters parameters) {
+        TermEvaluator evaluator = new TermEvaluator();
+
+        evaluator.register(new MaterialTerm(parameters), true);
+        evaluator.register(new MobilityTerm(parameters), true);
+        evaluator.register(new PawnStructureTerm(parameters), true);
+        evaluator.register(new PieceSquareTerm(), false);
+        evaluator.register(new KingSafetyTerm(), false);
+
+        return evaluator;
+    }
+
+    /**
+     * Return the evaluator read at startup: the standard terms with the startup evaluation parameters, enabled as the
+     * evaluation.terms system property lists if it is set
+     */
+    public static synchronized TermEvaluator getStartupEvaluator() {
+        if (startupEvaluator == null) {
+            startupEvaluator = standard(EvaluationParameters.getStartupParameters());
+            String enabledTerms = System.getProperty(TERMS_PROPERTY);
+
+            if (enabledTerms != null) {
+                try {
+                    startupEvaluator.enableOnly(enabledTerms.split(","));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("cannot enable evaluation terms " + enabledTerms + ": " + e.getMessage());
+                }
+            }
+        }
+
+        return startupEvaluator;
+    }
+
+    /**
+     * Add the given term after the registered ones
+     *
+     * @throws IllegalArgumentException if a term of the same name is registered
+     */
+    public void register(EvaluationTerm term, boolean enabled) {
+        for (RegisteredTerm registered: terms) {
+            if (registered.term.getName().equals(term.getName())) {
+                throw new IllegalArgumentException("evaluation term " + term.getName() + " is already registered");
+            }
+        }
+
+        terms.add(new RegisteredTerm(term, enabled));
+    }
+
+    @Override
+    public double evaluate(Game game) {
+        double score = 0;
+        boolean profile = profiling;
+
+        for (RegisteredTerm registered: terms) {
+            if (!registered.enabled) {
+                continue;
+            }
+
+            if (profile) {
+                long startTime = System.nanoTime();
+                double termScore = registered.term.evaluate(game);
+                registered.record(termScore, System.nanoTime() - startTime);
+                score += termScore;
+            } else {
+                score += registered.term.evaluate(game);
+            }
+        }
+
+        return game.getCurrentTurn().isWhite() ? score : -score;
+    }
+
+    /**
+     * Enable or disable the term of the given name
+     *
+     * @throws IllegalArgumentException if no term of that name is registered
+     */
+    public void setEnabled(String name, boolean enabled) {
+        find(name).enabled = enabled;
+    }
+
+    public boolean isEnabled(String name) {
+        return find(name).enabled;
+    }
+
+    /**
+     * Enable the terms of the given names and disable every other term
+     *
+     * @throws IllegalArgumentException if a name is not registered, in which case no term is changed
+     */
+    public void enableOnly(String... names) {
+        List<RegisteredTerm> enabled = new ArrayList<>();
+        for (String name: names) {
+            if (!name.trim().isEmpty()) {
+                enabled.add(find(name.trim()));
+            }
+        }
+
+        for (RegisteredTerm registered: terms) {
+            registered.enabled = enabled.contains(registered);
+        }
+    }
+
+    private RegisteredTerm find(String name) {
+        for (RegisteredTerm registered: terms) {
+            if (registered.term.getName().equals(name)) {
+                return registered;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown evaluation term: " + name);
+    }
+
+    /**
+     * Reset the counters of every term
+     */
+    public void resetCounters() {
+        for (RegisteredTerm registered: terms) {
+            registered.calls.reset();
+            registered.hits.reset();
+            registered.nanos.reset();
+        }
+    }
+
+    /**
+     * Return one line per term with its state, calls, hits, mean time per call and share of the time of every term
+     */
+    public String report() {
+        long totalNanos = 0;
+        for (RegisteredTerm registered: terms) {
+            totalNanos += registered.nanos.sum();
+        }
+
+        StringBuilder report = new StringBuilder();
+        for (RegisteredTerm registered: terms) {
+            long calls = registered.calls.sum();
+            long nanos = registered.nanos.sum();
+
+            report.append(String.format("%-12s %-8s calls %d, hits %d, %.0f ns/call, %.1f%% of time%n",
+                    registered.term.getName(), registered.enabled ? "enabled" : "disabled", calls,
+                    registered.hits.sum(), calls == 0 ? 0.0 : (double) nanos / calls,
+                    totalNanos == 0 ? 0.0 : 100.0 * nanos / totalNanos));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public List<String> getTermNames() {
+        List<String> names = new ArrayList<>();
+
+        for (RegisteredTerm registered: terms) {
+            names.add(registered.term.getName());
+        }
+
+        return names;
+    }
+
+    public long getCalls(String name) {
+        return find(name).calls.sum();
+    }
+
+    public long getHits(String name) {
+        return find(name).hits.sum();
+    }
+
+    public long getNanos(String name) {
+        return find(name).nanos.sum();
+    }
+
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    /**
+     * Count the calls, hits and time of every term from now on, or stop counting them
+     */
+    public void setProfiling(boolean profiling) {
+        this.profiling = profiling;
+    }
+
+    // Represents a term of the registry with its switch and counters
+    private static class RegisteredTerm {
+        private final EvaluationTerm term;
+        private final LongAdder calls;
+        private final LongAdder hits;
+        private final LongAdder nanos;
+        private volatile boolean enabled;
+
+        private RegisteredTerm(EvaluationTerm term, boolean enabled) {
+            this.term = term;
+            this.enabled = enabled;
+            this.calls = new LongAdder();
+            this.hits = new LongAdder();
+            this.nanos = new LongAdder();
+        }
+
+        private void record(double score, long elapsed) {
+            calls.increment();
+            nanos.add(elapsed);
+
+            if (score != 0) {
+                hits.increment();
+            }
+        }
+    }
+}
@@ -5,28 +5,30 @@ import model.*;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 import static java.lang.Math.abs;
 
 // Represents a move generator which generates only legal chess moves
+// Checking pieces and pin rays are found in one walk outwards from the friendly king, after which every piece's moves
+// are generated once and restricted to the check evasion mask and, for a pinned piece, to the ray it is pinned along
 public class MoveGenerator {
+    private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {2, 1}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}};
+    private static final int[][] KING_OFFSETS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}, {-1, 1}, {1, 1}, {-1, -1}, {1, -1}};
+    private static final int[][] STRAIGHT_DIRECTIONS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
+    private static final int[][] DIAGONAL_DIRECTIONS = {{-1, 1}, {1, 1}, {-1, -1}, {1, -1}};
+
+    private final ThreatMapGenerator threatMapGenerator = new ThreatMapGenerator();
+    private final long[] pinRays = new long[64]; // squares a pinned piece may move to, indexed by the pinned piece
+
     private Game game;
-    private Board board;
+    private int[] board;
     private boolean whiteToPlay;
     private int friendlyKingIndex;
 
-    private ThreatMapGenerator threatMapGenerator;
-    private CheckGenerator checkGenerator;
-    private CheckMoveGenerator checkMoveGenerator;
-    private PinGenerator pinGenerator;
-    private MaskGenerator maskGenerator;
-    private PinMoveGenerator pinMoveGenerator;
-
-    private boolean pinsExistInPosition;
-    private List<Integer> pinnedPieces;
-    private List<Integer> pinningPieces;
-    private Set<Integer> threatMap;
+    private long threatMap;
+    private long checkers;
+    private long evasionMask;
+    private long pinnedPieces;
     private List<Move> legalMoves;
 
     /**
@@ -35,45 +37,53 @@ public class MoveGenerator {
     public List<Move> generateLegalMoves(Game game, Player player) {
         init(game, player);
 
-        if (checkGenerator.isInCheck()) {
-            legalMoves.addAll(checkMoveGenerator.generateCheckEscapingMoves());
-            return legalMoves;
-        }
+        boolean inDoubleCheck = isInDoubleCheck();
 
-        int index = 0;
-        for (int piece: game.getBoard().getBoard()) {
+        for (int index = 0; index < 64; index++) {
+            int piece = board[index];
 
-            if ((piece > 0 && player.isWhite()) || (piece < 0 && !player.isWhite())) {
+            if ((piece > 0 && whiteToPlay) || (piece < 0 && !whiteToPlay)) {
+                int startX = index % 8 + 1;
+                int startY = index / 8 + 1;
 
-                int startX = Board.getSquareCoordinates(index).x;
-                int startY = Board.getSquareCoordinates(index).y;
+                if (abs(piece) == 6) {
+                    generateKingMoves(startX, startY);
+                    continue;
+                }
 
-                if (piece == -1) {
-                    generateBlackPawnMoves(startX, startY);
-                } else if (piece == 1) {
-                    generateWhitePawnMoves(startX, startY);
+                // only the king can escape a double check
+                if (inDoubleCheck) {
+                    continue;
+                }
+
+                long allowedSquares = evasionMask;
+                if (Bitboard.contains(pinnedPieces, index)) {
+                    allowedSquares &= pinRays[index];
+                }
+
+                if (allowedSquares == Bitboard.EMPTY) {
+                    continue;
                 }
 
                 switch (abs(piece)) {
+                    case 1:
+                        generatePawnMoves(index, startX, startY, allowedSquares);
+                        break;
                     case 2:
-                        generateKnightMoves(startX, startY);
+                        generateKnightMoves(startX, startY, allowedSquares);
                         break;
                     case 3:
-                        generateBishopMoves(startX, startY);
+                        generateSlidingMoves(startX, startY, DIAGONAL_DIRECTIONS, allowedSquares);
                         break;
                     case 4:
-                        generateRookMoves(startX, startY);
+                        generateSlidingMoves(startX, startY, STRAIGHT_DIRECTIONS, allowedSquares);
                         break;
                     case 5:
-                        generateQueenMoves(startX, startY);
-                        break;
-                    case 6:
-                        generateKingMoves(startX, startY);
+                        generateSlidingMoves(startX, startY, STRAIGHT_DIRECTIONS, allowedSquares);
+                        generateSlidingMoves(startX, startY, DIAGONAL_DIRECTIONS, allowedSquares);
                         break;
                 }
             }
-
-            index++;
         }
 
         for (Move move: legalMoves) {
@@ -84,732 +94,368 @@ public class MoveGenerator {
     }
 
     /**
-     * Initialize this MoveGenerator object
+     * Initialize this MoveGenerator object, and compute the enemy threat map, checking pieces, check evasion mask and
+     * pins for the given position
      */
     private void init(Game game, Player player) {
         this.game = game;
-        this.board = game.getBoard();
+        this.board = game.getBoard().getBoard();
         this.whiteToPlay = player.isWhite();
         this.legalMoves = new ArrayList<>();
 
-        int index = 0;
-        for (int piece: board.getBoard()) {
-            if (whiteToPlay && piece == 6) {
-                friendlyKingIndex = index;
-                break;
-            } else if (!whiteToPlay && piece == -6) {
+        this.friendlyKingIndex = -1;
+        int friendlyKing = whiteToPlay ? Piece.wKing : Piece.bKing;
+        for (int index = 0; index < 64; index++) {
+            if (board[index] == friendlyKing) {
                 friendlyKingIndex = index;
                 break;
             }
-            index++;
         }
 
-        this.threatMapGenerator = new ThreatMapGenerator();
+        this.checkers = Bitboard.EMPTY;
+        this.pinnedPieces = Bitboard.EMPTY;
+        this.evasionMask = Bitboard.ALL_SQUARES;
 
+        if (friendlyKingIndex < 0) {
+            this.threatMap = Bitboard.EMPTY;
+            return;
+        }
+
+        // the friendly king is ignored as a blocker so that squares behind it on a checking ray count as attacked
+        long friendlyKingMask = Bitboard.squareMask(friendlyKingIndex);
         if (whiteToPlay) {
-            threatMap = threatMapGenerator.generateBlackThreatMap(game);
+            threatMap = threatMapGenerator.generateBlackThreatMap(board, friendlyKingMask);
         } else {
-            threatMap = threatMapGenerator.generateWhiteThreatMap(game);
+            threatMap = threatMapGenerator.generateWhiteThreatMap(board, friendlyKingMask);
         }
 
-        this.checkGenerator = new CheckGenerator(game, friendlyKingIndex, whiteToPlay, threatMapGenerator);
-        this.maskGenerator = new MaskGenerator(checkGenerator, friendlyKingIndex);
-        this.pinGenerator = new PinGenerator(board, whiteToPlay);
-        this.checkMoveGenerator = new CheckMoveGenerator(game, whiteToPlay, maskGenerator, threatMap, pinGenerator);
-        this.pinMoveGenerator = new PinMoveGenerator(game, whiteToPlay, friendlyKingIndex);
-
-        this.pinsExistInPosition = pinGenerator.doPinsExistInPosition();
-        this.pinnedPieces = pinGenerator.getPinnedPieces();
-        this.pinningPieces = pinGenerator.getPinningPieces();
+        calculateChecksAndPins();
     }
 
     /**
-     * Generate all pseudo-legal black pawn moves originating from the square at the given startX and startY
+     * Find every enemy piece checking the friendly king and every friendly piece pinned to it, then compute the set of
+     * squares a non-king piece must move to in order to resolve a check
      */
-    private void generateBlackPawnMoves(int startX, int startY) {
-        if (pinsExistInPosition) {
-            int pinningPieceIndex = 0;
-            for (int pinnedPieceIndex: pinnedPieces) {
-                if (pinnedPieceIndex == Board.getSquareIndex(startX, startY)) {
-                    legalMoves.addAll(pinMoveGenerator.generateBlackPawnMoves(pinnedPieceIndex, pinningPieces.get(pinningPieceIndex)));
-                    return;
+    private void calculateChecksAndPins() {
+        int kingX = friendlyKingIndex % 8 + 1;
+        int kingY = friendlyKingIndex / 8 + 1;
+        int sign = whiteToPlay ? 1 : -1;
+        long checkRays = Bitboard.EMPTY;
+
+        // pawn checks come from the two squares diagonally in front of the king
+        int enemyPawnY = kingY + sign;
+        if (enemyPawnY >= 1 && enemyPawnY <= 8) {
+            for (int enemyPawnX = kingX - 1; enemyPawnX <= kingX + 1; enemyPawnX += 2) {
+                if (enemyPawnX >= 1 && enemyPawnX <= 8 && board[Board.getSquareIndex(enemyPawnX, enemyPawnY)] == -sign * Piece.wPawn) {
+                    checkers = Bitboard.add(checkers, Board.getSquareIndex(enemyPawnX, enemyPawnY));
                 }
-                pinningPieceIndex++;
             }
         }
 
-        // 1 square move
-        if (startY - 1 >= 1 && board.getPiece(startX, startY - 1) == 0) {
-            if (startY - 1 == 1) {
-                Move queenPromotion = new Move(game, startX, startY, startX, 1);
-                Move knightPromotion = new Move(game, startX, startY, startX, 1);
-                Move bishopPromotion = new Move(game, startX, startY, startX, 1);
-                Move rookPromotion = new Move(game, startX, startY, startX, 1);
-                queenPromotion.setMoveType(MoveType.QUEEN_PROMOTION);
-                knightPromotion.setMoveType(MoveType.KNIGHT_PROMOTION);
-                bishopPromotion.setMoveType(MoveType.BISHOP_PROMOTION);
-                rookPromotion.setMoveType(MoveType.ROOK_PROMOTION);
-
-                legalMoves.add(queenPromotion);
-                legalMoves.add(knightPromotion);
-                legalMoves.add(bishopPromotion);
-                legalMoves.add(rookPromotion);
-            } else {
-                legalMoves.add(new Move(game, startX, startY, startX, startY - 1));
-            }
-        }
+        for (int[] offset: KNIGHT_OFFSETS) {
+            int x = kingX + offset[0];
+            int y = kingY + offset[1];
 
-        // 2 square move
-        if (startY == 7 && board.getPiece(startX, startY - 1) == 0 && board.getPiece(startX, startY - 2) == 0) {
-            legalMoves.add(new Move(game, startX, startY, startX, startY - 2));
-        }
-
-        // captures
-        if (startX - 1 >= 1 && startY - 1 >= 1 && board.getPiece(startX - 1, startY - 1) > 0) {
-            if (startY - 1 == 1) {
-                Move queenPromotion = new Move(game, startX, startY, startX - 1, 1);
-                Move knightPromotion = new Move(game, startX, startY, startX - 1, 1);
-                Move bishopPromotion = new Move(game, startX, startY, startX - 1, 1);
-                Move rookPromotion = new Move(game, startX, startY, startX - 1, 1);
-                queenPromotion.setMoveType(MoveType.QUEEN_PROMOTION);
-                knightPromotion.setMoveType(MoveType.KNIGHT_PROMOTION);
-                bishopPromotion.setMoveType(MoveType.BISHOP_PROMOTION);
-                rookPromotion.setMoveType(MoveType.ROOK_PROMOTION);
-
-                legalMoves.add(queenPromotion);
-                legalMoves.add(knightPromotion);
-                legalMoves.add(bishopPromotion);
-                legalMoves.add(rookPromotion);
-            } else {
-                legalMoves.add(new Move(game, startX, startY, startX - 1, startY - 1));
+            if (x >= 1 && x <= 8 && y >= 1 && y <= 8 && board[Board.getSquareIndex(x, y)] == -sign * Piece.wKnight) {
+                checkers = Bitboard.add(checkers, Board.getSquareIndex(x, y));
             }
         }
 
-        if (startX + 1 <= 8 && startY - 1 >= 1 && board.getPiece(startX + 1, startY - 1) > 0) {
-            if (startY - 1 == 1) {
-                Move queenPromotion = new Move(game, startX, startY, startX + 1, 1);
-                Move knightPromotion = new Move(game, startX, startY, startX + 1, 1);
-                Move bishopPromotion = new Move(game, startX, startY, startX + 1, 1);
-                Move rookPromotion = new Move(game, startX, startY, startX + 1, 1);
-                queenPromotion.setMoveType(MoveType.QUEEN_PROMOTION);
-                knightPromotion.setMoveType(MoveType.KNIGHT_PROMOTION);
-                bishopPromotion.setMoveType(MoveType.BISHOP_PROMOTION);
-                rookPromotion.setMoveType(MoveType.ROOK_PROMOTION);
-
-                legalMoves.add(queenPromotion);
-                legalMoves.add(knightPromotion);
-                legalMoves.add(bishopPromotion);
-                legalMoves.add(rookPromotion);
-            } else {
-                legalMoves.add(new Move(game, startX, startY, startX + 1, startY - 1));
-            }
+        for (int[] direction: STRAIGHT_DIRECTIONS) {
+            checkRays |= findSlidingCheckOrPin(kingX, kingY, direction, Piece.wRook);
         }
 
-        // en passant
-        if (!board.getMoveList().isEmpty()) {
-            List<Move> moves = board.getMoveList();
-            int mostRecent = moves.size() - 1;
-
-            if (startY == 4 && moves.get(mostRecent).getEndY() == 4 && moves.get(mostRecent).getStartY() == 2 &&
-                    moves.get(mostRecent).getEndX() == startX - 1 && board.getPiece(startX - 1, startY) == Piece.wPawn &&
-                    legalBlackEnPassant(startX, startY, startX - 1, startY))  {
-                legalMoves.add(new Move(game, startX, startY, startX - 1, startY - 1));
-            }
-
-            if (startY == 4 && moves.get(mostRecent).getEndY() == 4 && moves.get(mostRecent).getStartY() == 2 &&
-                    moves.get(mostRecent).getEndX() == startX + 1 && board.getPiece(startX + 1, startY) == Piece.wPawn &&
-                    legalBlackEnPassant(startX, startY, startX + 1, startY)) {
-                legalMoves.add(new Move(game, startX, startY, startX + 1, startY - 1));
-            }
+        for (int[] direction: DIAGONAL_DIRECTIONS) {
+            checkRays |= findSlidingCheckOrPin(kingX, kingY, direction, Piece.wBishop);
         }
-    }
-
-    private boolean legalBlackEnPassant(int blackPawnX, int blackPawnY, int whitePawnX, int whitePawnY) {
-        int[] testBoard = board.getBoard().clone();
-        testBoard[Board.getSquareIndex(blackPawnX, blackPawnY)] = Piece.empty;
-        testBoard[Board.getSquareIndex(whitePawnX, whitePawnY)] = Piece.empty;
 
-        int kingX = Board.getSquareCoordinates(friendlyKingIndex).x;
-        int kingY = Board.getSquareCoordinates(friendlyKingIndex).y;
-
-        for (int x = kingX + 1; x <= 8; x++) {
-            int index = Board.getSquareIndex(x, kingY);
-
-            if (testBoard[index] < 0 || testBoard[index] == Piece.wPawn || testBoard[index] == Piece.wKnight ||
-                    testBoard[index] == Piece.wBishop || testBoard[index] == Piece.wKing) {
+        switch (Bitboard.count(checkers)) {
+            case 0:
+                evasionMask = Bitboard.ALL_SQUARES;
                 break;
-            }
-
-            if (testBoard[index] == Piece.wRook || testBoard[index] == Piece.wQueen) {
-                return false;
-            }
-        }
-
-        for (int x = kingX - 1; x >= 1; x--) {
-            int index = Board.getSquareIndex(x, kingY);
-
-            if (testBoard[index] < 0 || testBoard[index] == Piece.wPawn || testBoard[index] == Piece.wKnight ||
-                    testBoard[index] == Piece.wBishop || testBoard[index] == Piece.wKing) {
+            case 1:
+                // capture the checking piece, or block between it and the king if it is a sliding piece
+                evasionMask = checkers | checkRays;
                 break;
-            }
-
-            if (testBoard[index] == Piece.wRook || testBoard[index] == Piece.wQueen) {
-                return false;
-            }
+            default:
+                evasionMask = Bitboard.EMPTY;
         }
-
-        return true;
     }
 
     /**
-     * Generate all pseudo-legal white pawn moves originating from the square at the given startX and startY
+     * Walk from the friendly king in the given direction. If the first piece met is an enemy piece that slides in this
+     * direction it is a checker and the ray to it is returned. If the first piece is friendly and the second is such an
+     * enemy piece, the friendly piece is pinned and may only move along the ray up to and including the pinning piece
+     *
+     * @param slidingPiece the white piece that slides in this direction (rook or bishop), queens are always included
+     * @return the squares between the king and a checking piece, including the checker, or an empty set if no check
      */
-    private void generateWhitePawnMoves(int startX, int startY) {
-        if (pinsExistInPosition) {
-            int pinningPieceIndex = 0;
-            for (int pinnedPieceIndex: pinnedPieces) {
-                if (pinnedPieceIndex == Board.getSquareIndex(startX, startY)) {
-                    legalMoves.addAll(pinMoveGenerator.generateWhitePawnMoves(pinnedPieceIndex, pinningPieces.get(pinningPieceIndex)));
-                    return;
+    private long findSlidingCheckOrPin(int kingX, int kingY, int[] direction, int slidingPiece) {
+        long ray = Bitboard.EMPTY;
+        int friendlyBlocker = -1;
+
+        int x = kingX + direction[0];
+        int y = kingY + direction[1];
+
+        while (x >= 1 && x <= 8 && y >= 1 && y <= 8) {
+            int index = Board.getSquareIndex(x, y);
+            int piece = board[index];
+            ray = Bitboard.add(ray, index);
+
+            if (piece != 0) {
+                if ((piece > 0) == whiteToPlay) {
+                    if (friendlyBlocker >= 0) {
+                        return Bitboard.EMPTY;
+                    }
+                    friendlyBlocker = index;
+                } else {
+                    if (abs(piece) == slidingPiece || abs(piece) == Piece.wQueen) {
+                        if (friendlyBlocker < 0) {
+                            checkers = Bitboard.add(checkers, index);
+                            return ray;
+                        }
+
+                        pinnedPieces = Bitboard.add(pinnedPieces, friendlyBlocker);
+                        pinRays[friendlyBlocker] = ray;
+                    }
+                    return Bitboard.EMPTY;
                 }
-                pinningPieceIndex++;
             }
-        }
 
-        // 1 square move
-        if (startY + 1 <= 8 && board.getPiece(startX, startY + 1) == 0) {
-            if (startY + 1 == 8) {
-                Move queenPromotion = new Move(game, startX, startY, startX, 8);
-                Move knightPromotion = new Move(game, startX, startY, startX, 8);
-                Move bishopPromotion = new Move(game, startX, startY, startX, 8);
-                Move rookPromotion = new Move(game, startX, startY, startX, 8);
-                queenPromotion.setMoveType(MoveType.QUEEN_PROMOTION);
-                knightPromotion.setMoveType(MoveType.KNIGHT_PROMOTION);
-                bishopPromotion.setMoveType(MoveType.BISHOP_PROMOTION);
-                rookPromotion.setMoveType(MoveType.ROOK_PROMOTION);
-
-                legalMoves.add(queenPromotion);
-                legalMoves.add(knightPromotion);
-                legalMoves.add(bishopPromotion);
-                legalMoves.add(rookPromotion);
-            } else {
-                legalMoves.add(new Move(game, startX, startY, startX, startY + 1));
-            }
-        }
-
-        // 2 square move
-        if (startY == 2 && board.getPiece(startX, startY + 1) == 0 && board.getPiece(startX, startY + 2) == 0) {
-            legalMoves.add(new Move(game, startX, startY, startX, startY + 2));
-        }
-
-        // captures
-        if (startX + 1 <= 8 && startY + 1 <= 8 && board.getPiece(startX + 1, startY + 1) < 0) {
-            if (startY + 1 == 8) {
-                Move queenPromotion = new Move(game, startX, startY, startX + 1, 8);
-                Move knightPromotion = new Move(game, startX, startY, startX + 1, 8);
-                Move bishopPromotion = new Move(game, startX, startY, startX + 1, 8);
-                Move rookPromotion = new Move(game, startX, startY, startX + 1, 8);
-                queenPromotion.setMoveType(MoveType.QUEEN_PROMOTION);
-                knightPromotion.setMoveType(MoveType.KNIGHT_PROMOTION);
-                bishopPromotion.setMoveType(MoveType.BISHOP_PROMOTION);
-                rookPromotion.setMoveType(MoveType.ROOK_PROMOTION);
-
-                legalMoves.add(queenPromotion);
-                legalMoves.add(knightPromotion);
-                legalMoves.add(bishopPromotion);
-                legalMoves.add(rookPromotion);
-            } else {
-                legalMoves.add(new Move(game, startX, startY, startX + 1, startY + 1));
-            }
+            x += direction[0];
+            y += direction[1];
         }
 
-        if (startX - 1 >= 1 && startY + 1 <= 8 && board.getPiece(startX - 1, startY + 1) < 0) {
-            if (startY + 1 == 8) {
-                Move queenPromotion = new Move(game, startX, startY, startX - 1, 8);
-                Move knightPromotion = new Move(game, startX, startY, startX - 1, 8);
-                Move bishopPromotion = new Move(game, startX, startY, startX - 1, 8);
-                Move rookPromotion = new Move(game, startX, startY, startX - 1, 8);
-                queenPromotion.setMoveType(MoveType.QUEEN_PROMOTION);
-                knightPromotion.setMoveType(MoveType.KNIGHT_PROMOTION);
-                bishopPromotion.setMoveType(MoveType.BISHOP_PROMOTION);
-                rookPromotion.setMoveType(MoveType.ROOK_PROMOTION);
-
-                legalMoves.add(queenPromotion);
-                legalMoves.add(knightPromotion);
-                legalMoves.add(bishopPromotion);
-                legalMoves.add(rookPromotion);
-            } else {
-                legalMoves.add(new Move(game, startX, startY, startX - 1, startY + 1));
-            }
-        }
-
-        // en passant
-        if (!board.getMoveList().isEmpty()) {
-            List<Move> moves = board.getMoveList();
-            int mostRecent = moves.size() - 1;
-
-            if (startY == 5 && moves.get(mostRecent).getEndY() == 5 && moves.get(mostRecent).getStartY() == 7 &&
-                    moves.get(mostRecent).getEndX() == startX - 1 && board.getPiece(startX - 1, startY) == Piece.bPawn &&
-                    legalWhiteEnPassant(startX, startY, startX - 1, startY)) {
-                legalMoves.add(new Move(game, startX, startY, startX - 1, startY + 1));
-            }
-            if (startY == 5 && moves.get(mostRecent).getEndY() == 5 && moves.get(mostRecent).getStartY() == 7 &&
-                    moves.get(mostRecent).getEndX() == startX + 1 && board.getPiece(startX + 1, startY) == Piece.bPawn &&
-                    legalWhiteEnPassant(startX, startY, startX + 1, startY)) {
-                legalMoves.add(new Move(game, startX, startY, startX + 1, startY + 1));
-            }
-        }
-    }
-
-    private boolean legalWhiteEnPassant(int whitePawnX, int whitePawnY, int blackPawnX, int blackPawnY) {
-        int[] testBoard = board.getBoard().clone();
-        testBoard[Board.getSquareIndex(whitePawnX, whitePawnY)] = Piece.empty;
-        testBoard[Board.getSquareIndex(blackPawnX, blackPawnY)] = Piece.empty;
-
-        int kingX = Board.getSquareCoordinates(friendlyKingIndex).x;
-        int kingY = Board.getSquareCoordinates(friendlyKingIndex).y;
-
-        for (int x = kingX + 1; x <= 8; x++) {
-            int index = Board.getSquareIndex(x, kingY);
-
-            if (testBoard[index] > 0 || testBoard[index] == Piece.bPawn || testBoard[index] == Piece.bKnight ||
-                    testBoard[index] == Piece.bBishop || testBoard[index] == Piece.bKing) {
-                break;
-            }
-
-            if (testBoard[index] == Piece.bRook || testBoard[index] == Piece.bQueen) {
-                return false;
-            }
-        }
-
-        for (int x = kingX - 1; x >= 1; x--) {
-            int index = Board.getSquareIndex(x, kingY);
-
-            if (testBoard[index] > 0 || testBoard[index] == Piece.bPawn || testBoard[index] == Piece.bKnight ||
-                    testBoard[index] == Piece.bBishop || testBoard[index] == Piece.bKing) {
-                break;
-            }
-
-            if (testBoard[index] == Piece.bRook || testBoard[index] == Piece.bQueen) {
-                return false;
-            }
-        }
-
-        return true;
+        return Bitboard.EMPTY;
     }
 
     /**
-     * Generate all pseudo-legal knight moves originating from the square at the given startX and startY
+     * Generate all legal pawn moves originating from the square at the given startX and startY whose destination is
+     * in allowedSquares, including promotions and en passant captures
      */
-    private void generateKnightMoves(int startX, int startY) {
-        if (pinsExistInPosition && pinnedPieces.contains(Board.getSquareIndex(startX, startY))) {
-            return;
-        }
-
-        if (startX + 1 <= 8 && startY + 2 <= 8) {
-            int capturedPiece = board.getPiece(startX + 1, startY + 2);
-
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX + 1, startY + 2));
-            }
-        }
-
-        if (startX + 2 <= 8 && startY + 1 <= 8) {
-            int capturedPiece = board.getPiece(startX + 2, startY + 1);
+    private void generatePawnMoves(int index, int startX, int startY, long allowedSquares) {
+        int sign = whiteToPlay ? 1 : -1;
+        int startRank = whiteToPlay ? 2 : 7;
+        int endY = startY + sign;
 
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX + 2, startY + 1));
-            }
+        if (endY < 1 || endY > 8) {
+            return;
         }
 
-        if (startX - 1 >= 1 && startY + 2 <= 8) {
-            int capturedPiece = board.getPiece(startX - 1, startY + 2);
-
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX - 1, startY + 2));
+        // 1 square move
+        if (board[Board.getSquareIndex(startX, endY)] == 0) {
+            if (Bitboard.contains(allowedSquares, Board.getSquareIndex(startX, endY))) {
+                addPawnMove(startX, startY, startX, endY);
             }
-        }
-
-        if (startX - 2 >= 1 && startY + 1 <= 8) {
-            int capturedPiece = board.getPiece(startX - 2, startY + 1);
 
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX - 2, startY + 1));
+            // 2 square move
+            if (startY == startRank && board[Board.getSquareIndex(startX, endY + sign)] == 0 &&
+                    Bitboard.contains(allowedSquares, Board.getSquareIndex(startX, endY + sign))) {
+                legalMoves.add(new Move(game, startX, startY, startX, endY + sign));
             }
         }
 
-        if (startX - 2 >= 1 && startY - 1 >= 1) {
-            int capturedPiece = board.getPiece(startX - 2, startY - 1);
-
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX - 2, startY - 1));
+        // captures
+        for (int endX = startX - 1; endX <= startX + 1; endX += 2) {
+            if (endX < 1 || endX > 8) {
+                continue;
             }
-        }
 
-        if (startX - 1 >= 1 && startY - 2 >= 1) {
-            int capturedPiece = board.getPiece(startX - 1, startY - 2);
+            int endIndex = Board.getSquareIndex(endX, endY);
+            int capturedPiece = board[endIndex];
 
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX - 1, startY - 2));
+            if (capturedPiece != 0 && (capturedPiece > 0) != whiteToPlay && Bitboard.contains(allowedSquares, endIndex)) {
+                addPawnMove(startX, startY, endX, endY);
             }
         }
 
-        if (startX + 1 <= 8 && startY - 2 >= 1) {
-            int capturedPiece = board.getPiece(startX + 1, startY - 2);
-
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX + 1, startY - 2));
-            }
-        }
+        // en passant
+        int enPassantFile = enPassantFile();
+        if (enPassantFile != 0 && abs(enPassantFile - startX) == 1 && startY == (whiteToPlay ? 5 : 4)) {
+            int endIndex = Board.getSquareIndex(enPassantFile, endY);
+            int capturedIndex = Board.getSquareIndex(enPassantFile, startY);
 
-        if (startX + 2 <= 8 && startY - 1 >= 1) {
-            int capturedPiece = board.getPiece(startX + 2, startY - 1);
+            long pinRay = Bitboard.contains(pinnedPieces, index) ? pinRays[index] : Bitboard.ALL_SQUARES;
+            boolean resolvesCheck = Bitboard.contains(evasionMask, endIndex) || Bitboard.contains(evasionMask, capturedIndex);
 
-            if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX + 2, startY - 1));
+            if (board[endIndex] == 0 && Bitboard.contains(pinRay, endIndex) && resolvesCheck &&
+                    legalEnPassant(index, capturedIndex)) {
+                legalMoves.add(new Move(game, startX, startY, enPassantFile, endY));
             }
         }
     }
 
     /**
-     * Generate all pseudo-legal bishop moves originating from the square at the given startX and startY
+     * Add a pawn move, or all four promotion moves if the pawn reaches the final rank
      */
-    private void generateBishopMoves(int startX, int startY) {
-        if (pinsExistInPosition) {
-
-            int pinningPieceIndex = 0;
-            for (int pinnedPieceIndex: pinnedPieces) {
-                if (pinnedPieceIndex == Board.getSquareIndex(startX, startY)) {
-                    legalMoves.addAll(pinMoveGenerator.generateBishopMoves(pinnedPieceIndex, pinningPieces.get(pinningPieceIndex)));
-                    return;
-                }
-                pinningPieceIndex++;
-            }
+    private void addPawnMove(int startX, int startY, int endX, int endY) {
+        if (endY == 8 || endY == 1) {
+            Move queenPromotion = new Move(game, startX, startY, endX, endY);
+            Move knightPromotion = new Move(game, startX, startY, endX, endY);
+            Move bishopPromotion = new Move(game, startX, startY, endX, endY);
+            Move rookPromotion = new Move(game, startX, startY, endX, endY);
+            queenPromotion.setMoveType(MoveType.QUEEN_PROMOTION);
+            knightPromotion.setMoveType(MoveType.KNIGHT_PROMOTION);
+            bishopPromotion.setMoveType(MoveType.BISHOP_PROMOTION);
+            rookPromotion.setMoveType(MoveType.ROOK_PROMOTION);
+
+            legalMoves.add(queenPromotion);
+            legalMoves.add(knightPromotion);
+            legalMoves.add(bishopPromotion);
+            legalMoves.add(rookPromotion);
+        } else {
+            legalMoves.add(new Move(game, startX, startY, endX, endY));
         }
-
-        generateNorthWestMoves(startX, startY);
-        generateNorthEastMoves(startX, startY);
-        generateSouthWestMoves(startX, startY);
-        generateSouthEastMoves(startX, startY);
     }
 
     /**
-     * Generate all pseudo-legal rook moves originating from the square at the given startX and startY
+     * Return the file (1-8) of the enemy pawn that can be captured en passant, or 0 if the last move was not a double
+     * pawn push
      */
-    private void generateRookMoves(int startX, int startY) {
-        if (pinsExistInPosition) {
-            int pinningPieceIndex = 0;
-            for (int pinnedPieceIndex: pinnedPieces) {
-                if (pinnedPieceIndex == Board.getSquareIndex(startX, startY)) {
-                    legalMoves.addAll(pinMoveGenerator.generateRookMoves(pinnedPieceIndex, pinningPieces.get(pinningPieceIndex)));
-                    return;
-                }
-                pinningPieceIndex++;
-            }
-        }
+    private int enPassantFile() {
+        Move lastMove = game.getBoard().getLastMove();
 
-        generateNorthMoves(startX, startY);
-        generateSouthMoves(startX, startY);
-        generateWestMoves(startX, startY);
-        generateEastMoves(startX, startY);
-    }
+        if (lastMove == null) {
+            return 0;
+        }
 
-    /**
-     * Generate all pseudo-legal queen moves originating from the square at the given startX and startY
-     */
-    private void generateQueenMoves(int startX, int startY)  {
-        if (pinsExistInPosition) {
-            int pinningPieceIndex = 0;
-            for (int pinnedPieceIndex: pinnedPieces) {
-                if (pinnedPieceIndex == Board.getSquareIndex(startX, startY)) {
-                    legalMoves.addAll(pinMoveGenerator.generateQueenMoves(pinnedPieceIndex, pinningPieces.get(pinningPieceIndex)));
-                    return;
-                }
-                pinningPieceIndex++;
-            }
+        if (abs(lastMove.getMovedPiece()) == Piece.wPawn && abs(lastMove.getEndY() - lastMove.getStartY()) == 2 &&
+                (lastMove.getMovedPiece() > 0) != whiteToPlay) {
+            return lastMove.getEndX();
         }
 
-        // straight moves
-        generateNorthMoves(startX, startY);
-        generateSouthMoves(startX, startY);
-        generateWestMoves(startX, startY);
-        generateEastMoves(startX, startY);
-
-        // diagonal moves
-        generateNorthWestMoves(startX, startY);
-        generateNorthEastMoves(startX, startY);
-        generateSouthWestMoves(startX, startY);
-        generateSouthEastMoves(startX, startY);
+        return 0;
     }
 
     /**
-     * Generate all pseudo-legal king moves originating from the square at the given startX and startY
+     * Return false if removing both the capturing pawn and the captured pawn from their rank would expose the friendly
+     * king to an enemy rook or queen on that rank
      */
-    private void generateKingMoves(int startX, int startY) {
-        // north
-        if (startY + 1 <= 8) {
-            int capturedPiece = board.getPiece(startX, startY + 1);
-
-            if (!threatMap.contains(Board.getSquareIndex(startX, startY + 1))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX, startY + 1));
-                }
-            }
+    private boolean legalEnPassant(int pawnIndex, int capturedIndex) {
+        if (friendlyKingIndex / 8 != pawnIndex / 8) {
+            return true;
         }
 
-        // south
-        if (startY - 1 >= 1) {
-            int capturedPiece = board.getPiece(startX, startY - 1);
-
-            if (!threatMap.contains(Board.getSquareIndex(startX, startY - 1))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX, startY - 1));
-                }
-            }
-        }
+        int kingX = friendlyKingIndex % 8 + 1;
+        int kingY = friendlyKingIndex / 8 + 1;
 
-        // west
-        if (startX - 1 >= 1) {
-            int capturedPiece = board.getPiece(startX - 1, startY);
+        for (int deltaX = -1; deltaX <= 1; deltaX += 2) {
+            for (int x = kingX + deltaX; x >= 1 && x <= 8; x += deltaX) {
+                int index = Board.getSquareIndex(x, kingY);
+                int piece = board[index];
 
-            if (!threatMap.contains(Board.getSquareIndex(startX - 1, startY))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX - 1, startY));
+                if (index == pawnIndex || index == capturedIndex || piece == 0) {
+                    continue;
                 }
-            }
-        }
-
-        // east
-        if (startX + 1 <= 8) {
-            int capturedPiece = board.getPiece(startX + 1, startY);
 
-            if (!threatMap.contains(Board.getSquareIndex(startX + 1, startY))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX + 1, startY));
+                if ((piece > 0) != whiteToPlay && (abs(piece) == Piece.wRook || abs(piece) == Piece.wQueen)) {
+                    return false;
                 }
+                break;
             }
         }
 
-        // north-west
-        if (startX - 1 >= 1 && startY + 1 <= 8) {
-            int capturedPiece = board.getPiece(startX - 1, startY + 1);
-
-            if (!threatMap.contains(Board.getSquareIndex(startX - 1, startY + 1))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX - 1, startY + 1));
-                }
-            }
-        }
+        return true;
+    }
 
-        // north-east
-        if (startX + 1 <= 8 && startY + 1 <= 8) {
-            int capturedPiece = board.getPiece(startX + 1, startY + 1);
+    /**
+     * Generate all legal knight moves originating from the square at the given startX and startY
+     */
+    private void generateKnightMoves(int startX, int startY, long allowedSquares) {
+        for (int[] offset: KNIGHT_OFFSETS) {
+            int endX = startX + offset[0];
+            int endY = startY + offset[1];
 
-            if (!threatMap.contains(Board.getSquareIndex(startX + 1, startY + 1))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX + 1, startY + 1));
-                }
+            if (endX < 1 || endX > 8 || endY < 1 || endY > 8) {
+                continue;
             }
-        }
 
-        // south-west
-        if (startX - 1 >= 1 && startY - 1 >= 1) {
-            int capturedPiece = board.getPiece(startX - 1, startY - 1);
+            int endIndex = Board.getSquareIndex(endX, endY);
+            int capturedPiece = board[endIndex];
 
-            if (!threatMap.contains(Board.getSquareIndex(startX - 1, startY - 1))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX - 1, startY - 1));
-                }
+            if ((capturedPiece == 0 || (capturedPiece > 0) != whiteToPlay) && Bitboard.contains(allowedSquares, endIndex)) {
+                legalMoves.add(new Move(game, startX, startY, endX, endY));
             }
         }
+    }
 
-        // south-east
-        if (startX + 1 <= 8 && startY - 1 >= 1) {
-            int capturedPiece = board.getPiece(startX + 1, startY - 1);
+    /**
+     * Generate all legal sliding moves originating from the square at the given startX and startY in each of the
+     * given directions
+     */
+    private void generateSlidingMoves(int startX, int startY, int[][] directions, long allowedSquares) {
+        for (int[] direction: directions) {
+            int x = startX + direction[0];
+            int y = startY + direction[1];
 
-            if (!threatMap.contains(Board.getSquareIndex(startX + 1, startY - 1))) {
-                if (capturedPiece == 0 || capturedPiece < 0 && whiteToPlay || capturedPiece > 0 && !whiteToPlay) {
-                    legalMoves.add(new Move(game, startX, startY, startX + 1, startY - 1));
-                }
-            }
-        }
+            while (x >= 1 && x <= 8 && y >= 1 && y <= 8) {
+                int endIndex = Board.getSquareIndex(x, y);
+                int capturedPiece = board[endIndex];
 
-        if (whiteToPlay) {
-            generateWhiteCastleMoves(startX, startY);
-        } else {
-            generateBlackCastleMoves(startX, startY);
-        }
-    }
-
-    private void generateWhiteCastleMoves(int startX, int startY) {
-        if (game.canWhiteKingSideCastle() && board.getPiece(6, 1) == Piece.empty &&
-                board.getPiece(7, 1) == Piece.empty && board.getPiece(8, 1) == Piece.wRook) { // white king side castle
-            if (!threatMap.contains(5) && !threatMap.contains(6)) {
-                legalMoves.add(new Move(game, startX, startY, 7, 1));
-            }
-        }
+                if (capturedPiece != 0 && (capturedPiece > 0) == whiteToPlay) {
+                    break;
+                }
 
-        if (game.canWhiteQueenSideCastle() && board.getPiece(4, 1) == Piece.empty &&
-                board.getPiece(3, 1) == Piece.empty && board.getPiece(2, 1) == Piece.empty && board.getPiece(1,1) == Piece.wRook) { // white queen side castle
-            if (!threatMap.contains(3) && !threatMap.contains(2)) {
-                legalMoves.add(new Move(game, startX, startY, 3, 1));
-            }
-        }
-    }
+                if (Bitboard.contains(allowedSquares, endIndex)) {
+                    legalMoves.add(new Move(game, startX, startY, x, y));
+                }
 
-    private void generateBlackCastleMoves(int startX, int startY) {
-        if (game.canBlackKingSideCastle() && board.getPiece(6, 8) == Piece.empty &&
-                board.getPiece(7, 8) == Piece.empty && board.getPiece(8, 8) == Piece.bRook) { // white king side castle
-            if (!threatMap.contains(61) && !threatMap.contains(62)) {
-                legalMoves.add(new Move(game, startX, startY, 7, 8));
-            }
-        }
+                if (capturedPiece != 0) {
+                    break;
+                }
 
-        if (game.canBlackQueenSideCastle() && board.getPiece(4, 8) == Piece.empty &&
-                board.getPiece(3, 8) == Piece.empty && board.getPiece(2, 8) == Piece.empty && board.getPiece(1,8) == Piece.bRook) { // white queen side castle
-            if (!threatMap.contains(58) && !threatMap.contains(59)) {
-                legalMoves.add(new Move(game, startX, startY, 3, 8));
+                x += direction[0];
+                y += direction[1];
             }
         }
     }
 
     /**
-     * Sliding piece move generators for different directions: north, south, west, east, north-west, north-east,
-     * south-west and south-east
+     * Generate all legal king moves originating from the square at the given startX and startY
      */
-    private void generateNorthMoves(int startX, int startY) {
-        for (int y = startY + 1; y <= 8; y++) {
-            if (board.getPiece(startX, y) == 0) {
-                legalMoves.add(new Move(game, startX, startY, startX, y));
-            } else if (board.getPiece(startX, y) < 0 && whiteToPlay || board.getPiece(startX, y) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX, y));
-                break;
-            } else {
-                break;
-            }
-        }
-    }
+    private void generateKingMoves(int startX, int startY) {
+        for (int[] offset: KING_OFFSETS) {
+            int endX = startX + offset[0];
+            int endY = startY + offset[1];
 
-    private void generateSouthMoves(int startX, int startY) {
-        for (int y = startY - 1; y >= 1; y--) {
-            if (board.getPiece(startX, y) == 0) {
-                legalMoves.add(new Move(game, startX, startY, startX, y));
-            } else if (board.getPiece(startX, y) < 0 && whiteToPlay || board.getPiece(startX, y) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, startX, y));
-                break;
-            } else {
-                break;
+            if (endX < 1 || endX > 8 || endY < 1 || endY > 8) {
+                continue;
             }
-        }
-    }
 
-    private void generateWestMoves(int startX, int startY) {
-        for (int x = startX - 1; x >= 1; x--) {
-            if (board.getPiece(x, startY) == 0) {
-                legalMoves.add(new Move(game, startX, startY, x, startY));
-            } else if (board.getPiece(x, startY) < 0 && whiteToPlay || board.getPiece(x, startY) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, x, startY));
-                break;
-            }  else {
-                break;
-            }
-        }
-    }
+            int endIndex = Board.getSquareIndex(endX, endY);
+            int capturedPiece = board[endIndex];
 
-    private void generateEastMoves(int startX, int startY) {
-        for (int x = startX + 1; x <= 8; x++) {
-            if (board.getPiece(x, startY) == 0) {
-                legalMoves.add(new Move(game, startX, startY, x, startY));
-            } else if (board.getPiece(x, startY) < 0 && whiteToPlay || board.getPiece(x, startY) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, x, startY));
-                break;
-            }  else {
-                break;
+            if ((capturedPiece == 0 || (capturedPiece > 0) != whiteToPlay) && !Bitboard.contains(threatMap, endIndex)) {
+                legalMoves.add(new Move(game, startX, startY, endX, endY));
             }
         }
-    }
-
-    private void generateNorthEastMoves(int startX, int startY) {
-        int y = startY + 1;
 
-        for (int x = startX + 1; x <= 8; x++) {
-            if (y > 8) {
-                break;
-            }
-
-            if (board.getPiece(x, y) == 0) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-            } else if (board.getPiece(x, y) < 0 && whiteToPlay || board.getPiece(x,y) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-                break;
-            } else {
-                break;
-            }
-
-            y++;
+        if (checkers != Bitboard.EMPTY) {
+            return;
         }
-    }
-
-    private void generateNorthWestMoves(int startX, int startY) {
-        int y = startY + 1;
-
-        for (int x = startX - 1; x >= 1; x--) {
-            if (y > 8) {
-                break;
-            }
 
-            if (board.getPiece(x, y) == 0) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-            } else if (board.getPiece(x, y) < 0 && whiteToPlay || board.getPiece(x,y) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-                break;
-            } else {
-                break;
-            }
-
-            y++;
+        if (whiteToPlay && friendlyKingIndex == 4) {
+            generateCastleMoves(startX, startY, 1, game.canWhiteKingSideCastle(), game.canWhiteQueenSideCastle());
+        } else if (!whiteToPlay && friendlyKingIndex == 60) {
+            generateCastleMoves(startX, startY, 8, game.canBlackKingSideCastle(), game.canBlackQueenSideCastle());
         }
     }
 
-    private void generateSouthWestMoves(int startX, int startY) {
-        int y = startY - 1;
+    private void generateCastleMoves(int startX, int startY, int y, boolean kingSide, boolean queenSide) {
+        int rook = whiteToPlay ? Piece.wRook : Piece.bRook;
 
-        for (int x = startX - 1; x >= 1; x--) {
-            if (y < 1) {
-                break;
+        if (kingSide && board[Board.getSquareIndex(6, y)] == Piece.empty && board[Board.getSquareIndex(7, y)] == Piece.empty &&
+                board[Board.getSquareIndex(8, y)] == rook) {
+            if (!Bitboard.contains(threatMap, Board.getSquareIndex(6, y)) && !Bitboard.contains(threatMap, Board.getSquareIndex(7, y))) {
+                legalMoves.add(new Move(game, startX, startY, 7, y));
             }
-
-            if (board.getPiece(x, y) == 0) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-            } else if (board.getPiece(x, y) < 0 && whiteToPlay || board.getPiece(x,y) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-                break;
-            } else {
-                break;
-            }
-
-            y--;
         }
-    }
-
-    private void generateSouthEastMoves(int startX, int startY) {
-        int y = startY - 1;
 
-        for (int x = startX + 1; x <= 8; x++) {
-            if (y < 1) {
-                break;
-            }
-
-            if (board.getPiece(x, y) == 0) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-            } else if (board.getPiece(x, y) < 0 && whiteToPlay || board.getPiece(x,y) > 0 && !whiteToPlay) {
-                legalMoves.add(new Move(game, startX, startY, x, y));
-                break;
-            } else {
-                break;
+        if (queenSide && board[Board.getSquareIndex(4, y)] == Piece.empty && board[Board.getSquareIndex(3, y)] == Piece.empty &&
+                board[Board.getSquareIndex(2, y)] == Piece.empty && board[Board.getSquareIndex(1, y)] == rook) {
+            if (!Bitboard.contains(threatMap, Board.getSquareIndex(4, y)) && !Bitboard.contains(threatMap, Board.getSquareIndex(3, y))) {
+                legalMoves.add(new Move(game, startX, startY, 3, y));
             }
-
-            y--;
         }
     }
 
@@ -817,26 +463,26 @@ public class MoveGenerator {
      * Getters & Setters
      */
     public boolean inCheck() {
-        return checkGenerator.isInCheck();
+        return checkers != Bitboard.EMPTY;
     }
 
     public boolean isInDoubleCheck() {
-        return checkGenerator.isInDoubleCheck();
+        return Bitboard.count(checkers) > 1;
     }
 
-    public List<Integer> getCheckers() {
-        return checkGenerator.getCheckers();
+    public long getCheckers() {
+        return checkers;
     }
 
-    public List<Integer> getPinnedPieces() {
+    public long getPinnedPieces() {
         return pinnedPieces;
     }
 
     public boolean doPinsExistInPosition() {
-        return pinsExistInPosition;
+        return pinnedPieces != Bitboard.EMPTY;
     }
 
     public List<Move> getLegalMoves() {
         return legalMoves;
     }
-}
\ No newline at end of file
+}
@@ -96,12 +96,15 @@ public class PseudoLegalMoveGenerator {
         }
 
         // en passant
-        if (startY == 4 && board.getMoveList().get(0).getEndY() == 4 && board.getMoveList().get(0).getStartY() == 2 && board.getMoveList().get(0).getEndX() == startX - 1) {
-            pseudoLegalMoves.add(new Move(game, startX, startY, startX - 1, startY - 1));
-        }
+        Move lastMove = board.getLastMove();
+        if (lastMove != null) {
+            if (startY == 4 && lastMove.getEndY() == 4 && lastMove.getStartY() == 2 && lastMove.getEndX() == startX - 1) {
+                pseudoLegalMoves.add(new Move(game, startX, startY, startX - 1, startY - 1));
+            }
 
-        if (startY == 4 && board.getMoveList().get(0).getEndY() == 4 && board.getMoveList().get(0).getStartY() == 2 && board.getMoveList().get(0).getEndX() == startX + 1) {
-            pseudoLegalMoves.add(new Move(game, startX, startY, startX + 1, startY - 1));
+            if (startY == 4 && lastMove.getEndY() == 4 && lastMove.getStartY() == 2 && lastMove.getEndX() == startX + 1) {
+                pseudoLegalMoves.add(new Move(game, startX, startY, startX + 1, startY - 1));
+            }
         }
     }
 
@@ -129,12 +132,13 @@ public class PseudoLegalMoveGenerator {
         }
 
         // en passant
-        if (!board.getMoveList().isEmpty()) {
-            if (startY == 5 && board.getMoveList().get(0).getEndY() == 5 && board.getMoveList().get(0).getStartY() == 7 && board.getMoveList().get(0).getEndX() == startX - 1) {
+        Move lastMove = board.getLastMove();
+        if (lastMove != null) {
+            if (startY == 5 && lastMove.getEndY() == 5 && lastMove.getStartY() == 7 && lastMove.getEndX() == startX - 1) {
                 pseudoLegalMoves.add(new Move(game, startX, startY, startX - 1, startY + 1));
             }
 
-            if (startY == 5 && board.getMoveList().get(0).getEndY() == 5 && board.getMoveList().get(0).getStartY() == 7 && board.getMoveList().get(0).getEndX() == startX + 1) {
+            if (startY == 5 && lastMove.getEndY() == 5 && lastMove.getStartY() == 7 && lastMove.getEndX() == startX + 1) {
                 pseudoLegalMoves.add(new Move(game, startX, startY, startX + 1, startY + 1));
             }
         }
@@ -0,0 +1,202 @@
+package model.generation;
+
+import model.AttackTables;
+import model.Bitboard;
+import model.Board;
+import model.Move;
+import model.Piece;
+
+import static java.lang.Math.abs;
+
+// Evaluates the exchange of captures a move starts on its end square: both sides keep capturing there with their least
+// valuable attacker, each stopping as soon as capturing on would lose material, and the result is the material the
+// moving side wins or loses in centipawns. Attackers are looked up in the attack tables against a set of occupied
+// squares from which each capturing piece is removed, so sliding pieces lined up behind it (x-rays) join the exchange.
+// Pins are ignored, a king only captures onto a square the opponent no longer attacks, and a pawn recapturing on the
+// last rank is not promoted. No state is kept between calls, so one evaluator can be shared between threads
+public class StaticExchangeEvaluator {
+    // in centipawns, indexed by piece type
+    public static final int[] PIECE_VALUES = {0, 100, 300, 300, 500, 900, 20000};
+
+    private static final int MAX_EXCHANGE = 32;
+
+    /**
+     * Return the material the given move wins, or loses if negative, once the exchange it starts on its end square is
+     * resolved, for a move that has not been made on the given board yet
+     */
+    public int evaluate(Board board, Move move) {
+        int[] pieces = board.getBoard();
+        int startIndex = Board.getSquareIndex(move.getStartX(), move.getStartY());
+        int endIndex = Board.getSquareIndex(move.getEndX(), move.getEndY());
+        long occupied = Bitboard.remove(occupancy(pieces), startIndex);
+
+        if (move.isEnPassantMove()) {
+            occupied = Bitboard.remove(occupied, Board.getSquareIndex(move.getEndX(), move.getStartY()));
+        }
+
+        int movedPiece = move.isPromotionMove() ? promotedPiece(move) : abs(move.getMovedPiece());
+
+        return exchange(pieces, occupied, endIndex, movedPiece, !move.isWhiteMove(), captureGain(move));
+    }
+
+    /**
+     * Return the same as evaluate(board, move) for a move that has just been made on the given board
+     */
+    public int evaluateMade(Board board, Move move) {
+        int[] pieces = board.getBoard();
+        int endIndex = Board.getSquareIndex(move.getEndX(), move.getEndY());
+
+        return exchange(pieces, occupancy(pieces), endIndex, abs(pieces[endIndex]), !move.isWhiteMove(),
+                captureGain(move));
+    }
+
+    /**
+     * Return the result of the exchange on the given square for the side that made the first capture there, which won
+     * the given gain and left a piece of the given type on the square. The side of the given colour captures next
+     */
+    private int exchange(int[] pieces, long occupied, int square, int pieceOnSquare, boolean white, int firstGain) {
+        int[] gain = new int[MAX_EXCHANGE];
+        gain[0] = firstGain;
+        int depth = 0;
+
+        while (depth + 1 < MAX_EXCHANGE) {
+            int attacker = leastValuableAttacker(pieces, occupied, square, white);
+
+            if (attacker < 0) {
+                break;
+            }
+
+            int attackerType = abs(pieces[attacker]);
+            occupied = Bitboard.remove(occupied, attacker);
+
+            if (attackerType == Piece.wKing && leastValuableAttacker(pieces, occupied, square, !white) >= 0) {
+                break;
+            }
+
+            depth++;
+            gain[depth] = PIECE_VALUES[pieceOnSquare] - gain[depth - 1];
+
+            // this capture loses material whatever follows, and stopping before it loses some too, so the side that
+            // made the previous capture keeps a gain whichever the opponent chooses and the exchange can stop here
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                depth--;
+                break;
+            }
+
+            pieceOnSquare = attackerType;
+            white = !white;
+        }
+
+        // each side only makes its capture if that is better than stopping the exchange before it
+        for (; depth > 0; depth--) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+
+        return gain[0];
+    }
+
+    /**
+     * Return the index of the least valuable piece of the given colour among the occupied squares that attacks the
+     * given square, or -1 if there is none
+     */
+    private int leastValuableAttacker(int[] pieces, long occupied, int square, boolean white) {
+        int sign = white ? 1 : -1;
+
+        // a white pawn attacks this square from the squares a black pawn here would attack, and vice versa
+        long pawnSquares = white ? AttackTables.BLACK_PAWN_ATTACKS[square] : AttackTables.WHITE_PAWN_ATTACKS[square];
+        int attacker = findPiece(pieces, pawnSquares & occupied, sign * Piece.wPawn);
+
+        if (attacker < 0) {
+            attacker = findPiece(pieces, AttackTables.KNIGHT_ATTACKS[square] & occupied, sign * Piece.wKnight);
+        }
+        if (attacker < 0) {
+            attacker = findSlider(pieces, occupied, square, AttackTables.FIRST_DIAGONAL_DIRECTION,
+                    AttackTables.DIRECTIONS.length, sign * Piece.wBishop);
+        }
+        if (attacker < 0) {
+            attacker = findSlider(pieces, occupied, square, 0, AttackTables.FIRST_DIAGONAL_DIRECTION,
+                    sign * Piece.wRook);
+        }
+        if (attacker < 0) {
+            attacker = findSlider(pieces, occupied, square, 0, AttackTables.DIRECTIONS.length, sign * Piece.wQueen);
+        }
+        if (attacker < 0) {
+            attacker = findPiece(pieces, AttackTables.KING_ATTACKS[square] & occupied, sign * Piece.wKing);
+        }
+
+        return attacker;
+    }
+
+    /**
+     * Return the index of the first of the given squares the given piece stands on, or -1 if it stands on none
+     */
+    private static int findPiece(int[] pieces, long squares, int piece) {
+        while (squares != Bitboard.EMPTY) {
+            int index = Bitboard.firstSquare(squares);
+
+            if (pieces[index] == piece) {
+                return index;
+            }
+            squares &= squares - 1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Return the index of the given sliding piece first met walking outwards from the given square in the directions
+     * from firstDirection up to lastDirection (exclusive) over the occupied squares, or -1 if there is none
+     */
+    private static int findSlider(int[] pieces, long occupied, int square, int firstDirection, int lastDirection,
+                                  int piece) {
+        for (int direction = firstDirection; direction < lastDirection; direction++) {
+            for (int index: AttackTables.RAYS[direction][square]) {
+                if (Bitboard.contains(occupied, index)) {
+                    if (pieces[index] == piece) {
+                        return index;
+                    }
+                    break;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private static long occupancy(int[] pieces) {
+        long occupied = Bitboard.EMPTY;
+
+        for (int index = 0; index < 64; index++) {
+            if (pieces[index] != Piece.empty) {
+                occupied = Bitboard.add(occupied, index);
+            }
+        }
+
+        return occupied;
+    }
+
+    /**
+     * Return the material the given move itself wins: its captured piece, and the promoted piece less the pawn
+     */
+    private static int captureGain(Move move) {
+        int gain = PIECE_VALUES[abs(move.getCapturedPiece())];
+
+        if (move.isPromotionMove()) {
+            gain += PIECE_VALUES[promotedPiece(move)] - PIECE_VALUES[Piece.wPawn];
+        }
+
+        return gain;
+    }
+
+    private static int promotedPiece(Move move) {
+        if (move.isKnightPromotionMove()) {
+            return Piece.wKnight;
+        } else if (move.isBishopPromotionMove()) {
+            return Piece.wBishop;
+        } else if (move.isRookPromotionMove()) {
+            return Piece.wRook;
+        }
+
+        return Piece.wQueen;
+    }
+}
@@ -1,104 +1,96 @@
 package model.generation;
 
+import model.Bitboard;
 import model.Board;
 import model.Game;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
-
-// Represents a move generator which generates only pseudo-legal chess moves
+// Generates threat maps (attacked and defended squares) for a position. Threat maps are computed from a read-only view
+// of the board and no state is kept between calls, so one generator can be shared between threads
 public class ThreatMapGenerator {
-    private Game game;
-    private Board board;
-    private Set<Integer> threatMap;
 
     /**
-     * Generate black's threat map, e.g. all squares that are either attacked or defended by at least one black piece
+     * Generate white's threat map, e.g. all squares that are either attacked or defended by at least one white piece.
+     * The black king is treated as an empty square so that squares behind it on a sliding piece's ray are included
      *
-     * @return Integer list of indexes of each square in the threat map
+     * @return set of the indexes of each square in the threat map
      */
-    public Set<Integer> generateWhiteThreatMap(Game game) {
-        init(game);
+    public long generateWhiteThreatMap(Game game) {
+        int[] board = game.getBoard().getBoard();
+        return generateWhiteThreatMap(board, kingMask(board, -6));
+    }
 
-        int i = 0;
-        for (int piece: board.getBoard()) {
-            if (piece == -6) {
-                board.getBoard()[i] = 0;
-                break;
-            }
-            i++;
-        }
+    /**
+     * Generate black's threat map, e.g. all squares that are either attacked or defended by at least one black piece.
+     * The white king is treated as an empty square so that squares behind it on a sliding piece's ray are included
+     *
+     * @return set of the indexes of each square in the threat map
+     */
+    public long generateBlackThreatMap(Game game) {
+        int[] board = game.getBoard().getBoard();
+        return generateBlackThreatMap(board, kingMask(board, 6));
+    }
 
-        int index = 0;
-        for (int piece: board.getBoard()) {
+    /**
+     * Generate white's threat map on the given board, treating every square in ignoredSquares as empty
+     */
+    public long generateWhiteThreatMap(int[] board, long ignoredSquares) {
+        long threatMap = Bitboard.EMPTY;
+
+        for (int index = 0; index < 64; index++) {
+            int piece = board[index];
 
             if (piece > 0) {
-                int startX = Board.getSquareCoordinates(index).x;
-                int startY = Board.getSquareCoordinates(index).y;
+                int startX = index % 8 + 1;
+                int startY = index / 8 + 1;
 
                 switch (piece) {
-                    case 1: whitePawnThreatMap(startX, startY);
+                    case 1: threatMap |= whitePawnThreatMap(startX, startY);
                         break;
-                    case 2: knightThreatMap(index, startX, startY);
+                    case 2: threatMap |= knightThreatMap(index, startX, startY);
                         break;
-                    case 3: bishopThreatMap(startX, startY);
+                    case 3: threatMap |= bishopThreatMap(board, ignoredSquares, startX, startY);
                         break;
-                    case 4: rookThreatMap(startX, startY);
+                    case 4: threatMap |= rookThreatMap(board, ignoredSquares, startX, startY);
                         break;
-                    case 5: queenThreatMap(startX, startY);
+                    case 5: threatMap |= queenThreatMap(board, ignoredSquares, startX, startY);
                         break;
-                    case 6: kingThreatMap(index, startX, startY);
+                    case 6: threatMap |= kingThreatMap(index, startX, startY);
                         break;
                 }
             }
-
-            index++;
         }
 
         return threatMap;
     }
 
     /**
-     * Generate white's threat map, e.g. all squares that are either attacked or defended by at least one white piece
-     *
-     * @return Integer list of indexes of each square in the threat map
+     * Generate black's threat map on the given board, treating every square in ignoredSquares as empty
      */
-    public Set<Integer> generateBlackThreatMap(Game game) {
-        init(game);
+    public long generateBlackThreatMap(int[] board, long ignoredSquares) {
+        long threatMap = Bitboard.EMPTY;
 
-        int i = 0;
-        for (int piece: board.getBoard()) {
-            if (piece == 6) {
-                board.getBoard()[i] = 0;
-                break;
-            }
-            i++;
-        }
-
-        int index = 0;
-        for (int piece: board.getBoard()) {
+        for (int index = 0; index < 64; index++) {
+            int piece = board[index];
 
             if (piece < 0) {
-                int startX = Board.getSquareCoordinates(index).x;
-                int startY = Board.getSquareCoordinates(index).y;
+                int startX = index % 8 + 1;
+                int startY = index / 8 + 1;
 
                 switch (piece) {
-                    case -1: blackPawnThreatMap(startX, startY);
+                    case -1: threatMap |= blackPawnThreatMap(startX, startY);
                         break;
-                    case -2: knightThreatMap(index, startX, startY);
+                    case -2: threatMap |= knightThreatMap(index, startX, startY);
                         break;
-                    case -3: bishopThreatMap(startX, startY);
+                    case -3: threatMap |= bishopThreatMap(board, ignoredSquares, startX, startY);
                         break;
-                    case -4: rookThreatMap(startX, startY);
+                    case -4: threatMap |= rookThreatMap(board, ignoredSquares, startX, startY);
                         break;
-                    case -5: queenThreatMap(startX, startY);
+                    case -5: threatMap |= queenThreatMap(board, ignoredSquares, startX, startY);
                         break;
-                    case -6: kingThreatMap(index, startX, startY);
+                    case -6: threatMap |= kingThreatMap(index, startX, startY);
                         break;
                 }
             }
-
-            index++;
         }
 
         return threatMap;
@@ -107,328 +99,226 @@ public class ThreatMapGenerator {
     /**
      * Generate a white pawn threat map from the given index
      */
-    public Set<Integer> generateWhitePawnThreatMap(Game game, int index) {
-        init(game);
-
-        whitePawnThreatMap(Board.getSquareCoordinates(index).x, Board.getSquareCoordinates(index).y);
-
-        return threatMap;
+    public long generateWhitePawnThreatMap(Game game, int index) {
+        return whitePawnThreatMap(index % 8 + 1, index / 8 + 1);
     }
 
     /**
      * Generate a black pawn threat map from the given index
      */
-    public Set<Integer> generateBlackPawnThreatMap(Game game, int index) {
-        init(game);
-
-        blackPawnThreatMap(Board.getSquareCoordinates(index).x, Board.getSquareCoordinates(index).y);
-
-        return threatMap;
+    public long generateBlackPawnThreatMap(Game game, int index) {
+        return blackPawnThreatMap(index % 8 + 1, index / 8 + 1);
     }
 
     /**
      * Generate a knight threat map from the given index
      */
-    public Set<Integer> generateKnightThreatMap(Game game, int index) {
-        init(game);
-
-        knightThreatMap(index, Board.getSquareCoordinates(index).x, Board.getSquareCoordinates(index).y);
-
-        return threatMap;
+    public long generateKnightThreatMap(Game game, int index) {
+        return knightThreatMap(index, index % 8 + 1, index / 8 + 1);
     }
 
     /**
      * Generate a bishop threat map from the given index
      */
-    public Set<Integer> generateBishopThreatMap(Game game, int index) {
-        init(game);
-
-        bishopThreatMap(Board.getSquareCoordinates(index).x, Board.getSquareCoordinates(index).y);
-
-        return threatMap;
+    public long generateBishopThreatMap(Game game, int index) {
+        return bishopThreatMap(game.getBoard().getBoard(), Bitboard.EMPTY, index % 8 + 1, index / 8 + 1);
     }
 
     /**
      * Generate a rook threat map from the given index
      */
-    public Set<Integer> generateRookThreatMap(Game game, int index) {
-        init(game);
-
-        rookThreatMap(Board.getSquareCoordinates(index).x, Board.getSquareCoordinates(index).y);
-
-        return threatMap;
+    public long generateRookThreatMap(Game game, int index) {
+        return rookThreatMap(game.getBoard().getBoard(), Bitboard.EMPTY, index % 8 + 1, index / 8 + 1);
     }
 
     /**
      * Generate a queen threat map from the given index
      */
-    public Set<Integer> generateQueenThreatMap(Game game, int index) {
-        init(game);
-
-        queenThreatMap(Board.getSquareCoordinates(index).x, Board.getSquareCoordinates(index).y);
-
-        return threatMap;
+    public long generateQueenThreatMap(Game game, int index) {
+        return queenThreatMap(game.getBoard().getBoard(), Bitboard.EMPTY, index % 8 + 1, index / 8 + 1);
     }
 
     /**
-     * Initialize the current ThreatMapGenerator object
+     * Return a set containing the square of the given king, or an empty set if that king is not on the board
      */
-    private void init(Game game) {
-        this.game = game;
-        this.board = new Board();
-        board.setBoard(game.getBoard().getBoard().clone());
-        this.threatMap = new LinkedHashSet<>();
+    private long kingMask(int[] board, int king) {
+        for (int index = 0; index < 64; index++) {
+            if (board[index] == king) {
+                return Bitboard.squareMask(index);
+            }
+        }
+
+        return Bitboard.EMPTY;
     }
 
     /**
      * Generate a threat map for the white pawn on the square (startX, startY)
      */
-    private void whitePawnThreatMap(int startX, int startY) {
+    private long whitePawnThreatMap(int startX, int startY) {
+        long threatMap = Bitboard.EMPTY;
+
         // captures
         if (startX + 1 <= 8 && startY + 1 <= 8) {
-            threatMap.add(Board.getSquareIndex(startX + 1, startY + 1));
+            threatMap |= Bitboard.squareMask(Board.getSquareIndex(startX + 1, startY + 1));
         }
 
         if (startX - 1 >= 1 && startY + 1 <= 8) {
-            threatMap.add(Board.getSquareIndex(startX - 1, startY + 1));
+            threatMap |= Bitboard.squareMask(Board.getSquareIndex(startX - 1, startY + 1));
         }
+
+        return threatMap;
     }
 
     /**
      * Generate a threat map for the black pawn on the square (startX, startY)
      */
-    private void blackPawnThreatMap(int startX, int startY) {
+    private long blackPawnThreatMap(int startX, int startY) {
+        long threatMap = Bitboard.EMPTY;
+
         // captures
         if (startX + 1 <= 8 && startY - 1 >= 1) {
-            threatMap.add(Board.getSquareIndex(startX + 1, startY - 1));
+            threatMap |= Bitboard.squareMask(Board.getSquareIndex(startX + 1, startY - 1));
         }
 
         if (startX - 1 >= 1 && startY - 1 >= 1) {
-            threatMap.add(Board.getSquareIndex(startX - 1, startY - 1));
+            threatMap |= Bitboard.squareMask(Board.getSquareIndex(startX - 1, startY - 1));
         }
+
+        return threatMap;
     }
 
     /**
      * Generate a threat map for the knight on the square with the given index
      */
-    private void knightThreatMap(int index, int startX, int startY) {
+    private long knightThreatMap(int index, int startX, int startY) {
+        long threatMap = Bitboard.EMPTY;
+
         if (startX + 1 <= 8 && startY + 2 <= 8) {
-            threatMap.add(index + 17);
+            threatMap |= Bitboard.squareMask(index + 17);
         }
 
         if (startX + 2 <= 8 && startY + 1 <= 8) {
-            threatMap.add(index + 10);
+            threatMap |= Bitboard.squareMask(index + 10);
         }
 
         if (startX - 1 >= 1 && startY + 2 <= 8) {
-            threatMap.add(index + 15);
+            threatMap |= Bitboard.squareMask(index + 15);
         }
 
         if (startX - 2 >= 1 && startY + 1 <= 8) {
-            threatMap.add(index + 6);
+            threatMap |= Bitboard.squareMask(index + 6);
         }
 
         if (startX - 2 >= 1 && startY - 1 >= 1) {
-            threatMap.add(index - 10);
+            threatMap |= Bitboard.squareMask(index - 10);
         }
 
         if (startX - 1 >= 1 && startY - 2 >= 1) {
-            threatMap.add(index - 17);
+            threatMap |= Bitboard.squareMask(index - 17);
         }
 
         if (startX + 1 <= 8 && startY - 2 >= 1) {
-            threatMap.add(index - 15);
+            threatMap |= Bitboard.squareMask(index - 15);
         }
 
         if (startX + 2 <= 8 && startY - 1 >= 1) {
-            threatMap.add(index - 6);
+            threatMap |= Bitboard.squareMask(index - 6);
         }
+
+        return threatMap;
     }
 
     /**
      * Generate a threat map for the bishop on the square (startX, startY)
      */
-    private void bishopThreatMap(int startX, int startY) {
-        northEastSquares(startX, startY);
-        northWestSquares(startX, startY);
-        southEastSquares(startX, startY);
-        southWestSquares(startX, startY);
+    private long bishopThreatMap(int[] board, long ignoredSquares, int startX, int startY) {
+        return slidingSquares(board, ignoredSquares, startX, startY, 1, 1) |
+                slidingSquares(board, ignoredSquares, startX, startY, -1, 1) |
+                slidingSquares(board, ignoredSquares, startX, startY, 1, -1) |
+                slidingSquares(board, ignoredSquares, startX, startY, -1, -1);
     }
 
     /**
      * Generate a threat map for the rook on the square (startX, startY)
      */
-    private void rookThreatMap(int startX, int startY) {
-        northSquares(startX, startY);
-        southSquares(startX, startY);
-        westSquares(startX, startY);
-        eastSquares(startX, startY);
+    private long rookThreatMap(int[] board, long ignoredSquares, int startX, int startY) {
+        return slidingSquares(board, ignoredSquares, startX, startY, 0, 1) |
+                slidingSquares(board, ignoredSquares, startX, startY, 0, -1) |
+                slidingSquares(board, ignoredSquares, startX, startY, -1, 0) |
+                slidingSquares(board, ignoredSquares, startX, startY, 1, 0);
     }
 
     /**
      * Generate a threat map for the queen on the square (startX, startY)
      */
-    private void queenThreatMap(int startX, int startY) {
-        northSquares(startX, startY);
-        southSquares(startX, startY);
-        westSquares(startX, startY);
-        eastSquares(startX, startY);
-        northEastSquares(startX, startY);
-        northWestSquares(startX, startY);
-        southEastSquares(startX, startY);
-        southWestSquares(startX, startY);
+    private long queenThreatMap(int[] board, long ignoredSquares, int startX, int startY) {
+        return rookThreatMap(board, ignoredSquares, startX, startY) |
+                bishopThreatMap(board, ignoredSquares, startX, startY);
     }
 
     /**
      * Generate a threat map for the king on the square (startX, startY)
      */
-    private void kingThreatMap(int index, int startX, int startY) {
+    private long kingThreatMap(int index, int startX, int startY) {
+        long threatMap = Bitboard.EMPTY;
+
         if (startY + 1 <= 8) {
-            threatMap.add(index + 8);
+            threatMap |= Bitboard.squareMask(index + 8);
         }
 
         if (startY - 1 >= 1) {
-            threatMap.add(index - 8);
+            threatMap |= Bitboard.squareMask(index - 8);
         }
 
         if (startX + 1 <= 8) {
-            threatMap.add(index + 1);
+            threatMap |= Bitboard.squareMask(index + 1);
         }
 
         if (startX - 1 >= 1) {
-            threatMap.add(index - 1);
+            threatMap |= Bitboard.squareMask(index - 1);
         }
 
         if (startX - 1 >= 1 && startY + 1 <= 8) {
-            threatMap.add(index + 7);
+            threatMap |= Bitboard.squareMask(index + 7);
         }
 
         if (startX + 1 <= 8 && startY - 1 >= 1) {
-            threatMap.add(index - 7);
+            threatMap |= Bitboard.squareMask(index - 7);
         }
 
         if (startX + 1 <= 8 && startY + 1 <= 8) {
-            threatMap.add(index + 9);
+            threatMap |= Bitboard.squareMask(index + 9);
         }
 
         if (startX - 1 >= 1 && startY - 1 >= 1) {
-            threatMap.add(index - 9);
+            threatMap |= Bitboard.squareMask(index - 9);
         }
+
+        return threatMap;
     }
 
     /**
-     * Sliding piece threat map generators for different directions: north, south, west, east, north-west, north-east,
-     * south-west and south-east
+     * Generate the squares a sliding piece on (startX, startY) attacks in the direction (deltaX, deltaY), stopping at
+     * the first occupied square that is not in ignoredSquares
      */
-    private void northEastSquares(int startX, int startY) {
-        int y = startY + 1;
+    private long slidingSquares(int[] board, long ignoredSquares, int startX, int startY, int deltaX, int deltaY) {
+        long threatMap = Bitboard.EMPTY;
 
-        for (int x = startX + 1; x <= 8; x++) {
-            if (y > 8) {
-                break;
-            }
+        int x = startX + deltaX;
+        int y = startY + deltaY;
 
-            threatMap.add(Board.getSquareIndex(x,y));
+        while (x >= 1 && x <= 8 && y >= 1 && y <= 8) {
+            int index = Board.getSquareIndex(x, y);
+            threatMap |= Bitboard.squareMask(index);
 
-            if (board.getPiece(x,y) != 0) {
+            if (board[index] != 0 && !Bitboard.contains(ignoredSquares, index)) {
                 break;
             }
 
-            y++;
+            x += deltaX;
+            y += deltaY;
         }
-    }
-
-    private void northWestSquares(int startX, int startY) {
-        int y = startY + 1;
 
-        for (int x = startX - 1; x >= 1; x--) {
-            if (y > 8) {
-                break;
-            }
-
-            threatMap.add(Board.getSquareIndex(x,y));
-
-            if (board.getPiece(x,y) != 0) {
-                break;
-            }
-
-            y++;
-        }
-    }
-
-    private void southWestSquares(int startX, int startY) {
-        int y = startY - 1;
-
-        for (int x = startX - 1; x >= 1; x--) {
-            if (y < 1) {
-                break;
-            }
-
-            threatMap.add(Board.getSquareIndex(x,y));
-
-            if (board.getPiece(x,y) != 0) {
-                break;
-            }
-
-            y--;
-        }
-    }
-
-    private void southEastSquares(int startX, int startY) {
-        int y = startY - 1;
-
-        for (int x = startX + 1; x <= 8; x++) {
-            if (y < 1) {
-                break;
-            }
-
-            threatMap.add(Board.getSquareIndex(x,y));
-
-            if (board.getPiece(x,y) != 0) {
-                break;
-            }
-
-            y--;
-        }
-    }
-
-    private void northSquares(int startX, int startY) {
-        for (int y = startY + 1; y <= 8; y++) {
-            threatMap.add(Board.getSquareIndex(startX,y));
-
-            if (board.getPiece(startX,y) != 0) {
-                break;
-            }
-        }
-    }
-
-    private void southSquares(int startX, int startY) {
-        for (int y = startY - 1; y >= 1; y--) {
-            threatMap.add(Board.getSquareIndex(startX,y));
-
-            if (board.getPiece(startX,y) != 0) {
-                break;
-            }
-        }
-    }
-
-    private void westSquares(int startX, int startY) {
-        for (int x = startX - 1; x >= 1; x--) {
-            threatMap.add(Board.getSquareIndex(x,startY));
-
-            if (board.getPiece(x,startY) != 0) {
-                break;
-            }
-        }
-    }
-
-    private void eastSquares(int startX, int startY) {
-        for (int x = startX + 1; x <= 8; x++) {
-            threatMap.add(Board.getSquareIndex(x,startY));
-
-            if (board.getPiece(x,startY) != 0) {
-                break;
-            }
-        }
+        return threatMap;
     }
-}
\ No newline at end of file
+}
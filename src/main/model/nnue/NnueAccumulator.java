@@ -0,0 +1,238 @@
+package model.nnue;
+
+import model.Piece;
+
+import java.util.Arrays;
+
+// Represents the first layer outputs of a network for a board and the positions before it, as a stack with one pair of
+// int16 accumulators per move made since it was attached. A move pushes a copy of the top pair updated for the pieces
+// the board says it removed and added, a subtraction or an addition of a weight column each, unless it moved a side's
+// king, whose accumulator is then recomputed from every piece. The kings' squares are kept on the stack with the pairs,
+// so they are only searched for when the stack is refreshed. Undoing a move pops the pair it pushed. The update loops
+// run over plain short arrays so that the JIT compiler can vectorise them
+public class NnueAccumulator {
+    private static final int INITIAL_PLIES = 64;
+    private static final int MAX_CHANGES = 2; // of each kind, e.g. a castling king and rook or a capturing promotion
+
+    private final NnueNetwork network;
+    private final int size;
+    private final short[] featureWeights;
+
+    private short[][] white;
+    private short[][] black;
+    private int[] whiteKings; // the square of each side's king, per ply
+    private int[] blackKings;
+    private int ply;
+
+    // the pieces removed from and added to squares by the move being pushed
+    private final int[] removedPieces;
+    private final int[] removedSquares;
+    private final int[] addedPieces;
+    private final int[] addedSquares;
+    private int removals;
+    private int additions;
+
+    public NnueAccumulator(NnueNetwork network) {
+        this.network = network;
+        this.size = network.getAccumulatorSize();
+        this.featureWeights = network.getFeatureWeights();
+        this.white = new short[INITIAL_PLIES][size];
+        this.black = new short[INITIAL_PLIES][size];
+        this.whiteKings = new int[INITIAL_PLIES];
+        this.blackKings = new int[INITIAL_PLIES];
+        this.removedPieces = new int[MAX_CHANGES];
+        this.removedSquares = new int[MAX_CHANGES];
+        this.addedPieces = new int[MAX_CHANGES];
+        this.addedSquares = new int[MAX_CHANGES];
+    }
+
+    /**
+     * Discard the stack and compute both accumulators of the given board from scratch
+     */
+    public void refresh(int[] board) {
+        ply = 0;
+        whiteKings[0] = kingSquare(board, true);
+        blackKings[0] = kingSquare(board, false);
+        refresh(board, true, whiteKings[0], white[0]);
+        refresh(board, false, blackKings[0], black[0]);
+    }
+
+    private void refresh(int[] board, boolean side, int kingSquare, short[] accumulator) {
+        System.arraycopy(network.getFeatureBiases(), 0, accumulator, 0, size);
+
+        for (int square = 0; square < 64; square++) {
+            int feature = NnueNetwork.featureIndex(side, kingSquare, board[square], square);
+
+            if (feature >= 0) {
+                add(accumulator, feature);
+            }
+        }
+    }
+
+    /**
+     * Push the accumulators of the given board, reached from the top of the stack by moving the given piece from one
+     * square to another, where it became placedPiece (the moved piece itself unless it promoted), and capturing the
+     * given piece (empty for none) on the given square, which is not the end square for an en passant capture
+     */
+    public void push(int[] board, int startSquare, int endSquare, int movedPiece, int placedPiece, int capturedPiece,
+                     int captureSquare) {
+        removals = 0;
+        additions = 0;
+        remove(movedPiece, startSquare);
+        if (capturedPiece != Piece.empty) {
+            remove(capturedPiece, captureSquare);
+        }
+        place(placedPiece, endSquare);
+        apply(board);
+    }
+
+    /**
+     * Push the accumulators of the given board, reached from the top of the stack by castling with the given king and
+     * rook between the given squares
+     */
+    public void pushCastle(int[] board, int kingStart, int kingEnd, int rookStart, int rookEnd, int king, int rook) {
+        removals = 0;
+        additions = 0;
+        remove(king, kingStart);
+        remove(rook, rookStart);
+        place(king, kingEnd);
+        place(rook, rookEnd);
+        apply(board);
+    }
+
+    private void remove(int piece, int square) {
+        removedPieces[removals] = piece;
+        removedSquares[removals++] = square;
+    }
+
+    private void place(int piece, int square) {
+        addedPieces[additions] = piece;
+        addedSquares[additions++] = square;
+    }
+
+    /**
+     * Push the top pair updated for the recorded changes, recomputing the accumulator of a side whose king moved from
+     * the given board
+     */
+    private void apply(int[] board) {
+        if (ply + 1 == white.length) {
+            white = grow(white);
+            black = grow(black);
+            whiteKings = Arrays.copyOf(whiteKings, white.length);
+            blackKings = Arrays.copyOf(blackKings, black.length);
+        }
+
+        whiteKings[ply + 1] = whiteKings[ply];
+        blackKings[ply + 1] = blackKings[ply];
+
+        for (int i = 0; i < additions; i++) {
+            if (addedPieces[i] == Piece.wKing) {
+                whiteKings[ply + 1] = addedSquares[i];
+            } else if (addedPieces[i] == Piece.bKing) {
+                blackKings[ply + 1] = addedSquares[i];
+            }
+        }
+
+        update(board, true, whiteKings[ply], whiteKings[ply + 1], white[ply], white[ply + 1]);
+        update(board, false, blackKings[ply], blackKings[ply + 1], black[ply], black[ply + 1]);
+        ply++;
+    }
+
+    private void update(int[] board, boolean side, int previousKing, int kingSquare, short[] previous, short[] next) {
+        if (kingSquare != previousKing) {
+            refresh(board, side, kingSquare, next);
+            return;
+        }
+
+        System.arraycopy(previous, 0, next, 0, size);
+
+        for (int i = 0; i < removals; i++) {
+            int feature = NnueNetwork.featureIndex(side, kingSquare, removedPieces[i], removedSquares[i]);
+
+            if (feature >= 0) {
+                subtract(next, feature);
+            }
+        }
+
+        for (int i = 0; i < additions; i++) {
+            int feature = NnueNetwork.featureIndex(side, kingSquare, addedPieces[i], addedSquares[i]);
+
+            if (feature >= 0) {
+                add(next, feature);
+            }
+        }
+    }
+
+    /**
+     * Pop the accumulators of the last move
+     *
+     * @throws IllegalStateException if no move has been pushed since the last refresh
+     */
+    public void pop() {
+        if (ply == 0) {
+            throw new IllegalStateException("no move to undo since the accumulator was refreshed");
+        }
+
+        ply--;
+    }
+
+    /**
+     * Return the network's evaluation of the top of the stack in centipawns for the given side to move
+     */
+    public int evaluate(boolean whiteToMove) {
+        return whiteToMove ? network.evaluate(white[ply], black[ply]) : network.evaluate(black[ply], white[ply]);
+    }
+
+    private void add(short[] accumulator, int feature) {
+        int offset = feature * size;
+
+        for (int i = 0; i < size; i++) {
+            accumulator[i] += featureWeights[offset + i];
+        }
+    }
+
+    private void subtract(short[] accumulator, int feature) {
+        int offset = feature * size;
+
+        for (int i = 0; i < size; i++) {
+            accumulator[i] -= featureWeights[offset + i];
+        }
+    }
+
+    private static int kingSquare(int[] board, boolean white) {
+        int king = white ? Piece.wKing : Piece.bKing;
+
+        for (int square = 0; square < 64; square++) {
+            if (board[square] == king) {
+                return square;
+            }
+        }
+
+        return 0;
+    }
+
+    private short[][] grow(short[][] stack) {
+        short[][] grown = Arrays.copyOf(stack, 2 * stack.length);
+
+        for (int i = stack.length; i < grown.length; i++) {
+            grown[i] = new short[size];
+        }
+
+        return grown;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public NnueNetwork getNetwork() {
+        return network;
+    }
+
+    public short[] getWhiteAccumulator() {
+        return white[ply];
+    }
+
+    public short[] getBlackAccumulator() {
+        return black[ply];
+    }
+}
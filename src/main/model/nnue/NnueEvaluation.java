@@ -0,0 +1,36 @@
+package model.nnue;
+
+import model.Board;
+import model.Game;
+import model.evaluation.Evaluator;
+
+// Represents an evaluation by a neural network in place of the weighted terms. A board with an accumulator of the
+// same network attached is evaluated from its accumulator, which its moves keep up to date; any other board is
+// evaluated from an accumulator computed from scratch
+public class NnueEvaluation implements Evaluator {
+    private final NnueNetwork network;
+
+    public NnueEvaluation(NnueNetwork network) {
+        this.network = network;
+    }
+
+    @Override
+    public double evaluate(Game game) {
+        Board board = game.getBoard();
+        NnueAccumulator accumulator = board.getAccumulator();
+
+        if (accumulator == null || accumulator.getNetwork() != network) {
+            accumulator = new NnueAccumulator(network);
+            accumulator.refresh(board.getBoard());
+        }
+
+        return accumulator.evaluate(game.getCurrentTurn().isWhite()) / 100.0;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public NnueNetwork getNetwork() {
+        return network;
+    }
+}
@@ -0,0 +1,235 @@
+package model.nnue;
+
+import model.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Represents the weights of an efficiently updatable neural network (NNUE) evaluator. Its input is a pair of HalfKP
+// feature sets, one per side: every piece other than the kings, indexed by the square of that side's king, the piece's
+// square and whether it is one of that side's own pawns, knights, bishops, rooks or queens or one of the opponent's.
+// Black's features are seen from its own side of the board, with ranks mirrored. Each set is summed into an int16
+// accumulator of the first layer's outputs, which moves only change a few features of, and the side to move's
+// accumulator followed by the other side's go through a clipped ReLU into a small hidden layer and a single output.
+//
+// Network files are little-endian: the magic number and version, the accumulator and hidden layer sizes as ints, then
+// the int16 feature biases and weights (feature-major), the int16 hidden weights (row per hidden neuron) and int32
+// hidden biases, and the int16 output weights and int32 output bias
+public class NnueNetwork {
+    public static final int MAGIC = 0x4E4E5545; // "NNUE"
+    public static final int VERSION = 1;
+    public static final int PIECE_TYPES = 10; // own and opponent pawns to queens
+    public static final int FEATURES = 64 * PIECE_TYPES * 64;
+    public static final int ACTIVATION_MAX = 127;
+    public static final int HIDDEN_SHIFT = 6;
+    public static final int OUTPUT_SCALE = 16; // output units per centipawn
+
+    private static final int HEADER_SIZE = 16;
+
+    private final int accumulatorSize;
+    private final int hiddenSize;
+    private final short[] featureBiases;
+    private final short[] featureWeights;
+    private final short[] hiddenWeights;
+    private final int[] hiddenBiases;
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    /**
+     * Construct a network with the given weights, laid out as in a network file
+     *
+     * @throws IllegalArgumentException if an array's length does not match the layer sizes
+     */
+    public NnueNetwork(int accumulatorSize, int hiddenSize, short[] featureBiases, short[] featureWeights,
+                       short[] hiddenWeights, int[] hiddenBiases, short[] outputWeights, int outputBias) {
+        if (accumulatorSize <= 0 || hiddenSize <= 0 || featureBiases.length != accumulatorSize ||
+                featureWeights.length != FEATURES * accumulatorSize ||
+                hiddenWeights.length != hiddenSize * 2 * accumulatorSize || hiddenBiases.length != hiddenSize ||
+                outputWeights.length != hiddenSize) {
+            throw new IllegalArgumentException("network weights do not match the layer sizes " + accumulatorSize +
+                    " and " + hiddenSize);
+        }
+
+        this.accumulatorSize = accumulatorSize;
+        this.hiddenSize = hiddenSize;
+        this.featureBiases = featureBiases;
+        this.featureWeights = featureWeights;
+        this.hiddenWeights = hiddenWeights;
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Return the network of the given file
+     *
+     * @throws IOException if the file cannot be read or is not a network file of this version
+     */
+    public static NnueNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, HEADER_SIZE);
+
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException(path + " is not a version " + VERSION + " network file");
+            }
+
+            int accumulatorSize = header.getInt();
+            int hiddenSize = header.getInt();
+
+            if (accumulatorSize <= 0 || hiddenSize <= 0 ||
+                    channel.size() != HEADER_SIZE + size(accumulatorSize, hiddenSize)) {
+                throw new IOException(path + " has the wrong length for layer sizes " + accumulatorSize + " and " +
+                        hiddenSize);
+            }
+
+            ByteBuffer body = read(channel, (int) size(accumulatorSize, hiddenSize));
+            short[] featureBiases = new short[accumulatorSize];
+            short[] featureWeights = new short[FEATURES * accumulatorSize];
+            short[] hiddenWeights = new short[hiddenSize * 2 * accumulatorSize];
+            int[] hiddenBiases = new int[hiddenSize];
+            short[] outputWeights = new short[hiddenSize];
+
+            body.asShortBuffer().get(featureBiases).get(featureWeights).get(hiddenWeights);
+            body.position(2 * (featureBiases.length + featureWeights.length + hiddenWeights.length));
+            body.asIntBuffer().get(hiddenBiases);
+            body.position(body.position() + 4 * hiddenSize);
+            body.asShortBuffer().get(outputWeights);
+            body.position(body.position() + 2 * hiddenSize);
+            int outputBias = body.getInt();
+
+            return new NnueNetwork(accumulatorSize, hiddenSize, featureBiases, featureWeights, hiddenWeights,
+                    hiddenBiases, outputWeights, outputBias);
+        }
+    }
+
+    /**
+     * Write this network to the given file, replacing any existing file
+     */
+    public void save(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (HEADER_SIZE + size(accumulatorSize, hiddenSize)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(accumulatorSize).putInt(hiddenSize);
+        for (short weight: featureBiases) {
+            buffer.putShort(weight);
+        }
+        for (short weight: featureWeights) {
+            buffer.putShort(weight);
+        }
+        for (short weight: hiddenWeights) {
+            buffer.putShort(weight);
+        }
+        for (int bias: hiddenBiases) {
+            buffer.putInt(bias);
+        }
+        for (short weight: outputWeights) {
+            buffer.putShort(weight);
+        }
+        buffer.putInt(outputBias).flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static long size(int accumulatorSize, int hiddenSize) {
+        return 2L * accumulatorSize + 2L * FEATURES * accumulatorSize + 2L * hiddenSize * 2 * accumulatorSize +
+                4L * hiddenSize + 2L * hiddenSize + 4;
+    }
+
+    private static ByteBuffer read(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("network file ends early");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Return the index of the feature of the given piece on the given square, seen by the side whose king is on the
+     * given square, or -1 for a king
+     */
+    public static int featureIndex(boolean white, int kingSquare, int piece, int square) {
+        int type = Math.abs(piece);
+
+        if (type == Piece.wKing || type == Piece.empty) {
+            return -1;
+        }
+
+        boolean own = piece > 0 == white;
+        int pieceType = (own ? 0 : 5) + type - 1;
+
+        // black sees the board from its own side, so its features mirror the ranks
+        if (!white) {
+            kingSquare ^= 56;
+            square ^= 56;
+        }
+
+        return (kingSquare * PIECE_TYPES + pieceType) * 64 + square;
+    }
+
+    /**
+     * Return the output of the network in centipawns for the side to move, given the side to move's accumulator and
+     * the other side's
+     */
+    public int evaluate(short[] ownAccumulator, short[] otherAccumulator) {
+        int output = outputBias;
+
+        for (int neuron = 0; neuron < hiddenSize; neuron++) {
+            int offset = neuron * 2 * accumulatorSize;
+            int sum = hiddenBiases[neuron] + dot(ownAccumulator, offset) +
+                    dot(otherAccumulator, offset + accumulatorSize);
+
+            output += clamp(sum >> HIDDEN_SHIFT) * outputWeights[neuron];
+        }
+
+        return output / OUTPUT_SCALE;
+    }
+
+    /**
+     * Return the sum of the clipped accumulator values multiplied by the hidden weights from the given offset
+     */
+    private int dot(short[] accumulator, int offset) {
+        int sum = 0;
+
+        for (int i = 0; i < accumulatorSize; i++) {
+            sum += clamp(accumulator[i]) * hiddenWeights[offset + i];
+        }
+
+        return sum;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(ACTIVATION_MAX, value));
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public int getAccumulatorSize() {
+        return accumulatorSize;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    short[] getFeatureBiases() {
+        return featureBiases;
+    }
+
+    short[] getFeatureWeights() {
+        return featureWeights;
+    }
+}
@@ -1,17 +1,37 @@
 package model.search;
 
-import model.Board;
 import model.Game;
-import model.Move;
-import model.Player;
-
-import java.util.List;
-
+import model.Piece;
+import model.evaluation.MaterialTerm;
+import model.evaluation.MobilityTerm;
+import model.evaluation.PawnStructureTerm;
+
+// Represents the static evaluation of a position: a weighted sum of material, mobility and pawn structure terms, whose
+// weights are read from an evaluation parameter vector. Each term can be read separately for the position last passed
+// to evaluatePosition, so an instance must not be shared between threads; searches use a TermEvaluator instead, which
+// sums the same terms without keeping any state
 public class Evaluation {
+    private static final int BLACK = MaterialTerm.BLACK;
+
+    private final MaterialTerm material;
+    private final MobilityTerm mobility;
+    private final PawnStructureTerm pawnStructure;
     private Game game;
-    private Board board;
     private boolean whiteToPlay;
 
+    /**
+     * Construct a new evaluation with the parameters read at startup
+     */
+    public Evaluation() {
+        this(EvaluationParameters.getStartupParameters());
+    }
+
+    public Evaluation(EvaluationParameters parameters) {
+        this.material = new MaterialTerm(parameters);
+        this.mobility = new MobilityTerm(parameters);
+        this.pawnStructure = new PawnStructureTerm(parameters);
+    }
+
     /**
      * Evaluates the current position from the perspective of the player whose turn it is
      * Large positive score means position is very favourable for current player, large negative score means position is
@@ -19,25 +39,46 @@ public class Evaluation {
      */
     public double evaluatePosition(Game game) {
         this.game = game;
-        this.board = game.getBoard();
         this.whiteToPlay = game.getCurrentTurn().isWhite();
 
         return countMaterial() + countMobility() + countPawnErrors();
     }
 
     /**
-     * Count the number of possible moves for the current player and return that value multiplied by 0.1
+     * Return the terms of the given game's position from white's perspective, indexed like the evaluation parameters,
+     * so that the evaluation for white is the sum of each term multiplied by its weight
      */
-    public double countMobility() {
-        List<Move> moveList = game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn());
-
-        List<Move> opponentMoveList = game.getMoveGenerator().generateLegalMoves(game, new Player(!whiteToPlay));
+    public int[] countTerms(Game game) {
+        int[] counts = MaterialTerm.countPieces(game.getBoard().getBoard());
+        int[] whitePawns = PawnStructureTerm.countPawnFiles(game.getBoard().getBoard(), Piece.wPawn);
+        int[] blackPawns = PawnStructureTerm.countPawnFiles(game.getBoard().getBoard(), Piece.bPawn);
+        int[] terms = new int[EvaluationParameters.SIZE];
+
+        terms[EvaluationParameters.QUEEN] = counts[Piece.wQueen] - counts[BLACK + Piece.wQueen];
+        terms[EvaluationParameters.ROOK] = counts[Piece.wRook] - counts[BLACK + Piece.wRook];
+        terms[EvaluationParameters.BISHOP] = counts[Piece.wBishop] - counts[BLACK + Piece.wBishop];
+        terms[EvaluationParameters.KNIGHT] = counts[Piece.wKnight] - counts[BLACK + Piece.wKnight];
+        terms[EvaluationParameters.PAWN] = counts[Piece.wPawn] - counts[BLACK + Piece.wPawn];
+        terms[EvaluationParameters.BISHOP_PAIR] = (counts[Piece.wBishop] == 2 ? 1 : 0) -
+                (counts[BLACK + Piece.wBishop] == 2 ? 1 : 0);
+        terms[EvaluationParameters.MOBILITY] = MobilityTerm.countMobility(game);
+        terms[EvaluationParameters.PAWN_ERROR] = countDoubledPawns(whitePawns) + countIsolatedPawns(whitePawns) -
+                countDoubledPawns(blackPawns) - countIsolatedPawns(blackPawns);
+
+        return terms;
+    }
 
-        return 0.1 * (moveList.size() - opponentMoveList.size());
+    /**
+     * Count the number of possible moves for the current player minus those of the opponent and return that value
+     * multiplied by the mobility weight
+     */
+    public double countMobility() {
+        return perspective(mobility.evaluate(game));
     }
 
     /**
-     * Count the material for the current player minus the material for the opponent
+     * Count the material for the current player minus the material for the opponent, each piece and a bishop pair
+     * multiplied by its weight, by default:
      * queen = 9
      * rook = 5
      * bishop & knight = 3
@@ -45,130 +86,30 @@ public class Evaluation {
      * bishop pair = 0.2
      */
     public double countMaterial() {
-        int wPawns = 0;
-        int wKnights = 0;
-        int wBishops = 0;
-        int wRooks = 0;
-        int wQueen = 0;
-        double wBishopPair = 0;
-
-        int bPawns = 0;
-        int bKnights = 0;
-        int bBishops = 0;
-        int bRooks = 0;
-        int bQueen = 0;
-        double bBishopPair = 0;
-
-        for (int piece : board.getBoard()) {
-            switch (piece) {
-                case 1: wPawns++;
-                    break;
-                case 2: wKnights++;
-                    break;
-                case 3: wBishops++;
-                    break;
-                case 4: wRooks++;
-                    break;
-                case 5: wQueen++;
-                    break;
-                case -1: bPawns++;
-                    break;
-                case -2: bKnights++;
-                    break;
-                case -3: bBishops++;
-                    break;
-                case -4: bRooks++;
-                    break;
-                case -5: bQueen++;
-                    break;
-            }
-        }
-
-        if (wBishops == 2) {
-            wBishopPair = 0.2;
-        }
-
-        if (bBishops == 2) {
-            bBishopPair = 0.2;
-        }
-
-        double material = (9*(wQueen - bQueen)) + (5*(wRooks - bRooks)) + (3*((wBishops - bBishops) +
-                (wKnights - bKnights))) + (wPawns - bPawns) + (wBishopPair - bBishopPair);
-
-        if (whiteToPlay) {
-            return material;
-        } else {
-            return -1 * material;
-        }
+        return perspective(material.evaluate(game));
     }
 
     /**
-     * Count the number of doubled pawns and isolated pawns in the given position and
-     * return that value multiplied by -0.5
+     * Count the number of doubled pawns and isolated pawns in the given position and return that value multiplied by
+     * the pawn error weight, by default -0.5
      */
     public double countPawnErrors() {
-        int[] whitePawns = new int[8];
-        int[] blackPawns = new int[8];
-
-        int index = 0;
-        for (int piece: board.getBoard()) {
-            int file = index % 8; // 0-7
-
-            if (piece == 1) {
-                whitePawns[file]++;
-            } else if (piece == -1) {
-                blackPawns[file]++;
-            }
-
-            index++;
-        }
-
-        double whitePawnErrors = -0.5 * (countDoubledPawns(whitePawns) + countIsolatedPawns(whitePawns));
-        double blackPawnErrors = -0.5 * (countDoubledPawns(blackPawns) + countIsolatedPawns(blackPawns));
-
-        double pawnErrors = whitePawnErrors - blackPawnErrors;
+        return perspective(pawnStructure.evaluate(game));
+    }
 
+    private double perspective(double whiteScore) {
         if (whiteToPlay) {
-            return pawnErrors;
+            return whiteScore;
         } else {
-            return -1 * pawnErrors;
+            return -1 * whiteScore;
         }
     }
 
     public int countDoubledPawns(int[] pawns) {
-        int doubledPawns = 0;
-
-        for (int p: pawns) {
-            if (p > 1) {
-                doubledPawns++;
-            }
-        }
-
-        return doubledPawns;
+        return PawnStructureTerm.countDoubledPawns(pawns);
     }
 
     public int countIsolatedPawns(int[] pawns) {
-        int isolatedPawns = 0;
-
-        int index = 0;
-        for (int p: pawns) {
-            if (p > 0) {
-                if (index == 0) {
-                    if (pawns[1] == 0) {
-                        isolatedPawns++;
-                    }
-                } else if (index == 7) {
-                    if (pawns[6] == 0) {
-                        isolatedPawns++;
-                    }
-                } else if (pawns[index - 1] == 0 && pawns[index + 1] == 0) {
-                    isolatedPawns++;
-                }
-            }
-
-            index++;
-        }
-
-        return isolatedPawns;
+        return PawnStructureTerm.countIsolatedPawns(pawns);
     }
 }
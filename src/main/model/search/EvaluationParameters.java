@@ -0,0 +1,168 @@
+package model.search;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Represents the weights of the evaluation terms, in pawns, as a vector that can be tuned. The built-in weights are
+// replaced at startup by the file named by the system property evaluation.parameters, if set, which holds one
+// "name value" line per weight, e.g. as written by the Texel tuner. Weights missing from the file keep their built-in
+// values
+public class EvaluationParameters {
+    public static final String FILE_PROPERTY = "evaluation.parameters";
+
+    public static final int QUEEN = 0;
+    public static final int ROOK = 1;
+    public static final int BISHOP = 2;
+    public static final int KNIGHT = 3;
+    public static final int PAWN = 4;
+    public static final int BISHOP_PAIR = 5;
+    public static final int MOBILITY = 6; // per legal move more than the opponent
+    public static final int PAWN_ERROR = 7; // per doubled or isolated pawn file
+    public static final int SIZE = 8;
+
+    private static final String[] NAMES = {"queen", "rook", "bishop", "knight", "pawn", "bishopPair", "mobility",
+            "pawnError"};
+    private static final double[] BUILT_IN = {9, 5, 3, 3, 1, 0.2, 0.1, -0.5};
+
+    private static EvaluationParameters startupParameters;
+
+    private final double[] values;
+
+    /**
+     * Construct the built-in parameters
+     */
+    public EvaluationParameters() {
+        this(BUILT_IN);
+    }
+
+    /**
+     * Construct parameters with the given weights, indexed like the constants of this class
+     *
+     * @throws IllegalArgumentException if there is not exactly one weight per parameter
+     */
+    public EvaluationParameters(double[] values) {
+        if (values.length != SIZE) {
+            throw new IllegalArgumentException("expected " + SIZE + " evaluation parameters, got " + values.length);
+        }
+
+        this.values = values.clone();
+    }
+
+    /**
+     * Return the parameters read at startup: the file named by the evaluation.parameters system property, or the
+     * built-in parameters if it is not set or cannot be read
+     */
+    public static synchronized EvaluationParameters getStartupParameters() {
+        if (startupParameters == null) {
+            String file = System.getProperty(FILE_PROPERTY);
+            startupParameters = new EvaluationParameters();
+
+            if (file != null) {
+                try {
+                    startupParameters = load(Paths.get(file));
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("cannot read evaluation parameters " + file + ": " + e.getMessage());
+                }
+            }
+        }
+
+        return startupParameters;
+    }
+
+    /**
+     * Return the parameters of the given file, starting from the built-in parameters. Blank lines and lines starting
+     * with # are skipped
+     *
+     * @throws IllegalArgumentException if a line names an unknown parameter or its value is malformed
+     */
+    public static EvaluationParameters load(Path path) throws IOException {
+        double[] values = BUILT_IN.clone();
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split("\\s+");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("expected a name and a value: " + line);
+                }
+
+                values[indexOf(parts[0])] = Double.parseDouble(parts[1]);
+            }
+        }
+
+        return new EvaluationParameters(values);
+    }
+
+    /**
+     * Write these parameters to the given file, in the format read by load
+     */
+    public void save(Path path) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < SIZE; i++) {
+                writer.println(NAMES[i] + " " + values[i]);
+            }
+        }
+    }
+
+    /**
+     * Return the index of the parameter with the given name
+     *
+     * @throws IllegalArgumentException if there is no such parameter
+     */
+    public static int indexOf(String name) {
+        for (int i = 0; i < SIZE; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown evaluation parameter: " + name);
+    }
+
+    public static String getName(int index) {
+        return NAMES[index];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < SIZE; i++) {
+            builder.append(i == 0 ? "" : ", ").append(NAMES[i]).append(' ').append(values[i]);
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EvaluationParameters && Arrays.equals(values, ((EvaluationParameters) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public double get(int index) {
+        return values[index];
+    }
+
+    public double[] getValues() {
+        return values.clone();
+    }
+}
@@ -1,69 +1,975 @@
 package model.search;
 
+import enumerations.ScoreBound;
+import model.Board;
 import model.Game;
 import model.Move;
+import model.Piece;
+import model.Zobrist;
+import model.evaluation.Evaluator;
+import model.evaluation.TermEvaluator;
 import model.generation.MoveGenerator;
+import model.generation.StaticExchangeEvaluator;
+import model.nnue.NnueAccumulator;
+import model.nnue.NnueEvaluation;
+import model.nnue.NnueNetwork;
+import model.tablebase.Tablebase;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
+import static java.lang.Math.abs;
+
+// Represents an alpha-beta negamax search with quiescence search at the leaves. Selectivity (null-move pruning, late
+// move reductions, futility pruning, razoring, pruning of losing captures in quiescence search and check extensions) is
+// controlled by the given SearchOptions, and searched positions are remembered in a transposition table that may be
+// shared with later searches of the same game. Captures are ordered by static exchange evaluation, those that lose
+// material after every quiet move. Deeper iterations search the root in an aspiration window around the previous score,
+// with the root moves ordered by the size of their subtrees in the previous iteration. In MultiPV mode each iteration
+// finds the best few root moves one after the other, each line searching the root moves not already chosen. Under
+// deterministic limits the search hashes positions with fixed keys into an emptied transposition table and ignores the
+// clock, so that it does the same work on every run. With a tablebase, root positions it covers are answered by the
+// tablebase outside MultiPV mode and won, drawn or lost positions in the tree are not searched
 public class Search {
-    private Evaluation evaluation;
+    public static final double MATE_SCORE = 100000;
+    public static final double TABLEBASE_WIN_SCORE = MATE_SCORE / 4; // less one per ply from the root
+    public static final int DEFAULT_HASH_SIZE = 1; // in megabytes
+    public static final int MAX_MULTI_PV = 256; // more than the legal moves of any position
+    public static final long DETERMINISTIC_SEED = 0x9E3779B97F4A7C15L; // of the Zobrist keys of deterministic searches
+    private static final double NULL_WINDOW = 0.01;
+    private static final Zobrist DETERMINISTIC_KEYS = new Zobrist(DETERMINISTIC_SEED);
+
+    private final SearchOptions options;
+    private final TranspositionTable transpositionTable;
+    private final Zobrist zobrist;
+    private final StaticExchangeEvaluator staticExchange;
+    private Evaluator evaluator;
+    private Evaluator evaluation; // the evaluator of the running search
+    private Zobrist keys; // the Zobrist keys of the running search
     private MoveGenerator moveGenerator;
+    private Tablebase tablebase;
+    private NnueNetwork network;
+    private int multiPv;
     private Game game;
 
+    private int[][] history; // quiet move cutoff history, indexed by start square and end square
+    private Move[][] pvTable; // triangular principal variation table, indexed by ply
+    private int[] pvLength;
+    private long nodes;
+    private long tablebaseHits;
+    private int rootDepth;
+    private int aspirationFailHighs;
+    private int aspirationFailLows;
+
+    // limits of the running search
+    private volatile boolean stopped;
+    private volatile boolean pondering;
+    private volatile long startTime;
+    private volatile long hardDeadline;
+    private long allocatedTime;
+    private long nodeLimit;
+    private boolean aborted;
+    private boolean rootFailedLow; // no root move of the last root search scored above alpha
+    private SearchInfo lastInfo;
+    private List<SearchInfo> lastLines;
+    private long wallTimeNanos;
+
+    /**
+     * Construct a new search with the default search options
+     */
+    public Search() {
+        this(new SearchOptions());
+    }
+
+    public Search(SearchOptions options) {
+        this(options, new TranspositionTable(DEFAULT_HASH_SIZE), new Zobrist());
+    }
+
+    /**
+     * Construct a new search that stores positions in the given transposition table. The table must only ever be
+     * used with hashes from the given Zobrist keys, which deterministic searches ensure by emptying it
+     */
+    public Search(SearchOptions options, TranspositionTable transpositionTable, Zobrist zobrist) {
+        this.options = options;
+        this.transpositionTable = transpositionTable;
+        this.zobrist = zobrist;
+        this.staticExchange = new StaticExchangeEvaluator();
+        this.evaluator = TermEvaluator.getStartupEvaluator();
+        this.multiPv = 1;
+    }
 
+    /**
+     * Return the best move for the player whose turn it is, searching depth plies below each of the root moves
+     *
+     * @return the best move found, or null if there are no legal moves
+     */
     public Move search(Game game, int depth) {
-        System.out.println("\033[H\033[2J");
+        return search(game, SearchLimits.depth(depth + 1), null);
+    }
+
+    /**
+     * Return the best move for the player whose turn it is, deepening the search one ply at a time until the given
+     * limits are reached or stop() is called. The given listener, if not null, is told about each completed iteration,
+     * once for each of its lines in MultiPV mode. A pondering search ignores its time limits until ponderHit() is
+     * called. A deterministic search empties the transposition table before and after it, as it hashes with other keys
+     *
+     * @return the best move found, or null if there are no legal moves
+     */
+    public Move search(Game game, SearchLimits limits, SearchListener listener) {
+        boolean deterministic = limits.isDeterministic();
+        this.keys = deterministic ? DETERMINISTIC_KEYS : zobrist;
+
+        if (deterministic) {
+            transpositionTable.clear();
+        }
+
+        long startNanos = System.nanoTime();
+
+        try {
+            return searchWithEvaluation(game, limits, listener);
+        } finally {
+            wallTimeNanos = System.nanoTime() - startNanos;
+
+            if (deterministic) {
+                transpositionTable.clear();
+            }
+        }
+    }
+
+    private Move searchWithEvaluation(Game game, SearchLimits limits, SearchListener listener) {
+        if (network == null) {
+            this.evaluation = evaluator;
+            return searchGame(game, limits, listener);
+        }
+
+        // the network's accumulator follows the searched moves, and is detached once the search is over
+        this.evaluation = new NnueEvaluation(network);
+        game.getBoard().setAccumulator(new NnueAccumulator(network));
 
-        this.evaluation = new Evaluation();
+        try {
+            return searchGame(game, limits, listener);
+        } finally {
+            game.getBoard().setAccumulator(null);
+        }
+    }
+
+    private Move searchGame(Game game, SearchLimits limits, SearchListener listener) {
         this.moveGenerator = new MoveGenerator();
         this.game = game;
+        this.history = new int[64][64];
+        this.pvTable = new Move[SearchLimits.MAX_DEPTH + 1][SearchLimits.MAX_DEPTH + 1];
+        this.pvLength = new int[SearchLimits.MAX_DEPTH + 1];
+        this.nodes = 0;
+        this.tablebaseHits = 0;
+        this.aborted = false;
+        this.lastInfo = null;
+        this.lastLines = List.of();
+        this.aspirationFailHighs = 0;
+        this.aspirationFailLows = 0;
 
-        Move bestMove = null;
-        double bestEvaluation = Double.POSITIVE_INFINITY;
+        this.allocatedTime = limits.allocateTime(game.getCurrentTurn().isWhite());
+        this.pondering = limits.isPonder();
+        this.startTime = System.currentTimeMillis();
+        this.hardDeadline = allocatedTime >= 0 && !pondering ? startTime + allocatedTime : Long.MAX_VALUE;
+        this.nodeLimit = limits.getNodes() >= 0 ? limits.getNodes() : Long.MAX_VALUE;
 
-        List<Move> moveList = moveGenerator.generateLegalMoves(game, game.getCurrentTurn());
+        List<RootMove> rootMoves = new ArrayList<>();
+        for (Move move: orderMoves(moveGenerator.generateLegalMoves(game, game.getCurrentTurn()))) {
+            rootMoves.add(new RootMove(move));
+        }
 
-        for (Move move: moveList) {
-            game.playMove(move);
+        if (rootMoves.isEmpty()) {
+            return null;
+        }
+
+        // the tablebase gives a single root move, so in MultiPV mode the lines are searched, probing the tree instead
+        if (tablebase != null && multiPv == 1 && tablebase.covers(game)) {
+            Move tablebaseMove = probeRoot(listener);
+
+            if (tablebaseMove != null) {
+                return tablebaseMove;
+            }
+        }
+
+        Move bestMove = rootMoves.get(0).move;
+        int lineCount = Math.min(multiPv, rootMoves.size());
+        double[] previousScores = new double[lineCount];
+
+        for (int depth = 1; depth <= limits.getDepth(); depth++) {
+            rootDepth = depth;
+            List<SearchInfo> lines = new ArrayList<>();
 
-            double eval = negaMax(game, depth);
+            for (int line = 0; line < lineCount; line++) {
+                // a window around a mate or tablebase score would fail on nearly every change of its distance
+                boolean aspiration = options.isAspirationWindows() && depth >= options.getAspirationMinDepth() &&
+                        abs(previousScores[line]) < TABLEBASE_WIN_SCORE / 2;
+                double score = aspiration ? aspirationSearch(rootMoves, line, depth, previousScores[line], listener) :
+                        searchRoot(rootMoves, line, depth, -Double.MAX_VALUE, Double.MAX_VALUE);
 
-            System.out.println(move.formatMove() + " : " + eval);
+                // an interrupted iteration is only trusted if it finished searching the previous best move and found
+                // a move above alpha, since after a fail low every score is an upper bound that ranks no move
+                if (pvLength[0] == 0 || (aborted && rootFailedLow)) {
+                    break;
+                }
 
-            if (eval <= bestEvaluation) { // always black to play for know
-                bestEvaluation = eval;
-                bestMove = move;
+                if (line == 0) {
+                    bestMove = pvTable[0][0];
+                }
+
+                if (aborted) {
+                    break;
+                }
+
+                previousScores[line] = score;
+                lines.add(new SearchInfo(depth, score, principalVariation(), nodes,
+                        System.currentTimeMillis() - startTime, tablebaseHits, ScoreBound.EXACT, line + 1));
             }
 
-            game.undoMove(move);
+            if (lines.size() < lineCount) {
+                break;
+            }
+
+            sortRootMoves(rootMoves, lineCount);
+            lastLines = lines;
+            lastInfo = lines.get(0);
+
+            if (listener != null) {
+                for (SearchInfo info: lines) {
+                    listener.onIteration(info);
+                }
+            }
+
+            // with clock based time control, an iteration started after half the allocated time rarely completes
+            long elapsed = System.currentTimeMillis() - startTime;
+            if (limits.isClockLimited() && !pondering && elapsed > allocatedTime / 2) {
+                break;
+            }
         }
 
         return bestMove;
     }
 
-    private double negaMax(Game game, int depth) {
-        if (depth == 0) {
-            return evaluation.evaluatePosition(this.game);
+    /**
+     * Return the tablebase move of the root position, reporting it to the given listener as a single iteration, or
+     * null if the tablebase cannot be probed
+     */
+    private Move probeRoot(SearchListener listener) {
+        Move move = tablebase.probeRoot(game);
+        int wdl = move == null ? Tablebase.UNKNOWN : tablebase.probeWdl(game);
+
+        if (wdl == Tablebase.UNKNOWN) {
+            return null;
+        }
+
+        tablebaseHits++;
+        List<Move> principalVariation = new ArrayList<>();
+        principalVariation.add(move);
+        lastInfo = new SearchInfo(1, tablebaseScore(wdl, 0), principalVariation, nodes,
+                System.currentTimeMillis() - startTime, tablebaseHits);
+        lastLines = List.of(lastInfo);
+
+        if (listener != null) {
+            listener.onIteration(lastInfo);
+        }
+
+        return move;
+    }
+
+    /**
+     * Stop the running search as soon as possible. The search returns the best move found so far. May be called
+     * from any thread, and a stopped search stays stopped
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Tell a pondering search that the opponent played the expected move. The search continues on the same tree, with
+     * its time limits counting from now. May be called from any thread
+     */
+    public void ponderHit() {
+        if (!pondering) {
+            return;
+        }
+
+        startTime = System.currentTimeMillis();
+        hardDeadline = allocatedTime >= 0 ? startTime + allocatedTime : Long.MAX_VALUE;
+        pondering = false;
+    }
+
+    /**
+     * Search the given line in a window around its score in the previous iteration, widening the side the score falls
+     * outside of and searching again until it falls inside. Each fail is counted and reported to the given listener
+     *
+     * @return the score of the best root move of the line
+     */
+    private double aspirationSearch(List<RootMove> rootMoves, int line, int depth, double previousScore,
+                                    SearchListener listener) {
+        double lowWindow = options.getAspirationWindow();
+        double highWindow = options.getAspirationWindow();
+        double alpha = previousScore - lowWindow;
+        double beta = previousScore + highWindow;
+
+        while (true) {
+            double score = searchRoot(rootMoves, line, depth, alpha, beta);
+
+            if (aborted || (score > alpha && score < beta)) {
+                return score;
+            }
+
+            ScoreBound bound;
+
+            // the failing side is widened from the bound found, and opened once the window would be too wide
+            if (score >= beta) {
+                aspirationFailHighs++;
+                bound = ScoreBound.LOWER_BOUND;
+                highWindow *= options.getAspirationWidening();
+                beta = highWindow > options.getAspirationMaxWindow() ? Double.MAX_VALUE : score + highWindow;
+            } else {
+                aspirationFailLows++;
+                bound = ScoreBound.UPPER_BOUND;
+                lowWindow *= options.getAspirationWidening();
+                alpha = lowWindow > options.getAspirationMaxWindow() ? -Double.MAX_VALUE : score - lowWindow;
+            }
+
+            if (listener != null) {
+                listener.onAspirationFail(new SearchInfo(depth, score, principalVariation(), nodes,
+                        System.currentTimeMillis() - startTime, tablebaseHits, bound, line + 1));
+            }
+        }
+    }
+
+    /**
+     * Search the root moves from the given line's index on, those of earlier lines being already chosen, to the given
+     * depth within the given window, stopping at the first move that scores at least beta. The best one is moved to
+     * the line's index so that it is searched first next, unless every move failed low, as their upper bounds do not
+     * tell which is best. Each searched root move records its score and the nodes its subtree took
+     *
+     * @return the score of the best root move, an upper bound if at most alpha and a lower bound if at least beta
+     */
+    private double searchRoot(List<RootMove> rootMoves, int line, int depth, double alpha, double beta) {
+        double bestScore = -Double.MAX_VALUE;
+        int bestIndex = -1;
+        pvLength[0] = 0;
+
+        for (int i = line; i < rootMoves.size(); i++) {
+            RootMove rootMove = rootMoves.get(i);
+            long startNodes = nodes;
+
+            game.makeMove(rootMove.move);
+            double score = -alphaBeta(depth - 1, 1, -beta, -Math.max(alpha, bestScore), true);
+            game.undoMove(rootMove.move);
+
+            if (aborted) {
+                break;
+            }
+
+            rootMove.nodes = nodes - startNodes;
+            rootMove.score = score;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = i;
+                updatePrincipalVariation(0, rootMove.move);
+
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+
+        rootFailedLow = bestScore <= alpha;
+
+        if (bestIndex > line && !rootFailedLow) {
+            rootMoves.add(line, rootMoves.remove(bestIndex));
+        }
+
+        return bestScore;
+    }
+
+    /**
+     * Order the root moves after those of the given number of lines, which stay in front in their order, by the nodes
+     * their subtrees took in the last iteration and then by their scores, as moves that are harder to refute are more
+     * likely to become best
+     */
+    private static void sortRootMoves(List<RootMove> rootMoves, int lineCount) {
+        rootMoves.subList(lineCount, rootMoves.size()).sort(
+                Comparator.comparingLong((RootMove rootMove) -> rootMove.nodes)
+                        .thenComparingDouble(rootMove -> rootMove.score).reversed());
+    }
+
+    /**
+     * Return the score of the current position from the perspective of the player whose turn it is, searching depth
+     * plies before dropping into quiescence search
+     *
+     * @param ply number of plies from the root, used to prefer shorter mates
+     * @param allowNullMove false directly after a null move, so that two null moves are never played in a row
+     */
+    private double alphaBeta(int depth, int ply, double alpha, double beta, boolean allowNullMove) {
+        pvLength[ply] = ply;
+
+        if (depth <= 0 || ply >= SearchLimits.MAX_DEPTH) {
+            return quiescence(alpha, beta);
+        }
+
+        if (checkLimits()) {
+            return 0;
+        }
+
+        nodes++;
+
+        // a position that repeats one before it, here or in the game, or that the fifty move rule has drawn is a draw
+        if (game.getHalfmoveClock() >= Game.FIFTY_MOVE_PLIES || game.countRepetitions() > 0) {
+            return 0;
+        }
+
+        long hash = keys.calculateHash(game);
+        int hashMove = TranspositionTable.NO_MOVE;
+        int entry = transpositionTable.probe(hash);
+
+        if (entry >= 0) {
+            hashMove = transpositionTable.getMoveCode(entry);
+
+            if (transpositionTable.getDepth(entry) >= depth) {
+                double storedScore = transpositionTable.getScore(entry, ply);
+                int boundType = transpositionTable.getBoundType(entry);
+
+                if (boundType == TranspositionTable.EXACT ||
+                        (boundType == TranspositionTable.LOWER_BOUND && storedScore >= beta) ||
+                        (boundType == TranspositionTable.UPPER_BOUND && storedScore <= alpha)) {
+                    return storedScore;
+                }
+            }
+        }
+
+        // a tablebase win, draw or loss ends the search, unless it is a bound that does not cut, which then bounds the
+        // searched score. The halfmove clock must be 0 for the 50 move rule to count the same as in the tablebase
+        double tablebaseFloor = -Double.MAX_VALUE;
+        double tablebaseCeiling = Double.MAX_VALUE;
+
+        if (tablebase != null && game.getHalfmoveClock() == 0 && tablebase.covers(game)) {
+            int wdl = tablebase.probeWdl(game);
+
+            if (wdl != Tablebase.UNKNOWN) {
+                tablebaseHits++;
+                double score = tablebaseScore(wdl, ply);
+                int boundType = wdl > Tablebase.CURSED_WIN ? TranspositionTable.LOWER_BOUND :
+                        wdl < Tablebase.BLESSED_LOSS ? TranspositionTable.UPPER_BOUND : TranspositionTable.EXACT;
+
+                if (boundType == TranspositionTable.EXACT ||
+                        (boundType == TranspositionTable.LOWER_BOUND ? score >= beta : score <= alpha)) {
+                    transpositionTable.store(hash, depth, ply, score, boundType, TranspositionTable.NO_MOVE);
+                    return score;
+                }
+
+                if (boundType == TranspositionTable.LOWER_BOUND) {
+                    tablebaseFloor = score;
+                } else {
+                    tablebaseCeiling = score;
+                }
+            }
         }
 
-        double max = Double.NEGATIVE_INFINITY;
-        double score;
+        double originalAlpha = alpha;
+        boolean inCheck = game.isInCheck();
+        // margins are only meaningful against a bound that is neither infinite nor a mate score
+        boolean alphaBounded = !inCheck && abs(alpha) < MATE_SCORE / 2;
+        boolean betaBounded = !inCheck && abs(beta) < MATE_SCORE / 2;
+        double staticEval = alphaBounded || betaBounded ? evaluation.evaluate(game) : 0;
+
+        // razoring: far below alpha close to the leaves, verify with quiescence search only
+        if (alphaBounded && options.isRazoring() && depth <= options.getRazoringDepth() &&
+                staticEval + options.getRazoringMargin() * depth <= alpha) {
+            double score = quiescence(alpha, beta);
+            if (score <= alpha) {
+                return score;
+            }
+        }
+
+        // null move pruning: if passing still fails high the position is good enough to cut. Skipped when the side
+        // to move has only pawns left, where zugzwang makes passing better than any real move
+        if (betaBounded && allowNullMove && options.isNullMovePruning() && depth > options.getNullMoveReduction() &&
+                staticEval >= beta && hasNonPawnMaterial(game.getCurrentTurn().isWhite())) {
+            // passing is irreversible, so that no repetition is found across it
+            int halfmoveClock = game.getHalfmoveClock();
+            game.setHalfmoveClock(0);
+            game.nextTurn();
+            double score = -alphaBeta(depth - 1 - options.getNullMoveReduction(), ply + 1, -beta, -beta + NULL_WINDOW,
+                    false);
+            game.nextTurn();
+            game.setHalfmoveClock(halfmoveClock);
+
+            if (aborted) {
+                return 0;
+            }
+
+            if (score >= beta) {
+                return beta;
+            }
+        }
+
+        pvLength[ply] = ply;
+        List<Move> moveList = orderMoves(moveGenerator.generateLegalMoves(game, game.getCurrentTurn()), hashMove);
+
+        if (moveList.isEmpty()) {
+            return inCheck ? -MATE_SCORE + ply : 0;
+        }
+
+        boolean futile = alphaBounded && options.isFutilityPruning() && depth <= options.getFutilityDepth() &&
+                staticEval + options.getFutilityMargin() * depth <= alpha;
+
+        double max = -Double.MAX_VALUE;
+        int bestMove = TranspositionTable.NO_MOVE;
+        int moveIndex = 0;
+
+        for (Move move: moveList) {
+            boolean quiet = isQuiet(move);
+
+            game.makeMove(move);
+            boolean givesCheck = game.isInCheck();
 
-        for (Move move: moveGenerator.generateLegalMoves(game, game.getCurrentTurn())) {
-            game.playMove(move);
+            // futility pruning: a quiet move cannot raise a static evaluation this far below alpha
+            if (futile && quiet && !givesCheck && moveIndex > 0) {
+                game.undoMove(move);
+                moveIndex++;
+                continue;
+            }
 
-            score = negaMax(game, depth - 1) * -1;
+            double score;
+            int newDepth = depth - 1 + checkExtension(givesCheck, ply, move);
+            int reduction = lateMoveReduction(depth, moveIndex, quiet && !inCheck && !givesCheck, move);
 
-            //System.out.println(move.formatMove() + " : " + score);
+            if (reduction > 0) {
+                score = -alphaBeta(newDepth - reduction, ply + 1, -beta, -alpha, true);
+
+                // a reduced move that beats alpha is searched again at full depth
+                if (score > alpha && !aborted) {
+                    score = -alphaBeta(newDepth, ply + 1, -beta, -alpha, true);
+                }
+            } else {
+                score = -alphaBeta(newDepth, ply + 1, -beta, -alpha, true);
+            }
+
+            game.undoMove(move);
+            moveIndex++;
+
+            if (aborted) {
+                return 0;
+            }
 
             if (score > max) {
                 max = score;
+                bestMove = moveCode(move);
             }
 
-            game.undoMove(move);
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(ply, move);
+            }
+
+            if (alpha >= beta) {
+                if (quiet) {
+                    history[startIndex(move)][endIndex(move)] += depth * depth;
+                }
+                break;
+            }
         }
 
+        int boundType = max >= beta ? TranspositionTable.LOWER_BOUND :
+                max > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+
+        if (max < tablebaseFloor) {
+            max = tablebaseFloor;
+            boundType = TranspositionTable.LOWER_BOUND;
+        } else if (max > tablebaseCeiling) {
+            max = tablebaseCeiling;
+            boundType = TranspositionTable.UPPER_BOUND;
+        }
+
+        transpositionTable.store(hash, depth, ply, max, boundType, bestMove);
+
         return max;
     }
+
+    /**
+     * Return the score of the current position once all captures and promotions have been played out, from the
+     * perspective of the player whose turn it is
+     */
+    private double quiescence(double alpha, double beta) {
+        if (checkLimits()) {
+            return 0;
+        }
+
+        nodes++;
+
+        double standPat = evaluation.evaluate(game);
+
+        if (standPat >= beta) {
+            return standPat;
+        }
+
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        for (Move move: orderCaptures(moveGenerator.generateLegalMoves(game, game.getCurrentTurn()))) {
+            game.makeMove(move);
+            double score = -quiescence(-beta, -alpha);
+            game.undoMove(move);
+
+            if (aborted) {
+                return 0;
+            }
+
+            if (score >= beta) {
+                return score;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+
+        return alpha;
+    }
+
+    /**
+     * Return the score of a tablebase WDL value at the given ply: wins and losses just below the tablebase win score,
+     * and cursed wins and blessed losses a centipawn either side of a draw
+     */
+    private static double tablebaseScore(int wdl, int ply) {
+        if (wdl >= Tablebase.WIN) {
+            return TABLEBASE_WIN_SCORE - ply;
+        } else if (wdl <= Tablebase.LOSS) {
+            return -TABLEBASE_WIN_SCORE + ply;
+        }
+
+        return wdl * 0.01;
+    }
+
+    /**
+     * Return true, and mark the search as aborted, if it has been stopped or has run out of time or nodes
+     */
+    private boolean checkLimits() {
+        if (!aborted && (stopped || nodes >= nodeLimit ||
+                (hardDeadline != Long.MAX_VALUE && System.currentTimeMillis() >= hardDeadline))) {
+            aborted = true;
+        }
+
+        return aborted;
+    }
+
+    /**
+     * Make the given move followed by the principal variation of the next ply the principal variation at ply
+     */
+    private void updatePrincipalVariation(int ply, Move move) {
+        pvTable[ply][ply] = move;
+
+        int length = Math.max(pvLength[ply + 1], ply + 1);
+        for (int nextPly = ply + 1; nextPly < length; nextPly++) {
+            pvTable[ply][nextPly] = pvTable[ply + 1][nextPly];
+        }
+
+        pvLength[ply] = length;
+    }
+
+    /**
+     * Return the principal variation found from the root position
+     */
+    private List<Move> principalVariation() {
+        List<Move> principalVariation = new ArrayList<>();
+
+        for (int ply = 0; ply < pvLength[0]; ply++) {
+            principalVariation.add(pvTable[0][ply]);
+        }
+
+        return principalVariation;
+    }
+
+    /**
+     * Return the number of plies to reduce the given late move by, or 0 if it should be searched at full depth. Moves
+     * that have never caused a cutoff are reduced by an extra ply once they are well down the move list
+     */
+    private int lateMoveReduction(int depth, int moveIndex, boolean reducible, Move move) {
+        if (!options.isLateMoveReductions() || !reducible || depth < options.getLateMoveMinDepth() ||
+                moveIndex < options.getLateMoveFullDepthMoves()) {
+            return 0;
+        }
+
+        int reduction = 1;
+        if (moveIndex >= 2 * options.getLateMoveFullDepthMoves() && history[startIndex(move)][endIndex(move)] == 0) {
+            reduction++;
+        }
+
+        return Math.min(reduction, depth - 1);
+    }
+
+    /**
+     * Return 1 if the given move, just made at the given ply, gives a check that is to be searched a ply deeper: one
+     * that does not lose material, within twice the depth of the current iteration. Otherwise return 0
+     */
+    private int checkExtension(boolean givesCheck, int ply, Move move) {
+        if (!givesCheck || !options.isCheckExtensions() || ply >= 2 * rootDepth) {
+            return 0;
+        }
+
+        return staticExchange.evaluateMade(game.getBoard(), move) >= 0 ? 1 : 0;
+    }
+
+    /**
+     * Return the given moves ordered with queen promotions first, then captures and other promotions that do not lose
+     * material (most valuable victim, least valuable attacker), then quiet moves ordered by their cutoff history and
+     * last the captures that lose material
+     */
+    private List<Move> orderMoves(List<Move> moves) {
+        return orderMoves(moves, TranspositionTable.NO_MOVE);
+    }
+
+    /**
+     * Return the given moves ordered as in orderMoves(moves), except that the move with the given hash move code is
+     * searched first
+     */
+    private List<Move> orderMoves(List<Move> moves, int hashMove) {
+        List<Move> orderedMoves = new ArrayList<>(moves);
+        int[] scores = new int[orderedMoves.size()];
+
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = moveOrderScore(orderedMoves.get(i), hashMove);
+        }
+
+        sortMoves(orderedMoves, scores);
+        return orderedMoves;
+    }
+
+    /**
+     * Return the captures and promotions among the given moves, ordered as in orderMoves(moves). Those that lose
+     * material are left out if losing captures are pruned
+     */
+    private List<Move> orderCaptures(List<Move> moves) {
+        List<Move> captures = new ArrayList<>();
+        int[] scores = new int[moves.size()];
+
+        for (Move move: moves) {
+            if (isQuiet(move)) {
+                continue;
+            }
+
+            int exchange = staticExchange.evaluate(game.getBoard(), move);
+            if (exchange < 0 && options.isSeePruning()) {
+                continue;
+            }
+
+            scores[captures.size()] = move.isQueenPromotionMove() ? 2000000 : captureOrderScore(move, exchange);
+            captures.add(move);
+        }
+
+        sortMoves(captures, scores);
+        return captures;
+    }
+
+    private int moveOrderScore(Move move, int hashMove) {
+        if (hashMove != TranspositionTable.NO_MOVE && moveCode(move) == hashMove) {
+            return 3000000;
+        }
+
+        if (move.isQueenPromotionMove()) {
+            return 2000000;
+        }
+
+        if (!isQuiet(move)) {
+            return captureOrderScore(move, staticExchange.evaluate(game.getBoard(), move));
+        }
+
+        return history[startIndex(move)][endIndex(move)];
+    }
+
+    /**
+     * Return the order score of a capture or promotion with the given static exchange evaluation: above every quiet
+     * move if it does not lose material, below every quiet move if it does
+     */
+    private int captureOrderScore(Move move, int exchange) {
+        int score = 10 * abs(move.getCapturedPiece()) - abs(move.getMovedPiece());
+
+        return exchange >= 0 ? 1000000 + score : -1000000 + score;
+    }
+
+    /**
+     * Sort the given moves by their given scores, highest first, keeping moves of equal score in the given order
+     */
+    private static void sortMoves(List<Move> moves, int[] scores) {
+        for (int i = 1; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            int score = scores[i];
+            int j = i - 1;
+
+            while (j >= 0 && scores[j] < score) {
+                moves.set(j + 1, moves.get(j));
+                scores[j + 1] = scores[j];
+                j--;
+            }
+
+            moves.set(j + 1, move);
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Return true if the given move is neither a capture nor a promotion
+     */
+    private boolean isQuiet(Move move) {
+        return move.getCapturedPiece() == Piece.empty && !move.isPromotionMove();
+    }
+
+    /**
+     * Return true if the given player has at least one knight, bishop, rook or queen
+     */
+    private boolean hasNonPawnMaterial(boolean white) {
+        for (int piece: game.getBoard().getBoard()) {
+            if ((piece > 0) == white && abs(piece) > Piece.wPawn && abs(piece) < Piece.wKing) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return a compact code for the given move as stored in the transposition table: start square (bits 0-5), end
+     * square (bits 6-11) and promotion piece (bits 12-14)
+     */
+    private int moveCode(Move move) {
+        int promotion = 0;
+
+        if (move.isQueenPromotionMove()) {
+            promotion = Piece.wQueen;
+        } else if (move.isRookPromotionMove()) {
+            promotion = Piece.wRook;
+        } else if (move.isBishopPromotionMove()) {
+            promotion = Piece.wBishop;
+        } else if (move.isKnightPromotionMove()) {
+            promotion = Piece.wKnight;
+        }
+
+        return startIndex(move) | endIndex(move) << 6 | promotion << 12;
+    }
+
+    private int startIndex(Move move) {
+        return Board.getSquareIndex(move.getStartX(), move.getStartY());
+    }
+
+    private int endIndex(Move move) {
+        return Board.getSquareIndex(move.getEndX(), move.getEndY());
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public SearchOptions getOptions() {
+        return options;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTablebaseHits() {
+        return tablebaseHits;
+    }
+
+    /**
+     * Return the wall clock time the last search took in nanoseconds, from the start of the search until it returned
+     */
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    public int getAspirationFailHighs() {
+        return aspirationFailHighs;
+    }
+
+    public int getAspirationFailLows() {
+        return aspirationFailLows;
+    }
+
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Probe the given tablebase, or none if null, in searches started from now on
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Evaluate positions with the given evaluator, unless a network is set, in searches started from now on
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    public NnueNetwork getNetwork() {
+        return network;
+    }
+
+    /**
+     * Evaluate positions with the given network, or with the weighted evaluation terms if null, in searches started
+     * from now on
+     */
+    public void setNetwork(NnueNetwork network) {
+        this.network = network;
+    }
+
+    public int getMultiPv() {
+        return multiPv;
+    }
+
+    /**
+     * Search the given number of best lines in searches started from now on, 1 being a normal search
+     *
+     * @throws IllegalArgumentException if the number is not between 1 and MAX_MULTI_PV
+     */
+    public void setMultiPv(int multiPv) {
+        if (multiPv < 1 || multiPv > MAX_MULTI_PV) {
+            throw new IllegalArgumentException("MultiPV must be between 1 and " + MAX_MULTI_PV + ": " + multiPv);
+        }
+
+        this.multiPv = multiPv;
+    }
+
+    public boolean isPondering() {
+        return pondering;
+    }
+
+    /**
+     * Return the progress report of the last completed iteration, or null if no iteration has completed
+     */
+    public SearchInfo getLastInfo() {
+        return lastInfo;
+    }
+
+    /**
+     * Return the progress reports of every line of the last completed iteration, best first, or an empty list if no
+     * iteration has completed
+     */
+    public List<SearchInfo> getLastLines() {
+        return lastLines;
+    }
+
+    // Represents a legal move of the root position with what its subtree took in the last search of it
+    private static class RootMove {
+        private final Move move;
+        private long nodes;
+        private double score;
+
+        private RootMove(Move move) {
+            this.move = move;
+        }
+    }
 }
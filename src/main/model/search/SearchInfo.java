@@ -0,0 +1,108 @@
+package model.search;
+
+import enumerations.ScoreBound;
+import model.Move;
+
+import java.util.List;
+
+// Represents a snapshot of search progress, reported once every iteration of iterative deepening has completed. The
+// score is exact, except in the reports of an aspiration window the score failed high (a lower bound) or low (an upper
+// bound). In MultiPV mode an iteration is reported once per line, numbered from 1 for the best
+public class SearchInfo {
+    private final int depth;
+    private final double score;
+    private final List<Move> principalVariation;
+    private final long nodes;
+    private final long timeMillis;
+    private final long tablebaseHits;
+    private final ScoreBound bound;
+    private final int multiPv;
+
+    public SearchInfo(int depth, double score, List<Move> principalVariation, long nodes, long timeMillis) {
+        this(depth, score, principalVariation, nodes, timeMillis, 0);
+    }
+
+    public SearchInfo(int depth, double score, List<Move> principalVariation, long nodes, long timeMillis,
+                      long tablebaseHits) {
+        this(depth, score, principalVariation, nodes, timeMillis, tablebaseHits, ScoreBound.EXACT, 1);
+    }
+
+    public SearchInfo(int depth, double score, List<Move> principalVariation, long nodes, long timeMillis,
+                      long tablebaseHits, ScoreBound bound, int multiPv) {
+        this.depth = depth;
+        this.score = score;
+        this.principalVariation = principalVariation;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.tablebaseHits = tablebaseHits;
+        this.bound = bound;
+        this.multiPv = multiPv;
+    }
+
+    /**
+     * Return true if the score is a forced mate for either player
+     */
+    public boolean isMateScore() {
+        return Math.abs(score) > Search.MATE_SCORE / 2;
+    }
+
+    /**
+     * Return the number of moves (not plies) until mate, negative if the player to move is getting mated
+     *
+     * REQUIRE : isMateScore()
+     */
+    public int getMateIn() {
+        int plies = (int) (Search.MATE_SCORE - Math.abs(score));
+        int moves = (plies + 1) / 2;
+        return score > 0 ? moves : -moves;
+    }
+
+    /**
+     * Return the score in centipawns from the perspective of the player to move
+     */
+    public int getCentipawns() {
+        return (int) Math.round(score * 100);
+    }
+
+    /**
+     * Return the searched nodes per second
+     */
+    public long getNodesPerSecond() {
+        return timeMillis > 0 ? nodes * 1000 / timeMillis : nodes * 1000;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getTablebaseHits() {
+        return tablebaseHits;
+    }
+
+    public ScoreBound getBound() {
+        return bound;
+    }
+
+    public int getMultiPv() {
+        return multiPv;
+    }
+}
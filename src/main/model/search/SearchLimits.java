@@ -0,0 +1,182 @@
+package model.search;
+
+// Represents the limits a search runs under: a maximum depth, a fixed time per move, a node budget, the players'
+// clocks, or no limit at all (an infinite search that only ends when it is stopped). A ponder search runs without time
+// limits on the opponent's time until the opponent plays the expected move. A deterministic search ignores every time
+// limit and does the same work each time it is run on the same position, e.g. a fixed depth or an exact number of nodes
+public class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final long CLOCK_SAFETY_MARGIN = 50; // ms kept in reserve for communication overhead
+
+    private int depth = MAX_DEPTH;
+    private long moveTime = -1;
+    private long nodes = -1;
+    private long whiteTime = -1;
+    private long blackTime = -1;
+    private long whiteIncrement = 0;
+    private long blackIncrement = 0;
+    private int movesToGo = 0;
+    private boolean infinite = false;
+    private boolean ponder = false;
+    private boolean deterministic = false;
+
+    /**
+     * Return limits that stop the search once it has completed the given depth
+     */
+    public static SearchLimits depth(int depth) {
+        SearchLimits limits = new SearchLimits();
+        limits.setDepth(depth);
+        return limits;
+    }
+
+    /**
+     * Return deterministic limits that stop the search once it has completed the given depth
+     */
+    public static SearchLimits fixedDepth(int depth) {
+        SearchLimits limits = depth(depth);
+        limits.setDeterministic(true);
+        return limits;
+    }
+
+    /**
+     * Return deterministic limits that stop the search after exactly the given number of nodes, or once it has reached
+     * the maximum depth
+     */
+    public static SearchLimits fixedNodes(long nodes) {
+        SearchLimits limits = new SearchLimits();
+        limits.setNodes(nodes);
+        limits.setDeterministic(true);
+        return limits;
+    }
+
+    /**
+     * Return the number of milliseconds the player with the given colour should spend on this move, or -1 if the
+     * search is not limited by time
+     */
+    public long allocateTime(boolean white) {
+        if (infinite || deterministic) {
+            return -1;
+        }
+
+        if (moveTime >= 0) {
+            return moveTime;
+        }
+
+        long time = white ? whiteTime : blackTime;
+        long increment = white ? whiteIncrement : blackIncrement;
+
+        if (time < 0) {
+            return -1;
+        }
+
+        int moves = movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO;
+        long allocated = time / moves + increment / 2;
+
+        return Math.max(1, Math.min(allocated, time - CLOCK_SAFETY_MARGIN));
+    }
+
+    /**
+     * Return true if the time for this move comes from the players' clocks rather than a fixed move time, in which
+     * case the search may stop early between iterations
+     */
+    public boolean isClockLimited() {
+        return !infinite && !deterministic && moveTime < 0 && (whiteTime >= 0 || blackTime >= 0);
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = Math.max(1, Math.min(depth, MAX_DEPTH));
+    }
+
+    public long getMoveTime() {
+        return moveTime;
+    }
+
+    public void setMoveTime(long moveTime) {
+        this.moveTime = moveTime;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public long getWhiteTime() {
+        return whiteTime;
+    }
+
+    public void setWhiteTime(long whiteTime) {
+        this.whiteTime = whiteTime;
+    }
+
+    public long getBlackTime() {
+        return blackTime;
+    }
+
+    public void setBlackTime(long blackTime) {
+        this.blackTime = blackTime;
+    }
+
+    public long getWhiteIncrement() {
+        return whiteIncrement;
+    }
+
+    public void setWhiteIncrement(long whiteIncrement) {
+        this.whiteIncrement = whiteIncrement;
+    }
+
+    public long getBlackIncrement() {
+        return blackIncrement;
+    }
+
+    public void setBlackIncrement(long blackIncrement) {
+        this.blackIncrement = blackIncrement;
+    }
+
+    public int getMovesToGo() {
+        return movesToGo;
+    }
+
+    public void setMovesToGo(int movesToGo) {
+        this.movesToGo = movesToGo;
+    }
+
+    public boolean isInfinite() {
+        return infinite;
+    }
+
+    public void setInfinite(boolean infinite) {
+        this.infinite = infinite;
+    }
+
+    public boolean isPonder() {
+        return ponder;
+    }
+
+    public void setPonder(boolean ponder) {
+        this.ponder = ponder;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * Make the search ignore its time limits, search with fixed Zobrist keys and start from an empty transposition
+     * table, so that it does the same work each time it is run
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+}
@@ -0,0 +1,17 @@
+package model.search;
+
+// Receives progress reports from a running search
+public interface SearchListener {
+
+    /**
+     * Called on the searching thread each time an iteration of iterative deepening completes
+     */
+    void onIteration(SearchInfo info);
+
+    /**
+     * Called on the searching thread each time the score of an iteration falls outside its aspiration window, with the
+     * bound found, before the iteration is searched again with a wider window
+     */
+    default void onAspirationFail(SearchInfo info) {
+    }
+}
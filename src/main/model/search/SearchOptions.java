@@ -0,0 +1,204 @@
+package model.search;
+
+// Represents the tunable selectivity settings of a search. Every pruning, reduction and extension technique can be
+// switched off on its own so that its effect on nodes-to-depth and playing strength can be measured against the plain
+// alpha-beta baseline
+public class SearchOptions {
+    private boolean nullMovePruning = true;
+    private int nullMoveReduction = 2;
+
+    private boolean lateMoveReductions = true;
+    private int lateMoveMinDepth = 3;
+    private int lateMoveFullDepthMoves = 3;
+
+    private boolean futilityPruning = true;
+    private int futilityDepth = 2;
+    private double futilityMargin = 1.5; // in pawns, per remaining ply
+
+    private boolean razoring = true;
+    private int razoringDepth = 2;
+    private double razoringMargin = 3.0; // in pawns, per remaining ply
+
+    private boolean seePruning = true; // of captures that lose material in quiescence search
+    private boolean checkExtensions = true; // of checks that do not lose material
+
+    // a root search window around the previous iteration's score, widened on the failing side by aspirationWidening
+    // times each time the score falls outside it, and opened on that side once wider than aspirationMaxWindow
+    private boolean aspirationWindows = true;
+    private int aspirationMinDepth = 4;
+    private double aspirationWindow = 0.5; // in pawns, either side of the previous score
+    private double aspirationWidening = 2.0;
+    private double aspirationMaxWindow = 4.0; // in pawns
+
+    /**
+     * Return search options with every pruning, reduction and extension technique switched off, e.g. plain alpha-beta
+     * with quiescence search
+     */
+    public static SearchOptions baseline() {
+        SearchOptions options = new SearchOptions();
+        options.setNullMovePruning(false);
+        options.setLateMoveReductions(false);
+        options.setFutilityPruning(false);
+        options.setRazoring(false);
+        options.setSeePruning(false);
+        options.setCheckExtensions(false);
+        options.setAspirationWindows(false);
+        return options;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public boolean isNullMovePruning() {
+        return nullMovePruning;
+    }
+
+    public void setNullMovePruning(boolean nullMovePruning) {
+        this.nullMovePruning = nullMovePruning;
+    }
+
+    public int getNullMoveReduction() {
+        return nullMoveReduction;
+    }
+
+    public void setNullMoveReduction(int nullMoveReduction) {
+        this.nullMoveReduction = nullMoveReduction;
+    }
+
+    public boolean isLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public void setLateMoveReductions(boolean lateMoveReductions) {
+        this.lateMoveReductions = lateMoveReductions;
+    }
+
+    public int getLateMoveMinDepth() {
+        return lateMoveMinDepth;
+    }
+
+    public void setLateMoveMinDepth(int lateMoveMinDepth) {
+        this.lateMoveMinDepth = lateMoveMinDepth;
+    }
+
+    public int getLateMoveFullDepthMoves() {
+        return lateMoveFullDepthMoves;
+    }
+
+    public void setLateMoveFullDepthMoves(int lateMoveFullDepthMoves) {
+        this.lateMoveFullDepthMoves = lateMoveFullDepthMoves;
+    }
+
+    public boolean isFutilityPruning() {
+        return futilityPruning;
+    }
+
+    public void setFutilityPruning(boolean futilityPruning) {
+        this.futilityPruning = futilityPruning;
+    }
+
+    public int getFutilityDepth() {
+        return futilityDepth;
+    }
+
+    public void setFutilityDepth(int futilityDepth) {
+        this.futilityDepth = futilityDepth;
+    }
+
+    public double getFutilityMargin() {
+        return futilityMargin;
+    }
+
+    public void setFutilityMargin(double futilityMargin) {
+        this.futilityMargin = futilityMargin;
+    }
+
+    public boolean isRazoring() {
+        return razoring;
+    }
+
+    public void setRazoring(boolean razoring) {
+        this.razoring = razoring;
+    }
+
+    public int getRazoringDepth() {
+        return razoringDepth;
+    }
+
+    public void setRazoringDepth(int razoringDepth) {
+        this.razoringDepth = razoringDepth;
+    }
+
+    public double getRazoringMargin() {
+        return razoringMargin;
+    }
+
+    public void setRazoringMargin(double razoringMargin) {
+        this.razoringMargin = razoringMargin;
+    }
+
+    public boolean isSeePruning() {
+        return seePruning;
+    }
+
+    public void setSeePruning(boolean seePruning) {
+        this.seePruning = seePruning;
+    }
+
+    public boolean isCheckExtensions() {
+        return checkExtensions;
+    }
+
+    public void setCheckExtensions(boolean checkExtensions) {
+        this.checkExtensions = checkExtensions;
+    }
+
+    public boolean isAspirationWindows() {
+        return aspirationWindows;
+    }
+
+    public void setAspirationWindows(boolean aspirationWindows) {
+        this.aspirationWindows = aspirationWindows;
+    }
+
+    public int getAspirationMinDepth() {
+        return aspirationMinDepth;
+    }
+
+    public void setAspirationMinDepth(int aspirationMinDepth) {
+        this.aspirationMinDepth = aspirationMinDepth;
+    }
+
+    public double getAspirationWindow() {
+        return aspirationWindow;
+    }
+
+    public void setAspirationWindow(double aspirationWindow) {
+        this.aspirationWindow = aspirationWindow;
+    }
+
+    public double getAspirationWidening() {
+        return aspirationWidening;
+    }
+
+    /**
+     * Set the factor a failing side of the aspiration window is widened by
+     *
+     * @throws IllegalArgumentException if it is not greater than 1, which would never open the window
+     */
+    public void setAspirationWidening(double aspirationWidening) {
+        if (!(aspirationWidening > 1)) {
+            throw new IllegalArgumentException("aspiration widening must be greater than 1: " + aspirationWidening);
+        }
+
+        this.aspirationWidening = aspirationWidening;
+    }
+
+    public double getAspirationMaxWindow() {
+        return aspirationMaxWindow;
+    }
+
+    public void setAspirationMaxWindow(double aspirationMaxWindow) {
+        this.aspirationMaxWindow = aspirationMaxWindow;
+    }
+}
@@ -0,0 +1,58 @@
+package model.search;
+
+import model.Move;
+
+import java.util.List;
+
+// Represents the outcome of a search submitted to a SearchService. The best move can be played on the submitted game
+// (it is null if that game has no legal moves), while the progress report and its principal variation belong to the
+// searched copy of the game and are only meant for display. A MultiPV search also reports each of its lines
+public class SearchResult {
+    private final Move bestMove;
+    private final SearchInfo info;
+    private final List<SearchInfo> lines;
+
+    public SearchResult(Move bestMove, SearchInfo info) {
+        this(bestMove, info, info == null ? List.of() : List.of(info));
+    }
+
+    public SearchResult(Move bestMove, SearchInfo info, List<SearchInfo> lines) {
+        this.bestMove = bestMove;
+        this.info = info;
+        this.lines = lines;
+    }
+
+    /**
+     * Return the move the search expects the opponent to reply with, formatted in UCI notation, or null if the
+     * principal variation is shorter than two moves
+     */
+    public String getPonderMove() {
+        if (info == null || info.getPrincipalVariation().size() < 2) {
+            return null;
+        }
+
+        return info.getPrincipalVariation().get(1).formatUciMove();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public Move getBestMove() {
+        return bestMove;
+    }
+
+    public SearchInfo getInfo() {
+        return info;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return info == null ? List.of() : info.getPrincipalVariation();
+    }
+
+    /**
+     * Return the progress reports of every line of the last completed iteration, best first
+     */
+    public List<SearchInfo> getLines() {
+        return lines;
+    }
+}
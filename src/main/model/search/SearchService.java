@@ -0,0 +1,241 @@
+package model.search;
+
+import model.Game;
+import model.Move;
+import model.Zobrist;
+import model.nnue.NnueNetwork;
+import model.tablebase.Tablebase;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Represents an engine that searches positions asynchronously on a single background thread. Each submitted search
+// returns a future for its result, streams progress to a listener and can be stopped at any time. The transposition
+// table is kept between searches, so that consecutive searches of the same game reuse earlier work
+public class SearchService {
+    public static final int DEFAULT_HASH_SIZE = 16; // in megabytes
+
+    private final Zobrist zobrist;
+    private final TranspositionTable transpositionTable;
+    private SearchOptions options;
+    private Tablebase tablebase;
+    private NnueNetwork network;
+    private int multiPv;
+    private ExecutorService executor;
+
+    // the running search, if any
+    private Search search;
+    private SearchLimits limits;
+    private CompletableFuture<SearchResult> result;
+    private CountDownLatch releaseSignal;
+
+    public SearchService() {
+        this(DEFAULT_HASH_SIZE);
+    }
+
+    /**
+     * Construct a new search service with a transposition table of the given number of megabytes. No thread is
+     * started until the first search is submitted
+     */
+    public SearchService(int hashSize) {
+        this.zobrist = new Zobrist();
+        this.transpositionTable = new TranspositionTable(hashSize);
+        this.options = new SearchOptions();
+        this.multiPv = 1;
+    }
+
+    /**
+     * Start searching a copy of the given game under the given limits, stopping any search that is still running.
+     * The given game must not change until the returned future completes. An infinite or pondering search only
+     * completes once stop() is called, or for a pondering search once ponderHit() is called and its limits are reached
+     *
+     * @param listener told about each completed iteration on the search thread, may be null
+     * @return a future for the result, whose best move can be played on the given game
+     */
+    public synchronized CompletableFuture<SearchResult> submit(Game game, SearchLimits limits,
+                                                               SearchListener listener) {
+        stopAndWait();
+
+        Search newSearch = new Search(options, transpositionTable, zobrist);
+        newSearch.setTablebase(tablebase);
+        newSearch.setNetwork(network);
+        newSearch.setMultiPv(multiPv);
+        CountDownLatch newReleaseSignal = new CountDownLatch(1);
+        Game searchedGame = game.copy();
+
+        this.search = newSearch;
+        this.limits = limits;
+        this.releaseSignal = newReleaseSignal;
+        this.result = CompletableFuture.supplyAsync(() -> {
+            Move bestMove = newSearch.search(searchedGame, limits, listener);
+
+            // the protocol forbids reporting a best move before an infinite or ponder search is released
+            if (limits.isInfinite() || newSearch.isPondering()) {
+                try {
+                    newReleaseSignal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return new SearchResult(findMove(game, bestMove), newSearch.getLastInfo(), newSearch.getLastLines());
+        }, getExecutor());
+
+        return result;
+    }
+
+    /**
+     * Stop the running search, if any. Its future completes with the best move found so far
+     */
+    public synchronized void stop() {
+        if (search != null) {
+            search.stop();
+            releaseSignal.countDown();
+        }
+    }
+
+    /**
+     * Tell the running pondering search that the opponent played the expected move, so that it continues as a normal
+     * search whose time limits count from now
+     */
+    public synchronized void ponderHit() {
+        if (search != null) {
+            search.ponderHit();
+
+            if (!limits.isInfinite()) {
+                releaseSignal.countDown();
+            }
+        }
+    }
+
+    /**
+     * Stop the running search, if any, and wait until its future has completed
+     */
+    public synchronized void stopAndWait() {
+        stop();
+
+        if (result != null) {
+            result.join();
+        }
+
+        search = null;
+        result = null;
+    }
+
+    /**
+     * Resize the transposition table to the given number of megabytes, discarding its entries
+     */
+    public synchronized void setHashSize(int megabytes) {
+        stopAndWait();
+        transpositionTable.resize(megabytes);
+    }
+
+    /**
+     * Discard every remembered position, e.g. when a new game starts
+     */
+    public synchronized void clearHash() {
+        stopAndWait();
+        transpositionTable.clear();
+    }
+
+    /**
+     * Stop the running search and release the search thread
+     */
+    public synchronized void shutdown() {
+        stopAndWait();
+
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Return the legal move in the given game that corresponds to the given move of a searched copy of that game
+     */
+    private Move findMove(Game game, Move searchedMove) {
+        if (searchedMove == null) {
+            return null;
+        }
+
+        for (Move move: game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn())) {
+            if (move.formatUciMove().equals(searchedMove.formatUciMove())) {
+                return move;
+            }
+        }
+
+        return null;
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return executor;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public SearchOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Set the options used by searches submitted from now on
+     */
+    public synchronized void setOptions(SearchOptions options) {
+        this.options = options;
+    }
+
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Probe the given tablebase, or none if null, in searches submitted from now on
+     */
+    public synchronized void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public NnueNetwork getNetwork() {
+        return network;
+    }
+
+    /**
+     * Evaluate positions with the given network, or with the weighted evaluation terms if null, in searches submitted
+     * from now on
+     */
+    public synchronized void setNetwork(NnueNetwork network) {
+        this.network = network;
+    }
+
+    public int getMultiPv() {
+        return multiPv;
+    }
+
+    /**
+     * Search the given number of best lines in searches submitted from now on, 1 being a normal search
+     *
+     * @throws IllegalArgumentException if the number is not between 1 and Search.MAX_MULTI_PV
+     */
+    public synchronized void setMultiPv(int multiPv) {
+        if (multiPv < 1 || multiPv > Search.MAX_MULTI_PV) {
+            throw new IllegalArgumentException("MultiPV must be between 1 and " + Search.MAX_MULTI_PV + ": " + multiPv);
+        }
+
+        this.multiPv = multiPv;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+}
@@ -0,0 +1,125 @@
+package model.search;
+
+import java.util.Arrays;
+
+// Represents a fixed size hash table of previously searched positions, indexed by Zobrist hash. Each entry stores the
+// searched depth, the score, whether that score is exact or a bound, and the best move found, so that the table can be
+// reused by consecutive searches of the same game
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1; // score is at least the stored score (the search failed high)
+    public static final int UPPER_BOUND = 2; // score is at most the stored score (the search failed low)
+
+    public static final int NO_MOVE = 0;
+
+    private static final int BYTES_PER_ENTRY = 24;
+    // mate and tablebase scores count plies from the root, so they are stored relative to the position instead
+    private static final double DISTANCE_SCORE = Search.TABLEBASE_WIN_SCORE / 2;
+
+    private long[] keys;
+    private double[] scores;
+    private long[] data; // move code (bits 0-15), depth (bits 16-23), bound type (bits 24-25)
+    private int mask;
+
+    /**
+     * Construct a new transposition table that uses at most the given number of megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * Discard every entry and resize this table to use at most the given number of megabytes. Must not be called
+     * while a search is using this table
+     */
+    public void resize(int megabytes) {
+        long maxEntries = Math.max(1L, (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        int entries = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 30));
+
+        this.keys = new long[entries];
+        this.scores = new double[entries];
+        this.data = new long[entries];
+        this.mask = entries - 1;
+    }
+
+    /**
+     * Discard every entry in this table. Must not be called while a search is using this table
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(scores, 0);
+        Arrays.fill(data, 0L);
+    }
+
+    /**
+     * Return the slot holding the given position, or -1 if the position is not in this table
+     */
+    public int probe(long hash) {
+        int index = (int) hash & mask;
+        return keys[index] == hash && data[index] != 0 ? index : -1;
+    }
+
+    /**
+     * Store the result of searching the given position, replacing the existing entry in its slot unless that entry
+     * holds the same position searched to a greater depth
+     *
+     * @param ply distance from the root, used to store mate and tablebase scores relative to this position rather than
+     *            the root
+     */
+    public void store(long hash, int depth, int ply, double score, int boundType, int moveCode) {
+        int index = (int) hash & mask;
+
+        if (keys[index] == hash && depth < getDepth(index)) {
+            return;
+        }
+
+        keys[index] = hash;
+        scores[index] = toStoredScore(score, ply);
+        // depth is stored plus one so that a stored entry is never all zero
+        data[index] = (moveCode & 0xFFFFL) | ((long) (depth + 1) & 0xFF) << 16 | ((long) boundType & 0x3) << 24;
+    }
+
+    /**
+     * Return the score stored in the given slot, as seen from a position at the given ply
+     */
+    public double getScore(int index, int ply) {
+        double score = scores[index];
+
+        if (score > DISTANCE_SCORE) {
+            return score - ply;
+        } else if (score < -DISTANCE_SCORE) {
+            return score + ply;
+        }
+
+        return score;
+    }
+
+    public int getDepth(int index) {
+        return (int) ((data[index] >>> 16) & 0xFF) - 1;
+    }
+
+    public int getBoundType(int index) {
+        return (int) ((data[index] >>> 24) & 0x3);
+    }
+
+    public int getMoveCode(int index) {
+        return (int) (data[index] & 0xFFFF);
+    }
+
+    /**
+     * Return the number of entries this table can hold
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    private double toStoredScore(double score, int ply) {
+        if (score > DISTANCE_SCORE) {
+            return score + ply;
+        } else if (score < -DISTANCE_SCORE) {
+            return score - ply;
+        }
+
+        return score;
+    }
+}
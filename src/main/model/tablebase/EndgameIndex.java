@@ -0,0 +1,266 @@
+package model.tablebase;
+
+import model.Piece;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+// Represents the numbering of every position of one material signature, e.g. KBNvK, used by generated endgame tables.
+// An index is the side to move, the square of the white king and then the square of every other piece in signature
+// order. Symmetric positions share an index: without pawns the board is mirrored so that the white king stands in the
+// a1-d1-d4 triangle, with pawns only so that it stands on files a-d. Each position is encoded as the smallest index of
+// its mirror images and identical pieces are numbered in square order, so every index that decodes to a different
+// index is unused
+public class EndgameIndex {
+    public static final int MAX_PIECES = 5;
+
+    private static final Pattern SIGNATURE = Pattern.compile("KQ*R*B*N*P*vKQ*R*B*N*P*");
+    private static final String PIECE_LETTERS = "KQRBNP";
+    private static final int[] PIECE_VALUES = {0, 9, 5, 3, 3, 1}; // indexed like PIECE_LETTERS
+
+    // the squares of the a1-d1-d4 triangle, file not below rank
+    private static final int[] TRIANGLE = {0, 1, 2, 3, 9, 10, 11, 18, 19, 27};
+    private static final int[] TRIANGLE_SLOT = new int[64];
+
+    static {
+        Arrays.fill(TRIANGLE_SLOT, -1);
+        for (int slot = 0; slot < TRIANGLE.length; slot++) {
+            TRIANGLE_SLOT[TRIANGLE[slot]] = slot;
+        }
+    }
+
+    private final String signature;
+    private final int[] pieces; // board piece codes in index order, the white king first
+    private final boolean hasPawns;
+    private final int kingSlots;
+    private final int size;
+
+    /**
+     * Construct a new index of the given signature, e.g. KBNvK with the white pieces first, each side's pieces written
+     * in the order KQRBNP
+     *
+     * @throws IllegalArgumentException if the signature is malformed or has more than MAX_PIECES pieces
+     */
+    public EndgameIndex(String signature) {
+        if (!SIGNATURE.matcher(signature).matches() || signature.length() - 1 > MAX_PIECES) {
+            throw new IllegalArgumentException("invalid endgame signature: " + signature);
+        }
+
+        this.signature = signature;
+        this.pieces = new int[signature.length() - 1];
+
+        int count = 0;
+        int sign = 1;
+        for (char letter: signature.toCharArray()) {
+            if (letter == 'v') {
+                sign = -1;
+            } else {
+                pieces[count++] = sign * (Piece.wKing - PIECE_LETTERS.indexOf(letter));
+            }
+        }
+
+        this.hasPawns = signature.indexOf('P') >= 0;
+        this.kingSlots = hasPawns ? 32 : TRIANGLE.length;
+        this.size = 2 * kingSlots * (1 << (6 * (pieces.length - 1)));
+    }
+
+    /**
+     * Return the index of the given position, or -1 if its pieces are not those of this signature
+     *
+     * @param board pieces indexed by square, a1 first
+     */
+    public int encode(int[] board, boolean whiteToMove) {
+        int[] squares = locatePieces(board);
+
+        if (squares == null) {
+            return -1;
+        }
+
+        int file = squares[0] & 7;
+        int rank = squares[0] >> 3;
+        boolean flipFile = file > 3;
+        boolean flipRank = !hasPawns && rank > 3;
+
+        file = flipFile ? 7 - file : file;
+        rank = flipRank ? 7 - rank : rank;
+
+        int index = indexOf(squares, whiteToMove, flipFile, flipRank, !hasPawns && rank > file);
+
+        // a king on the diagonal stays there when the board is mirrored in it
+        if (!hasPawns && rank == file) {
+            index = Math.min(index, indexOf(squares, whiteToMove, flipFile, flipRank, true));
+        }
+
+        return index;
+    }
+
+    /**
+     * Place the pieces of the given index on the given board, clearing it first
+     *
+     * @return false if two pieces share a square or a pawn stands on the first or last rank
+     */
+    public boolean decode(int index, int[] board) {
+        Arrays.fill(board, Piece.empty);
+
+        int[] squares = new int[pieces.length];
+        for (int i = pieces.length - 1; i > 0; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+
+        int slot = index % kingSlots;
+        squares[0] = hasPawns ? 8 * (slot / 4) + slot % 4 : TRIANGLE[slot];
+
+        for (int i = 0; i < pieces.length; i++) {
+            int square = squares[i];
+            boolean backRank = square < 8 || square >= 56;
+
+            if (board[square] != Piece.empty || (Math.abs(pieces[i]) == Piece.wPawn && backRank)) {
+                return false;
+            }
+
+            board[square] = pieces[i];
+        }
+
+        return true;
+    }
+
+    /**
+     * Return true if white is to move in the position of the given index
+     */
+    public boolean isWhiteToMove(int index) {
+        return index < size / 2;
+    }
+
+    /**
+     * Return the squares of the pieces of the given board in index order, or null if they are not this signature's
+     */
+    private int[] locatePieces(int[] board) {
+        int[] squares = new int[pieces.length];
+        boolean[] placed = new boolean[pieces.length];
+        int count = 0;
+
+        for (int square = 0; square < 64; square++) {
+            int piece = board[square];
+
+            if (piece == Piece.empty) {
+                continue;
+            }
+
+            int slot = 0;
+            while (slot < pieces.length && (placed[slot] || pieces[slot] != piece)) {
+                slot++;
+            }
+
+            if (slot == pieces.length) {
+                return null;
+            }
+
+            squares[slot] = square;
+            placed[slot] = true;
+            count++;
+        }
+
+        return count == pieces.length ? squares : null;
+    }
+
+    private int indexOf(int[] squares, boolean whiteToMove, boolean flipFile, boolean flipRank, boolean transpose) {
+        int[] mirrored = new int[squares.length];
+
+        for (int i = 0; i < squares.length; i++) {
+            int file = flipFile ? 7 - (squares[i] & 7) : squares[i] & 7;
+            int rank = flipRank ? 7 - (squares[i] >> 3) : squares[i] >> 3;
+            mirrored[i] = transpose ? 8 * file + rank : 8 * rank + file;
+
+            // identical pieces are numbered in square order
+            for (int j = i; j > 0 && pieces[j - 1] == pieces[j] && mirrored[j - 1] > mirrored[j]; j--) {
+                int square = mirrored[j];
+                mirrored[j] = mirrored[j - 1];
+                mirrored[j - 1] = square;
+            }
+        }
+
+        int king = mirrored[0];
+        int index = (whiteToMove ? 0 : 1) * kingSlots + (hasPawns ? 4 * (king >> 3) + (king & 7) : TRIANGLE_SLOT[king]);
+
+        for (int i = 1; i < mirrored.length; i++) {
+            index = index << 6 | mirrored[i];
+        }
+
+        return index;
+    }
+
+    /**
+     * Return the pieces of the given color on the given board as they are written in a signature, e.g. KRP
+     */
+    public static String material(int[] board, boolean white) {
+        int[] counts = new int[Piece.wKing + 1];
+
+        for (int piece: board) {
+            if (piece != Piece.empty && (piece > 0) == white) {
+                counts[Math.abs(piece)]++;
+            }
+        }
+
+        StringBuilder material = new StringBuilder();
+        for (int i = 0; i < PIECE_LETTERS.length(); i++) {
+            material.append(String.valueOf(PIECE_LETTERS.charAt(i)).repeat(counts[Piece.wKing - i]));
+        }
+
+        return material.toString();
+    }
+
+    /**
+     * Return a positive number if the first of the given sides is the stronger, by material value, then by number of
+     * pieces and then by their letters, 0 if they are the same and a negative number otherwise. Tables are stored with
+     * the stronger side as white
+     */
+    public static int compareSides(String first, String second) {
+        int difference = value(first) - value(second);
+
+        if (difference == 0) {
+            difference = first.length() - second.length();
+        }
+
+        for (int i = 0; difference == 0 && i < first.length(); i++) {
+            difference = PIECE_LETTERS.indexOf(second.charAt(i)) - PIECE_LETTERS.indexOf(first.charAt(i));
+        }
+
+        return difference;
+    }
+
+    /**
+     * Return the signature of the given sides with the stronger one first
+     */
+    public static String canonicalSignature(String white, String black) {
+        return compareSides(white, black) >= 0 ? white + "v" + black : black + "v" + white;
+    }
+
+    private static int value(String side) {
+        int value = 0;
+
+        for (char letter: side.toCharArray()) {
+            value += PIECE_VALUES[PIECE_LETTERS.indexOf(letter)];
+        }
+
+        return value;
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    public int getPieceCount() {
+        return pieces.length;
+    }
+
+    /**
+     * Return the number of indices, used or not
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,155 @@
+package model.tablebase;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Represents a generated endgame table of one material signature: the distance to mate of every position, bit-packed
+// at a fixed number of bits per position index (see EndgameIndex). The file is a 64 byte header of a magic number,
+// the bits per position, the number of positions and the signature, followed by the little-endian packed codes and 8
+// bytes of padding. A code of 0 is a draw, and a code c above 0 means the side to move mates (c even) or is mated (c
+// odd) in c - 1 plies. The file is mapped into memory, so a probe reads a single word
+public class EndgameTable implements Closeable {
+    public static final String EXTENSION = ".etb";
+
+    private static final int MAGIC = 0x43455442; // CETB
+    private static final int HEADER_SIZE = 64;
+    private static final int SIGNATURE_OFFSET = 16;
+
+    private final EndgameIndex index;
+    private final FileChannel channel;
+    private final MappedByteBuffer codes;
+    private final int bits;
+
+    /**
+     * Construct a new table from the file at the given path
+     *
+     * @throws IOException if the file cannot be mapped or is not an endgame table
+     */
+    public EndgameTable(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is not an endgame table of at most 2GB");
+            }
+
+            this.codes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            codes.order(ByteOrder.LITTLE_ENDIAN);
+
+            byte[] signature = new byte[HEADER_SIZE - SIGNATURE_OFFSET];
+            codes.get(SIGNATURE_OFFSET, signature);
+            this.index = new EndgameIndex(new String(signature, StandardCharsets.US_ASCII).trim());
+            this.bits = codes.getInt(4);
+
+            if (codes.getInt(0) != MAGIC || bits < 1 || bits > 16 || codes.getLong(8) != index.size() ||
+                    codes.capacity() != dataSize(index.size(), bits)) {
+                throw new IOException(path + " is not a valid endgame table");
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Return the code stored at the given position index
+     */
+    public int getCode(int position) {
+        long bit = (long) position * bits;
+        long word = codes.getLong(HEADER_SIZE + (int) (bit >>> 3));
+
+        return (int) (word >>> (bit & 7)) & ((1 << bits) - 1);
+    }
+
+    /**
+     * Return the code of the given position, which must have this table's pieces with white as the stronger side
+     */
+    public int getCode(int[] board, boolean whiteToMove) {
+        return getCode(index.encode(board, whiteToMove));
+    }
+
+    /**
+     * Write the given codes, indexed by position, as the table of the given index to the given path
+     */
+    public static void write(Path path, EndgameIndex index, short[] positionCodes) throws IOException {
+        int maxCode = 1;
+        for (short code: positionCodes) {
+            maxCode = Math.max(maxCode, code);
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(maxCode);
+
+        if (dataSize(index.size(), bits) > Integer.MAX_VALUE) {
+            throw new IOException(index.getSignature() + " does not fit in a 2GB table");
+        }
+
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            byte[] header = new byte[HEADER_SIZE];
+            putLittleEndian(header, 0, MAGIC, 4);
+            putLittleEndian(header, 4, bits, 4);
+            putLittleEndian(header, 8, index.size(), 8);
+            byte[] signature = index.getSignature().getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(signature, 0, header, SIGNATURE_OFFSET, signature.length);
+            output.write(header);
+
+            long buffer = 0;
+            int bufferedBits = 0;
+
+            for (short code: positionCodes) {
+                buffer |= (long) Math.max(code, 0) << bufferedBits;
+                bufferedBits += bits;
+
+                while (bufferedBits >= 8) {
+                    output.write((int) buffer);
+                    buffer >>>= 8;
+                    bufferedBits -= 8;
+                }
+            }
+
+            if (bufferedBits > 0) {
+                output.write((int) buffer);
+            }
+
+            // a probe of the last position reads a whole word
+            output.write(new byte[8]);
+        }
+    }
+
+    private static long dataSize(long positions, int bits) {
+        return HEADER_SIZE + (positions * bits + 7) / 8 + 8;
+    }
+
+    private static void putLittleEndian(byte[] bytes, int offset, long value, int length) {
+        for (int i = 0; i < length; i++) {
+            bytes[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public EndgameIndex getIndex() {
+        return index;
+    }
+
+    public String getSignature() {
+        return index.getSignature();
+    }
+
+    public int getBitsPerPosition() {
+        return bits;
+    }
+}
@@ -0,0 +1,171 @@
+package model.tablebase;
+
+import model.Game;
+import model.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Represents the generated endgame tables found in a directory (see EndgameTable), which store the distance to mate of
+// every position rather than only its result. The 50 move rule is not taken into account, so there are no cursed wins
+// or blessed losses, and the root move always mates as fast, or is mated as slowly, as possible
+public class EndgameTablebase implements Tablebase, Closeable {
+    public static final int UNKNOWN_CODE = -1;
+
+    private static final int MAX_PLIES = 1 << 16; // beyond the distance to mate of every table
+
+    private final Map<String, EndgameTable> tables = new ConcurrentHashMap<>();
+    private volatile int maxPieces = 2;
+
+    /**
+     * Construct a new tablebase without any tables
+     */
+    public EndgameTablebase() {
+    }
+
+    /**
+     * Construct a new tablebase from the table files in the given directory
+     *
+     * @throws IOException if the directory cannot be listed or one of its tables cannot be read
+     */
+    public EndgameTablebase(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file: (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(EndgameTable.EXTENSION)) {
+                    addTable(new EndgameTable(file));
+                }
+            }
+        }
+    }
+
+    /**
+     * Probe the given table from now on, in place of any table of the same signature
+     */
+    public synchronized void addTable(EndgameTable table) {
+        tables.put(table.getSignature(), table);
+        maxPieces = Math.max(maxPieces, table.getIndex().getPieceCount());
+    }
+
+    /**
+     * Return true if there is a table of the given signature, or it needs none because it is KvK
+     */
+    public boolean hasTable(String signature) {
+        return signature.equals("KvK") || tables.containsKey(signature);
+    }
+
+    /**
+     * Return the table of the given signature, or null if there is none
+     */
+    public EndgameTable getTable(String signature) {
+        return tables.get(signature);
+    }
+
+    @Override
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Return the code of the given position as stored in its table (see EndgameTable), with either color as the
+     * stronger side, or UNKNOWN_CODE if there is no table of its pieces
+     *
+     * @param board pieces indexed by square, a1 first
+     */
+    public int probeCode(int[] board, boolean whiteToMove) {
+        String white = EndgameIndex.material(board, true);
+        String black = EndgameIndex.material(board, false);
+
+        if (white.length() == 1 && black.length() == 1) {
+            return 0;
+        }
+
+        boolean swapColors = EndgameIndex.compareSides(white, black) < 0;
+        EndgameTable table = tables.get(swapColors ? black + "v" + white : white + "v" + black);
+
+        if (table == null) {
+            return UNKNOWN_CODE;
+        }
+
+        // tables are stored with the stronger side as white, so mirror the ranks and swap the colors
+        if (swapColors) {
+            int[] swapped = new int[64];
+            for (int square = 0; square < 64; square++) {
+                swapped[square ^ 56] = -board[square];
+            }
+
+            return table.getCode(swapped, !whiteToMove);
+        }
+
+        return table.getCode(board, whiteToMove);
+    }
+
+    @Override
+    public int probeWdl(Game game) {
+        int code = probeCode(game.getBoard().getBoard(), game.getCurrentTurn().isWhite());
+
+        if (code == UNKNOWN_CODE) {
+            return UNKNOWN;
+        }
+
+        return code == 0 ? DRAW : code % 2 == 0 ? WIN : LOSS;
+    }
+
+    /**
+     * Return the legal move of the given game that mates soonest, draws or is mated latest, or null if the position or
+     * one of its successors cannot be probed
+     */
+    @Override
+    public Move probeRoot(Game game) {
+        List<Move> moves = game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn());
+        Move bestMove = null;
+        int bestRank = Integer.MIN_VALUE;
+
+        for (Move move: moves) {
+            game.makeMove(move);
+            int code = probeCode(game.getBoard().getBoard(), game.getCurrentTurn().isWhite());
+            game.undoMove(move);
+
+            if (code == UNKNOWN_CODE) {
+                return null;
+            }
+
+            // the code is that of the opponent, one ply closer to mate
+            int rank;
+            if (code == 0) {
+                rank = 0;
+            } else if (code % 2 == 1) {
+                rank = MAX_PLIES - code;
+            } else {
+                rank = -MAX_PLIES + code;
+            }
+
+            if (rank > bestRank) {
+                bestMove = move;
+                bestRank = rank;
+            }
+        }
+
+        return bestMove;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (EndgameTable table: tables.values()) {
+            table.close();
+        }
+        tables.clear();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+}
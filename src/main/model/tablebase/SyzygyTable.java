@@ -0,0 +1,787 @@
+package model.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Represents a single Syzygy WDL (.rtbw) or DTZ (.rtbz) file for one material signature, e.g. KRPvKR. The file is
+// mapped into memory on the first probe and only its headers are parsed: every position of the signature is given an
+// index from the squares of its pieces, and the value at that index is decompressed from the block that holds it. The
+// blocks are compressed with a canonical Huffman code over symbols that stand for pairs of symbols (RE-PAIR), with a
+// sparse index of every span-th value's block. With pawns, there is a separate table for each file of the leading pawn
+class SyzygyTable {
+    static final int CHANGE_STM = Integer.MIN_VALUE + 1; // a DTZ table that only stores the other side to move
+
+    private static final int[] WDL_MAGIC = {0xD7, 0x66, 0x0C, 0xA5};
+    private static final int[] DTZ_MAGIC = {0x71, 0xE8, 0x23, 0x5D};
+
+    private static final int FLAG_STM = 1;
+    private static final int FLAG_MAPPED = 2;
+    private static final int FLAG_WIN_PLIES = 4;
+    private static final int FLAG_LOSS_PLIES = 8;
+    private static final int FLAG_WIDE = 16;
+    private static final int FLAG_SINGLE_VALUE = 128;
+
+    // the DTZ value map of each WDL value, indexed by WDL + 2
+    private static final int[] WDL_MAP = {1, 3, 0, 2, 0};
+
+    // binomial coefficients, indexed by k and n
+    static final long[][] BINOMIAL = new long[7][64];
+    // index of each pawn square among the squares a leading pawn may stand on, a2-d7 first
+    static final int[] MAP_PAWNS = new int[64];
+    // index of the leading pawn squares, indexed by number of leading pawns and square
+    static final int[][] LEAD_PAWN_INDEX = new int[6][64];
+    // number of leading pawn placements, indexed by number of leading pawns and file of the leading pawn
+    static final int[][] LEAD_PAWNS_SIZE = new int[6][4];
+    // index of the 28 squares below the a1-h8 diagonal
+    static final int[] MAP_B1H1H7 = new int[64];
+    // index of the 10 squares of the a1-d1-d4 triangle, with the diagonal ones last
+    static final int[] MAP_A1D1D4 = new int[64];
+    // index of the 462 legal placements of two kings, the first one in the a1-d1-d4 triangle
+    static final int[][] MAP_KK = new int[10][64];
+
+    static {
+        BINOMIAL[0][0] = 1;
+        for (int n = 1; n < 64; n++) {
+            for (int k = 0; k < BINOMIAL.length && k <= n; k++) {
+                BINOMIAL[k][n] = (k > 0 ? BINOMIAL[k - 1][n - 1] : 0) + (k < n ? BINOMIAL[k][n - 1] : 0);
+            }
+        }
+
+        int code = 0;
+        for (int square = 0; square < 64; square++) {
+            if (diagonalOffset(square) < 0) {
+                MAP_B1H1H7[square] = code++;
+            }
+        }
+
+        code = 0;
+        int[] diagonal = new int[4];
+        int diagonalCount = 0;
+        for (int square = 0; square <= 27; square++) {
+            if ((square & 7) > 3) {
+                continue;
+            }
+
+            if (diagonalOffset(square) < 0) {
+                MAP_A1D1D4[square] = code++;
+            } else if (diagonalOffset(square) == 0) {
+                diagonal[diagonalCount++] = square;
+            }
+        }
+        for (int i = 0; i < diagonalCount; i++) {
+            MAP_A1D1D4[diagonal[i]] = code++;
+        }
+
+        // both kings on the diagonal are coded last
+        code = 0;
+        int[][] bothOnDiagonal = new int[10 * 64][];
+        int bothCount = 0;
+        for (int index = 0; index < 10; index++) {
+            for (int first = 0; first <= 27; first++) {
+                // b1 is the only square of the triangle coded 0
+                if (MAP_A1D1D4[first] != index || (index == 0 && first != 1)) {
+                    continue;
+                }
+
+                for (int second = 0; second < 64; second++) {
+                    if (distance(first, second) <= 1) {
+                        continue;
+                    } else if (diagonalOffset(first) == 0 && diagonalOffset(second) > 0) {
+                        continue;
+                    } else if (diagonalOffset(first) == 0 && diagonalOffset(second) == 0) {
+                        bothOnDiagonal[bothCount++] = new int[]{index, second};
+                    } else {
+                        MAP_KK[index][second] = code++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < bothCount; i++) {
+            MAP_KK[bothOnDiagonal[i][0]][bothOnDiagonal[i][1]] = code++;
+        }
+
+        // the leading pawn squares are numbered from the edges inwards, so that a1-h1 mirroring keeps the order
+        int availableSquares = 47;
+        for (int leadPawns = 1; leadPawns <= 5; leadPawns++) {
+            for (int file = 0; file < 4; file++) {
+                int index = 0;
+
+                for (int rank = 1; rank <= 6; rank++) {
+                    int square = 8 * rank + file;
+
+                    if (leadPawns == 1) {
+                        MAP_PAWNS[square] = availableSquares--;
+                        MAP_PAWNS[square ^ 7] = availableSquares--;
+                    }
+
+                    LEAD_PAWN_INDEX[leadPawns][square] = index;
+                    index += (int) BINOMIAL[leadPawns - 1][MAP_PAWNS[square]];
+                }
+
+                LEAD_PAWNS_SIZE[leadPawns][file] = index;
+            }
+        }
+    }
+
+    // the compression data of one table: one side to move and, with pawns, one file of the leading pawn
+    private static class PairsData {
+        final int[] pieces; // piece codes in index order
+        final int[] groupLength = new int[8]; // number of pieces of each group, 0 terminated
+        final long[] groupIndex = new long[8]; // index factor of each group, the table size after the last one
+        final int[] mapIndex = new int[4]; // DTZ value map of each WDL value
+
+        int flags;
+        long blockSize;
+        long span;
+        long sparseIndexSize;
+        int numBlocks;
+        long blockLengthSize;
+        int maxSymbolLength;
+        int minSymbolLength;
+        long[] base64; // lowest left aligned code of each symbol length
+        int[] symbolLength;
+        int lowestSymbolOffset;
+        int btreeOffset;
+        int sparseIndexOffset;
+        int blockLengthOffset;
+        int dataOffset;
+
+        PairsData(int pieceCount) {
+            this.pieces = new int[pieceCount];
+        }
+    }
+
+    private final Path path;
+    private final boolean dtz;
+    private final int pieceCount;
+    private final boolean hasPawns;
+    private final boolean hasUniquePieces;
+    private final boolean symmetric;
+    private final int[] pawnCount = new int[2]; // leading color first
+
+    private ByteBuffer data;
+    private PairsData[][] items; // indexed by side to move and file
+    private int mapOffset;
+    private volatile boolean initialised;
+    private boolean failed;
+
+    /**
+     * Construct a new table for the given file, whose name without its extension is the material signature, e.g.
+     * KRPvKR with the white pieces first
+     */
+    SyzygyTable(Path path, String signature, boolean dtz) {
+        this.path = path;
+        this.dtz = dtz;
+
+        String[] sides = signature.split("v");
+        int[][] counts = new int[2][7];
+        for (int color = 0; color < 2; color++) {
+            for (char piece: sides[color].toCharArray()) {
+                counts[color]["PNBRQK".indexOf(piece) + 1]++;
+            }
+        }
+
+        this.pieceCount = sides[0].length() + sides[1].length();
+        this.hasPawns = counts[0][1] + counts[1][1] > 0;
+        this.symmetric = sides[0].equals(sides[1]);
+
+        boolean unique = false;
+        for (int color = 0; color < 2; color++) {
+            for (int type = 1; type <= 5; type++) {
+                if (counts[color][type] == 1) {
+                    unique = true;
+                }
+            }
+        }
+        this.hasUniquePieces = unique;
+
+        // the leading color has the fewest pawns, but at least one
+        boolean whiteLeads = counts[1][1] == 0 || (counts[0][1] > 0 && counts[1][1] >= counts[0][1]);
+        pawnCount[0] = whiteLeads ? counts[0][1] : counts[1][1];
+        pawnCount[1] = whiteLeads ? counts[1][1] : counts[0][1];
+    }
+
+    /**
+     * Return true if the table can be probed, mapping and parsing its file on the first call
+     */
+    boolean isReady() {
+        return initialised || init();
+    }
+
+    /**
+     * Map and parse the file, once
+     *
+     * @return false if the file cannot be read or is not a valid table
+     */
+    private synchronized boolean init() {
+        if (initialised || failed) {
+            return initialised;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("table larger than 2GB");
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int[] magic = dtz ? DTZ_MAGIC : WDL_MAGIC;
+
+            if ((mapped.capacity() & 63) != 16) {
+                throw new IOException("corrupt table length " + mapped.capacity());
+            }
+            for (int i = 0; i < magic.length; i++) {
+                if ((mapped.get(i) & 0xFF) != magic[i]) {
+                    throw new IOException("bad magic number");
+                }
+            }
+
+            this.data = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            parse(magic.length);
+            initialised = true;
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+        }
+
+        return initialised;
+    }
+
+    /**
+     * Parse the headers that follow the magic number at the given offset
+     */
+    private void parse(int offset) throws IOException {
+        if (((u8(offset++) & 2) != 0) != hasPawns) {
+            throw new IOException("table does not match its name");
+        }
+
+        int sides = !dtz && !symmetric ? 2 : 1;
+        int maxFile = hasPawns ? 3 : 0;
+        boolean remainingPawns = hasPawns && pawnCount[1] > 0;
+        items = new PairsData[2][4];
+
+        for (int file = 0; file <= maxFile; file++) {
+            for (int side = 0; side < sides; side++) {
+                items[side][file] = new PairsData(pieceCount);
+            }
+
+            int[][] order = {
+                    {u8(offset) & 0xF, remainingPawns ? u8(offset + 1) & 0xF : 0xF},
+                    {u8(offset) >> 4, remainingPawns ? u8(offset + 1) >> 4 : 0xF}
+            };
+            offset += remainingPawns ? 2 : 1;
+
+            for (int k = 0; k < pieceCount; k++, offset++) {
+                for (int side = 0; side < sides; side++) {
+                    items[side][file].pieces[k] = side == 0 ? u8(offset) & 0xF : u8(offset) >> 4;
+                }
+            }
+
+            for (int side = 0; side < sides; side++) {
+                setGroups(items[side][file], order[side], file);
+            }
+        }
+
+        offset += offset & 1;
+
+        for (int file = 0; file <= maxFile; file++) {
+            for (int side = 0; side < sides; side++) {
+                offset = setSizes(items[side][file], offset);
+            }
+        }
+
+        if (dtz) {
+            offset = setDtzMap(offset, maxFile);
+        }
+
+        for (int file = 0; file <= maxFile; file++) {
+            for (int side = 0; side < sides; side++) {
+                items[side][file].sparseIndexOffset = offset;
+                offset += (int) items[side][file].sparseIndexSize * 6;
+            }
+        }
+
+        for (int file = 0; file <= maxFile; file++) {
+            for (int side = 0; side < sides; side++) {
+                items[side][file].blockLengthOffset = offset;
+                offset += (int) items[side][file].blockLengthSize * 2;
+            }
+        }
+
+        for (int file = 0; file <= maxFile; file++) {
+            for (int side = 0; side < sides; side++) {
+                offset = (offset + 0x3F) & ~0x3F;
+                items[side][file].dataOffset = offset;
+                offset += items[side][file].numBlocks * (int) items[side][file].blockSize;
+            }
+        }
+
+        if (offset > data.capacity()) {
+            throw new IOException("truncated table");
+        }
+    }
+
+    /**
+     * Split the pieces into groups of like pieces, which are indexed together, and compute the index factor of each
+     * group in the given encoding order
+     */
+    private void setGroups(PairsData d, int[] order, int file) {
+        int n = 0;
+        int firstLength = hasPawns ? 0 : hasUniquePieces ? 3 : 2;
+        d.groupLength[n] = 1;
+
+        // the leading group is the kings and a unique piece, both kings or the leading pawns
+        for (int i = 1; i < pieceCount; i++) {
+            if (--firstLength > 0 || d.pieces[i] == d.pieces[i - 1]) {
+                d.groupLength[n]++;
+            } else {
+                d.groupLength[++n] = 1;
+            }
+        }
+        d.groupLength[++n] = 0;
+
+        boolean remainingPawns = hasPawns && pawnCount[1] > 0;
+        int next = remainingPawns ? 2 : 1;
+        int freeSquares = 64 - d.groupLength[0] - (remainingPawns ? d.groupLength[1] : 0);
+        long index = 1;
+
+        for (int k = 0; next < n || k == order[0] || k == order[1]; k++) {
+            if (k == order[0]) {
+                d.groupIndex[0] = index;
+                index *= hasPawns ? LEAD_PAWNS_SIZE[d.groupLength[0]][file] : hasUniquePieces ? 31332 : 462;
+            } else if (k == order[1]) {
+                d.groupIndex[1] = index;
+                index *= BINOMIAL[d.groupLength[1]][48 - d.groupLength[0]];
+            } else {
+                d.groupIndex[next] = index;
+                index *= BINOMIAL[d.groupLength[next]][freeSquares];
+                freeSquares -= d.groupLength[next++];
+            }
+        }
+
+        d.groupIndex[n] = index;
+    }
+
+    /**
+     * Parse the block sizes and the Huffman code of a table at the given offset
+     *
+     * @return the offset that follows them
+     */
+    private int setSizes(PairsData d, int offset) {
+        d.flags = u8(offset++);
+
+        if ((d.flags & FLAG_SINGLE_VALUE) != 0) {
+            d.minSymbolLength = u8(offset++); // the value of every position
+            return offset;
+        }
+
+        int groups = 0;
+        while (d.groupLength[groups] != 0) {
+            groups++;
+        }
+        long tableSize = d.groupIndex[groups];
+
+        d.blockSize = 1L << u8(offset++);
+        d.span = 1L << u8(offset++);
+        d.sparseIndexSize = (tableSize + d.span - 1) / d.span;
+        int padding = u8(offset++);
+        d.numBlocks = data.getInt(offset);
+        offset += 4;
+        d.blockLengthSize = (long) d.numBlocks + padding;
+        d.maxSymbolLength = u8(offset++);
+        d.minSymbolLength = u8(offset++);
+        d.lowestSymbolOffset = offset;
+
+        // canonical code: the lowest code of each length follows from the lowest symbols of each length
+        int lengths = d.maxSymbolLength - d.minSymbolLength + 1;
+        d.base64 = new long[lengths];
+        for (int i = lengths - 2; i >= 0; i--) {
+            d.base64[i] = (d.base64[i + 1] + u16(offset + 2 * i) - u16(offset + 2 * (i + 1))) / 2;
+        }
+        for (int i = 0; i < lengths; i++) {
+            d.base64[i] <<= 64 - i - d.minSymbolLength;
+        }
+        offset += 2 * lengths;
+
+        int symbols = u16(offset);
+        offset += 2;
+        d.btreeOffset = offset;
+        d.symbolLength = new int[symbols];
+
+        boolean[] visited = new boolean[symbols];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            if (!visited[symbol]) {
+                setSymbolLength(d, symbol, visited);
+            }
+        }
+
+        return offset + 3 * symbols + (symbols & 1);
+    }
+
+    /**
+     * Set the number of values the given symbol expands to, minus one, after setting that of its children
+     */
+    private void setSymbolLength(PairsData d, int symbol, boolean[] visited) {
+        visited[symbol] = true;
+        int right = rightChild(d, symbol);
+
+        if (right != 0xFFF) {
+            int left = leftChild(d, symbol);
+
+            if (!visited[left]) {
+                setSymbolLength(d, left, visited);
+            }
+            if (!visited[right]) {
+                setSymbolLength(d, right, visited);
+            }
+
+            d.symbolLength[symbol] = d.symbolLength[left] + d.symbolLength[right] + 1;
+        }
+    }
+
+    private int leftChild(PairsData d, int symbol) {
+        int offset = d.btreeOffset + 3 * symbol;
+        return ((u8(offset + 1) & 0xF) << 8) | u8(offset);
+    }
+
+    private int rightChild(PairsData d, int symbol) {
+        int offset = d.btreeOffset + 3 * symbol;
+        return (u8(offset + 2) << 4) | (u8(offset + 1) >> 4);
+    }
+
+    /**
+     * Record where the DTZ value map of each WDL value starts
+     *
+     * @return the offset that follows the maps
+     */
+    private int setDtzMap(int offset, int maxFile) {
+        mapOffset = offset;
+
+        for (int file = 0; file <= maxFile; file++) {
+            PairsData d = items[0][file];
+
+            if ((d.flags & FLAG_MAPPED) == 0) {
+                continue;
+            }
+
+            if ((d.flags & FLAG_WIDE) != 0) {
+                offset += offset & 1;
+                for (int i = 0; i < 4; i++) {
+                    d.mapIndex[i] = (offset - mapOffset) / 2 + 1;
+                    offset += 2 * u16(offset) + 2;
+                }
+            } else {
+                for (int i = 0; i < 4; i++) {
+                    d.mapIndex[i] = offset - mapOffset + 1;
+                    offset += u8(offset) + 1;
+                }
+            }
+        }
+
+        return offset + (offset & 1);
+    }
+
+    /**
+     * Return the stored value of the given position, from the perspective of the player to move: its WDL value for a
+     * WDL table, or its distance to zeroing in plies for a DTZ table, which may be CHANGE_STM
+     *
+     * @param board pieces indexed by square, a1 first
+     * @param blackStronger true if the table's white pieces are black's pieces on the board
+     * @param wdl the WDL value of the position, only used by DTZ tables
+     */
+    int probe(int[] board, boolean whiteToMove, boolean blackStronger, int wdl) {
+        int[] squares = new int[pieceCount];
+        int[] pieces = new int[pieceCount];
+        int size = 0;
+        int leadPawnCount = 0;
+        int leadPawn = 0;
+        int tableFile = 0;
+
+        // positions are stored with the stronger side as white, and a symmetric table only with white to move
+        boolean flip = (symmetric && !whiteToMove) || blackStronger;
+        int flipColor = flip ? 8 : 0;
+        int flipSquares = flip ? 56 : 0;
+        int sideToMove = (flip ? 1 : 0) ^ (whiteToMove ? 0 : 1);
+
+        if (hasPawns) {
+            leadPawn = (items[0][0].pieces[0] ^ flipColor) == 1 ? 1 : -1;
+
+            for (int square = 0; square < 64; square++) {
+                if (board[square] == leadPawn) {
+                    squares[size++] = square ^ flipSquares;
+                }
+            }
+            leadPawnCount = size;
+
+            int lead = 0;
+            for (int i = 1; i < size; i++) {
+                if (MAP_PAWNS[squares[i]] > MAP_PAWNS[squares[lead]]) {
+                    lead = i;
+                }
+            }
+            swap(squares, 0, lead);
+
+            tableFile = (squares[0] & 7) > 3 ? 7 - (squares[0] & 7) : squares[0] & 7;
+        }
+
+        // a DTZ table may only store one side to move
+        if (dtz && (items[0][tableFile].flags & FLAG_STM) != sideToMove && !(symmetric && !hasPawns)) {
+            return CHANGE_STM;
+        }
+
+        for (int square = 0; square < 64; square++) {
+            int piece = board[square];
+
+            if (piece != 0 && !(hasPawns && piece == leadPawn)) {
+                squares[size] = square ^ flipSquares;
+                pieces[size++] = (piece > 0 ? piece : 8 - piece) ^ flipColor;
+            }
+        }
+
+        PairsData d = items[dtz ? 0 : sideToMove][tableFile];
+
+        // put the pieces in the table's order
+        for (int i = leadPawnCount; i < size - 1; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (d.pieces[i] == pieces[j]) {
+                    swap(pieces, i, j);
+                    swap(squares, i, j);
+                    break;
+                }
+            }
+        }
+
+        // mirror the leading piece onto files a-d
+        if ((squares[0] & 7) > 3) {
+            for (int i = 0; i < size; i++) {
+                squares[i] ^= 7;
+            }
+        }
+
+        long index;
+
+        if (hasPawns) {
+            index = LEAD_PAWN_INDEX[leadPawnCount][squares[0]];
+
+            sortByPawnMap(squares, 1, leadPawnCount);
+            for (int i = 1; i < leadPawnCount; i++) {
+                index += BINOMIAL[i][MAP_PAWNS[squares[i]]];
+            }
+        } else {
+            // mirror the leading piece onto ranks 1-4, then below the a1-h8 diagonal
+            if ((squares[0] >> 3) > 3) {
+                for (int i = 0; i < size; i++) {
+                    squares[i] ^= 56;
+                }
+            }
+
+            for (int i = 0; i < d.groupLength[0]; i++) {
+                int offset = diagonalOffset(squares[i]);
+
+                if (offset == 0) {
+                    continue;
+                }
+
+                if (offset > 0) {
+                    for (int j = i; j < size; j++) {
+                        squares[j] = ((squares[j] >> 3) | (squares[j] << 3)) & 63;
+                    }
+                }
+                break;
+            }
+
+            if (hasUniquePieces) {
+                int adjust1 = squares[1] > squares[0] ? 1 : 0;
+                int adjust2 = (squares[2] > squares[0] ? 1 : 0) + (squares[2] > squares[1] ? 1 : 0);
+
+                if (diagonalOffset(squares[0]) != 0) {
+                    index = (MAP_A1D1D4[squares[0]] * 63L + (squares[1] - adjust1)) * 62 + squares[2] - adjust2;
+                } else if (diagonalOffset(squares[1]) != 0) {
+                    index = (6 * 63 + (squares[0] >> 3) * 28 + MAP_B1H1H7[squares[1]]) * 62L + squares[2] - adjust2;
+                } else if (diagonalOffset(squares[2]) != 0) {
+                    index = 6 * 63 * 62 + 4 * 28 * 62 + (squares[0] >> 3) * 7 * 28 +
+                            ((squares[1] >> 3) - adjust1) * 28 + MAP_B1H1H7[squares[2]];
+                } else {
+                    index = 6 * 63 * 62 + 4 * 28 * 62 + 4 * 7 * 28 + (squares[0] >> 3) * 7 * 6 +
+                            ((squares[1] >> 3) - adjust1) * 6 + ((squares[2] >> 3) - adjust2);
+                }
+            } else {
+                index = MAP_KK[MAP_A1D1D4[squares[0]]][squares[1]];
+            }
+        }
+
+        index *= d.groupIndex[0];
+
+        // each further group of like pieces is indexed by the squares left over by the groups before it
+        int groupStart = d.groupLength[0];
+        boolean remainingPawns = hasPawns && pawnCount[1] > 0;
+
+        for (int next = 1; d.groupLength[next] != 0; next++) {
+            int groupEnd = groupStart + d.groupLength[next];
+            Arrays.sort(squares, groupStart, groupEnd);
+            long n = 0;
+
+            for (int i = 0; groupStart + i < groupEnd; i++) {
+                int adjust = 0;
+                for (int j = 0; j < groupStart; j++) {
+                    if (squares[groupStart + i] > squares[j]) {
+                        adjust++;
+                    }
+                }
+
+                n += BINOMIAL[i + 1][squares[groupStart + i] - adjust - (remainingPawns ? 8 : 0)];
+            }
+
+            remainingPawns = false;
+            index += n * d.groupIndex[next];
+            groupStart = groupEnd;
+        }
+
+        int value = decompressPairs(d, index);
+        return dtz ? mapDtzValue(items[0][tableFile], value, wdl) : value - 2;
+    }
+
+    /**
+     * Return the value stored at the given index of a table
+     */
+    private int decompressPairs(PairsData d, long index) {
+        if ((d.flags & FLAG_SINGLE_VALUE) != 0) {
+            return d.minSymbolLength;
+        }
+
+        // the sparse index holds the block of every span-th value and its offset in that block
+        int k = (int) (index / d.span);
+        int block = data.getInt(d.sparseIndexOffset + 6 * k);
+        int offset = u16(d.sparseIndexOffset + 6 * k + 4);
+        long diff = index % d.span - d.span / 2;
+        offset += (int) diff;
+
+        while (offset < 0) {
+            offset += u16(d.blockLengthOffset + 2 * --block) + 1;
+        }
+        while (offset > u16(d.blockLengthOffset + 2 * block)) {
+            offset -= u16(d.blockLengthOffset + 2 * block++) + 1;
+        }
+
+        // read the block's symbols until the one that holds the value
+        int position = d.dataOffset + (int) (block * d.blockSize);
+        long buffer = Long.reverseBytes(data.getLong(position)); // the code is read big-endian
+        position += 8;
+        int bufferedBits = 64;
+        int symbol;
+
+        while (true) {
+            int length = 0;
+            while (Long.compareUnsigned(buffer, d.base64[length]) < 0) {
+                length++;
+            }
+
+            symbol = (int) ((buffer - d.base64[length]) >>> (64 - length - d.minSymbolLength));
+            symbol += u16(d.lowestSymbolOffset + 2 * length);
+
+            if (offset < d.symbolLength[symbol] + 1) {
+                break;
+            }
+
+            offset -= d.symbolLength[symbol] + 1;
+            length += d.minSymbolLength;
+            buffer <<= length;
+            bufferedBits -= length;
+
+            if (bufferedBits <= 32) {
+                bufferedBits += 32;
+                buffer |= (Integer.reverseBytes(data.getInt(position)) & 0xFFFFFFFFL) << (64 - bufferedBits);
+                position += 4;
+            }
+        }
+
+        // expand the pair symbol down to the value
+        while (d.symbolLength[symbol] != 0) {
+            int left = leftChild(d, symbol);
+
+            if (offset < d.symbolLength[left] + 1) {
+                symbol = left;
+            } else {
+                offset -= d.symbolLength[left] + 1;
+                symbol = rightChild(d, symbol);
+            }
+        }
+
+        return leftChild(d, symbol);
+    }
+
+    /**
+     * Return the distance to zeroing in plies of a stored DTZ value, which may be in moves or mapped
+     */
+    private int mapDtzValue(PairsData d, int value, int wdl) {
+        if ((d.flags & FLAG_MAPPED) != 0) {
+            int index = d.mapIndex[WDL_MAP[wdl + 2]] + value;
+            value = (d.flags & FLAG_WIDE) != 0 ? u16(mapOffset + 2 * index) : u8(mapOffset + index);
+        }
+
+        // a win or loss counted in moves is doubled, which is always the case beyond the 50 move rule
+        if ((wdl == Tablebase.WIN && (d.flags & FLAG_WIN_PLIES) == 0) ||
+                (wdl == Tablebase.LOSS && (d.flags & FLAG_LOSS_PLIES) == 0) ||
+                wdl == Tablebase.CURSED_WIN || wdl == Tablebase.BLESSED_LOSS) {
+            value *= 2;
+        }
+
+        return value + 1;
+    }
+
+    private int u8(int offset) {
+        return data.get(offset) & 0xFF;
+    }
+
+    private int u16(int offset) {
+        return data.getShort(offset) & 0xFFFF;
+    }
+
+    /**
+     * Sort the given range of pawn squares by their MAP_PAWNS index
+     */
+    private static void sortByPawnMap(int[] squares, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int square = squares[i];
+            int j = i - 1;
+
+            while (j >= from && MAP_PAWNS[squares[j]] > MAP_PAWNS[square]) {
+                squares[j + 1] = squares[j];
+                j--;
+            }
+            squares[j + 1] = square;
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    /**
+     * Return the number of ranks the given square is above the a1-h8 diagonal, negative below it
+     */
+    static int diagonalOffset(int square) {
+        return (square >> 3) - (square & 7);
+    }
+
+    private static int distance(int a, int b) {
+        return Math.max(Math.abs((a >> 3) - (b >> 3)), Math.abs((a & 7) - (b & 7)));
+    }
+
+    /**
+     * Getters & Setters
+     */
+    int getPieceCount() {
+        return pieceCount;
+    }
+
+    boolean hasPawns() {
+        return hasPawns;
+    }
+}
@@ -0,0 +1,417 @@
+package model.tablebase;
+
+import model.Game;
+import model.Move;
+import model.Piece;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.lang.Math.abs;
+
+// Represents the Syzygy endgame tablebases found in a list of directories. WDL tables (.rtbw) store the win/draw/loss
+// value of every position of a material signature and DTZ tables (.rtbz) the distance to the next zeroing move (a
+// capture or pawn move) under the 50 move rule. Neither stores positions where the side to move can capture, so a probe
+// first plays out the captures. Tables are mapped into memory on their first probe and may be probed by several
+// threads at once
+public class SyzygyTablebase implements Tablebase {
+    public static final int MAX_PIECES = 7;
+
+    private static final Pattern SIGNATURE = Pattern.compile("K[QRBNP]*vK[QRBNP]*");
+    private static final String PIECE_LETTERS = "QRBNP"; // in signature order, after the king
+    private static final int MAX_DTZ = 1 << 18; // beyond every root move rank that is not a certain win or loss
+
+    // outcomes of a probe, beyond its value
+    private static final int FAIL = 0;
+    private static final int OK = 1;
+    private static final int CHANGE_STM = 2; // the DTZ table of the other side to move must be used
+    private static final int ZEROING_BEST_MOVE = 3; // the best move zeroes the halfmove clock
+
+    private final Map<String, SyzygyTable> wdlTables = new HashMap<>();
+    private final Map<String, SyzygyTable> dtzTables = new HashMap<>();
+    private int largestTable;
+    private int probeLimit = MAX_PIECES;
+
+    // the outcome of a probe that is passed through its recursive searches
+    private static class ProbeState {
+        int result = OK;
+    }
+
+    /**
+     * Construct a new tablebase from the table files in the given directories, separated by the platform's path
+     * separator (':' or ';'). Files are only opened once they are probed
+     *
+     * @throws IOException if one of the directories cannot be listed
+     */
+    public SyzygyTablebase(String paths) throws IOException {
+        for (String directory: paths.split(Pattern.quote(File.pathSeparator))) {
+            if (!directory.isBlank()) {
+                addDirectory(Path.of(directory.trim()));
+            }
+        }
+    }
+
+    private void addDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file: (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                boolean dtz = name.endsWith(".rtbz");
+
+                if (!dtz && !name.endsWith(".rtbw")) {
+                    continue;
+                }
+
+                String signature = name.substring(0, name.length() - 5);
+                if (!SIGNATURE.matcher(signature).matches() || signature.length() - 1 > MAX_PIECES) {
+                    continue;
+                }
+
+                SyzygyTable table = new SyzygyTable(file, signature, dtz);
+                (dtz ? dtzTables : wdlTables).putIfAbsent(signature, table);
+
+                if (!dtz) {
+                    largestTable = Math.max(largestTable, table.getPieceCount());
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getMaxPieces() {
+        return Math.min(largestTable, probeLimit);
+    }
+
+    @Override
+    public int probeWdl(Game game) {
+        ProbeState state = new ProbeState();
+        int wdl = search(game, state, false);
+
+        return state.result == FAIL ? UNKNOWN : wdl;
+    }
+
+    @Override
+    public int probeDtz(Game game) {
+        ProbeState state = new ProbeState();
+        int dtz = probeDtz(game, state);
+
+        return state.result == FAIL ? UNKNOWN : dtz;
+    }
+
+    /**
+     * Return the best legal move of the given game by distance to zeroing: a move that keeps a win within the 50
+     * move rule while zeroing soonest, or a move that delays a loss the longest. If the DTZ tables are missing, the
+     * first move with the best WDL value is returned
+     */
+    @Override
+    public Move probeRoot(Game game) {
+        if (!covers(game)) {
+            return null;
+        }
+
+        Move move = rankByDtz(game);
+        return move != null ? move : rankByWdl(game);
+    }
+
+    private Move rankByDtz(Game game) {
+        ProbeState state = new ProbeState();
+        int halfmoveClock = game.getHalfmoveClock();
+        Move bestMove = null;
+        int bestRank = Integer.MIN_VALUE;
+        int bestDtz = 0;
+
+        for (Move move: legalMoves(game)) {
+            game.makeMove(move);
+            int dtz;
+
+            if (game.getHalfmoveClock() == 0) {
+                state.result = OK;
+                dtz = dtzBeforeZeroing(-search(game, state, false));
+            } else if (game.getHalfmoveClock() >= 100 && !isCheckmate(game)) {
+                dtz = 0;
+            } else {
+                // the distance counted from the root is one ply more
+                dtz = -probeDtz(game, state);
+                dtz += Integer.signum(dtz);
+            }
+
+            if (dtz == 2 && isCheckmate(game)) {
+                dtz = 1;
+            }
+
+            game.undoMove(move);
+
+            if (state.result == FAIL) {
+                return null;
+            }
+
+            // certain wins and losses rank alike, otherwise a win or loss is better the further it is from the 50
+            // move limit
+            int rank;
+            if (dtz > 0) {
+                rank = dtz + halfmoveClock <= 99 ? MAX_DTZ : MAX_DTZ - (dtz + halfmoveClock);
+            } else if (dtz < 0) {
+                rank = -dtz * 2 + halfmoveClock < 100 ? -MAX_DTZ : -MAX_DTZ + (-dtz + halfmoveClock);
+            } else {
+                rank = 0;
+            }
+
+            // among equal ranks, win quickly and lose slowly
+            if (rank > bestRank || (rank == bestRank && dtz != 0 && dtz < bestDtz)) {
+                bestMove = move;
+                bestRank = rank;
+                bestDtz = dtz;
+            }
+        }
+
+        return bestMove;
+    }
+
+    private Move rankByWdl(Game game) {
+        Move bestMove = null;
+        int bestWdl = Integer.MIN_VALUE;
+
+        for (Move move: legalMoves(game)) {
+            game.makeMove(move);
+            int wdl = probeWdl(game);
+            game.undoMove(move);
+
+            if (wdl == UNKNOWN) {
+                return null;
+            }
+
+            if (-wdl > bestWdl) {
+                bestMove = move;
+                bestWdl = -wdl;
+            }
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Return the WDL value of the given game's position after playing out the captures, and the pawn moves if
+     * checkZeroingMoves is set. The state's result is set to ZEROING_BEST_MOVE if the best move is one of those
+     */
+    private int search(Game game, ProbeState state, boolean checkZeroingMoves) {
+        List<Move> moves = legalMoves(game);
+        int bestValue = LOSS;
+        int moveCount = 0;
+
+        for (Move move: moves) {
+            if (move.getCapturedPiece() == Piece.empty &&
+                    (!checkZeroingMoves || abs(move.getMovedPiece()) != Piece.wPawn)) {
+                continue;
+            }
+
+            moveCount++;
+
+            game.makeMove(move);
+            int value = -search(game, state, false);
+            game.undoMove(move);
+
+            if (state.result == FAIL) {
+                return DRAW;
+            }
+
+            if (value > bestValue) {
+                bestValue = value;
+
+                if (value >= WIN) {
+                    state.result = ZEROING_BEST_MOVE;
+                    return value;
+                }
+            }
+        }
+
+        // if every move was searched, the table is not needed
+        boolean noMoreMoves = moveCount > 0 && moveCount == moves.size();
+        int value;
+
+        if (noMoreMoves) {
+            value = bestValue;
+        } else {
+            value = probeTable(game, false, DRAW, state);
+
+            if (state.result == FAIL) {
+                return DRAW;
+            }
+        }
+
+        if (bestValue >= value) {
+            state.result = bestValue > DRAW || noMoreMoves ? ZEROING_BEST_MOVE : OK;
+            return bestValue;
+        }
+
+        state.result = OK;
+        return value;
+    }
+
+    private int probeDtz(Game game, ProbeState state) {
+        state.result = OK;
+        int wdl = search(game, state, true);
+
+        if (state.result == FAIL || wdl == DRAW) {
+            return 0;
+        }
+
+        if (state.result == ZEROING_BEST_MOVE) {
+            return dtzBeforeZeroing(wdl);
+        }
+
+        int dtz = probeTable(game, true, wdl, state);
+
+        if (state.result == FAIL) {
+            return 0;
+        }
+
+        if (state.result != CHANGE_STM) {
+            return (dtz + (wdl == BLESSED_LOSS || wdl == CURSED_WIN ? 100 : 0)) * Integer.signum(wdl);
+        }
+
+        // the table only stores the other side to move, so search one ply for the shortest winning (or longest
+        // losing) distance
+        int minDtz = Integer.MAX_VALUE;
+
+        for (Move move: legalMoves(game)) {
+            boolean zeroing = move.getCapturedPiece() != Piece.empty || abs(move.getMovedPiece()) == Piece.wPawn;
+
+            game.makeMove(move);
+
+            // a zeroing move is counted by the distance before it, with the sign of the value after it
+            dtz = zeroing ? -dtzBeforeZeroing(search(game, state, false)) : -probeDtz(game, state);
+
+            if (dtz == 1 && isCheckmate(game)) {
+                minDtz = 1;
+            }
+
+            if (!zeroing) {
+                dtz += Integer.signum(dtz);
+            }
+
+            if (dtz < minDtz && Integer.signum(dtz) == Integer.signum(wdl)) {
+                minDtz = dtz;
+            }
+
+            game.undoMove(move);
+
+            if (state.result == FAIL) {
+                return 0;
+            }
+        }
+
+        // without a legal move the player to move is checkmated
+        return minDtz == Integer.MAX_VALUE ? -1 : minDtz;
+    }
+
+    /**
+     * Return the distance to zeroing of a position whose best move is a zeroing move with the given WDL value
+     */
+    private static int dtzBeforeZeroing(int wdl) {
+        switch (wdl) {
+            case WIN:
+                return 1;
+            case CURSED_WIN:
+                return 101;
+            case BLESSED_LOSS:
+                return -101;
+            case LOSS:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Return the value stored for the given game's position in its WDL or DTZ table, setting the state's result to
+     * FAIL if there is no such table or to CHANGE_STM if the DTZ table only stores the other side to move
+     */
+    private int probeTable(Game game, boolean dtz, int wdl, ProbeState state) {
+        int[] board = game.getBoard().getBoard();
+        String white = material(board, true);
+        String black = material(board, false);
+
+        // two bare kings are a draw without a table
+        if (white.length() + black.length() == 2) {
+            return DRAW;
+        }
+
+        Map<String, SyzygyTable> tables = dtz ? dtzTables : wdlTables;
+        SyzygyTable table = tables.get(white + "v" + black);
+        boolean blackStronger = false;
+
+        if (table == null) {
+            table = tables.get(black + "v" + white);
+            blackStronger = true;
+        }
+
+        if (table == null || !table.isReady()) {
+            state.result = FAIL;
+            return DRAW;
+        }
+
+        int value = table.probe(board, game.getCurrentTurn().isWhite(), blackStronger, wdl);
+
+        if (value == SyzygyTable.CHANGE_STM) {
+            state.result = CHANGE_STM;
+        }
+
+        return value;
+    }
+
+    /**
+     * Return the pieces of the given color as they are written in a table name, e.g. KRP
+     */
+    private static String material(int[] board, boolean white) {
+        int[] counts = new int[Piece.wKing + 1];
+
+        for (int piece: board) {
+            if (piece != 0 && (piece > 0) == white) {
+                counts[abs(piece)]++;
+            }
+        }
+
+        StringBuilder material = new StringBuilder("K");
+        for (char letter: PIECE_LETTERS.toCharArray()) {
+            int type = Piece.wQueen - PIECE_LETTERS.indexOf(letter);
+            material.append(String.valueOf(letter).repeat(counts[type]));
+        }
+
+        return material.toString();
+    }
+
+    private static List<Move> legalMoves(Game game) {
+        return game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn());
+    }
+
+    private static boolean isCheckmate(Game game) {
+        return game.isInCheck() && legalMoves(game).isEmpty();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public int getProbeLimit() {
+        return probeLimit;
+    }
+
+    /**
+     * Only probe positions of at most the given number of pieces, e.g. to keep the largest tables out of the search
+     */
+    public void setProbeLimit(int probeLimit) {
+        this.probeLimit = probeLimit;
+    }
+
+    /**
+     * Return the number of WDL tables found
+     */
+    public int getTableCount() {
+        return wdlTables.size();
+    }
+}
@@ -0,0 +1,63 @@
+package model.tablebase;
+
+import model.Game;
+import model.Move;
+
+// Represents a source of perfect endgame knowledge. Positions are probed for their win/draw/loss (WDL) value from the
+// perspective of the player to move, where the 50 move rule turns some wins into cursed wins and some losses into
+// blessed losses, which are draws in practice
+public interface Tablebase {
+    int LOSS = -2;
+    int BLESSED_LOSS = -1;
+    int DRAW = 0;
+    int CURSED_WIN = 1;
+    int WIN = 2;
+    int UNKNOWN = Integer.MIN_VALUE; // the position is not covered by the tablebase
+
+    /**
+     * Return the largest number of pieces, kings included, of a position that can be probed
+     */
+    int getMaxPieces();
+
+    /**
+     * Return the WDL value of the given game's position for the player to move, assuming that the last move reset the
+     * halfmove clock, or UNKNOWN if the position cannot be probed
+     */
+    int probeWdl(Game game);
+
+    /**
+     * Return the number of plies to the next zeroing move of the given game's position under perfect play, assuming
+     * that the last move reset the halfmove clock: positive if the player to move wins, negative if they lose and
+     * beyond 100 in absolute value if the 50 move rule turns the result into a draw. Return 0 for a draw, -1 if the
+     * player to move is checkmated or UNKNOWN if the position cannot be probed or the tablebase has no such distances
+     */
+    default int probeDtz(Game game) {
+        return UNKNOWN;
+    }
+
+    /**
+     * Return a legal move of the given game that keeps its WDL value and makes progress towards a zeroing move under
+     * the 50 move rule, or null if the position cannot be probed
+     */
+    Move probeRoot(Game game);
+
+    /**
+     * Return true if the given game's position may be probed: it has no castling rights and at most getMaxPieces()
+     * pieces
+     */
+    default boolean covers(Game game) {
+        if (game.canWhiteKingSideCastle() || game.canWhiteQueenSideCastle() || game.canBlackKingSideCastle() ||
+                game.canBlackQueenSideCastle()) {
+            return false;
+        }
+
+        int pieces = 0;
+        for (int piece: game.getBoard().getBoard()) {
+            if (piece != 0) {
+                pieces++;
+            }
+        }
+
+        return pieces <= getMaxPieces();
+    }
+}
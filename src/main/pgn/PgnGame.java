@@ -0,0 +1,144 @@
+package pgn;
+
+import model.FenUtility;
+import model.Game;
+import model.Move;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents one game of a Portable Game Notation (PGN) file: its tag pairs, its moves in Standard Algebraic Notation
+// (SAN), the moves resolved against the position they were played in, and its result
+public class PgnGame {
+    public static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    public static final String WHITE_WIN = "1-0";
+    public static final String BLACK_WIN = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNKNOWN_RESULT = "*";
+
+    private final long number;
+    private final Map<String, String> tags;
+    private final List<String> sanMoves;
+    private final List<Move> moves;
+    private String result;
+    private Game game;
+    private String error;
+
+    /**
+     * Construct a new empty game with the given position in its file, starting at 0
+     */
+    public PgnGame(long number) {
+        this.number = number;
+        this.tags = new LinkedHashMap<>();
+        this.sanMoves = new ArrayList<>();
+        this.moves = new ArrayList<>();
+        this.result = UNKNOWN_RESULT;
+    }
+
+    /**
+     * Return a new game record of the given game, which must have been played from the starting position, with the
+     * result taken from its status
+     */
+    public static PgnGame fromGame(Game game) {
+        PgnGame pgnGame = new PgnGame(0);
+
+        pgnGame.moves.addAll(game.getBoard().getMoveList());
+        pgnGame.game = game;
+        pgnGame.setResult(getResult(game));
+
+        return pgnGame;
+    }
+
+    /**
+     * Return the PGN result of the given game's status
+     */
+    public static String getResult(Game game) {
+        switch (game.getGameStatus()) {
+            case WHITE_CHECKMATE:
+            case BLACK_TIMEOUT:
+            case BLACK_FORFEIT:
+            case BLACK_RESIGNATION:
+                return WHITE_WIN;
+            case BLACK_CHECKMATE:
+            case WHITE_TIMEOUT:
+            case WHITE_FORFEIT:
+            case WHITE_RESIGNATION:
+                return BLACK_WIN;
+            case STALEMATE:
+            case THREEFOLD_REPETITION:
+            case FIFTY_MOVE_RULE:
+                return DRAW;
+            default:
+                return UNKNOWN_RESULT;
+        }
+    }
+
+    /**
+     * Return the FEN string of the position the game starts from, i.e. its FEN tag or the standard starting position
+     */
+    public String getStartFen() {
+        return tags.getOrDefault("FEN", FenUtility.START_GAME_FEN);
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public List<String> getSanMoves() {
+        return sanMoves;
+    }
+
+    /**
+     * Return the resolved moves of the game. If a move could not be resolved, this holds the moves before it and
+     * getError describes the problem
+     */
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+        tags.put("Result", result);
+    }
+
+    /**
+     * Return the game the moves were resolved in, in the position after the last resolved move, or null if the
+     * moves were not resolved
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
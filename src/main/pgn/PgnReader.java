@@ -0,0 +1,306 @@
+package pgn;
+
+import model.Game;
+import model.Move;
+import model.SanUtility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// Represents a streaming reader of Portable Game Notation (PGN) files. Games are read one at a time through a fixed
+// size buffer, so files of any size are read in constant memory. Comments, variations, annotation glyphs and escape
+// lines are skipped, and each move is resolved from the pieces that can reach its destination square rather than by
+// generating every legal move of the position
+public class PgnReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int END_OF_FILE = -1;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private int pushedBack;
+    private int currentChar;
+    private int previousChar;
+
+    private final StringBuilder token;
+    private boolean resolveMoves;
+    private long gamesRead;
+
+    /**
+     * Construct a new PGN reader reading from the given reader, which resolves the moves of every game
+     */
+    public PgnReader(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.pushedBack = END_OF_FILE;
+        this.currentChar = '\n';
+        this.token = new StringBuilder(32);
+        this.resolveMoves = true;
+    }
+
+    /**
+     * Return the next game, or null once the input is exhausted. A game whose moves cannot be resolved is still
+     * returned, with its error set and its resolved moves ending before the move that failed
+     */
+    public PgnGame next() throws IOException {
+        PgnGame pgnGame = new PgnGame(gamesRead);
+        boolean inMoveText = false;
+        Game game = null;
+        int c;
+
+        while ((c = read()) != END_OF_FILE) {
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+
+            if (c == '%' && previousChar == '\n') {
+                skipLine();
+            } else if (c == '[') {
+                // a tag pair after the move text starts the next game, so the current one had no result
+                if (inMoveText) {
+                    unread(c);
+                    break;
+                }
+                readTag(pgnGame);
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';') {
+                skipLine();
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == '$') {
+                readSymbol(c);
+            } else {
+                inMoveText = true;
+                String symbol = readSymbol(c);
+
+                if (isResult(symbol)) {
+                    pgnGame.setResult(symbol);
+                    break;
+                }
+
+                String san = stripMoveNumber(symbol);
+                if (san.isEmpty()) {
+                    continue;
+                }
+
+                pgnGame.getSanMoves().add(san);
+
+                if (!resolveMoves || pgnGame.getError() != null) {
+                    continue;
+                }
+
+                try {
+                    if (game == null) {
+                        game = new Game();
+                        game.setBoardFEN(pgnGame.getStartFen());
+                        pgnGame.setGame(game);
+                    }
+
+                    Move move = SanUtility.parseMove(game, san);
+                    game.makeMove(move);
+                    pgnGame.getMoves().add(move);
+                } catch (RuntimeException e) {
+                    pgnGame.setError("move " + pgnGame.getSanMoves().size() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        if (!inMoveText && pgnGame.getTags().isEmpty()) {
+            return null;
+        }
+
+        if (resolveMoves && game == null && pgnGame.getError() == null) {
+            try {
+                game = new Game();
+                game.setBoardFEN(pgnGame.getStartFen());
+                pgnGame.setGame(game);
+            } catch (RuntimeException e) {
+                pgnGame.setError("could not set up position: " + e.getMessage());
+            }
+        }
+
+        if (game != null) {
+            game.updateStatus();
+        }
+
+        gamesRead++;
+        return pgnGame;
+    }
+
+    /**
+     * Read a tag pair such as [White "Carlsen, Magnus"], whose opening bracket has already been read
+     */
+    private void readTag(PgnGame pgnGame) throws IOException {
+        int c;
+        token.setLength(0);
+
+        while ((c = read()) != END_OF_FILE && Character.isWhitespace(c)) {
+            // skip whitespace before the name
+        }
+        while (c != END_OF_FILE && !Character.isWhitespace(c) && c != '"' && c != ']') {
+            token.append((char) c);
+            c = read();
+        }
+
+        String name = token.toString();
+        token.setLength(0);
+
+        while (c != END_OF_FILE && c != '"' && c != ']') {
+            c = read();
+        }
+
+        if (c == '"') {
+            while ((c = read()) != END_OF_FILE && c != '"') {
+                if (c == '\\') {
+                    c = read();
+                }
+                token.append((char) c);
+            }
+            skipUntil(']');
+        }
+
+        pgnGame.setTag(name, token.toString());
+
+        if (name.equals("Result")) {
+            pgnGame.setResult(token.toString());
+        }
+    }
+
+    /**
+     * Read a symbol such as a move, move number or result, starting with the given character
+     */
+    private String readSymbol(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        int c;
+
+        while ((c = read()) != END_OF_FILE) {
+            if (Character.isWhitespace(c) || c == '{' || c == '}' || c == '(' || c == ')' || c == '[' ||
+                    c == ']' || c == ';' || c == '$') {
+                unread(c);
+                break;
+            }
+            token.append((char) c);
+        }
+
+        return token.toString();
+    }
+
+    /**
+     * Return the given symbol without a leading move number such as 12. or 12... which may be attached to the move
+     */
+    private static String stripMoveNumber(String symbol) {
+        if (symbol.isEmpty() || !Character.isDigit(symbol.charAt(0)) || symbol.startsWith("0-0")) {
+            return symbol;
+        }
+
+        int i = 0;
+        while (i < symbol.length() && (Character.isDigit(symbol.charAt(i)) || symbol.charAt(i) == '.')) {
+            i++;
+        }
+
+        return symbol.substring(i);
+    }
+
+    private static boolean isResult(String symbol) {
+        return symbol.equals(PgnGame.WHITE_WIN) || symbol.equals(PgnGame.BLACK_WIN) ||
+                symbol.equals(PgnGame.DRAW) || symbol.equals(PgnGame.UNKNOWN_RESULT);
+    }
+
+    /**
+     * Skip a recursive annotation variation, whose opening parenthesis has already been read, including any nested
+     * variations and comments
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+
+        while (depth > 0 && (c = read()) != END_OF_FILE) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';') {
+                skipLine();
+            }
+        }
+    }
+
+    private void skipUntil(char end) throws IOException {
+        int c;
+        while ((c = read()) != END_OF_FILE && c != end) {
+            // skip
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != END_OF_FILE && c != '\n') {
+            // skip
+        }
+    }
+
+    /**
+     * Return the next character of the input, or END_OF_FILE
+     */
+    private int read() throws IOException {
+        int c;
+
+        if (pushedBack != END_OF_FILE) {
+            c = pushedBack;
+            pushedBack = END_OF_FILE;
+        } else {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+
+                if (limit <= 0) {
+                    limit = 0;
+                    return END_OF_FILE;
+                }
+            }
+            c = buffer[position++];
+        }
+
+        previousChar = currentChar;
+        currentChar = c;
+        return c;
+    }
+
+    /**
+     * Push back the given character, which was the last one read, so that it is returned by the next read
+     */
+    private void unread(int c) {
+        pushedBack = c;
+        currentChar = previousChar;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public boolean isResolveMoves() {
+        return resolveMoves;
+    }
+
+    /**
+     * Set whether moves are resolved. Without resolving, games only carry their tags and SAN moves, which is much
+     * faster when only the tags are needed
+     */
+    public void setResolveMoves(boolean resolveMoves) {
+        this.resolveMoves = resolveMoves;
+    }
+
+    public long getGamesRead() {
+        return gamesRead;
+    }
+}
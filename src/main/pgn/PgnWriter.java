@@ -0,0 +1,154 @@
+package pgn;
+
+import model.Game;
+import model.Move;
+import model.SanUtility;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+// Represents a writer of Portable Game Notation (PGN) files in export format: the seven tag roster first, then any
+// other tags, then the move text in Standard Algebraic Notation (SAN) wrapped to lines of at most 80 characters
+public class PgnWriter implements Closeable, Flushable {
+    private static final int MAX_LINE_LENGTH = 79;
+
+    private final Writer writer;
+    private final StringBuilder line;
+
+    /**
+     * Construct a new PGN writer writing to the given writer
+     */
+    public PgnWriter(Writer writer) {
+        this.writer = writer;
+        this.line = new StringBuilder(MAX_LINE_LENGTH + 8);
+    }
+
+    /**
+     * Write the given game, replaying its moves from its starting position to format them in SAN
+     *
+     * @throws IllegalArgumentException if a move of the game is not legal in the position it is played in
+     */
+    public void write(PgnGame pgnGame) throws IOException {
+        writeTags(pgnGame);
+        writer.write('\n');
+
+        Game game = new Game();
+        game.setBoardFEN(pgnGame.getStartFen());
+
+        int moveNumber = game.getFullmoveNumber();
+        List<Move> legalMoves = game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn());
+        boolean firstMove = true;
+
+        line.setLength(0);
+
+        for (Move played: pgnGame.getMoves()) {
+            Move move = findLegalMove(played, legalMoves);
+            boolean whiteMove = move.isWhiteMove();
+
+            if (whiteMove) {
+                writeSymbol(moveNumber + ".");
+            } else if (firstMove) {
+                writeSymbol(moveNumber + "...");
+            }
+
+            String san = SanUtility.formatMove(move, legalMoves);
+            game.makeMove(move);
+            legalMoves = game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn());
+
+            if (game.getMoveGenerator().inCheck()) {
+                san += legalMoves.isEmpty() ? "#" : "+";
+            }
+
+            writeSymbol(san);
+
+            if (!whiteMove) {
+                moveNumber++;
+            }
+            firstMove = false;
+        }
+
+        writeSymbol(pgnGame.getResult());
+        writer.write(line.toString());
+        writer.write("\n\n");
+    }
+
+    /**
+     * Write the seven tag roster, using ? for missing tags, followed by every other tag of the given game
+     */
+    private void writeTags(PgnGame pgnGame) throws IOException {
+        for (String name: PgnGame.SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? pgnGame.getResult() : pgnGame.getTag(name);
+            writeTag(name, value == null ? "?" : value);
+        }
+
+        for (Map.Entry<String, String> tag: pgnGame.getTags().entrySet()) {
+            if (!isSevenTagRoster(tag.getKey())) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        writer.write('[');
+        writer.write(name);
+        writer.write(" \"");
+        writer.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        writer.write("\"]\n");
+    }
+
+    /**
+     * Append the given symbol to the current line of move text, starting a new line if it would be too long
+     */
+    private void writeSymbol(String symbol) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + symbol.length() > MAX_LINE_LENGTH) {
+            writer.write(line.toString());
+            writer.write('\n');
+            line.setLength(0);
+        }
+
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(symbol);
+    }
+
+    /**
+     * Return the legal move of the current position with the same squares and type as the given move, which may
+     * belong to another game
+     */
+    private static Move findLegalMove(Move played, List<Move> legalMoves) {
+        for (Move move: legalMoves) {
+            if (move.getStartX() == played.getStartX() && move.getStartY() == played.getStartY() &&
+                    move.getEndX() == played.getEndX() && move.getEndY() == played.getEndY() &&
+                    move.getMoveType() == played.getMoveType()) {
+                return move;
+            }
+        }
+
+        throw new IllegalArgumentException("illegal move: " + played.formatUciMove());
+    }
+
+    private static boolean isSevenTagRoster(String name) {
+        for (String rosterName: PgnGame.SEVEN_TAG_ROSTER) {
+            if (rosterName.equals(name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
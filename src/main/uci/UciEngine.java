@@ -0,0 +1,557 @@
+package uci;
+
+import enumerations.BookSelection;
+import enumerations.ScoreBound;
+import model.FenUtility;
+import model.Game;
+import model.Move;
+import model.book.PolyglotBook;
+import model.nnue.NnueNetwork;
+import model.search.Search;
+import model.search.SearchInfo;
+import model.search.SearchLimits;
+import model.search.SearchListener;
+import model.search.SearchResult;
+import model.search.SearchService;
+import model.tablebase.EndgameTablebase;
+import model.tablebase.SyzygyTablebase;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+// Represents a headless chess engine that speaks the Universal Chess Interface (UCI) protocol over a pair of streams,
+// so that the engine can be driven by tournament managers and analysis tools without starting the GUI. Searches run on
+// a SearchService, so the transposition table is kept between the moves of a game. With OwnBook set, moves of the
+// Polyglot book in BookFile are played without searching, and the Syzygy tablebases in SyzygyPath are probed by the
+// search (or, without them, the generated endgame tables in EndgamePath). With EvalFile set, positions are evaluated by
+// the neural network in that file in place of the weighted evaluation terms. With MultiPV above 1, every iteration
+// reports that many best lines
+public class UciEngine {
+    public static final String ENGINE_NAME = "Chess-Engine";
+    public static final String ENGINE_AUTHOR = "Chess-Engine developers";
+
+    private static final int MAX_HASH_SIZE = 1024;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+
+    private final SearchService searchService;
+    private CompletableFuture<Void> reportedBestMove; // completes once the running search has sent its bestmove
+
+    private Game game;
+    private int hashSize = SearchService.DEFAULT_HASH_SIZE;
+    private int threads = 1;
+    private int multiPv = 1;
+    private boolean ownBook;
+    private PolyglotBook book;
+    private BookSelection bookSelection = BookSelection.WEIGHTED_RANDOM;
+    private SyzygyTablebase tablebase;
+    private int syzygyProbeLimit = SyzygyTablebase.MAX_PIECES;
+    private EndgameTablebase endgameTablebase;
+    private NnueNetwork network;
+
+    public static void main(String[] args) throws IOException {
+        new UciEngine(System.in, System.out).run();
+    }
+
+    /**
+     * Construct a new UCI engine that reads commands from the given input and writes responses to the given output
+     */
+    public UciEngine(InputStream input, PrintStream output) {
+        this.input = new BufferedReader(new InputStreamReader(input));
+        this.output = output;
+        this.searchService = new SearchService(hashSize);
+        this.game = new Game();
+    }
+
+    /**
+     * Read and handle commands until the quit command is received or the input ends
+     */
+    public void run() throws IOException {
+        String line;
+
+        while ((line = input.readLine()) != null) {
+            if (!handleCommand(line.trim())) {
+                break;
+            }
+        }
+
+        stopSearch();
+        searchService.shutdown();
+        closeBook();
+    }
+
+    /**
+     * Handle a single UCI command
+     *
+     * @return false if the engine should quit, true otherwise
+     */
+    public boolean handleCommand(String command) {
+        String[] tokens = command.split("\\s+");
+
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + ENGINE_NAME);
+                send("id author " + ENGINE_AUTHOR);
+                send("option name Hash type spin default " + SearchService.DEFAULT_HASH_SIZE + " min 1 max " + MAX_HASH_SIZE);
+                send("option name Ponder type check default false");
+                send("option name Threads type spin default 1 min 1 max 1");
+                send("option name MultiPV type spin default 1 min 1 max " + Search.MAX_MULTI_PV);
+                send("option name OwnBook type check default false");
+                send("option name BookFile type string default <empty>");
+                send("option name BestBookMove type check default false");
+                send("option name SyzygyPath type string default <empty>");
+                send("option name SyzygyProbeLimit type spin default " + SyzygyTablebase.MAX_PIECES + " min 0 max " +
+                        SyzygyTablebase.MAX_PIECES);
+                send("option name EndgamePath type string default <empty>");
+                send("option name EvalFile type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "ucinewgame":
+                stopSearch();
+                searchService.clearHash();
+                game = new Game();
+                break;
+            case "setoption":
+                setOption(tokens);
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                startSearch(parseLimits(tokens));
+                break;
+            case "ponderhit":
+                searchService.ponderHit();
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            default:
+                // unknown commands are ignored, as the protocol requires
+                break;
+        }
+
+        return true;
+    }
+
+    /**
+     * Handle "setoption name <id> value <x>". The value runs to the end of the command, so that file names may hold
+     * spaces. Unknown options and malformed values are ignored
+     */
+    private void setOption(String[] tokens) {
+        String name = null;
+        String value = null;
+
+        for (int i = 1; i < tokens.length - 1; i++) {
+            if (tokens[i].equals("name")) {
+                name = tokens[i + 1];
+            } else if (tokens[i].equals("value")) {
+                value = String.join(" ", Arrays.copyOfRange(tokens, i + 1, tokens.length));
+                break;
+            }
+        }
+
+        if (name == null || value == null) {
+            return;
+        }
+
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                hashSize = Math.max(1, Math.min(Integer.parseInt(value), MAX_HASH_SIZE));
+                searchService.setHashSize(hashSize);
+            } else if (name.equalsIgnoreCase("Threads")) {
+                threads = Math.max(1, Integer.parseInt(value));
+            } else if (name.equalsIgnoreCase("MultiPV")) {
+                multiPv = Math.max(1, Math.min(Integer.parseInt(value), Search.MAX_MULTI_PV));
+                searchService.setMultiPv(multiPv);
+            } else if (name.equalsIgnoreCase("OwnBook")) {
+                ownBook = Boolean.parseBoolean(value);
+            } else if (name.equalsIgnoreCase("BookFile")) {
+                openBook(value);
+            } else if (name.equalsIgnoreCase("BestBookMove")) {
+                bookSelection = Boolean.parseBoolean(value) ? BookSelection.BEST_WEIGHT : BookSelection.WEIGHTED_RANDOM;
+                if (book != null) {
+                    book.setSelection(bookSelection);
+                }
+            } else if (name.equalsIgnoreCase("SyzygyPath")) {
+                openTablebase(value);
+            } else if (name.equalsIgnoreCase("SyzygyProbeLimit")) {
+                syzygyProbeLimit = Math.max(0, Math.min(Integer.parseInt(value), SyzygyTablebase.MAX_PIECES));
+                if (tablebase != null) {
+                    tablebase.setProbeLimit(syzygyProbeLimit);
+                }
+            } else if (name.equalsIgnoreCase("EndgamePath")) {
+                openEndgameTablebase(value);
+            } else if (name.equalsIgnoreCase("EvalFile")) {
+                loadNetwork(value);
+            }
+        } catch (NumberFormatException e) {
+            // ignore malformed option values
+        }
+    }
+
+    /**
+     * Open the Polyglot book at the given path in place of the current one, or only close the current one if the path
+     * is <empty>
+     */
+    private void openBook(String path) {
+        closeBook();
+
+        if (path.isEmpty() || path.equals("<empty>")) {
+            return;
+        }
+
+        try {
+            book = new PolyglotBook(Path.of(path));
+            book.setSelection(bookSelection);
+        } catch (IOException | RuntimeException e) {
+            send("info string cannot open book " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void closeBook() {
+        if (book == null) {
+            return;
+        }
+
+        try {
+            book.close();
+        } catch (IOException e) {
+            // nothing is written to a book, so there is nothing to lose
+        }
+        book = null;
+    }
+
+    /**
+     * Use the Syzygy tablebases in the given directories, separated by the platform's path separator, in place of the
+     * current ones, or stop using tablebases if the path is <empty>
+     */
+    private void openTablebase(String path) {
+        stopSearch();
+        tablebase = null;
+
+        if (!path.isEmpty() && !path.equals("<empty>")) {
+            try {
+                tablebase = new SyzygyTablebase(path);
+                tablebase.setProbeLimit(syzygyProbeLimit);
+                send("info string found " + tablebase.getTableCount() + " tablebases");
+            } catch (IOException | RuntimeException e) {
+                send("info string cannot open tablebases " + path + ": " + e.getMessage());
+            }
+        }
+
+        searchService.setTablebase(tablebase != null ? tablebase : endgameTablebase);
+    }
+
+    /**
+     * Use the generated endgame tables in the given directory (see EndgameGenerator) in place of the current ones, or
+     * stop using them if the path is <empty>. Syzygy tablebases are probed instead when both are set
+     */
+    private void openEndgameTablebase(String path) {
+        stopSearch();
+
+        if (endgameTablebase != null) {
+            try {
+                endgameTablebase.close();
+            } catch (IOException e) {
+                // nothing is written to a table, so there is nothing to lose
+            }
+            endgameTablebase = null;
+        }
+
+        if (!path.isEmpty() && !path.equals("<empty>")) {
+            try {
+                endgameTablebase = new EndgameTablebase(Path.of(path));
+                send("info string found " + endgameTablebase.getTableCount() + " endgame tables");
+            } catch (IOException | RuntimeException e) {
+                send("info string cannot open endgame tables " + path + ": " + e.getMessage());
+            }
+        }
+
+        searchService.setTablebase(tablebase != null ? tablebase : endgameTablebase);
+    }
+
+    /**
+     * Evaluate with the neural network in the given file (see NnueNetwork) from the next search on, or with the
+     * weighted evaluation terms again if the path is <empty> or the file cannot be read
+     */
+    private void loadNetwork(String path) {
+        stopSearch();
+        network = null;
+
+        if (!path.isEmpty() && !path.equals("<empty>")) {
+            try {
+                network = NnueNetwork.load(Path.of(path));
+                send("info string loaded network " + path + " with " + network.getAccumulatorSize() + "x2-" +
+                        network.getHiddenSize() + "-1 layers");
+            } catch (IOException | RuntimeException e) {
+                send("info string cannot load network " + path + ": " + e.getMessage());
+            }
+        }
+
+        searchService.setNetwork(network);
+    }
+
+    /**
+     * Handle "position [startpos | fen <fen>] [moves <move1> ... <moveN>]"
+     */
+    private void setPosition(String[] tokens) {
+        int index = 1;
+        String fen = FenUtility.START_GAME_FEN;
+
+        if (index < tokens.length && tokens[index].equals("fen")) {
+            StringBuilder fenBuilder = new StringBuilder();
+            index++;
+
+            while (index < tokens.length && !tokens[index].equals("moves")) {
+                fenBuilder.append(tokens[index++]).append(' ');
+            }
+
+            fen = fenBuilder.toString().trim();
+        } else if (index < tokens.length && tokens[index].equals("startpos")) {
+            index++;
+        }
+
+        game = new Game();
+
+        try {
+            game.setBoardFEN(fen);
+        } catch (IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+            return;
+        }
+
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                Move move = findMove(tokens[index]);
+
+                if (move == null) {
+                    send("info string illegal move " + tokens[index]);
+                    return;
+                }
+
+                game.playMove(move);
+            }
+        }
+    }
+
+    /**
+     * Return the legal move in the current position with the given UCI notation, or null if there is none
+     */
+    private Move findMove(String uciMove) {
+        for (Move move: game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn())) {
+            if (move.formatUciMove().equals(uciMove)) {
+                return move;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Parse the limits of "go [depth x] [movetime x] [nodes x] [wtime x] [btime x] [winc x] [binc x] [movestogo x]
+     * [infinite] [ponder]"
+     */
+    private SearchLimits parseLimits(String[] tokens) {
+        SearchLimits limits = new SearchLimits();
+
+        for (int i = 1; i < tokens.length; i++) {
+            String token = tokens[i];
+
+            if (token.equals("infinite")) {
+                limits.setInfinite(true);
+                continue;
+            }
+
+            if (token.equals("ponder")) {
+                limits.setPonder(true);
+                continue;
+            }
+
+            if (i + 1 >= tokens.length) {
+                break;
+            }
+
+            try {
+                long value = Long.parseLong(tokens[i + 1]);
+
+                switch (token) {
+                    case "depth":
+                        limits.setDepth((int) value);
+                        break;
+                    case "movetime":
+                        limits.setMoveTime(value);
+                        break;
+                    case "nodes":
+                        limits.setNodes(value);
+                        break;
+                    case "wtime":
+                        limits.setWhiteTime(value);
+                        break;
+                    case "btime":
+                        limits.setBlackTime(value);
+                        break;
+                    case "winc":
+                        limits.setWhiteIncrement(value);
+                        break;
+                    case "binc":
+                        limits.setBlackIncrement(value);
+                        break;
+                    case "movestogo":
+                        limits.setMovesToGo((int) value);
+                        break;
+                    default:
+                        continue;
+                }
+                i++;
+            } catch (NumberFormatException e) {
+                // ignore malformed limits
+            }
+        }
+
+        return limits;
+    }
+
+    /**
+     * Start searching the current position in the background, streaming an info line for each completed iteration
+     * and a bestmove line once the search ends. Infinite and ponder searches only report their best move after stop
+     * (or ponderhit, for a ponder search). Other searches are skipped if OwnBook is set and the book has a move
+     */
+    private void startSearch(SearchLimits limits) {
+        if (ownBook && book != null && !limits.isInfinite() && !limits.isPonder()) {
+            Move bookMove = book.getMove(game);
+
+            if (bookMove != null) {
+                send("info string book move");
+                send("bestmove " + bookMove.formatUciMove());
+                return;
+            }
+        }
+
+        // aspiration window fails are reported as bounds on the score, between the iterations' exact scores
+        SearchListener listener = new SearchListener() {
+            @Override
+            public void onIteration(SearchInfo info) {
+                sendInfo(info);
+            }
+
+            @Override
+            public void onAspirationFail(SearchInfo info) {
+                sendInfo(info);
+            }
+        };
+        reportedBestMove = searchService.submit(game, limits, listener).thenAccept(this::sendBestMove);
+    }
+
+    /**
+     * Stop the running search, if any, and wait for it to send its best move
+     */
+    private void stopSearch() {
+        searchService.stop();
+
+        if (reportedBestMove != null) {
+            reportedBestMove.join();
+            reportedBestMove = null;
+        }
+    }
+
+    private void sendBestMove(SearchResult result) {
+        if (result.getBestMove() == null) {
+            send("bestmove 0000");
+        } else if (result.getPonderMove() != null) {
+            send("bestmove " + result.getBestMove().formatUciMove() + " ponder " + result.getPonderMove());
+        } else {
+            send("bestmove " + result.getBestMove().formatUciMove());
+        }
+    }
+
+    private void sendInfo(SearchInfo info) {
+        StringBuilder line = new StringBuilder("info depth ").append(info.getDepth());
+
+        if (multiPv > 1) {
+            line.append(" multipv ").append(info.getMultiPv());
+        }
+
+        if (info.isMateScore()) {
+            line.append(" score mate ").append(info.getMateIn());
+        } else {
+            line.append(" score cp ").append(info.getCentipawns());
+        }
+
+        if (info.getBound() == ScoreBound.LOWER_BOUND) {
+            line.append(" lowerbound");
+        } else if (info.getBound() == ScoreBound.UPPER_BOUND) {
+            line.append(" upperbound");
+        }
+
+        line.append(" nodes ").append(info.getNodes())
+                .append(" nps ").append(info.getNodesPerSecond())
+                .append(" tbhits ").append(info.getTablebaseHits())
+                .append(" time ").append(info.getTimeMillis())
+                .append(" pv");
+
+        for (Move move: info.getPrincipalVariation()) {
+            line.append(' ').append(move.formatUciMove());
+        }
+
+        send(line.toString());
+    }
+
+    private synchronized void send(String line) {
+        output.println(line);
+        output.flush();
+    }
+
+    /**
+     * Getters & Setters
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    public int getHashSize() {
+        return hashSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getMultiPv() {
+        return multiPv;
+    }
+
+    public boolean isOwnBook() {
+        return ownBook;
+    }
+
+    public PolyglotBook getBook() {
+        return book;
+    }
+
+    public SyzygyTablebase getTablebase() {
+        return tablebase;
+    }
+
+    public EndgameTablebase getEndgameTablebase() {
+        return endgameTablebase;
+    }
+
+    public NnueNetwork getNetwork() {
+        return network;
+    }
+}
@@ -0,0 +1,121 @@
+package analysis;
+
+import model.search.SearchLimits;
+import model.search.SearchOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAnalyserTest {
+    private static final String EPD =
+            "# comment lines and blank lines are skipped\n" +
+            "6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#; id \"mate in one\";\n" +
+            "\n" +
+            "not a position\n" +
+            "4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1\n" +
+            "7k/5QQ1/8/8/8/8/8/K7 b - - id \"stalemate\";\n";
+
+    private BatchAnalyser testAnalyser;
+
+    @BeforeEach
+    public void init() {
+        testAnalyser = new BatchAnalyser(SearchLimits.depth(2), new SearchOptions(), 3, 1);
+    }
+
+    @Test
+    public void fromEpdTest() {
+        AnalysisPosition position = AnalysisPosition.fromEpd(7, "6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#; id \"mate\";");
+        assertEquals(7, position.getNumber());
+        assertEquals("mate", position.getId());
+        assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", position.getFen());
+
+        position = AnalysisPosition.fromEpd(0, "4k3/8/8/3q4/8/8/8/3RK3 w - - 12 40");
+        assertNull(position.getId());
+        assertEquals("4k3/8/8/3q4/8/8/8/3RK3 w - - 12 40", position.getFen());
+
+        assertThrows(IllegalArgumentException.class, () -> AnalysisPosition.fromEpd(0, "8/8/8 w"));
+    }
+
+    @Test
+    public void analyseTest() throws Exception {
+        StringWriter output = new StringWriter();
+
+        long analysed = testAnalyser.analyse(new EpdPositionSource(new StringReader(EPD)), output, 0);
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(4, analysed);
+        assertEquals(4, lines.length);
+
+        // results are written in input order, whichever worker finishes first
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith("{\"n\":" + i + ","));
+        }
+
+        assertTrue(lines[0].contains("\"id\":\"mate in one\""));
+        assertTrue(lines[0].contains("\"bestmove\":\"a1a8\""));
+        assertTrue(lines[0].contains("\"mate\":1"));
+        assertTrue(lines[1].contains("\"error\":"));
+        assertTrue(lines[2].contains("\"bestmove\":\"d1d5\""));
+        assertTrue(lines[3].contains("\"bestmove\":null"));
+    }
+
+    @Test
+    public void multiPvTest() {
+        testAnalyser.setMultiPv(2);
+        String line = testAnalyser.analysePosition(new AnalysisPosition(0, null, "4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1"));
+
+        assertTrue(line.contains("\"bestmove\":\"d1d5\""));
+        assertTrue(line.contains("\"lines\":[{\"move\":\"d1d5\",\"cp\":"));
+        assertTrue(line.contains("},{\"move\":"));
+
+        assertThrows(IllegalArgumentException.class, () -> testAnalyser.setMultiPv(0));
+    }
+
+    @Test
+    public void resumeTest() throws Exception {
+        Path output = Files.createTempFile("analysis", ".jsonl");
+
+        try {
+            Files.writeString(output, "{\"n\":0}\n{\"n\":1}\n{\"n\":2,\"fen\":\"partial");
+            assertEquals(2, BatchAnalyser.resumePoint(output));
+            assertEquals("{\"n\":0}\n{\"n\":1}\n", Files.readString(output));
+
+            StringWriter resumed = new StringWriter();
+            long analysed = testAnalyser.analyse(new EpdPositionSource(new StringReader(EPD)), resumed, 2);
+
+            assertEquals(2, analysed);
+            assertTrue(resumed.toString().startsWith("{\"n\":2,"));
+        } finally {
+            Files.delete(output);
+        }
+
+        assertEquals(0, BatchAnalyser.resumePoint(output));
+    }
+
+    @Test
+    public void pgnPositionSourceTest() throws Exception {
+        String pgn = "[Event \"a\"]\n\n1. e4 e5 2. Nf3 *\n\n[Event \"b\"]\n\n1. d4 Ke7 1-0\n";
+        PositionSource source = new PgnPositionSource(new StringReader(pgn));
+
+        AnalysisPosition position = source.next();
+        assertEquals(0, position.getNumber());
+        assertEquals("game 0 ply 0", position.getId());
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", position.getFen());
+
+        position = source.next();
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", position.getFen());
+        assertEquals("game 0 ply 2", source.next().getId());
+
+        // the second game ends at its illegal move
+        position = source.next();
+        assertEquals(3, position.getNumber());
+        assertEquals("game 1 ply 0", position.getId());
+        assertNull(source.next());
+    }
+}
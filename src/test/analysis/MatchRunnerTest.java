@@ -0,0 +1,252 @@
+package analysis;
+
+import enumerations.SprtVerdict;
+import model.Game;
+import model.Move;
+import model.search.SearchLimits;
+import model.search.SearchOptions;
+import model.tablebase.Tablebase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchRunnerTest {
+    private static final String KQK_FEN = "4k3/8/8/8/8/8/8/3QK3 w - - 0 1";
+
+    private static MatchRunner.EngineFactory searchEngine(String name, int depth) {
+        return () -> new SearchMatchEngine(name, new SearchOptions(), SearchLimits.depth(depth), 1);
+    }
+
+    @Test
+    public void statisticsTest() {
+        MatchStatistics statistics = new MatchStatistics();
+        assertEquals(0.5, statistics.getScore());
+        assertEquals(0, statistics.getElo(), 1e-9);
+
+        statistics.add(1);
+        statistics.add(1);
+        statistics.add(0.5);
+        statistics.add(0);
+        assertEquals(4, statistics.getGames());
+        assertEquals(0.625, statistics.getScore(), 1e-9);
+        assertEquals(88.7, statistics.getElo(), 0.1);
+        assertTrue(statistics.getEloError() > 100);
+        assertThrows(IllegalArgumentException.class, () -> statistics.add(0.25));
+
+        assertEquals(190.8, MatchStatistics.elo(0.75), 0.1);
+        assertEquals(0.75, MatchStatistics.expectedScore(MatchStatistics.elo(0.75)), 1e-9);
+        assertEquals(-2.94, MatchStatistics.lowerBound(0.05, 0.05), 0.01);
+        assertEquals(2.94, MatchStatistics.upperBound(0.05, 0.05), 0.01);
+    }
+
+    @Test
+    public void sprtTest() {
+        MatchStatistics winning = new MatchStatistics();
+        MatchStatistics losing = new MatchStatistics();
+
+        for (int i = 0; i < 400; i++) {
+            winning.add(i % 4 == 0 ? 0.5 : i % 4 == 1 ? 0 : 1);
+            losing.add(i % 4 == 0 ? 0.5 : i % 4 == 1 ? 1 : 0);
+        }
+
+        assertTrue(winning.getLogLikelihoodRatio(0, 10) > 0);
+        assertTrue(losing.getLogLikelihoodRatio(0, 10) < 0);
+        assertEquals(SprtVerdict.ACCEPT_H1, winning.getSprtVerdict(0, 10, 0.05, 0.05));
+        assertEquals(SprtVerdict.ACCEPT_H0, losing.getSprtVerdict(0, 10, 0.05, 0.05));
+        assertEquals(SprtVerdict.CONTINUE, new MatchStatistics().getSprtVerdict(0, 10, 0.05, 0.05));
+    }
+
+    @Test
+    public void runTest() throws Exception {
+        List<String> openings = List.of("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+                "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2");
+        MatchRunner runner = new MatchRunner(searchEngine("first", 2), searchEngine("second", 1), openings, 2);
+        runner.setMaxPlies(40);
+        List<GameResult> results = Collections.synchronizedList(new ArrayList<>());
+        runner.setListener(results::add);
+
+        MatchStatistics statistics = runner.run(4);
+        assertEquals(4, statistics.getGames());
+        assertEquals(4, results.size());
+        assertEquals(SprtVerdict.CONTINUE, runner.getSprtVerdict());
+
+        for (GameResult result: results) {
+            assertEquals(result.getNumber() % 2 == 0, result.isFirstEngineWhite());
+            assertEquals(openings.get((int) (result.getNumber() / 2)), result.getOpeningFen());
+            assertTrue(result.getPlies() <= 40);
+            assertNotNull(result.getReason());
+        }
+    }
+
+    @Test
+    public void adjudicationTest() {
+        MatchRunner runner = new MatchRunner(searchEngine("first", 3), searchEngine("second", 1), List.of(KQK_FEN), 1);
+        runner.setResignAdjudication(0, 0);
+        runner.setMaxPlies(1);
+
+        // the first engine has white and a queen, but the game is drawn at the ply limit
+        GameResult result = runner.playGame(0, new SearchMatchEngine("first", new SearchOptions(),
+                SearchLimits.depth(1), 1), new SearchMatchEngine("second", new SearchOptions(), SearchLimits.depth(1), 1));
+        assertEquals("ply limit", result.getReason());
+        assertEquals(0.5, result.getFirstEngineScore());
+
+        // both engines see the queen, so the game is resigned
+        runner.setResignAdjudication(500, 1);
+        runner.setMaxPlies(MatchRunner.DEFAULT_MAX_PLIES);
+        result = runner.playGame(1, new SearchMatchEngine("first", new SearchOptions(), SearchLimits.depth(1), 1),
+                new SearchMatchEngine("second", new SearchOptions(), SearchLimits.depth(1), 1));
+        assertEquals("adjudicated win", result.getReason());
+        assertEquals("1-0", result.getResult());
+        assertEquals(0, result.getFirstEngineScore());
+        assertEquals(2, result.getPlies());
+
+        // a tablebase that knows every position is lost for the side to move ends the game before the first move
+        runner.setTablebase(new Tablebase() {
+            public int getMaxPieces() {
+                return 32;
+            }
+
+            public int probeWdl(Game game) {
+                return LOSS;
+            }
+
+            public Move probeRoot(Game game) {
+                return null;
+            }
+        });
+        result = runner.playGame(0, new SearchMatchEngine("first", new SearchOptions(), SearchLimits.depth(1), 1),
+                new SearchMatchEngine("second", new SearchOptions(), SearchLimits.depth(1), 1));
+        assertEquals("tablebase", result.getReason());
+        assertEquals("0-1", result.getResult());
+        assertEquals(0, result.getPlies());
+    }
+
+    @Test
+    public void tablebaseHalfmoveClockTest() {
+        // after a move that did not reset the clock, only the distance to the next zeroing move is probed
+        Tablebase tablebase = new Tablebase() {
+            public int getMaxPieces() {
+                return 32;
+            }
+
+            public int probeWdl(Game game) {
+                return fail("WDL probed with a halfmove clock of " + game.getHalfmoveClock());
+            }
+
+            public int probeDtz(Game game) {
+                return 20;
+            }
+
+            public Move probeRoot(Game game) {
+                return null;
+            }
+        };
+
+        MatchRunner runner = new MatchRunner(searchEngine("first", 1), searchEngine("second", 1),
+                List.of("4k3/8/8/8/8/8/8/3QK3 w - - 10 40"), 1);
+        runner.setResignAdjudication(0, 0);
+        runner.setMaxPlies(1);
+        runner.setTablebase(tablebase);
+        GameResult result = runner.playGame(0, new SearchMatchEngine("first", new SearchOptions(),
+                SearchLimits.depth(1), 1), new SearchMatchEngine("second", new SearchOptions(), SearchLimits.depth(1), 1));
+        assertEquals("tablebase", result.getReason());
+        assertEquals("1-0", result.getResult());
+
+        // the 50 move rule may come first, so the game is played on
+        runner = new MatchRunner(searchEngine("first", 1), searchEngine("second", 1),
+                List.of("4k3/8/8/8/8/8/8/3QK3 w - - 90 80"), 1);
+        runner.setResignAdjudication(0, 0);
+        runner.setMaxPlies(1);
+        runner.setTablebase(tablebase);
+        result = runner.playGame(0, new SearchMatchEngine("first", new SearchOptions(), SearchLimits.depth(1), 1),
+                new SearchMatchEngine("second", new SearchOptions(), SearchLimits.depth(1), 1));
+        assertEquals("ply limit", result.getReason());
+    }
+
+    @Test
+    public void insufficientMaterialTest() {
+        MatchRunner runner = new MatchRunner(searchEngine("first", 1), searchEngine("second", 1),
+                List.of("4k3/8/8/8/8/8/8/2B1K3 w - - 0 1"), 1);
+        Game game = new Game();
+        assertFalse(MatchRunner.isInsufficientMaterial(game.getBoard().getBoard()));
+        game.setBoardFEN("4k3/8/8/8/8/8/8/1NB1K3 w - - 0 1");
+        assertFalse(MatchRunner.isInsufficientMaterial(game.getBoard().getBoard()));
+
+        GameResult result = runner.playGame(0, new SearchMatchEngine("a", new SearchOptions(), SearchLimits.depth(1),
+                1), new SearchMatchEngine("b", new SearchOptions(), SearchLimits.depth(1), 1));
+        assertEquals("insufficient material", result.getReason());
+        assertEquals(0, result.getPlies());
+    }
+
+    @Test
+    public void forfeitTest() {
+        MatchRunner runner = new MatchRunner(searchEngine("first", 1), searchEngine("second", 1),
+                List.of(KQK_FEN), 1);
+        MatchEngine failing = new MatchEngine() {
+            public String getName() {
+                return "failing";
+            }
+
+            public void newGame(String startFen) {
+            }
+
+            public Move search(Game game) throws IOException {
+                throw new IOException("engine crashed");
+            }
+
+            public model.search.SearchInfo getLastInfo() {
+                return null;
+            }
+
+            public void close() {
+            }
+        };
+
+        GameResult result = runner.playGame(0, failing, new SearchMatchEngine("second", new SearchOptions(),
+                SearchLimits.depth(1), 1));
+        assertEquals("0-1", result.getResult());
+        assertEquals(0, result.getFirstEngineScore());
+        assertTrue(result.getReason().startsWith("forfeit"));
+    }
+
+    @Test
+    public void readOpeningsTest() throws IOException {
+        Path epd = Files.createTempFile("openings", ".epd");
+        Path pgn = Files.createTempFile("openings", ".pgn");
+
+        try {
+            Files.writeString(epd, "# suite\n" + KQK_FEN + "\nnot a position\n" +
+                    "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - id \"e4\";\n");
+            assertEquals(List.of(KQK_FEN, "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1"),
+                    MatchRunner.readOpenings(epd));
+
+            Files.writeString(pgn, "[Event \"?\"]\n\n1. e4 e5 2. Nf3 *\n");
+            List<String> openings = MatchRunner.readOpenings(pgn);
+            assertEquals(1, openings.size());
+            assertTrue(openings.get(0).startsWith("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq"));
+        } finally {
+            Files.deleteIfExists(epd);
+            Files.deleteIfExists(pgn);
+        }
+    }
+
+    @Test
+    public void parseSearchOptionsTest() {
+        SearchOptions options = MatchRunner.parseSearchOptions("baseline,futilityPruning=true,futilityMargin=2.5");
+        assertTrue(options.isFutilityPruning());
+        assertEquals(2.5, options.getFutilityMargin());
+        assertFalse(options.isNullMovePruning());
+        assertFalse(MatchRunner.parseSearchOptions("seePruning=false").isSeePruning());
+        assertEquals(0.5, MatchRunner.parseSearchOptions("aspirationWindow=0.5").getAspirationWindow());
+
+        assertThrows(IllegalArgumentException.class, () -> MatchRunner.parseSearchOptions("unknown=1"));
+        assertThrows(IllegalArgumentException.class, () -> MatchRunner.parseSearchOptions("razoring"));
+    }
+}
@@ -0,0 +1,40 @@
+package analysis;
+
+import model.search.SearchLimits;
+import model.search.SearchOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchBenchmarkTest {
+    private static final List<String> POSITIONS = SearchBenchmark.DEFAULT_POSITIONS.subList(0, 3);
+
+    @Test
+    public void runTest() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SearchBenchmark benchmark = new SearchBenchmark(SearchLimits.fixedDepth(4), new SearchOptions(), 1);
+
+        long nodes = benchmark.run(POSITIONS, new PrintStream(output));
+        String[] lines = output.toString().split("\n");
+        assertEquals(POSITIONS.size() + 1, lines.length);
+        assertTrue(lines[0].startsWith(POSITIONS.get(0) + " bestmove "));
+        assertTrue(lines[POSITIONS.size()].startsWith("total nodes " + nodes + " time "));
+        assertTrue(benchmark.getWallTimeNanos() > 0);
+        assertTrue(benchmark.getNodesPerSecond() > 0);
+
+        // every run with the same table size does the same work
+        SearchBenchmark other = new SearchBenchmark(SearchLimits.fixedDepth(4), new SearchOptions(), 1);
+        assertEquals(nodes, other.run(POSITIONS, new PrintStream(new ByteArrayOutputStream())));
+        assertEquals(nodes, benchmark.run(POSITIONS, new PrintStream(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    public void nonDeterministicLimitsTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SearchBenchmark(SearchLimits.depth(4), new SearchOptions(), 1));
+    }
+}
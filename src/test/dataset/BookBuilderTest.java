@@ -0,0 +1,146 @@
+package dataset;
+
+import model.Game;
+import model.book.PolyglotBook;
+import model.book.PolyglotEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pgn.PgnGame;
+import pgn.PgnReader;
+import pgn.PgnWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookBuilderTest {
+    private static final String GAMES =
+            "[Result \"1-0\"]\n\n1. e4 e5 2. Nf3 1-0\n\n" +
+            "[Result \"0-1\"]\n\n1. e4 c5 0-1\n\n" +
+            "[Result \"1/2-1/2\"]\n\n1. d4 d5 1/2-1/2\n\n" +
+            "[Result \"*\"]\n\n1. e4 c5 2. Qh5 *\n\n" +
+            "[Result \"1-0\"]\n\n1. e4 c5 2. Zz9 Nc6 1-0\n\n";
+
+    private Path testFile;
+    private Path otherFile;
+
+    @BeforeEach
+    public void init() throws IOException {
+        testFile = Files.createTempFile("book", ".bin");
+        otherFile = Files.createTempFile("book", ".bin");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(testFile);
+        Files.deleteIfExists(otherFile);
+    }
+
+    private static long build(BookBuilder builder, String pgn, Path output) throws IOException, InterruptedException {
+        try (PgnReader reader = new PgnReader(new StringReader(pgn))) {
+            return builder.build(reader, output);
+        }
+    }
+
+    @Test
+    public void weightsTest() throws IOException, InterruptedException {
+        BookBuilder builder = new BookBuilder(BookBuilder.DEFAULT_MAX_PLY, 1, 2);
+        build(builder, GAMES, testFile);
+
+        assertEquals(5, builder.getGamesReplayed());
+        // the last game stops at its unresolvable third move
+        assertEquals(3 + 2 + 2 + 3 + 2, builder.getMovesCounted());
+
+        try (PolyglotBook book = new PolyglotBook(testFile)) {
+            Game game = new Game();
+            List<PolyglotEntry> entries = book.getEntries(game);
+
+            // e4 scored a win, a loss, an unknown result and a win, d4 a draw
+            assertEquals(2, entries.size());
+            assertEquals("e2e4", entries.get(0).formatMove());
+            assertEquals(5, entries.get(0).getWeight());
+            assertEquals("d2d4", entries.get(1).formatMove());
+            assertEquals(1, entries.get(1).getWeight());
+
+            // e5 only lost, so it is left out
+            game.playMove(PolyglotBook.toMove(game, entries.get(0).getMove()));
+            entries = book.getEntries(game);
+            assertEquals(1, entries.size());
+            assertEquals("c7c5", entries.get(0).formatMove());
+            assertEquals(3, entries.get(0).getWeight());
+        }
+
+        builder = new BookBuilder(1, 2, 1);
+        assertEquals(1, build(builder, GAMES, testFile));
+        assertEquals(builder.getEntriesWritten(), Files.size(testFile) / PolyglotBook.ENTRY_SIZE);
+    }
+
+    @Test
+    public void spillMergeTest() throws IOException, InterruptedException {
+        StringWriter pgn = new StringWriter();
+
+        try (PgnWriter writer = new PgnWriter(pgn)) {
+            for (int i = 0; i < 40; i++) {
+                Game game = new Game();
+
+                for (int ply = 0; ply < 16 && !game.getMoveGenerator().generateLegalMoves(game,
+                        game.getCurrentTurn()).isEmpty(); ply++) {
+                    game.playRandomMove();
+                }
+
+                writer.write(PgnGame.fromGame(game));
+            }
+        }
+
+        long entries = build(new BookBuilder(12, 1, 1), pgn.toString(), testFile);
+
+        // a table of two pairs spills hundreds of runs, which are merged in several passes
+        BookBuilder spilling = new BookBuilder(12, 1, 3);
+        spilling.setTableSize(2);
+        assertEquals(entries, build(spilling, pgn.toString(), otherFile));
+
+        assertTrue(entries > 0);
+        assertArrayEquals(Files.readAllBytes(testFile), Files.readAllBytes(otherFile));
+    }
+
+    @Test
+    public void malformedGameTest() {
+        // far more failing games than the queue holds, each with a result the builder cannot score
+        PgnReader reader = new PgnReader(new StringReader("")) {
+            private int games;
+
+            @Override
+            public PgnGame next() {
+                if (games == 500) {
+                    return null;
+                }
+
+                PgnGame pgnGame = new PgnGame(games++);
+                pgnGame.setResult(null);
+                return pgnGame;
+            }
+        };
+        BookBuilder builder = new BookBuilder(BookBuilder.DEFAULT_MAX_PLY, 1, 1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> builder.build(reader, testFile));
+        assertEquals(500, builder.getGamesSkipped());
+        assertEquals(0, builder.getGamesReplayed());
+    }
+
+    @Test
+    public void illegalCaptureTest() throws IOException, InterruptedException {
+        // the pawn capture from the a file onto the d file stops the game
+        BookBuilder builder = new BookBuilder(BookBuilder.DEFAULT_MAX_PLY, 1, 1);
+        build(builder, "[Result \"1-0\"]\n\n1. a4 d5 2. axd5 Nf6 1-0\n\n", testFile);
+
+        assertEquals(1, builder.getGamesReplayed());
+        assertEquals(2, builder.getMovesCounted());
+    }
+}
@@ -0,0 +1,122 @@
+package dataset;
+
+import model.Game;
+import model.Move;
+import model.tablebase.EndgameTable;
+import model.tablebase.EndgameTablebase;
+import model.tablebase.Tablebase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameGeneratorTest {
+    private Path directory;
+    private EndgameGenerator generator;
+
+    @BeforeEach
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("endgames");
+        generator = new EndgameGenerator(directory, 2);
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        generator.getTablebase().close();
+        try (var files = Files.list(directory)) {
+            for (Path file: (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static Game game(String fen) {
+        Game game = new Game();
+        game.setBoardFEN(fen);
+        return game;
+    }
+
+    private static int code(EndgameTablebase tablebase, String fen) {
+        Game game = game(fen);
+        return tablebase.probeCode(game.getBoard().getBoard(), game.getCurrentTurn().isWhite());
+    }
+
+    /**
+     * Return the longest distance to mate, in plies, with white to move in the given table
+     */
+    private static int longestMate(EndgameTable table) {
+        int longest = 0;
+
+        for (int position = 0; position < table.getIndex().size(); position++) {
+            int code = table.getCode(position);
+            if (table.getIndex().isWhiteToMove(position) && code > 0 && code % 2 == 0) {
+                longest = Math.max(longest, code - 1);
+            }
+        }
+
+        return longest;
+    }
+
+    @Test
+    public void queenAndRookTest() throws IOException, InterruptedException {
+        EndgameTable queen = generator.generate("KvKQ");
+        assertEquals("KQvK", queen.getSignature());
+        assertTrue(Files.exists(directory.resolve("KQvK.etb")));
+        EndgameTable rook = generator.generate("KRvK");
+
+        // the longest mates are 10 and 16 moves
+        assertEquals(19, longestMate(queen));
+        assertEquals(31, longestMate(rook));
+        assertEquals(5, queen.getBitsPerPosition());
+
+        EndgameTablebase tablebase = generator.getTablebase();
+        assertEquals(2, tablebase.getTableCount());
+        assertEquals(2, code(tablebase, "7k/8/6K1/8/8/8/8/1Q6 w - - 0 1"));
+        assertEquals(1, code(tablebase, "1Q5k/8/6K1/8/8/8/8/8 b - - 0 1"));
+        // stalemate
+        assertEquals(0, code(tablebase, "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"));
+        // the queen is lost at once
+        assertEquals(0, code(tablebase, "8/8/8/8/8/8/6Qk/K7 b - - 0 1"));
+        // black's queen is looked up with the colors swapped
+        assertEquals(2, code(tablebase, "6q1/8/8/8/8/8/2k5/K7 b - - 0 1"));
+        assertEquals(EndgameTablebase.UNKNOWN_CODE, code(tablebase, "4k3/8/8/8/8/8/8/3BK3 w - - 0 1"));
+
+        assertEquals(Tablebase.WIN, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3RK3 w - - 0 1")));
+        assertEquals(Tablebase.LOSS, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3RK3 b - - 0 1")));
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/4K3 w - - 0 1")));
+
+        Game game = game("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1");
+        Move move = tablebase.probeRoot(game);
+        assertEquals("b1b8", move.formatUciMove());
+    }
+
+    @Test
+    public void pawnTest() throws IOException, InterruptedException {
+        EndgameTable pawn = generator.generate("KPvK");
+
+        // every promotion is generated first
+        EndgameTablebase tablebase = generator.getTablebase();
+        assertEquals(5, tablebase.getTableCount());
+        assertTrue(tablebase.hasTable("KNvK"));
+        assertEquals(55, longestMate(pawn));
+
+        assertEquals(Tablebase.WIN, tablebase.probeWdl(game("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")));
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/8/8/8/8/8/P7/K7 b - - 0 1")));
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/4P3/4K3/8/8/8/8/8 b - - 0 1")));
+        assertEquals(Tablebase.LOSS, tablebase.probeWdl(game("8/8/8/8/8/3k4/4p3/4K3 w - - 0 1")));
+
+        // a generator on the same directory reuses the tables
+        EndgameGenerator other = new EndgameGenerator(directory, 1);
+        assertEquals(5, other.getTablebase().getTableCount());
+        assertEquals(pawn.getIndex().size(), other.generate("KPvK").getIndex().size());
+        other.getTablebase().close();
+
+        assertThrows(IllegalArgumentException.class, () -> generator.generate("KQRBNvK"));
+    }
+}
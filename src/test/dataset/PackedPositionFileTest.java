@@ -0,0 +1,124 @@
+package dataset;
+
+import model.FenUtility;
+import model.Game;
+import model.PackedPosition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedPositionFileTest {
+    // three records per chunk, so that positions are written and read across several chunks
+    private static final int CHUNK_SIZE = 3 * PackedPosition.SIZE;
+
+    private Path testFile;
+
+    @BeforeEach
+    public void init() throws IOException {
+        testFile = Files.createTempFile("positions", ".bin");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(testFile);
+    }
+
+    /**
+     * Return the FEN strings of the positions of a random game of the given length
+     */
+    private static List<String> randomGame(int plies) {
+        Game game = new Game();
+        List<String> fens = new ArrayList<>();
+
+        for (int i = 0; i < plies && !game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn()).isEmpty(); i++) {
+            game.playRandomMove();
+            fens.add(FenUtility.getFENFromGame(game));
+        }
+
+        return fens;
+    }
+
+    private static void write(PackedPositionWriter writer, List<String> fens) throws IOException {
+        Game game = new Game();
+
+        for (String fen: fens) {
+            game.setBoardFEN(fen);
+            writer.write(game);
+        }
+    }
+
+    @Test
+    public void writeReadTest() throws IOException {
+        List<String> fens = randomGame(40);
+
+        try (PackedPositionWriter writer = new PackedPositionWriter(testFile, false, CHUNK_SIZE)) {
+            write(writer, fens);
+            assertEquals(fens.size(), writer.getCount());
+
+            // the file never grows past the records written
+            writer.flush();
+            assertEquals((long) fens.size() * PackedPosition.SIZE, Files.size(testFile));
+        }
+
+        assertEquals((long) fens.size() * PackedPosition.SIZE, Files.size(testFile));
+
+        try (PackedPositionReader reader = new PackedPositionReader(testFile, CHUNK_SIZE)) {
+            Game game = new Game();
+            assertEquals(fens.size(), reader.size());
+
+            for (int i = fens.size() - 1; i >= 0; i--) {
+                reader.read(i, game);
+                assertEquals(fens.get(i), FenUtility.getFENFromGame(game));
+            }
+
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(fens.size(), game));
+        }
+    }
+
+    @Test
+    public void appendTest() throws IOException {
+        List<String> fens = randomGame(10);
+
+        try (PackedPositionWriter writer = new PackedPositionWriter(testFile, false, CHUNK_SIZE)) {
+            write(writer, fens.subList(0, 4));
+        }
+        try (PackedPositionWriter writer = new PackedPositionWriter(testFile, true, CHUNK_SIZE)) {
+            assertEquals(4, writer.getCount());
+            write(writer, fens.subList(4, fens.size()));
+        }
+
+        try (PackedPositionReader reader = new PackedPositionReader(testFile)) {
+            Game game = new Game();
+            byte[] record = new byte[PackedPosition.SIZE];
+            assertEquals(fens.size(), reader.size());
+
+            for (int i = 0; i < fens.size(); i++) {
+                reader.read(i, record);
+                PackedPosition.decode(record, game);
+                assertEquals(fens.get(i), FenUtility.getFENFromGame(game));
+            }
+        }
+
+        // replacing the file starts from no records
+        try (PackedPositionWriter writer = new PackedPositionWriter(testFile, false)) {
+            assertEquals(0, writer.getCount());
+        }
+        assertEquals(0, Files.size(testFile));
+    }
+
+    @Test
+    public void invalidFileTest() throws IOException {
+        Files.write(testFile, new byte[PackedPosition.SIZE + 1]);
+
+        assertThrows(IOException.class, () -> new PackedPositionReader(testFile));
+        assertThrows(IOException.class, () -> new PackedPositionWriter(testFile, true));
+    }
+}
@@ -0,0 +1,102 @@
+package dataset;
+
+import model.Game;
+import model.search.EvaluationParameters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TexelTunerTest {
+    private TexelTuner testTuner;
+
+    @BeforeEach
+    public void init() {
+        testTuner = new TexelTuner(2);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        testTuner.close();
+    }
+
+    @Test
+    public void loadTest() throws IOException {
+        String positions = "# labelled positions\n" +
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - c9 \"1-0\";\n" +
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1 [0.5]\n" +
+                "4k3/8/8/8/8/8/8/3QK3 w - - [0.0]\n" +
+                "\n" +
+                "4k3/8/8/8/8/8/8/3QK3 w - - 0 1\n" +
+                "not a position [1.0]\n";
+
+        assertEquals(3, testTuner.load(new BufferedReader(new StringReader(positions))));
+        assertEquals(3, testTuner.getSize());
+        assertEquals(2, testTuner.getSkipped());
+
+        assertEquals(2, TexelTuner.parseResult("8/8/8/8/8/8/8/8 w - - c9 \"1-0\";"));
+        assertEquals(1, TexelTuner.parseResult("8/8/8/8/8/8/8/8 w - - c9 \"1/2-1/2\";"));
+        assertEquals(0, TexelTuner.parseResult("8/8/8/8/8/8/8/8 w - - 0 1 [0.0]"));
+        assertEquals(-1, TexelTuner.parseResult("8/8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> testTuner.add(new Game(), 0.25));
+    }
+
+    @Test
+    public void tuneTest() {
+        Game game = new Game();
+
+        // a lone knight cannot win, but an extra pawn usually does
+        for (int i = 0; i < 20; i++) {
+            game.setBoardFEN("4k3/8/8/8/8/8/8/3NK3 w - - 0 1");
+            testTuner.add(game, 0.5);
+            game.setBoardFEN("3nk3/8/8/8/8/8/8/4K3 w - - 0 1");
+            testTuner.add(game, 0.5);
+            game.setBoardFEN("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+            testTuner.add(game, i % 4 == 0 ? 0.5 : 1);
+            game.setBoardFEN("4k3/4p3/8/8/8/8/8/4K3 w - - 0 1");
+            testTuner.add(game, i % 4 == 0 ? 0.5 : 0);
+        }
+
+        EvaluationParameters initial = new EvaluationParameters();
+        testTuner.setScale(1);
+        double initialError = testTuner.error(initial);
+
+        EvaluationParameters tuned = testTuner.tune(initial, 200, 0.05, null);
+        assertTrue(testTuner.error(tuned) < initialError);
+        assertTrue(tuned.get(EvaluationParameters.KNIGHT) < 2);
+        assertEquals(initial.get(EvaluationParameters.PAWN), tuned.get(EvaluationParameters.PAWN));
+
+        double scale = testTuner.fitScale(initial);
+        assertTrue(scale > 0.05 && scale < 10);
+        assertEquals(scale, testTuner.getScale());
+    }
+
+    @Test
+    public void parametersFileTest() throws IOException {
+        Path file = Files.createTempFile("evaluation", ".txt");
+
+        try {
+            double[] weights = new EvaluationParameters().getValues();
+            weights[EvaluationParameters.BISHOP_PAIR] = 0.35;
+            EvaluationParameters parameters = new EvaluationParameters(weights);
+            parameters.save(file);
+            assertEquals(parameters, EvaluationParameters.load(file));
+
+            Files.writeString(file, "# partial\nknight 3.25\n");
+            assertEquals(3.25, EvaluationParameters.load(file).get(EvaluationParameters.KNIGHT));
+            assertEquals(5, EvaluationParameters.load(file).get(EvaluationParameters.ROOK));
+
+            Files.writeString(file, "king 100\n");
+            assertThrows(IllegalArgumentException.class, () -> EvaluationParameters.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -7,6 +7,10 @@ import java.awt.*;
 
 import static model.Piece.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class BoardTest {
@@ -232,6 +236,31 @@ public class BoardTest {
         assertEquals(empty, testBoard.getPiece(3,6));
     }
 
+    @Test
+    public void moveListTest() {
+        // the same knight move twice, equal by value, and the later one is undone
+        Move[] moves = new Move[5];
+        int[][] coordinates = {{7, 1, 6, 3}, {7, 8, 6, 6}, {6, 3, 7, 1}, {6, 6, 7, 8}, {7, 1, 6, 3}};
+
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = new Move(testGame, coordinates[i][0], coordinates[i][1], coordinates[i][2], coordinates[i][3]);
+            testGame.makeMove(moves[i]);
+            assertSame(moves[i], testBoard.getLastMove());
+        }
+
+        assertEquals(moves[0], moves[4]);
+        testGame.undoMove(moves[4]);
+
+        assertEquals(4, testBoard.getMoveList().size());
+        assertSame(moves[0], testBoard.getMoveList().get(0));
+        assertSame(moves[3], testBoard.getLastMove());
+
+        for (int i = 3; i >= 0; i--) {
+            testGame.undoMove(moves[i]);
+        }
+        assertNull(testBoard.getLastMove());
+    }
+
     @Test
     public void unMakeCaptureTest() {
         testBoard.setBoardFEN("r3k2r/p3b1p1/2pq1pn1/2p1p2p/6bP/1P1P1NP1/PBPNQP2/R3K2R");
@@ -363,4 +392,47 @@ public class BoardTest {
         assertEquals(bPawn, testBoard.getPiece(3,5));
         assertEquals(empty, testBoard.getPiece(3,6));
     }
+
+    @Test
+    public void isSquareAttackedTest() {
+        // starting position
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("f3"), true));
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("d2"), true));
+        assertFalse(testBoard.isSquareAttacked(Board.getSquareIndexFromString("e4"), true));
+        assertFalse(testBoard.isSquareAttacked(Board.getSquareIndexFromString("e5"), true));
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("c6"), false));
+        assertFalse(testBoard.isSquareAttacked(Board.getSquareIndexFromString("e5"), false));
+
+        testGame.setBoardFEN("4k3/8/8/3p4/8/1q6/8/R3K3 w - - 0 1");
+        // pawn
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("e4"), false));
+        assertFalse(testBoard.isSquareAttacked(Board.getSquareIndexFromString("d4"), false));
+        // queen along the diagonals
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("d1"), false));
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("a4"), false));
+        // rook along the first rank and a-file
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("d1"), true));
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("a3"), true));
+        assertFalse(testBoard.isSquareAttacked(Board.getSquareIndexFromString("b2"), true));
+        // king
+        assertTrue(testBoard.isSquareAttacked(Board.getSquareIndexFromString("f2"), true));
+    }
+
+    @Test
+    public void isInCheckTest() {
+        assertFalse(testBoard.isInCheck(true));
+        assertFalse(testBoard.isInCheck(false));
+        assertFalse(testGame.isInCheck());
+
+        testGame.setBoardFEN("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertTrue(testBoard.isInCheck(true));
+        assertFalse(testBoard.isInCheck(false));
+        assertTrue(testGame.isInCheck());
+
+        testGame.setBoardFEN("4k3/8/3N4/8/8/8/8/4K3 b - - 0 1");
+        assertTrue(testGame.isInCheck());
+
+        testGame.setBoardFEN("8/8/8/8/8/8/8/4K3 w - - 0 1");
+        assertFalse(testBoard.isInCheck(false));
+    }
 }
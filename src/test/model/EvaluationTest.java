@@ -1,6 +1,7 @@
 package model;
 
 import model.search.Evaluation;
+import model.search.EvaluationParameters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -83,4 +84,37 @@ public class EvaluationTest {
         testEvaluation.evaluatePosition(testGame);
         assertEquals(-1, Double.parseDouble(decimalFormat.format(testEvaluation.countPawnErrors())));
     }
+
+    @Test
+    public void countTermsTest() {
+        testGame.setBoardFEN("r3k2r/p4p1p/2Rp1p2/q7/4P3/8/P1Q2PPP/1R4K1 b kq - 1 20");
+        int[] terms = testEvaluation.countTerms(testGame);
+        double[] weights = new EvaluationParameters().getValues();
+        double whiteEvaluation = 0;
+
+        for (int p = 0; p < EvaluationParameters.SIZE; p++) {
+            whiteEvaluation += weights[p] * terms[p];
+        }
+
+        assertEquals(-1 * testEvaluation.evaluatePosition(testGame), whiteEvaluation, 1e-9);
+
+        testGame.setBoardFEN("rnbqk2r/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        terms = testEvaluation.countTerms(testGame);
+        assertEquals(1, terms[EvaluationParameters.BISHOP]);
+        assertEquals(1, terms[EvaluationParameters.KNIGHT]);
+        assertEquals(1, terms[EvaluationParameters.BISHOP_PAIR]);
+        assertEquals(0, terms[EvaluationParameters.QUEEN]);
+    }
+
+    @Test
+    public void parametersTest() {
+        double[] weights = new EvaluationParameters().getValues();
+        weights[EvaluationParameters.KNIGHT] = 3.5;
+        weights[EvaluationParameters.MOBILITY] = 0;
+        Evaluation tunedEvaluation = new Evaluation(new EvaluationParameters(weights));
+
+        testGame.setBoardFEN("rnbqkb1r/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertEquals(3.5, tunedEvaluation.evaluatePosition(testGame));
+        assertEquals(new EvaluationParameters(), EvaluationParameters.getStartupParameters());
+    }
 }
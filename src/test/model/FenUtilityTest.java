@@ -5,17 +5,16 @@ import org.junit.jupiter.api.Test;
 
 import static model.Piece.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class FenUtilityTest {
     Board testBoard;
     Game testGame;
-    FenUtility testFENUtility;
 
     @BeforeEach
     public void init() {
         testBoard = new Board();
         testGame = new Game();
-        testFENUtility = new FenUtility();
     }
 
     @Test
@@ -31,7 +30,7 @@ public class FenUtilityTest {
                 empty, empty, empty, empty, empty, bRook, empty, empty
         };
 
-        testFENUtility.loadGameFromFEN(testGame, "5r2/1p4k1/p2p2p1/2p2Bq1/P3P3/2P2rP1/1P2RPQ1/4n1K1 w - - 0 29");
+        FenUtility.loadGameFromFEN(testGame, "5r2/1p4k1/p2p2p1/2p2Bq1/P3P3/2P2rP1/1P2RPQ1/4n1K1 w - - 0 29");
 
         for (int i = 0; i < 64; i++) {
             assertEquals(testChessBoard[i], testGame.getBoard().getBoard()[i]);
@@ -54,9 +53,14 @@ public class FenUtilityTest {
         };
 
         testGame.getBoard().setBoard(testChessBoard);
-        // TODO: add additional FEN elements to the testBoard
+        testGame.setWhiteKingSideCastling(false);
+        testGame.setWhiteQueenSideCastling(false);
+        testGame.setBlackKingSideCastling(false);
+        testGame.setBlackQueenSideCastling(false);
+        testGame.setHalfmoveClock(1);
+        testGame.setFullmoveNumber(49);
 
-        assertEquals("8/8/2p5/2k3P1/p1P1R3/P7/2Pr2K1/8 w - - 1 49", testFENUtility.getFENFromGame(testGame));
+        assertEquals("8/8/2p5/2k3P1/p1P1R3/P7/2Pr2K1/8 w - - 1 49", FenUtility.getFENFromGame(testGame));
     }
 
     @Test
@@ -72,10 +76,61 @@ public class FenUtilityTest {
                 empty, bRook, empty, empty, empty, bRook, bKing, empty
         };
 
-        testFENUtility.loadPositionFromFEN(testBoard, "1r3rk1/1b1q1ppp/p5n1/1pRP4/8/1N3N2/PP3PPP/3Q1RK1");
+        FenUtility.loadPositionFromFEN(testBoard, "1r3rk1/1b1q1ppp/p5n1/1pRP4/8/1N3N2/PP3PPP/3Q1RK1");
 
         for (int i = 0; i < 64; i++) {
             assertEquals(testChessBoard[i], testBoard.getBoard()[i]);
         }
     }
+
+    @Test
+    public void getFENRoundTripTest() {
+        String[] fens = {
+                FenUtility.START_GAME_FEN,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbqkbnr/ppp1pppp/8/8/3pP2P/8/PPPP1PP1/RNBQKBNR b KQkq e3 0 3",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 12 57",
+                "r3k2r/8/8/8/8/8/8/R3K2R b Kq - 3 20"
+        };
+
+        for (String fen: fens) {
+            FenUtility.loadGameFromFEN(testGame, fen);
+            assertEquals(fen, FenUtility.getFENFromGame(testGame));
+        }
+
+        // EPD style positions without clocks start at halfmove 0 and move 1
+        FenUtility.loadGameFromFEN(testGame, "4k3/8/8/8/8/8/8/4K2R w K -");
+        assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1", FenUtility.getFENFromGame(testGame));
+    }
+
+    @Test
+    public void getFENAfterMovesTest() {
+        testGame.playMove(new Move(testGame, 5, 2, 5, 4));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
+                FenUtility.getFENFromGame(testGame));
+
+        testGame.playMove(new Move(testGame, 7, 8, 6, 6));
+        testGame.playMove(new Move(testGame, 7, 1, 6, 3));
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2",
+                FenUtility.getFENFromGame(testGame));
+    }
+
+    @Test
+    public void loadGameFromInvalidFENTest() {
+        String[] invalidFens = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w KQkq - 0 1",
+                "rnbqkbxr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq"
+        };
+
+        for (String fen: invalidFens) {
+            assertThrows(IllegalArgumentException.class, () -> FenUtility.loadGameFromFEN(testGame, fen), fen);
+        }
+    }
 }
@@ -5,6 +5,10 @@ import enumerations.GameStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static model.Piece.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,4 +97,127 @@ public class GameTest {
         testGame.nextTurn();
         assertFalse(testGame.getCurrentTurn().isWhite());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void copyTest() {
+        testGame.setBoardFEN("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1");
+        Game copy = testGame.copy();
+
+        for (int i = 0; i < 64; i++) {
+            assertEquals(testGame.getBoard().getBoard()[i], copy.getBoard().getBoard()[i]);
+        }
+        assertTrue(copy.getCurrentTurn().isWhite());
+        assertTrue(copy.canWhiteKingSideCastle());
+        assertFalse(copy.canWhiteQueenSideCastle());
+        assertFalse(copy.canBlackKingSideCastle());
+        assertTrue(copy.canBlackQueenSideCastle());
+        // the en passant capture is still available in the copy
+        assertEquals(testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn()).size(),
+                copy.getMoveGenerator().generateLegalMoves(copy, copy.getCurrentTurn()).size());
+
+        copy.playMove(new Move(copy, 5, 5, 4, 6));
+        assertEquals(bPawn, testGame.getBoard().getPiece(4, 5));
+        assertTrue(testGame.getCurrentTurn().isWhite());
+    }
+
+    @Test
+    public void clockTest() {
+        Move pawnMove = new Move(testGame, 5, 2, 5, 4);
+        testGame.playMove(pawnMove);
+        Move knightMove = new Move(testGame, 7, 8, 6, 6);
+        testGame.playMove(knightMove);
+        Move whiteKnightMove = new Move(testGame, 7, 1, 6, 3);
+        testGame.playMove(whiteKnightMove);
+
+        assertEquals(2, testGame.getHalfmoveClock());
+        assertEquals(2, testGame.getFullmoveNumber());
+
+        testGame.undoMove(whiteKnightMove);
+        assertEquals(1, testGame.getHalfmoveClock());
+        assertEquals(2, testGame.getFullmoveNumber());
+
+        testGame.undoMove(knightMove);
+        assertEquals(0, testGame.getHalfmoveClock());
+        assertEquals(1, testGame.getFullmoveNumber());
+
+        testGame.setBoardFEN("4k3/8/8/8/8/8/8/4K2R b K - 30 70");
+        Move kingMove = new Move(testGame, 5, 8, 4, 8);
+        testGame.playMove(kingMove);
+        assertEquals(31, testGame.getHalfmoveClock());
+        assertEquals(71, testGame.getFullmoveNumber());
+        assertEquals(31, testGame.copy().getHalfmoveClock());
+        assertEquals(71, testGame.copy().getFullmoveNumber());
+    }
+
+    @Test
+    public void repetitionTest() {
+        testGame.setBoardFEN("7k/8/8/8/8/8/q7/6NK w - - 0 1");
+        Move[] shuffle = {new Move(testGame, 7, 1, 6, 3), null, null, null};
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i / 4, testGame.countRepetitions());
+            assertEquals(GameStatus.ACTIVE, testGame.getGameStatus());
+
+            Move move = shuffle[i % 4];
+            if (move == null) {
+                move = i % 4 == 1 ? new Move(testGame, 8, 8, 7, 8) : i % 4 == 2 ?
+                        new Move(testGame, 6, 3, 7, 1) : new Move(testGame, 7, 8, 8, 8);
+            }
+            assertTrue(testGame.playMove(move));
+        }
+
+        assertEquals(2, testGame.countRepetitions());
+        assertEquals(GameStatus.THREEFOLD_REPETITION, testGame.getGameStatus());
+
+        // a pawn move cannot be undone, so positions before it are not repetitions of those after it
+        testGame.setBoardFEN("7k/8/8/8/8/8/q6P/6NK w - - 0 1");
+        assertTrue(testGame.playMove(new Move(testGame, 8, 2, 8, 3)));
+        assertEquals(0, testGame.countRepetitions());
+    }
+
+    @Test
+    public void fiftyMoveRuleTest() {
+        testGame.setBoardFEN("4k3/8/8/8/8/8/8/4K2R w K - 99 80");
+        testGame.playMove(new Move(testGame, 8, 1, 8, 2));
+        assertEquals(GameStatus.FIFTY_MOVE_RULE, testGame.getGameStatus());
+
+        // checkmate on the hundredth ply still counts
+        testGame.setBoardFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80");
+        testGame.playMove(new Move(testGame, 1, 1, 1, 8));
+        assertEquals(GameStatus.WHITE_CHECKMATE, testGame.getGameStatus());
+    }
+
+    @Test
+    public void hashTest() {
+        Random random = new Random(5);
+        testGame.setBoardFEN("r3k2r/pPppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long startHash = testGame.getHash();
+        List<Move> played = new ArrayList<>();
+
+        // random moves through castling, promotions and en passant captures, and back
+        for (int ply = 0; ply < 60; ply++) {
+            List<Move> moves = testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn());
+            if (moves.isEmpty()) {
+                break;
+            }
+
+            Move move = moves.get(random.nextInt(moves.size()));
+            testGame.makeMove(move);
+            played.add(move);
+            assertEquals(rehash(testGame), testGame.getHash());
+        }
+
+        for (int i = played.size() - 1; i >= 0; i--) {
+            testGame.undoMove(played.get(i));
+            assertEquals(rehash(testGame), testGame.getHash());
+        }
+
+        assertEquals(startHash, testGame.getHash());
+    }
+
+    private static long rehash(Game game) {
+        Game copy = game.copy();
+        copy.resetHashHistory();
+        return copy.getHash();
+    }
+}
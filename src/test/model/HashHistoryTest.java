@@ -0,0 +1,47 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashHistoryTest {
+
+    @Test
+    public void stackTest() {
+        HashHistory history = new HashHistory();
+        assertTrue(history.isEmpty());
+        assertThrows(IllegalStateException.class, history::pop);
+
+        for (long hash = 0; hash < 3 * HashHistory.CAPACITY; hash++) {
+            history.push(hash);
+        }
+
+        // only the latest CAPACITY hashes are kept
+        assertEquals(HashHistory.CAPACITY, history.size());
+        assertEquals(3 * HashHistory.CAPACITY - 1, history.get(1));
+        assertEquals(2 * HashHistory.CAPACITY, history.get(HashHistory.CAPACITY));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(HashHistory.CAPACITY + 1));
+
+        assertEquals(3 * HashHistory.CAPACITY - 1, history.pop());
+        assertEquals(HashHistory.CAPACITY - 1, history.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(HashHistory.CAPACITY));
+
+        history.clear();
+        assertTrue(history.isEmpty());
+    }
+
+    @Test
+    public void countRepetitionsTest() {
+        HashHistory history = new HashHistory();
+
+        for (long hash: new long[]{7, 1, 2, 3, 7, 4, 5, 6}) {
+            history.push(hash);
+        }
+
+        // the current position 7 occurred 4 and 8 plies ago
+        assertEquals(2, history.countRepetitions(7, 8));
+        assertEquals(1, history.countRepetitions(7, 7));
+        assertEquals(0, history.countRepetitions(7, 3));
+        assertEquals(0, history.countRepetitions(5, 8));
+    }
+}
@@ -76,14 +76,14 @@ public class MoveGeneratorTest {
     public void pinsTest() {
         testGame.setBoardFEN("rnbqk1nr/pp3ppp/8/3p4/1bpP4/2N1PN2/PP3PPP/R1BQKB1R w KQkq - 1 7");
         List<Move> whiteMoveList = testMoveGenerator.generateLegalMoves(testGame, whitePlayer);
-        assertEquals(18, testMoveGenerator.getPinnedPieces().get(0));
+        assertEquals(18, Bitboard.firstSquare(testMoveGenerator.getPinnedPieces()));
         assertTrue(testMoveGenerator.doPinsExistInPosition());
         assertEquals(27, whiteMoveList.size());
 
         testGame.setBoardFEN("8/pr5p/3k1n1r/3b4/8/8/PP3PPP/R2R2K1 b Q - 1 7");
         List<Move> blackMoveList = testMoveGenerator.generateLegalMoves(testGame, blackPlayer);
         assertTrue(testMoveGenerator.doPinsExistInPosition());
-        assertEquals(35, testMoveGenerator.getPinnedPieces().get(0));
+        assertEquals(35, Bitboard.firstSquare(testMoveGenerator.getPinnedPieces()));
         assertEquals(31, blackMoveList.size());
 
         testGame.setBoardFEN("4k3/8/4r3/8/8/4Q3/8/2K5 b - - 0 1");
@@ -0,0 +1,77 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedPositionTest {
+    private static final String[] FENS = {
+            FenUtility.START_GAME_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "rnbqkbnr/ppp1pppp/8/8/3pP2P/8/PPPP1PP1/RNBQKBNR b KQkq e3 0 3",
+            "rnbqkbnr/pppp1ppp/8/3Pp3/8/8/PPP1PPPP/RNBQKBNR w Kq e6 0 3",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 12 57",
+            "4k3/8/8/8/8/8/8/4K3 b - - 300 1000",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"
+    };
+
+    private Game testGame;
+
+    @BeforeEach
+    public void init() {
+        testGame = new Game();
+    }
+
+    @Test
+    public void encodeDecodeTest() {
+        Game decoded = new Game();
+
+        for (String fen: FENS) {
+            testGame.setBoardFEN(fen);
+            byte[] record = PackedPosition.encode(testGame);
+
+            assertEquals(PackedPosition.SIZE, record.length);
+
+            PackedPosition.decode(record, decoded);
+            assertEquals(fen, FenUtility.getFENFromGame(decoded));
+            assertEquals(testGame.getCheckStatus(), decoded.getCheckStatus());
+            assertEquals(testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn()).size(),
+                    decoded.getMoveGenerator().generateLegalMoves(decoded, decoded.getCurrentTurn()).size());
+        }
+    }
+
+    @Test
+    public void encodeAtOffsetTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(3 * PackedPosition.SIZE);
+
+        for (int i = 0; i < 3; i++) {
+            testGame.setBoardFEN(FENS[i]);
+            PackedPosition.encode(testGame, buffer, i * PackedPosition.SIZE);
+        }
+        assertEquals(0, buffer.position());
+
+        for (int i = 2; i >= 0; i--) {
+            PackedPosition.decode(buffer, i * PackedPosition.SIZE, testGame);
+            assertEquals(FENS[i], FenUtility.getFENFromGame(testGame));
+        }
+    }
+
+    @Test
+    public void invalidPositionTest() {
+        testGame.setBoardFEN("QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/8/8/4K2k w - - 0 1");
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.encode(testGame));
+
+        testGame.setBoardFEN(FenUtility.START_GAME_FEN);
+        byte[] record = PackedPosition.encode(testGame);
+        record[8] = (byte) 0x71;
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.decode(record, testGame));
+
+        // an occupancy of 33 squares would read past the piece codes
+        byte[] crowded = PackedPosition.encode(testGame);
+        ByteBuffer.wrap(crowded).putLong(0, 0x1FFFFFFFFL);
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.decode(crowded, testGame));
+    }
+}
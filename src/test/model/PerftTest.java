@@ -53,6 +53,38 @@ public class PerftTest {
         assertEquals(43238, perft(4));
     }
 
+    @Test
+    public void perftPosition4Test() {
+        game.setBoardFEN("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        assertEquals(6, perft(1));
+        assertEquals(264, perft(2));
+        assertEquals(9467, perft(3));
+    }
+
+    @Test
+    public void perftPosition4MirroredTest() {
+        game.setBoardFEN("r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1");
+        assertEquals(6, perft(1));
+        assertEquals(264, perft(2));
+        assertEquals(9467, perft(3));
+    }
+
+    @Test
+    public void perftPosition5Test() {
+        game.setBoardFEN("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+        assertEquals(44, perft(1));
+        assertEquals(1486, perft(2));
+        assertEquals(62379, perft(3));
+    }
+
+    @Test
+    public void perftPosition6Test() {
+        game.setBoardFEN("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        assertEquals(46, perft(1));
+        assertEquals(2079, perft(2));
+        assertEquals(89890, perft(3));
+    }
+
     /**
      * Returns the number of leaf nodes in a move generation tree of legal moves with given depth. The returned number
      * can then be compared to pre-determined values.
@@ -63,7 +95,7 @@ public class PerftTest {
         List<Move> moveList = moveGenerator.generateLegalMoves(game, game.getCurrentTurn());
         int numPositions = 0;
 
-        if (depth == 0) {
+        if (depth == 1) {
             return moveList.size();
         }
 
@@ -0,0 +1,73 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolyglotZobristTest {
+    // the test positions and keys of the Polyglot book format specification
+    private static final String[] FENS = {
+            FenUtility.START_GAME_FEN,
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
+            "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2",
+            "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3",
+            "rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4",
+            "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3",
+            "rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4"
+    };
+    private static final long[] KEYS = {
+            0x463B96181691FC9CL,
+            0x823C9B50FD114196L,
+            0x0756B94461C50FB0L,
+            0x662FAFB965DB29D4L,
+            0x22A48B5A8E47FF78L,
+            0x652A607CA3F242C1L,
+            0x00FDD303C946BDD9L,
+            0x3C8123EA7B067637L,
+            0x5C3F9B829B279560L
+    };
+
+    private Game testGame;
+
+    @BeforeEach
+    public void init() {
+        testGame = new Game();
+    }
+
+    @Test
+    public void specificationKeysTest() {
+        for (int i = 0; i < FENS.length; i++) {
+            testGame.setBoardFEN(FENS[i]);
+            assertEquals(KEYS[i], PolyglotZobrist.calculateKey(testGame), FENS[i]);
+        }
+    }
+
+    @Test
+    public void playedMovesTest() {
+        String[] moves = {"e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7"};
+
+        assertEquals(KEYS[0], PolyglotZobrist.calculateKey(testGame));
+
+        for (int i = 0; i < moves.length; i++) {
+            for (Move move: testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn())) {
+                if (move.formatUciMove().equals(moves[i])) {
+                    testGame.playMove(move);
+                    break;
+                }
+            }
+
+            assertEquals(KEYS[i + 1], PolyglotZobrist.calculateKey(testGame), moves[i]);
+        }
+    }
+
+    @Test
+    public void pieceKindTest() {
+        assertEquals(0, PolyglotZobrist.pieceKind(Piece.bPawn));
+        assertEquals(1, PolyglotZobrist.pieceKind(Piece.wPawn));
+        assertEquals(10, PolyglotZobrist.pieceKind(Piece.bKing));
+        assertEquals(11, PolyglotZobrist.pieceKind(Piece.wKing));
+    }
+}
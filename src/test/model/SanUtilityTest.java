@@ -0,0 +1,124 @@
+package model;
+
+import enumerations.MoveType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SanUtilityTest {
+    private Game testGame;
+
+    @BeforeEach
+    public void init() {
+        testGame = new Game();
+    }
+
+    private List<Move> legalMoves() {
+        return testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn());
+    }
+
+    /**
+     * Assert that the given SAN string resolves to the move from (startX, startY) to (endX, endY) with both parsers
+     */
+    private Move assertParses(String san, int startX, int startY, int endX, int endY) {
+        Move listMove = SanUtility.parseMove(san, legalMoves());
+        Move gameMove = SanUtility.parseMove(testGame, san);
+
+        for (Move move: new Move[]{listMove, gameMove}) {
+            assertEquals(startX, move.getStartX());
+            assertEquals(startY, move.getStartY());
+            assertEquals(endX, move.getEndX());
+            assertEquals(endY, move.getEndY());
+        }
+        assertEquals(listMove, gameMove);
+
+        return gameMove;
+    }
+
+    private void assertRejected(String san) {
+        assertThrows(IllegalArgumentException.class, () -> SanUtility.parseMove(san, legalMoves()));
+        assertThrows(IllegalArgumentException.class, () -> SanUtility.parseMove(testGame, san));
+    }
+
+    @Test
+    public void parseMoveTest() {
+        assertParses("e4", 5, 2, 5, 4);
+        assertParses("e3", 5, 2, 5, 3);
+        assertParses("Nf3", 7, 1, 6, 3);
+        assertParses("Nc3+", 2, 1, 3, 3);
+        assertParses("Ng1-f3!?", 7, 1, 6, 3);
+
+        assertRejected("e5");
+        assertRejected("Nd2");
+        assertRejected("Bc4");
+        assertRejected("O-O");
+        assertRejected("Zz9");
+        assertRejected("");
+    }
+
+    @Test
+    public void parseMoveDisambiguationTest() {
+        testGame.setBoardFEN("4k3/8/8/8/8/2N3N1/8/R3K2R w - - 0 1");
+
+        assertParses("Nce4", 3, 3, 5, 4);
+        assertParses("Nge4", 7, 3, 5, 4);
+        assertParses("Rd1", 1, 1, 4, 1);
+        assertParses("Rhf1", 8, 1, 6, 1);
+        assertRejected("Ne4");
+        assertRejected("Nce5");
+    }
+
+    @Test
+    public void parseMovePinnedPieceTest() {
+        // the knight on e2 is pinned, so Nc3 is not ambiguous even though both knights reach c3
+        testGame.setBoardFEN("4r1k1/8/8/8/8/8/4N3/1N2K3 w - - 0 1");
+
+        assertParses("Nc3", 2, 1, 3, 3);
+        assertParses("Na3", 2, 1, 1, 3);
+        assertRejected("Ng3");
+    }
+
+    @Test
+    public void parseMoveSpecialMovesTest() {
+        testGame.setBoardFEN("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+
+        assertEquals(MoveType.EN_PASSANT, assertParses("exd6", 5, 5, 4, 6).getMoveType());
+        assertEquals(MoveType.KING_SIDE_CASTLE, assertParses("O-O", 5, 1, 7, 1).getMoveType());
+        assertEquals(MoveType.QUEEN_SIDE_CASTLE, assertParses("0-0-0", 5, 1, 3, 1).getMoveType());
+        assertEquals(MoveType.QUEEN_PROMOTION, assertParses("bxa8=Q+", 2, 7, 1, 8).getMoveType());
+        assertEquals(MoveType.KNIGHT_PROMOTION, assertParses("b8N", 2, 7, 2, 8).getMoveType());
+
+        assertRejected("b8");
+        assertRejected("bxa8=K");
+
+        // a pawn capture from a file that is not adjacent
+        testGame.setBoardFEN("4k3/8/8/3p4/P7/8/8/4K3 w - - 0 1");
+        assertRejected("axd5");
+    }
+
+    @Test
+    public void formatMoveTest() {
+        testGame.setBoardFEN("r3k2r/1P6/8/3pP3/8/2N3N1/8/R3K2R w KQkq d6 0 1");
+        List<Move> legalMoves = legalMoves();
+
+        assertEquals("Nce4", SanUtility.formatMove(SanUtility.parseMove("Nce4", legalMoves), legalMoves));
+        assertEquals("Nb5", SanUtility.formatMove(SanUtility.parseMove("Nb5", legalMoves), legalMoves));
+        assertEquals("Rxa8", SanUtility.formatMove(SanUtility.parseMove("Rxa8", legalMoves), legalMoves));
+        assertEquals("Rf1", SanUtility.formatMove(SanUtility.parseMove("Rhf1", legalMoves), legalMoves));
+        assertEquals("exd6", SanUtility.formatMove(SanUtility.parseMove("exd6", legalMoves), legalMoves));
+        assertEquals("bxa8=Q", SanUtility.formatMove(SanUtility.parseMove("bxa8=Q", legalMoves), legalMoves));
+        assertEquals("b8=R", SanUtility.formatMove(SanUtility.parseMove("b8=R", legalMoves), legalMoves));
+        assertEquals("O-O-O", SanUtility.formatMove(SanUtility.parseMove("O-O-O", legalMoves), legalMoves));
+
+        testGame.setBoardFEN("4k3/8/8/N7/8/8/8/N3K3 w - - 0 1");
+        legalMoves = legalMoves();
+        assertEquals("N1b3", SanUtility.formatMove(SanUtility.parseMove("N1b3", legalMoves), legalMoves));
+
+        testGame.setBoardFEN("4k3/8/8/8/8/Q7/8/Q1Q1K3 w - - 0 1");
+        legalMoves = legalMoves();
+        assertEquals("Qa1b2", SanUtility.formatMove(SanUtility.parseMove("Qa1b2", legalMoves), legalMoves));
+    }
+}
@@ -0,0 +1,131 @@
+package model;
+
+import model.search.SearchInfo;
+import model.search.SearchLimits;
+import model.search.SearchResult;
+import model.search.SearchService;
+import model.search.TranspositionTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchServiceTest {
+    private SearchService testService;
+    private Game testGame;
+
+    @BeforeEach
+    public void init() {
+        testService = new SearchService(1);
+        testGame = new Game();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        testService.shutdown();
+    }
+
+    @Test
+    public void submitTest() throws Exception {
+        testGame.setBoardFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        List<SearchInfo> progress = new ArrayList<>();
+
+        SearchResult result = testService.submit(testGame, SearchLimits.depth(2), progress::add).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, progress.size());
+        assertEquals(1, progress.get(0).getDepth());
+        assertTrue(progress.get(1).isMateScore());
+        assertEquals(1, progress.get(1).getMateIn());
+
+        // the best move belongs to the submitted game, which the search has not changed
+        assertTrue(testGame.playMove(result.getBestMove()));
+        assertEquals(Piece.wRook, testGame.getBoard().getPiece(1, 8));
+    }
+
+    @Test
+    public void stopInfiniteSearchTest() throws Exception {
+        SearchLimits limits = new SearchLimits();
+        limits.setInfinite(true);
+
+        CompletableFuture<SearchResult> result = testService.submit(testGame, limits, null);
+        Thread.sleep(100);
+        assertFalse(result.isDone());
+
+        testService.stop();
+        assertNotNull(result.get(10, TimeUnit.SECONDS).getBestMove());
+    }
+
+    @Test
+    public void ponderHitTest() throws Exception {
+        SearchLimits limits = new SearchLimits();
+        limits.setPonder(true);
+        limits.setMoveTime(50);
+
+        CompletableFuture<SearchResult> result = testService.submit(testGame, limits, null);
+        Thread.sleep(200);
+        // the move time only starts counting once the opponent plays the expected move
+        assertFalse(result.isDone());
+
+        testService.ponderHit();
+        assertNotNull(result.get(10, TimeUnit.SECONDS).getBestMove());
+    }
+
+    @Test
+    public void submitStopsRunningSearchTest() throws Exception {
+        SearchLimits limits = new SearchLimits();
+        limits.setInfinite(true);
+
+        CompletableFuture<SearchResult> first = testService.submit(testGame, limits, null);
+        CompletableFuture<SearchResult> second = testService.submit(testGame, SearchLimits.depth(1), null);
+
+        assertTrue(first.isDone());
+        assertNotNull(second.get(10, TimeUnit.SECONDS).getBestMove());
+    }
+
+    @Test
+    public void transpositionTableReuseTest() throws Exception {
+        List<SearchInfo> firstProgress = new ArrayList<>();
+        List<SearchInfo> secondProgress = new ArrayList<>();
+
+        testService.submit(testGame, SearchLimits.depth(3), firstProgress::add).get(30, TimeUnit.SECONDS);
+        testService.submit(testGame, SearchLimits.depth(3), secondProgress::add).get(30, TimeUnit.SECONDS);
+
+        long firstNodes = firstProgress.get(firstProgress.size() - 1).getNodes();
+        long secondNodes = secondProgress.get(secondProgress.size() - 1).getNodes();
+        assertTrue(secondNodes < firstNodes);
+
+        testService.clearHash();
+        List<SearchInfo> clearedProgress = new ArrayList<>();
+        testService.submit(testGame, SearchLimits.depth(3), clearedProgress::add).get(30, TimeUnit.SECONDS);
+        assertEquals(firstNodes, clearedProgress.get(clearedProgress.size() - 1).getNodes());
+    }
+
+    @Test
+    public void transpositionTableStoreTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        long hash = 123456789L;
+
+        assertEquals(-1, table.probe(hash));
+
+        table.store(hash, 4, 0, 1.5, TranspositionTable.LOWER_BOUND, 42);
+        int entry = table.probe(hash);
+        assertTrue(entry >= 0);
+        assertEquals(4, table.getDepth(entry));
+        assertEquals(1.5, table.getScore(entry, 0));
+        assertEquals(TranspositionTable.LOWER_BOUND, table.getBoundType(entry));
+        assertEquals(42, table.getMoveCode(entry));
+
+        // a shallower result for the same position does not replace a deeper one
+        table.store(hash, 2, 0, -3, TranspositionTable.EXACT, 7);
+        assertEquals(4, table.getDepth(table.probe(hash)));
+
+        table.clear();
+        assertEquals(-1, table.probe(hash));
+    }
+}
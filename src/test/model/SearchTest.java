@@ -1,10 +1,53 @@
 package model;
 
+import enumerations.ScoreBound;
 import model.search.Search;
+import model.search.SearchInfo;
+import model.search.SearchLimits;
+import model.search.SearchListener;
+import model.search.SearchOptions;
+import model.tablebase.Tablebase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class SearchTest {
+    // a tablebase of up to three pieces in which only a queen wins
+    private static class QueenTablebase implements Tablebase {
+        private Move rootMove;
+
+        @Override
+        public int getMaxPieces() {
+            return 3;
+        }
+
+        @Override
+        public int probeWdl(Game game) {
+            boolean white = game.getCurrentTurn().isWhite();
+
+            for (int piece: game.getBoard().getBoard()) {
+                if (piece == Piece.wQueen || piece == Piece.bQueen) {
+                    return (piece > 0) == white ? WIN : LOSS;
+                }
+            }
+
+            return DRAW;
+        }
+
+        @Override
+        public Move probeRoot(Game game) {
+            return rootMove;
+        }
+    }
+
     private Search testSearch;
     private Game testGame;
 
@@ -20,4 +63,242 @@ public class SearchTest {
         System.out.println(testSearch.search(testGame, 1).formatMove());
     }
 
+    @Test
+    public void searchFindsMateInOneTest() {
+        testGame.setBoardFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        Move move = testSearch.search(testGame, 1);
+        assertEquals(1, move.getEndX());
+        assertEquals(8, move.getEndY());
+
+        testGame.setBoardFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        Move baselineMove = new Search(SearchOptions.baseline()).search(testGame, 1);
+        assertEquals(move, baselineMove);
+    }
+
+    @Test
+    public void searchWinsHangingQueenTest() {
+        testGame.setBoardFEN("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        Move move = testSearch.search(testGame, 2);
+        assertEquals(4, move.getEndX());
+        assertEquals(5, move.getEndY());
+    }
+
+    @Test
+    public void searchDrawsByRepetitionTest() {
+        // a queen down, white repeats the position the knight shuffle started from
+        testGame.setBoardFEN("7k/8/8/8/8/8/q7/6NK w - - 0 1");
+        for (int[] move: new int[][]{{7, 1, 6, 3}, {8, 8, 7, 8}, {6, 3, 7, 1}, {7, 8, 8, 8}}) {
+            assertTrue(testGame.playMove(new Move(testGame, move[0], move[1], move[2], move[3])));
+        }
+
+        Move move = testSearch.search(testGame, 3);
+        assertEquals("g1f3", move.formatUciMove());
+        assertEquals(0, testSearch.getLastInfo().getScore(), 0);
+
+        // without the knight shuffle the same position is lost
+        testGame.setBoardFEN("7k/8/8/8/8/8/q7/6NK w - - 0 1");
+        testSearch.search(testGame, 3);
+        assertTrue(testSearch.getLastInfo().getScore() < -5);
+    }
+
+    @Test
+    public void tablebaseTest() {
+        QueenTablebase tablebase = new QueenTablebase();
+        testSearch.setTablebase(tablebase);
+
+        // either capture of the queen leaves a tablebase win
+        testGame.setBoardFEN("4k3/8/8/8/8/8/3q4/3QK3 w - - 0 1");
+        Move move = testSearch.search(testGame, 2);
+        assertEquals(4, move.getEndX());
+        assertEquals(2, move.getEndY());
+
+        SearchInfo info = testSearch.getLastInfo();
+        assertTrue(info.getTablebaseHits() > 0);
+        assertTrue(info.getScore() > Search.TABLEBASE_WIN_SCORE - 10);
+        assertFalse(info.isMateScore());
+
+        // a covered root position is answered by the tablebase without searching
+        testGame.setBoardFEN("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        tablebase.rootMove = testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn()).get(0);
+        assertEquals(tablebase.rootMove, testSearch.search(testGame, 4));
+        assertEquals(1, testSearch.getLastInfo().getTablebaseHits());
+        assertEquals(0, testSearch.getNodes());
+        assertEquals(Search.TABLEBASE_WIN_SCORE, testSearch.getLastInfo().getScore());
+
+        // in MultiPV mode the root moves are searched for the lines instead
+        testSearch.setMultiPv(2);
+        testSearch.search(testGame, 2);
+        List<SearchInfo> lines = testSearch.getLastLines();
+        assertTrue(testSearch.getNodes() > 0);
+        assertEquals(2, lines.size());
+        assertNotEquals(lines.get(0).getPrincipalVariation().get(0), lines.get(1).getPrincipalVariation().get(0));
+        assertTrue(lines.get(1).getScore() > 0);
+    }
+
+    @Test
+    public void baselineOptionsTest() {
+        SearchOptions options = SearchOptions.baseline();
+        assertFalse(options.isNullMovePruning());
+        assertFalse(options.isLateMoveReductions());
+        assertFalse(options.isFutilityPruning());
+        assertFalse(options.isRazoring());
+        assertFalse(options.isSeePruning());
+        assertFalse(options.isCheckExtensions());
+        assertFalse(options.isAspirationWindows());
+    }
+
+    @Test
+    public void multiPvTest() {
+        testGame.setBoardFEN("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        Move singleMove = testSearch.search(testGame, SearchLimits.depth(4), null);
+
+        List<SearchInfo> reports = new ArrayList<>();
+        testSearch.setMultiPv(3);
+        Move move = testSearch.search(testGame, SearchLimits.depth(4), reports::add);
+        List<SearchInfo> lines = testSearch.getLastLines();
+
+        // the best line is the single best move, and the others follow it with lower scores and other first moves
+        assertEquals(singleMove, move);
+        assertEquals(12, reports.size());
+        assertEquals(3, lines.size());
+        assertEquals(lines.get(0), testSearch.getLastInfo());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(i + 1, lines.get(i).getMultiPv());
+            assertEquals(4, lines.get(i).getDepth());
+        }
+        assertEquals(move, lines.get(0).getPrincipalVariation().get(0));
+        assertTrue(lines.get(0).getScore() > lines.get(1).getScore());
+        assertTrue(lines.get(1).getScore() >= lines.get(2).getScore());
+        assertNotEquals(lines.get(0).getPrincipalVariation().get(0), lines.get(1).getPrincipalVariation().get(0));
+        assertNotEquals(lines.get(1).getPrincipalVariation().get(0), lines.get(2).getPrincipalVariation().get(0));
+
+        // no more lines than legal moves
+        testGame.setBoardFEN("7k/8/6K1/8/8/8/8/R7 b - - 0 1");
+        testSearch.search(testGame, SearchLimits.depth(2), null);
+        assertEquals(1, testSearch.getLastLines().size());
+
+        assertThrows(IllegalArgumentException.class, () -> testSearch.setMultiPv(0));
+    }
+
+    @Test
+    public void deterministicTest() {
+        String fen = "r1bnkb1r/1p3p1p/p3pp2/8/P1P2P2/1Bp2N2/1PP3PP/R1B1K2R w KQkq - 0 13";
+        testGame.setBoardFEN(fen);
+        Move move = testSearch.search(testGame, SearchLimits.fixedNodes(20000), null);
+        String principalVariation = formatVariation(testSearch.getLastInfo());
+        assertEquals(20000, testSearch.getNodes());
+        assertTrue(testSearch.getWallTimeNanos() > 0);
+
+        // another search with other keys, and a table filled by an earlier search, does exactly the same work
+        Search search = new Search();
+        Game game = new Game();
+        game.setBoardFEN(fen);
+        search.search(game, SearchLimits.depth(3), null);
+        assertEquals(move.formatUciMove(), search.search(game, SearchLimits.fixedNodes(20000), null).formatUciMove());
+        assertEquals(20000, search.getNodes());
+        assertEquals(principalVariation, formatVariation(search.getLastInfo()));
+
+        testSearch.search(testGame, SearchLimits.fixedDepth(4), null);
+        search.search(game, SearchLimits.fixedDepth(4), null);
+        assertEquals(testSearch.getNodes(), search.getNodes());
+
+        // time limits are ignored
+        SearchLimits limits = SearchLimits.fixedDepth(2);
+        limits.setMoveTime(0);
+        assertEquals(-1, limits.allocateTime(true));
+        testSearch.search(testGame, limits, null);
+        assertEquals(2, testSearch.getLastInfo().getDepth());
+    }
+
+    private static String formatVariation(SearchInfo info) {
+        StringBuilder variation = new StringBuilder();
+        for (Move move: info.getPrincipalVariation()) {
+            variation.append(move.formatUciMove()).append(' ');
+        }
+        return variation.toString();
+    }
+
+    @Test
+    public void aspirationWindowsTest() {
+        // a window far narrower than the score changes between iterations fails in most of them
+        SearchOptions options = new SearchOptions();
+        options.setAspirationMinDepth(2);
+        options.setAspirationWindow(0.01);
+        Search search = new Search(options);
+        List<SearchInfo> iterations = new ArrayList<>();
+        List<SearchInfo> fails = new ArrayList<>();
+        SearchListener listener = new SearchListener() {
+            @Override
+            public void onIteration(SearchInfo info) {
+                iterations.add(info);
+            }
+
+            @Override
+            public void onAspirationFail(SearchInfo info) {
+                fails.add(info);
+            }
+        };
+
+        testGame.setBoardFEN("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        Move move = search.search(testGame, SearchLimits.depth(5), listener);
+
+        assertTrue(move != null);
+        assertEquals(5, iterations.size());
+        assertTrue(fails.size() > 0);
+        assertEquals(fails.size(), search.getAspirationFailHighs() + search.getAspirationFailLows());
+        for (SearchInfo info: iterations) {
+            assertEquals(ScoreBound.EXACT, info.getBound());
+        }
+        for (SearchInfo info: fails) {
+            assertTrue(info.getDepth() >= 2);
+            assertTrue(info.getBound() != ScoreBound.EXACT);
+        }
+
+        // a narrow window still finds the winning capture
+        testGame.setBoardFEN("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        assertEquals("d1d5", search.search(testGame, SearchLimits.depth(5), listener).formatUciMove());
+
+        assertThrows(IllegalArgumentException.class, () -> options.setAspirationWidening(1));
+    }
+
+    @Test
+    public void interruptedFailLowTest() {
+        // at depth 2 this window fails low several times, and while it does another move gets a higher upper bound
+        // than the depth 1 best move, before the widened window finds the depth 2 best move
+        String fen = "r3k2r/p4p1p/2Rp1p2/q7/4P3/8/P1Q2PPP/1R4K1 b kq - 1 20";
+        SearchOptions options = new SearchOptions();
+        options.setAspirationMinDepth(2);
+        options.setAspirationWindow(0.01);
+        Search search = new Search(options);
+        List<SearchInfo> iterations = new ArrayList<>();
+        List<SearchInfo> failLows = new ArrayList<>();
+        SearchListener listener = new SearchListener() {
+            @Override
+            public void onIteration(SearchInfo info) {
+                iterations.add(info);
+            }
+
+            @Override
+            public void onAspirationFail(SearchInfo info) {
+                if (info.getBound() == ScoreBound.UPPER_BOUND) {
+                    failLows.add(info);
+                }
+            }
+        };
+
+        testGame.setBoardFEN(fen);
+        search.search(testGame, SearchLimits.fixedDepth(2), listener);
+        String previousBest = iterations.get(0).getPrincipalVariation().get(0).formatUciMove();
+        String best = iterations.get(1).getPrincipalVariation().get(0).formatUciMove();
+        assertTrue(failLows.stream().anyMatch(info ->
+                !info.getPrincipalVariation().get(0).formatUciMove().equals(previousBest)));
+
+        // stopped by the node limit anywhere in the re-searches, the search keeps the depth 1 best move unless it has
+        // already found the depth 2 best move inside the window
+        for (long nodes = failLows.get(0).getNodes(); nodes < iterations.get(1).getNodes(); nodes++) {
+            testGame.setBoardFEN(fen);
+            String move = search.search(testGame, SearchLimits.fixedNodes(nodes), null).formatUciMove();
+            assertTrue(move.equals(previousBest) || move.equals(best), move + " after " + nodes + " nodes");
+        }
+    }
 }
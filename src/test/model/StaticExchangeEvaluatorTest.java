@@ -0,0 +1,73 @@
+package model;
+
+import model.generation.StaticExchangeEvaluator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class StaticExchangeEvaluatorTest {
+    private Game testGame;
+    private StaticExchangeEvaluator testEvaluator;
+
+    @BeforeEach
+    public void init() {
+        testGame = new Game();
+        testEvaluator = new StaticExchangeEvaluator();
+    }
+
+    @Test
+    public void captureTest() {
+        // an undefended pawn
+        assertExchange("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1e5", 100);
+
+        // a knight for a pawn, the knight recaptured behind its defenders
+        assertExchange("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3e5", -200);
+
+        // a rook recapturing from behind the first one
+        assertExchange("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5", 100);
+
+        // the king recaptures only if the square is no longer attacked
+        assertExchange("3rk3/8/8/8/8/8/3p4/3RK3 w - - 0 1", "d1d2", 100);
+        assertExchange("3rk3/8/8/b7/8/8/3p4/3RK3 w - - 0 1", "d1d2", -400);
+
+        assertExchange("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6", 100);
+    }
+
+    @Test
+    public void quietAndPromotionTest() {
+        assertExchange("4k3/8/4p3/8/8/8/8/3QK3 w - - 0 1", "d1d5", -900);
+        assertExchange("4k3/8/4p3/8/8/8/8/3QK3 w - - 0 1", "d1d4", 0);
+
+        assertExchange("8/4P3/8/8/8/8/k7/4K3 w - - 0 1", "e7e8q", 800);
+        assertExchange("3r4/4P3/8/8/8/8/k7/4K3 w - - 0 1", "e7e8q", -100);
+        assertExchange("3r4/4P3/8/8/8/8/k7/4K3 w - - 0 1", "e7d8q", 1300);
+    }
+
+    @Test
+    public void evaluateMadeTest() {
+        testGame.setBoardFEN("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1");
+
+        for (Move move: testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn())) {
+            int exchange = testEvaluator.evaluate(testGame.getBoard(), move);
+
+            testGame.makeMove(move);
+            assertEquals(exchange, testEvaluator.evaluateMade(testGame.getBoard(), move), move.formatUciMove());
+            testGame.undoMove(move);
+        }
+    }
+
+    private void assertExchange(String fen, String uciMove, int expected) {
+        testGame.setBoardFEN(fen);
+
+        for (Move move: testGame.getMoveGenerator().generateLegalMoves(testGame, testGame.getCurrentTurn())) {
+            if (move.formatUciMove().equals(uciMove)) {
+                assertEquals(expected, testEvaluator.evaluate(testGame.getBoard(), move), uciMove);
+                return;
+            }
+        }
+
+        fail("no legal move " + uciMove + " in " + fen);
+    }
+}
@@ -6,7 +6,6 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -24,29 +23,29 @@ public class ThreatMapGeneratorTest {
     public void whiteThreatMapGeneratorTest() {
         testGame.setBoardFEN("rnbqkbnr/pppppppp/8/8/1P1Q4/5N2/PBPPPPPP/RN2KB1R w KQkq - 0 1");
 
-        Set<Integer> whiteThreatMap = testThreatMapGenerator.generateWhiteThreatMap(testGame);
+        long whiteThreatMap = testThreatMapGenerator.generateWhiteThreatMap(testGame);
 
         List<String> list = new ArrayList<>();
-        for (Integer index: whiteThreatMap) {
-            list.add(Board.getChessNotation(index));
+        for (long squares = whiteThreatMap; squares != 0; squares &= squares - 1) {
+            list.add(Board.getChessNotation(Bitboard.firstSquare(squares)));
         }
         System.out.println(list);
 
-        assertEquals(40, whiteThreatMap.size());
+        assertEquals(40, Bitboard.count(whiteThreatMap));
     }
 
     @Test
     public void blackThreatMapGeneratorTest() {
         testGame.setBoardFEN("rnb1kbnr/pppppppp/8/2q5/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1");
 
-        Set<Integer> blackThreatMap = testThreatMapGenerator.generateBlackThreatMap(testGame);
+        long blackThreatMap = testThreatMapGenerator.generateBlackThreatMap(testGame);
 
         List<String> coordinateList = new ArrayList<>();
-        for (Integer index: blackThreatMap) {
-            coordinateList.add(Board.getChessNotation(index));
+        for (long squares = blackThreatMap; squares != 0; squares &= squares - 1) {
+            coordinateList.add(Board.getChessNotation(Bitboard.firstSquare(squares)));
         }
         System.out.println(coordinateList);
 
-        assertEquals(35, blackThreatMap.size());
+        assertEquals(35, Bitboard.count(blackThreatMap));
     }
 }
\ No newline at end of file
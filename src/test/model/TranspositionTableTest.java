@@ -0,0 +1,43 @@
+package model;
+
+import model.search.Search;
+import model.search.TranspositionTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+    private TranspositionTable testTable;
+
+    @BeforeEach
+    public void init() {
+        testTable = new TranspositionTable(1);
+    }
+
+    @Test
+    public void storeProbeTest() {
+        testTable.store(42, 3, 2, 1.5, TranspositionTable.LOWER_BOUND, 77);
+        int index = testTable.probe(42);
+
+        assertTrue(index >= 0);
+        assertEquals(1.5, testTable.getScore(index, 5));
+        assertEquals(3, testTable.getDepth(index));
+        assertEquals(TranspositionTable.LOWER_BOUND, testTable.getBoundType(index));
+        assertEquals(77, testTable.getMoveCode(index));
+        assertTrue(testTable.probe(43) < 0);
+    }
+
+    @Test
+    public void distanceScoreTest() {
+        // a mate or tablebase win found 6 plies from the root, stored at ply 4, is 2 plies from that position, so it
+        // is 3 plies from the root when the position is reached again at ply 1
+        testTable.store(1, 2, 4, Search.MATE_SCORE - 6, TranspositionTable.EXACT, 0);
+        testTable.store(2, 2, 4, Search.TABLEBASE_WIN_SCORE - 6, TranspositionTable.EXACT, 0);
+        testTable.store(3, 2, 4, -Search.TABLEBASE_WIN_SCORE + 6, TranspositionTable.EXACT, 0);
+
+        assertEquals(Search.MATE_SCORE - 3, testTable.getScore(testTable.probe(1), 1));
+        assertEquals(Search.TABLEBASE_WIN_SCORE - 3, testTable.getScore(testTable.probe(2), 1));
+        assertEquals(-Search.TABLEBASE_WIN_SCORE + 3, testTable.getScore(testTable.probe(3), 1));
+    }
+}
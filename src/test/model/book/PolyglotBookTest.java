@@ -0,0 +1,179 @@
+package model.book;
+
+import enumerations.BookSelection;
+import model.FenUtility;
+import model.Game;
+import model.Move;
+import model.PolyglotZobrist;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolyglotBookTest {
+    private static final String CASTLING_FEN = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+    private static final String PROMOTION_FEN = "7k/P7/8/8/8/8/8/K7 w - - 0 1";
+
+    private Path testFile;
+    private Game testGame;
+
+    @BeforeEach
+    public void init() throws IOException {
+        testFile = Files.createTempFile("book", ".bin");
+        testGame = new Game();
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(testFile);
+    }
+
+    /**
+     * Return the key of the position of the given FEN string
+     */
+    private static long key(String fen) {
+        Game game = new Game();
+        game.setBoardFEN(fen);
+        return PolyglotZobrist.calculateKey(game);
+    }
+
+    /**
+     * Return the book encoding of the given UCI move, written as a castling king capturing its rook
+     */
+    private static int move(String uciMove) {
+        int move = (uciMove.charAt(2) - 'a') | (uciMove.charAt(3) - '1') << 3 | (uciMove.charAt(0) - 'a') << 6 |
+                (uciMove.charAt(1) - '1') << 9;
+
+        if (uciMove.length() == 5) {
+            move |= ("nbrq".indexOf(uciMove.charAt(4)) + 1) << 12;
+        }
+
+        return move;
+    }
+
+    /**
+     * Write the given entries to the test file sorted by unsigned key, keeping the given order for equal keys
+     */
+    private void writeBook(List<PolyglotEntry> entries) throws IOException {
+        List<PolyglotEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(PolyglotEntry::getKey, Long::compareUnsigned));
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.size() * PolyglotBook.ENTRY_SIZE);
+
+        for (PolyglotEntry entry: sorted) {
+            buffer.putLong(entry.getKey()).putShort((short) entry.getMove()).putShort((short) entry.getWeight())
+                    .putInt(entry.getLearn());
+        }
+
+        Files.write(testFile, buffer.array());
+    }
+
+    private void writeTestBook() throws IOException {
+        long start = key(FenUtility.START_GAME_FEN);
+        List<PolyglotEntry> entries = new ArrayList<>();
+
+        // keys on both sides of the start position, including ones that are negative as signed numbers
+        entries.add(new PolyglotEntry(0x0000000000000001L, move("a2a3"), 1, 0));
+        entries.add(new PolyglotEntry(start - 1, move("a2a3"), 1, 0));
+        entries.add(new PolyglotEntry(start, move("e2e4"), 10, 0));
+        entries.add(new PolyglotEntry(start, move("d2d4"), 30, 0));
+        entries.add(new PolyglotEntry(start, move("g1f3"), 0, 0));
+        entries.add(new PolyglotEntry(start + 1, move("a2a3"), 1, 0));
+        entries.add(new PolyglotEntry(0xFFFFFFFFFFFFFFFFL, move("a2a3"), 1, 0));
+        entries.add(new PolyglotEntry(key(CASTLING_FEN), move("e1h1"), 5, 0));
+        entries.add(new PolyglotEntry(key(PROMOTION_FEN), move("a7a8n"), 5, 0));
+
+        writeBook(entries);
+    }
+
+    @Test
+    public void getEntriesTest() throws IOException {
+        writeTestBook();
+
+        try (PolyglotBook book = new PolyglotBook(testFile)) {
+            assertEquals(9, book.size());
+
+            List<PolyglotEntry> entries = book.getEntries(testGame);
+            assertEquals(3, entries.size());
+            assertEquals("e2e4", entries.get(0).formatMove());
+            assertEquals(10, entries.get(0).getWeight());
+            assertEquals("d2d4", entries.get(1).formatMove());
+            assertEquals("g1f3", entries.get(2).formatMove());
+
+            assertTrue(book.getEntries(0x1234L).isEmpty());
+            assertEquals(1, book.getEntries(0xFFFFFFFFFFFFFFFFL).size());
+        }
+    }
+
+    @Test
+    public void selectionTest() throws IOException {
+        writeTestBook();
+
+        try (PolyglotBook book = new PolyglotBook(testFile)) {
+            assertEquals("d2d4", book.getBestMove(testGame).formatUciMove());
+
+            Random random = new Random(1);
+            int d4 = 0;
+            for (int i = 0; i < 1000; i++) {
+                String move = book.getWeightedMove(testGame, random).formatUciMove();
+                assertNotEquals("g1f3", move);
+                d4 += move.equals("d2d4") ? 1 : 0;
+            }
+            assertTrue(d4 > 650 && d4 < 850);
+
+            book.setSelection(BookSelection.BEST_WEIGHT);
+            Move move = book.getMove(testGame);
+            assertTrue(testGame.playMove(move));
+
+            assertNull(book.getMove(testGame));
+        }
+    }
+
+    @Test
+    public void specialMovesTest() throws IOException {
+        writeTestBook();
+
+        try (PolyglotBook book = new PolyglotBook(testFile)) {
+            testGame.setBoardFEN(CASTLING_FEN);
+            Move castle = book.getBestMove(testGame);
+            assertTrue(castle.isKingSideCastleMove());
+            assertEquals("e1g1", castle.formatUciMove());
+            assertEquals(move("e1h1"), PolyglotBook.encodeMove(castle));
+
+            testGame.setBoardFEN(PROMOTION_FEN);
+            Move promotion = book.getBestMove(testGame);
+            assertEquals("a7a8n", promotion.formatUciMove());
+            assertEquals(move("a7a8n"), PolyglotBook.encodeMove(promotion));
+        }
+    }
+
+    @Test
+    public void playComputerMoveTest() throws IOException {
+        writeTestBook();
+
+        try (PolyglotBook book = new PolyglotBook(testFile)) {
+            book.setSelection(BookSelection.BEST_WEIGHT);
+            testGame.setOpeningBook(book);
+
+            assertEquals("d2d4", testGame.playComputerMove().formatUciMove());
+            // out of book, the move is searched
+            assertNotNull(testGame.playComputerMove());
+        }
+    }
+
+    @Test
+    public void invalidFileTest() throws IOException {
+        Files.write(testFile, new byte[PolyglotBook.ENTRY_SIZE + 1]);
+
+        assertThrows(IOException.class, () -> new PolyglotBook(testFile));
+    }
+}
@@ -0,0 +1,127 @@
+package model.evaluation;
+
+import model.Game;
+import model.search.Evaluation;
+import model.search.EvaluationParameters;
+import model.search.Search;
+import model.search.SearchLimits;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TermEvaluatorTest {
+    private static final String[] FENS = {"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r1bnkb1r/1p3p1p/p3pp2/8/P1P2P2/1Bp2N2/1PP3PP/R1B1K2R w KQkq - 0 13",
+            "r3k2r/p4p1p/2Rp1p2/q7/4P3/8/P1Q2PPP/1R4K1 b kq - 1 20",
+            "rn2k2r/pbpp1ppp/1p2p3/4P1N1/3PB3/8/P1PB1P1R/R2nK3 w Qkq - 0 15"};
+
+    @Test
+    public void standardTest() {
+        TermEvaluator evaluator = TermEvaluator.standard(new EvaluationParameters());
+        Evaluation evaluation = new Evaluation(new EvaluationParameters());
+        Game game = new Game();
+
+        assertEquals(List.of(MaterialTerm.NAME, MobilityTerm.NAME, PawnStructureTerm.NAME, PieceSquareTerm.NAME,
+                KingSafetyTerm.NAME), evaluator.getTermNames());
+        assertFalse(evaluator.isEnabled(PieceSquareTerm.NAME));
+        assertFalse(evaluator.isEnabled(KingSafetyTerm.NAME));
+
+        for (String fen: FENS) {
+            game.setBoardFEN(fen);
+            assertEquals(evaluation.evaluatePosition(game), evaluator.evaluate(game));
+        }
+    }
+
+    @Test
+    public void enableTest() {
+        TermEvaluator evaluator = TermEvaluator.standard(new EvaluationParameters());
+        Game game = new Game();
+        game.setBoardFEN("rnbqk2r/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1");
+
+        evaluator.enableOnly(MaterialTerm.NAME);
+        assertEquals(-6.2, evaluator.evaluate(game));
+        assertFalse(evaluator.isEnabled(MobilityTerm.NAME));
+
+        evaluator.setEnabled(MaterialTerm.NAME, false);
+        assertEquals(0, evaluator.evaluate(game), 0);
+
+        // an unknown name leaves every term as it was
+        assertThrows(IllegalArgumentException.class, () -> evaluator.enableOnly(MobilityTerm.NAME, "tempo"));
+        assertFalse(evaluator.isEnabled(MobilityTerm.NAME));
+        assertThrows(IllegalArgumentException.class, () -> evaluator.setEnabled("tempo", true));
+        assertThrows(IllegalArgumentException.class, () -> evaluator.register(new PieceSquareTerm(), true));
+    }
+
+    @Test
+    public void termsTest() {
+        Game game = new Game();
+        PieceSquareTerm pieceSquare = new PieceSquareTerm();
+        KingSafetyTerm kingSafety = new KingSafetyTerm();
+
+        // symmetric positions score nothing
+        assertEquals(0, pieceSquare.evaluate(game));
+        assertEquals(0, kingSafety.evaluate(game));
+
+        // a centralised knight against one on the rim
+        game.setBoardFEN("4k3/8/8/8/3N4/8/8/n3K3 w - - 0 1");
+        assertTrue(pieceSquare.evaluate(game) > 0);
+
+        // a king shielded by three pawns against a bare one, then the same without black's queen, where only black's
+        // king counts, then a bare king next to a square the queen attacks, where only white's king counts
+        game.setBoardFEN("3q2k1/5ppp/8/8/8/8/8/3Q2K1 w - - 0 1");
+        assertEquals(-0.3, kingSafety.evaluate(game), 1e-9);
+        game.setBoardFEN("6k1/5ppp/8/8/8/8/8/3Q2K1 w - - 0 1");
+        assertEquals(-0.3, kingSafety.evaluate(game), 1e-9);
+        game.setBoardFEN("r4rk1/5ppp/8/8/8/8/8/q4RK1 w - - 0 1");
+        assertEquals(-0.05, kingSafety.evaluate(game), 1e-9);
+    }
+
+    @Test
+    public void profilingTest() throws InterruptedException {
+        TermEvaluator evaluator = TermEvaluator.standard(new EvaluationParameters());
+        Game game = new Game();
+
+        evaluator.evaluate(game);
+        assertEquals(0, evaluator.getCalls(MaterialTerm.NAME));
+
+        evaluator.setProfiling(true);
+        game.setBoardFEN("rnbqk2r/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        evaluator.evaluate(game);
+        assertEquals(1, evaluator.getCalls(MaterialTerm.NAME));
+        assertEquals(1, evaluator.getHits(MaterialTerm.NAME));
+        assertEquals(0, evaluator.getCalls(PieceSquareTerm.NAME));
+
+        // searches on several threads share the evaluator and its counters
+        evaluator.resetCounters();
+        List<Thread> threads = new ArrayList<>();
+        long[] nodes = new long[4];
+
+        for (int i = 0; i < nodes.length; i++) {
+            int index = i;
+            threads.add(new Thread(() -> {
+                Search search = new Search();
+                search.setEvaluator(evaluator);
+                Game searched = new Game();
+                searched.setBoardFEN(FENS[index]);
+                search.search(searched, SearchLimits.depth(3), null);
+                nodes[index] = search.getNodes();
+            }));
+        }
+
+        for (Thread thread: threads) {
+            thread.start();
+        }
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        long calls = evaluator.getCalls(MaterialTerm.NAME);
+        assertTrue(calls > 0);
+        assertEquals(calls, evaluator.getCalls(MobilityTerm.NAME));
+        assertTrue(evaluator.getNanos(MobilityTerm.NAME) > 0);
+        assertTrue(evaluator.report().contains(PawnStructureTerm.NAME));
+    }
+}
@@ -0,0 +1,180 @@
+package model.nnue;
+
+import model.Game;
+import model.Move;
+import model.search.Search;
+import model.search.SearchLimits;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NnueNetworkTest {
+    private static final int[] PIECE_VALUES = {1, 3, 3, 5, 9};
+
+    /**
+     * Return a network whose output is the material balance for the side to move, counting 1, 3, 3, 5 and 9 pawns for
+     * the pawns to queens: one accumulator neuron sums twice the side's own material and one the opponent's, and two
+     * hidden neurons take the positive and negative parts of their difference
+     */
+    public static NnueNetwork materialNetwork() {
+        short[] featureWeights = new short[NnueNetwork.FEATURES * 2];
+
+        for (int feature = 0; feature < NnueNetwork.FEATURES; feature++) {
+            int pieceType = feature / 64 % NnueNetwork.PIECE_TYPES;
+            int value = 2 * PIECE_VALUES[pieceType % 5];
+            featureWeights[2 * feature + (pieceType < 5 ? 0 : 1)] = (short) value;
+        }
+
+        short[] hiddenWeights = {64, -64, 0, 0, -64, 64, 0, 0};
+        short[] outputWeights = {8 * 100, -8 * 100};
+
+        return new NnueNetwork(2, 2, new short[2], featureWeights, hiddenWeights, new int[2], outputWeights, 0);
+    }
+
+    private static NnueNetwork randomNetwork(long seed) {
+        Random random = new Random(seed);
+        int accumulatorSize = 8;
+        int hiddenSize = 4;
+        short[] featureBiases = new short[accumulatorSize];
+        short[] featureWeights = new short[NnueNetwork.FEATURES * accumulatorSize];
+        short[] hiddenWeights = new short[hiddenSize * 2 * accumulatorSize];
+        int[] hiddenBiases = new int[hiddenSize];
+        short[] outputWeights = new short[hiddenSize];
+
+        for (int i = 0; i < featureBiases.length; i++) {
+            featureBiases[i] = (short) (random.nextInt(64));
+        }
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(33) - 16);
+        }
+        for (int i = 0; i < hiddenWeights.length; i++) {
+            hiddenWeights[i] = (short) (random.nextInt(129) - 64);
+        }
+        for (int i = 0; i < hiddenSize; i++) {
+            hiddenBiases[i] = random.nextInt(1024);
+            outputWeights[i] = (short) (random.nextInt(401) - 200);
+        }
+
+        return new NnueNetwork(accumulatorSize, hiddenSize, featureBiases, featureWeights, hiddenWeights, hiddenBiases,
+                outputWeights, random.nextInt(100));
+    }
+
+    @Test
+    public void featureIndexTest() {
+        // the white king on e1 sees a white pawn on e2, and the black king on e8 sees the same black pawn on its e2
+        assertEquals((4 * NnueNetwork.PIECE_TYPES) * 64 + 12, NnueNetwork.featureIndex(true, 4, 1, 12));
+        assertEquals(NnueNetwork.featureIndex(true, 4, 1, 12), NnueNetwork.featureIndex(false, 60, -1, 52));
+        assertEquals((4 * NnueNetwork.PIECE_TYPES + 9) * 64 + 59, NnueNetwork.featureIndex(true, 4, -5, 59));
+        assertEquals(-1, NnueNetwork.featureIndex(true, 4, 6, 4));
+        assertEquals(-1, NnueNetwork.featureIndex(false, 4, 0, 20));
+    }
+
+    @Test
+    public void materialTest() {
+        NnueEvaluation evaluation = new NnueEvaluation(materialNetwork());
+        Game game = new Game();
+
+        assertEquals(0, evaluation.evaluate(game));
+
+        game.setBoardFEN("rnbqk2r/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertEquals(6, evaluation.evaluate(game));
+
+        game.setBoardFEN("7k/7p/8/5p2/8/1N5P/5PPK/q1r5 b - - 0 38");
+        assertEquals(10, evaluation.evaluate(game));
+    }
+
+    @Test
+    public void incrementalTest() {
+        NnueNetwork network = randomNetwork(7);
+        NnueAccumulator accumulator = new NnueAccumulator(network);
+        NnueAccumulator fresh = new NnueAccumulator(network);
+        Random random = new Random(11);
+
+        // random games with their moves undone again, through castling, promotions and en passant captures
+        for (String fen: new String[]{"r3k2r/pPppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"}) {
+            Game game = new Game();
+            game.setBoardFEN(fen);
+            game.getBoard().setAccumulator(accumulator);
+            List<Move> played = new ArrayList<>();
+
+            for (int ply = 0; ply < 80; ply++) {
+                List<Move> moves = game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn());
+                if (moves.isEmpty()) {
+                    break;
+                }
+
+                Move move = moves.get(random.nextInt(moves.size()));
+                game.makeMove(move);
+                played.add(move);
+                assertConsistent(game, accumulator, fresh);
+            }
+
+            for (int i = played.size() - 1; i >= 0; i--) {
+                game.undoMove(played.get(i));
+                assertConsistent(game, accumulator, fresh);
+            }
+
+            game.getBoard().setAccumulator(null);
+        }
+
+        assertThrows(IllegalStateException.class, () -> accumulator.pop());
+    }
+
+    private static void assertConsistent(Game game, NnueAccumulator accumulator, NnueAccumulator fresh) {
+        fresh.refresh(game.getBoard().getBoard());
+        assertArrayEquals(fresh.getWhiteAccumulator(), accumulator.getWhiteAccumulator());
+        assertArrayEquals(fresh.getBlackAccumulator(), accumulator.getBlackAccumulator());
+
+        boolean whiteToMove = game.getCurrentTurn().isWhite();
+        assertEquals(fresh.evaluate(whiteToMove), accumulator.evaluate(whiteToMove));
+    }
+
+    @Test
+    public void fileTest() throws IOException {
+        Path file = Files.createTempFile("network", ".nnue");
+
+        try {
+            NnueNetwork network = randomNetwork(3);
+            network.save(file);
+            NnueNetwork loaded = NnueNetwork.load(file);
+
+            assertEquals(network.getAccumulatorSize(), loaded.getAccumulatorSize());
+            assertEquals(network.getHiddenSize(), loaded.getHiddenSize());
+
+            Game game = new Game();
+            game.setBoardFEN("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+            assertEquals(new NnueEvaluation(network).evaluate(game),
+                    new NnueEvaluation(loaded).evaluate(game));
+
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+            assertThrows(IOException.class, () -> NnueNetwork.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new NnueNetwork(2, 2, new short[2], new short[3],
+                new short[8], new int[2], new short[2], 0));
+    }
+
+    @Test
+    public void searchTest() {
+        Search search = new Search();
+        search.setNetwork(materialNetwork());
+        Game game = new Game();
+        game.setBoardFEN("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+
+        Move move = search.search(game, SearchLimits.depth(3), null);
+        assertEquals("d1d5", move.formatUciMove());
+        assertTrue(search.getLastInfo().getScore() > 4);
+        assertNull(game.getBoard().getAccumulator());
+        assertEquals(0, game.getBoard().getMoveList().size());
+    }
+}
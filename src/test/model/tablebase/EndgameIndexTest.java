@@ -0,0 +1,79 @@
+package model.tablebase;
+
+import model.Game;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameIndexTest {
+    private static int[] board(String fen) {
+        Game game = new Game();
+        game.setBoardFEN(fen);
+        return game.getBoard().getBoard();
+    }
+
+    @Test
+    public void sizeTest() {
+        assertEquals(2 * 10 * 64 * 64, new EndgameIndex("KQvK").size());
+        assertEquals(2 * 32 * 64 * 64, new EndgameIndex("KPvK").size());
+        assertEquals(4, new EndgameIndex("KRvKB").getPieceCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new EndgameIndex("KQ"));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameIndex("KRQvK"));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameIndex("KQRBvKN"));
+    }
+
+    @Test
+    public void roundTripTest() {
+        for (String signature: new String[]{"KQvK", "KPvK", "KNNvK"}) {
+            EndgameIndex index = new EndgameIndex(signature);
+            int[] board = new int[64];
+
+            for (int position = 0; position < index.size(); position += 7) {
+                if (index.decode(position, board)) {
+                    boolean whiteToMove = index.isWhiteToMove(position);
+                    int canonical = index.encode(board, whiteToMove);
+
+                    assertEquals(whiteToMove, index.isWhiteToMove(canonical));
+                    assertTrue(index.decode(canonical, board));
+                    assertEquals(canonical, index.encode(board, whiteToMove));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void symmetryTest() {
+        EndgameIndex queen = new EndgameIndex("KQvK");
+        int position = queen.encode(board("8/8/3k4/8/8/8/8/Q6K w - - 0 1"), true);
+
+        // mirrored in the middle file, the middle rank and the long diagonal
+        assertEquals(position, queen.encode(board("8/8/4k3/8/8/8/8/K6Q w - - 0 1"), true));
+        assertEquals(position, queen.encode(board("Q6K/8/8/8/8/3k4/8/8 w - - 0 1"), true));
+        assertEquals(position, queen.encode(board("K7/8/8/8/5k2/8/8/Q7 w - - 0 1"), true));
+        assertNotEquals(position, queen.encode(board("8/8/3k4/8/8/8/8/Q6K b - - 0 1"), false));
+
+        // pawns only allow the mirror in the middle file
+        EndgameIndex pawn = new EndgameIndex("KPvK");
+        assertEquals(pawn.encode(board("4k3/8/8/8/8/8/P7/K7 w - - 0 1"), true),
+                pawn.encode(board("3k4/8/8/8/8/8/7P/7K w - - 0 1"), true));
+        assertNotEquals(pawn.encode(board("4k3/8/8/8/8/8/P7/K7 w - - 0 1"), true),
+                pawn.encode(board("K7/P7/8/8/8/8/8/4k3 w - - 0 1"), true));
+
+        assertEquals(-1, queen.encode(board("4k3/8/8/8/8/8/8/3RK3 w - - 0 1"), true));
+    }
+
+    @Test
+    public void signatureTest() {
+        assertEquals("KRP", EndgameIndex.material(board("4k3/8/8/8/8/8/P7/K6R w - - 0 1"), true));
+        assertEquals("K", EndgameIndex.material(board("4k3/8/8/8/8/8/P7/K6R w - - 0 1"), false));
+
+        assertTrue(EndgameIndex.compareSides("KQ", "KRR") < 0);
+        assertTrue(EndgameIndex.compareSides("KBP", "KB") > 0);
+        assertTrue(EndgameIndex.compareSides("KB", "KN") > 0);
+        assertEquals(0, EndgameIndex.compareSides("KR", "KR"));
+
+        assertEquals("KQvK", EndgameIndex.canonicalSignature("K", "KQ"));
+        assertEquals("KRvKB", EndgameIndex.canonicalSignature("KB", "KR"));
+    }
+}
@@ -0,0 +1,179 @@
+package model.tablebase;
+
+import model.Game;
+import model.Move;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class SyzygyTablebaseTest {
+    private Path directory;
+
+    @BeforeEach
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("syzygy");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file: (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Write a KQvK table whose every position has the same value: a WDL table with a value for each side to move, or a
+     * DTZ table of white to move only
+     */
+    private void writeSingleValueTable(boolean dtz, int... values) throws IOException {
+        byte[] table = new byte[64 + 16];
+        int offset = 0;
+
+        byte[] magic = dtz ? new byte[]{0x71, (byte) 0xE8, 0x23, 0x5D} : new byte[]{(byte) 0xD7, 0x66, 0x0C, (byte) 0xA5};
+        for (byte b: magic) {
+            table[offset++] = b;
+        }
+
+        table[offset++] = (byte) (dtz ? 0 : 1); // split by side to move, no pawns
+        table[offset++] = 0; // order of the single group
+        table[offset++] = 0x66; // white king, for either side to move
+        table[offset++] = 0x55; // white queen
+        table[offset++] = (byte) 0xEE; // black king
+        offset++; // word alignment
+
+        for (int value: values) {
+            table[offset++] = (byte) 0x80;
+            table[offset++] = (byte) value;
+        }
+
+        Files.write(directory.resolve(dtz ? "KQvK.rtbz" : "KQvK.rtbw"), table);
+    }
+
+    private static Game game(String fen) {
+        Game game = new Game();
+        game.setBoardFEN(fen);
+        return game;
+    }
+
+    @Test
+    public void encodingTablesTest() {
+        Set<Integer> kingCodes = new HashSet<>();
+        for (int index = 0; index < 10; index++) {
+            for (int square = 0; square < 64; square++) {
+                kingCodes.add(SyzygyTable.MAP_KK[index][square]);
+            }
+        }
+        assertEquals(462, kingCodes.size());
+
+        Set<Integer> pawnCodes = new HashSet<>();
+        for (int square = 8; square < 56; square++) {
+            pawnCodes.add(SyzygyTable.MAP_PAWNS[square]);
+        }
+        assertEquals(48, pawnCodes.size());
+        assertEquals(47, SyzygyTable.MAP_PAWNS[8]); // a2
+
+        for (int file = 0; file < 4; file++) {
+            assertEquals(6, SyzygyTable.LEAD_PAWNS_SIZE[1][file]);
+        }
+
+        assertEquals(0, SyzygyTable.MAP_A1D1D4[1]); // b1
+        assertEquals(9, SyzygyTable.MAP_A1D1D4[27]); // d4
+        assertEquals(27, SyzygyTable.MAP_B1H1H7[55]); // h7
+        assertEquals(20, SyzygyTable.BINOMIAL[3][6]);
+    }
+
+    @Test
+    public void probeWdlTest() throws IOException {
+        writeSingleValueTable(false, 4, 0);
+        SyzygyTablebase tablebase = new SyzygyTablebase(directory.toString());
+
+        assertEquals(1, tablebase.getTableCount());
+        assertEquals(3, tablebase.getMaxPieces());
+
+        assertEquals(Tablebase.WIN, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+        assertEquals(Tablebase.LOSS, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3QK3 b - - 0 1")));
+        // black's queen is looked up with the colors swapped
+        assertEquals(Tablebase.LOSS, tablebase.probeWdl(game("3qk3/8/8/8/8/8/8/4K3 w - - 0 1")));
+        // the queen can be captured, leaving two bare kings
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/3Q4/8/8/8/8/8/4K3 b - - 0 1")));
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/4K3 w - - 0 1")));
+
+        assertEquals(Tablebase.UNKNOWN, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3RK3 w - - 0 1")));
+        assertFalse(tablebase.covers(game("4k3/8/8/8/8/8/8/2RQK3 w - - 0 1")));
+
+        tablebase.setProbeLimit(2);
+        assertFalse(tablebase.covers(game("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+    }
+
+    @Test
+    public void probeDtzTest() throws IOException {
+        writeSingleValueTable(false, 4, 0);
+        writeSingleValueTable(true, 9);
+        SyzygyTablebase tablebase = new SyzygyTablebase(directory.toString());
+
+        // 9 moves are stored as 18 plies, counted as 19 plies to the zeroing move
+        assertEquals(19, tablebase.probeDtz(game("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+        // black to move is not stored, so it is found one ply further away
+        assertEquals(-20, tablebase.probeDtz(game("4k3/8/8/8/8/8/8/3QK3 b - - 0 1")));
+        assertEquals(0, tablebase.probeDtz(game("4k3/3Q4/8/8/8/8/8/4K3 b - - 0 1")));
+
+        // the root move keeps the win rather than giving the queen away
+        Game game = game("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        Move move = tablebase.probeRoot(game);
+        assertNotNull(move);
+        game.playMove(move);
+        assertEquals(Tablebase.LOSS, tablebase.probeWdl(game));
+    }
+
+    @Test
+    public void invalidTableTest() throws IOException {
+        Files.write(directory.resolve("KQvK.rtbw"), new byte[80]);
+        Files.write(directory.resolve("KQvX.rtbw"), new byte[80]);
+        SyzygyTablebase tablebase = new SyzygyTablebase(directory.toString());
+
+        assertEquals(1, tablebase.getTableCount());
+        assertEquals(Tablebase.UNKNOWN, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+        assertNull(tablebase.probeRoot(game("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+
+        assertThrows(IOException.class, () -> new SyzygyTablebase(directory.resolve("missing").toString()));
+    }
+
+    /**
+     * Probe real tables, if the SYZYGY_PATH environment variable names a directory holding at least the 3 and 4 piece
+     * tables
+     */
+    @Test
+    public void realTablesTest() throws IOException {
+        String path = System.getenv("SYZYGY_PATH");
+        assumeTrue(path != null && !path.isBlank());
+
+        SyzygyTablebase tablebase = new SyzygyTablebase(path);
+        assumeTrue(tablebase.getMaxPieces() >= 4);
+
+        assertEquals(Tablebase.WIN, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+        assertEquals(Tablebase.LOSS, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3QK3 b - - 0 1")));
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/3BK3 w - - 0 1")));
+        assertEquals(Tablebase.WIN, tablebase.probeWdl(game("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")));
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/8/8/8/8/8/P7/K7 b - - 0 1")));
+        // stalemate
+        assertEquals(Tablebase.DRAW, tablebase.probeWdl(game("4k3/4P3/4K3/8/8/8/8/8 b - - 0 1")));
+        assertEquals(Tablebase.LOSS, tablebase.probeWdl(game("4k3/8/8/8/8/8/8/2BNK3 b - - 0 1")));
+
+        // Qa8 mates at once
+        Game game = game("7k/8/6K1/8/8/8/8/Q7 w - - 0 1");
+        assertEquals(1, tablebase.probeDtz(game));
+        assertEquals("a1a8", tablebase.probeRoot(game).formatUciMove());
+    }
+}
@@ -0,0 +1,112 @@
+package pgn;
+
+import enumerations.GameStatus;
+import model.Board;
+import model.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnReaderTest {
+    private static final String OPERA_GAME =
+            "% escape lines are ignored\n" +
+            "[Event \"Paris \\\"Opera\\\" game\"]\n" +
+            "[Site \"Paris FRA\"]\n" +
+            "[Date \"1858.??.??\"]\n" +
+            "[Round \"?\"]\n" +
+            "[White \"Morphy, Paul\"]\n" +
+            "[Black \"Duke Karl / Count Isouard\"]\n" +
+            "[Result \"1-0\"]\n" +
+            "\n" +
+            "1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3 5. Qxf3 dxe5\n" +
+            "6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 (8. Qxb7 Qb4+ 9. Qxb4 Bxb4+ (9... Nbd7)) c6 9. Bg5 $4 b5 ; rest of line\n" +
+            "10.Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 14. Rd1 Qe6 15. Bxd7+ Nxd7\n" +
+            "16. Qb8+! Nxb8 17. Rd8# 1-0\n" +
+            "\n";
+
+    private static PgnReader reader(String pgn) {
+        return new PgnReader(new StringReader(pgn));
+    }
+
+    @Test
+    public void readGameTest() throws IOException {
+        PgnReader testReader = reader(OPERA_GAME);
+        PgnGame game = testReader.next();
+
+        assertEquals(0, game.getNumber());
+        assertEquals("Paris \"Opera\" game", game.getTag("Event"));
+        assertEquals("Morphy, Paul", game.getTag("White"));
+        assertEquals("1858.??.??", game.getTag("Date"));
+        assertEquals(PgnGame.WHITE_WIN, game.getResult());
+
+        assertNull(game.getError());
+        assertEquals(33, game.getSanMoves().size());
+        assertEquals(33, game.getMoves().size());
+        assertEquals("Nxb5", game.getSanMoves().get(18));
+        assertEquals("Rd8#", game.getSanMoves().get(32));
+
+        Board board = game.getGame().getBoard();
+        assertEquals(Piece.wRook, board.getPiece(4, 8));
+        assertEquals(Piece.bKing, board.getPiece(5, 8));
+        assertEquals(GameStatus.WHITE_CHECKMATE, game.getGame().getGameStatus());
+
+        assertNull(testReader.next());
+        assertEquals(1, testReader.getGamesRead());
+    }
+
+    @Test
+    public void readSeveralGamesTest() throws IOException {
+        String pgn = OPERA_GAME +
+                "[Event \"no result\"]\n\n1. d4 d5 2. c4\n" +
+                "[Event \"from a position\"]\n[FEN \"4k3/1P6/8/8/8/8/8/4K3 w - - 0 60\"]\n\n60. b8=Q+ Kd7 *\n" +
+                "1. e4 1/2-1/2\n";
+        PgnReader testReader = reader(pgn);
+
+        assertEquals("Morphy, Paul", testReader.next().getTag("White"));
+
+        PgnGame noResult = testReader.next();
+        assertEquals("no result", noResult.getTag("Event"));
+        assertEquals(3, noResult.getMoves().size());
+        assertEquals(PgnGame.UNKNOWN_RESULT, noResult.getResult());
+
+        PgnGame fromPosition = testReader.next();
+        assertEquals(2, fromPosition.getMoves().size());
+        assertEquals(Piece.wQueen, fromPosition.getGame().getBoard().getPiece(2, 8));
+
+        PgnGame noTags = testReader.next();
+        assertEquals(3, noTags.getNumber());
+        assertEquals(1, noTags.getMoves().size());
+        assertEquals(PgnGame.DRAW, noTags.getResult());
+
+        assertNull(testReader.next());
+    }
+
+    @Test
+    public void readIllegalMoveTest() throws IOException {
+        PgnReader testReader = reader("[Event \"illegal\"]\n\n1. e4 e5 2. Ke3 Nc6 1-0\n\n[Event \"next\"]\n\n1. d4 *\n");
+
+        PgnGame illegal = testReader.next();
+        assertEquals(4, illegal.getSanMoves().size());
+        assertEquals(2, illegal.getMoves().size());
+        assertEquals("move 3: illegal move: Ke3", illegal.getError());
+        assertEquals(PgnGame.WHITE_WIN, illegal.getResult());
+
+        PgnGame next = testReader.next();
+        assertEquals("next", next.getTag("Event"));
+        assertNull(next.getError());
+    }
+
+    @Test
+    public void readWithoutResolvingTest() throws IOException {
+        PgnReader testReader = reader(OPERA_GAME);
+        testReader.setResolveMoves(false);
+
+        PgnGame game = testReader.next();
+        assertEquals(33, game.getSanMoves().size());
+        assertTrue(game.getMoves().isEmpty());
+        assertNull(game.getGame());
+    }
+}
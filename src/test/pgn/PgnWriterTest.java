@@ -0,0 +1,78 @@
+package pgn;
+
+import model.Game;
+import model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnWriterTest {
+
+    private static String write(PgnGame game) throws IOException {
+        StringWriter output = new StringWriter();
+        PgnWriter testWriter = new PgnWriter(output);
+        testWriter.write(game);
+        testWriter.flush();
+        return output.toString();
+    }
+
+    @Test
+    public void writeGameTest() throws IOException {
+        Game game = new Game();
+        game.playMove(new Move(game, 6, 2, 6, 3));
+        game.playMove(new Move(game, 5, 7, 5, 5));
+        game.playMove(new Move(game, 7, 2, 7, 4));
+        game.playMove(new Move(game, 4, 8, 8, 4));
+
+        PgnGame pgnGame = PgnGame.fromGame(game);
+        pgnGame.setTag("White", "Engine");
+        pgnGame.setTag("Black", "Engine \"B\"");
+        pgnGame.setTag("PlyCount", "4");
+
+        assertEquals("[Event \"?\"]\n" +
+                "[Site \"?\"]\n" +
+                "[Date \"?\"]\n" +
+                "[Round \"?\"]\n" +
+                "[White \"Engine\"]\n" +
+                "[Black \"Engine \\\"B\\\"\"]\n" +
+                "[Result \"0-1\"]\n" +
+                "[PlyCount \"4\"]\n" +
+                "\n" +
+                "1. f3 e5 2. g4 Qh4# 0-1\n" +
+                "\n", write(pgnGame));
+    }
+
+    @Test
+    public void writeFromPositionTest() throws IOException {
+        PgnReader reader = new PgnReader(new StringReader(
+                "[FEN \"4k3/1P6/8/8/8/8/8/4K3 b - - 0 60\"]\n\n60... Kd7 61. b8=N+ Kc7 *\n"));
+
+        String pgn = write(reader.next());
+
+        assertTrue(pgn.endsWith("[FEN \"4k3/1P6/8/8/8/8/8/4K3 b - - 0 60\"]\n\n60... Kd7 61. b8=N+ Kc7 *\n\n"));
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        Game game = new Game();
+        for (int i = 0; i < 150 && game.getMoveGenerator().generateLegalMoves(game, game.getCurrentTurn()).size() > 0; i++) {
+            game.playRandomMove();
+        }
+
+        String pgn = write(PgnGame.fromGame(game));
+        PgnGame read = new PgnReader(new StringReader(pgn)).next();
+
+        assertNull(read.getError());
+        assertEquals(game.getBoard().getMoveList().size(), read.getMoves().size());
+        assertArrayEquals(game.getBoard().getBoard(), read.getGame().getBoard().getBoard());
+        assertEquals(pgn, write(read));
+
+        for (String line: pgn.split("\n")) {
+            assertTrue(line.length() <= 80);
+        }
+    }
+}
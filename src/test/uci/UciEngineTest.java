@@ -0,0 +1,206 @@
+package uci;
+
+import model.Game;
+import model.Piece;
+import model.PolyglotZobrist;
+import model.book.PolyglotBook;
+import model.nnue.NnueNetworkTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UciEngineTest {
+    private ByteArrayOutputStream output;
+    private UciEngine testEngine;
+
+    @BeforeEach
+    public void init() {
+        output = new ByteArrayOutputStream();
+        testEngine = new UciEngine(new ByteArrayInputStream(new byte[0]), new PrintStream(output));
+    }
+
+    @Test
+    public void uciHandshakeTest() {
+        testEngine.handleCommand("uci");
+        testEngine.handleCommand("isready");
+
+        String response = output.toString();
+        assertTrue(response.contains("id name " + UciEngine.ENGINE_NAME));
+        assertTrue(response.contains("option name Hash"));
+        assertTrue(response.contains("uciok"));
+        assertTrue(response.trim().endsWith("readyok"));
+    }
+
+    @Test
+    public void positionTest() {
+        testEngine.handleCommand("position startpos moves e2e4 e7e5 g1f3");
+        assertEquals(Piece.wPawn, testEngine.getGame().getBoard().getPiece(5, 4));
+        assertEquals(Piece.bPawn, testEngine.getGame().getBoard().getPiece(5, 5));
+        assertEquals(Piece.wKnight, testEngine.getGame().getBoard().getPiece(6, 3));
+        assertFalse(testEngine.getGame().getCurrentTurn().isWhite());
+
+        testEngine.handleCommand("position fen 7k/P7/8/8/8/8/8/K7 w - - 0 1 moves a7a8n");
+        assertEquals(Piece.wKnight, testEngine.getGame().getBoard().getPiece(1, 8));
+    }
+
+    @Test
+    public void setOptionTest() {
+        testEngine.handleCommand("setoption name Hash value 64");
+        testEngine.handleCommand("setoption name Threads value 2");
+        assertEquals(64, testEngine.getHashSize());
+        assertEquals(2, testEngine.getThreads());
+    }
+
+    @Test
+    public void syzygyPathTest() throws IOException {
+        Path directory = Files.createTempDirectory("syzygy");
+
+        try {
+            testEngine.handleCommand("setoption name SyzygyPath value " + directory);
+            assertNotNull(testEngine.getTablebase());
+            assertTrue(output.toString().contains("info string found 0 tablebases"));
+
+            testEngine.handleCommand("setoption name SyzygyProbeLimit value 5");
+            assertEquals(5, testEngine.getTablebase().getProbeLimit());
+
+            testEngine.handleCommand("setoption name SyzygyPath value <empty>");
+            assertNull(testEngine.getTablebase());
+
+            testEngine.handleCommand("setoption name SyzygyPath value " + directory.resolve("missing"));
+            assertNull(testEngine.getTablebase());
+            assertTrue(output.toString().contains("info string cannot open tablebases"));
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void endgamePathTest() throws IOException {
+        Path directory = Files.createTempDirectory("endgames");
+
+        try {
+            testEngine.handleCommand("setoption name EndgamePath value " + directory);
+            assertNotNull(testEngine.getEndgameTablebase());
+            assertTrue(output.toString().contains("info string found 0 endgame tables"));
+
+            testEngine.handleCommand("setoption name EndgamePath value <empty>");
+            assertNull(testEngine.getEndgameTablebase());
+
+            testEngine.handleCommand("setoption name EndgamePath value " + directory.resolve("missing"));
+            assertNull(testEngine.getEndgameTablebase());
+            assertTrue(output.toString().contains("info string cannot open endgame tables"));
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void evalFileTest() throws IOException {
+        Path file = Files.createTempFile("network", ".nnue");
+
+        try {
+            NnueNetworkTest.materialNetwork().save(file);
+            testEngine.handleCommand("setoption name EvalFile value " + file);
+            assertNotNull(testEngine.getNetwork());
+            assertTrue(output.toString().contains("info string loaded network"));
+
+            testEngine.handleCommand("position fen 4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+            testEngine.handleCommand("go depth 2");
+            assertTrue(awaitBestMove().contains("bestmove d1d5"));
+
+            testEngine.handleCommand("setoption name EvalFile value <empty>");
+            assertNull(testEngine.getNetwork());
+
+            testEngine.handleCommand("setoption name EvalFile value " + file.resolveSibling("missing.nnue"));
+            assertNull(testEngine.getNetwork());
+            assertTrue(output.toString().contains("info string cannot load network"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void goDepthTest() {
+        testEngine.handleCommand("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        testEngine.handleCommand("go depth 2");
+
+        String response = awaitBestMove();
+        assertTrue(response.contains("info depth 1"));
+        assertTrue(response.contains("score mate 1"));
+        assertTrue(response.contains("tbhits 0"));
+        assertTrue(response.contains("bestmove a1a8"));
+    }
+
+    @Test
+    public void multiPvTest() {
+        testEngine.handleCommand("setoption name MultiPV value 2");
+        assertEquals(2, testEngine.getMultiPv());
+
+        testEngine.handleCommand("position fen 4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        testEngine.handleCommand("go depth 2");
+
+        String response = awaitBestMove();
+        assertTrue(response.contains("info depth 2 multipv 1 "));
+        assertTrue(response.contains("info depth 2 multipv 2 "));
+        assertTrue(response.contains("bestmove d1d5"));
+    }
+
+    @Test
+    public void goInfiniteStopTest() {
+        testEngine.handleCommand("position startpos");
+        testEngine.handleCommand("go infinite");
+        assertFalse(output.toString().contains("bestmove"));
+
+        testEngine.handleCommand("stop");
+        assertTrue(output.toString().contains("bestmove "));
+    }
+
+    @Test
+    public void ownBookTest() throws IOException {
+        Path bookFile = Files.createTempFile("book", ".bin");
+
+        try {
+            // a single entry, b1c3 from the start position, which a search would not pick at depth 1
+            ByteBuffer entry = ByteBuffer.allocate(PolyglotBook.ENTRY_SIZE);
+            entry.putLong(PolyglotZobrist.calculateKey(new Game())).putShort((short) (2 | 2 << 3 | 1 << 6))
+                    .putShort((short) 1).putInt(0);
+            Files.write(bookFile, entry.array());
+
+            testEngine.handleCommand("setoption name BookFile value " + bookFile);
+            testEngine.handleCommand("setoption name OwnBook value true");
+            assertTrue(testEngine.isOwnBook());
+            assertEquals(1, testEngine.getBook().size());
+
+            testEngine.handleCommand("position startpos");
+            testEngine.handleCommand("go depth 1");
+            assertTrue(awaitBestMove().contains("bestmove b1c3"));
+
+            testEngine.handleCommand("setoption name BookFile value <empty>");
+            assertNull(testEngine.getBook());
+        } finally {
+            Files.deleteIfExists(bookFile);
+        }
+    }
+
+    /**
+     * Wait for the running search to report its best move and return everything the engine has written so far
+     */
+    private String awaitBestMove() {
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (!output.toString().contains("bestmove") && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        return output.toString();
+    }
+}